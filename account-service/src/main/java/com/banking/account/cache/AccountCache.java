@@ -0,0 +1,73 @@
+package com.banking.account.cache;
+
+import com.banking.account.model.Account;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of accounts keyed by account number. Entries are detached
+ * copies, so callers must not modify what they get back. Local writes refresh entries once
+ * their transaction commits; writes made by other instances arrive as Kafka events and
+ * invalidate entries, with the TTL as an upper bound on staleness if an event is missed.
+ */
+@Component
+public class AccountCache {
+    private final Cache<String, Account> cache;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${banking.account-cache.maximum-size:100000}") long maximumSize,
+                        @Value("${banking.account-cache.ttl:30s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    public Account get(String accountNumber, Function<String, Account> loader) {
+        return cache.get(accountNumber, key -> loader.apply(key).toBuilder().build());
+    }
+
+    public Account getIfPresent(String accountNumber) {
+        return cache.getIfPresent(accountNumber);
+    }
+
+    public void put(Account account) {
+        cache.put(account.getAccountNumber(), account.toBuilder().build());
+    }
+
+    public void putAfterCommit(Account account) {
+        afterCommit(() -> put(account));
+    }
+
+    public void invalidate(String accountNumber) {
+        cache.invalidate(accountNumber);
+    }
+
+    public void invalidateAfterCommit(String accountNumber) {
+        afterCommit(() -> invalidate(accountNumber));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.banking.account.client;
+
+import com.banking.account.dto.TransactionView;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class TransactionServiceClient {
+    private static final String RECENT_TRANSACTIONS_QUERY = """
+            query($accountNumbers: [String!]!, $limit: Int) {
+              recentTransactionsByFromAccounts(accountNumbers: $accountNumbers, limit: $limit) {
+                transactionId
+                fromAccountNumber
+                toAccountNumber
+                amount
+                currency
+                transactionType
+                status
+                description
+                transactionDate
+              }
+            }""";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    public TransactionServiceClient(RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper,
+                                    @Value("${banking.services.transaction-url}") String transactionServiceUrl,
+                                    @Value("${banking.services.timeout:5s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .rootUri(transactionServiceUrl)
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public List<TransactionView> getRecentTransactionsByFromAccounts(Collection<String> accountNumbers, int limit) {
+        log.debug("Fetching recent transactions for {} accounts", accountNumbers.size());
+        JsonNode data = execute(RECENT_TRANSACTIONS_QUERY, Map.of("accountNumbers", accountNumbers, "limit", limit));
+        return objectMapper.convertValue(data.get("recentTransactionsByFromAccounts"),
+                new TypeReference<List<TransactionView>>() {});
+    }
+
+    private JsonNode execute(String query, Map<String, Object> variables) {
+        JsonNode response = restTemplate.postForObject("/graphql",
+                Map.of("query", query, "variables", variables), JsonNode.class);
+        if (response == null) {
+            throw new RuntimeException("Empty response from transaction-service");
+        }
+        if (response.hasNonNull("errors")) {
+            throw new RuntimeException("transaction-service returned errors: " + response.get("errors"));
+        }
+        return response.get("data");
+    }
+}
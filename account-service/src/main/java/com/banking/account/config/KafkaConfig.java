@@ -1,14 +1,29 @@
 package com.banking.account.config;
 
+import com.banking.account.kafka.event.AccountCreatedEvent;
+import com.banking.account.kafka.event.AccountUpdatedEvent;
+import com.banking.account.kafka.event.BalanceUpdatedEvent;
+import com.banking.account.kafka.event.DomainEvent;
+import com.banking.account.kafka.event.EventDeserializer;
+import com.banking.account.kafka.event.TransactionRejectedEvent;
+import com.banking.account.kafka.event.TransactionSettledEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.kafka.core.DefaultKafkaProducerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,20 +34,118 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // A group without committed offsets starts from the oldest event, so events published
+    // before the first assignment, such as transfers, are not skipped
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    @Value("${banking.kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${banking.kafka.producer.batch-size:131072}")
+    private int batchSize;
+
+    @Value("${banking.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${banking.kafka.consumer.concurrency:3}")
+    private int consumerConcurrency;
+
+    @Value("${banking.transfers.max-attempts:5}")
+    private int transferMaxAttempts;
+
+    @Value("${banking.transfers.retry-backoff-ms:1000}")
+    private long transferRetryBackoffMs;
+
+    @Value("${banking.kafka.topics.partitions:6}")
+    private int topicPartitions;
+
+    @Value("${banking.kafka.topics.replicas:1}")
+    private int topicReplicas;
+
+    // Producers are created on the first outbox send rather than during startup
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    @Lazy
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Values are already encoded by EventCodec when they are written to the outbox
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // The outbox relay sends in bursts, so let the producer group and compress them
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    @Lazy
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    @Bean
+    public ConsumerFactory<String, DomainEvent> consumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "account-service-group");
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(objectMapper())));
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DomainEvent> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DomainEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        // Events are keyed by aggregate id, so partitions can be consumed in parallel without
+        // reordering the events of one account, transaction or customer
+        factory.setConcurrency(consumerConcurrency);
+        return factory;
+    }
+
+    /**
+     * Redelivers a transfer that failed for a reason other than a business rule, and tells the
+     * listener which attempt it is handling, so that it can park the transfer on the last one.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DomainEvent> transferKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DomainEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setDeliveryAttemptHeader(true);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                new FixedBackOff(transferRetryBackoffMs, Math.max(0, transferMaxAttempts - 1))));
+        return factory;
+    }
+
+    @Bean
+    public NewTopic accountCreatedTopic() {
+        return TopicBuilder.name(AccountCreatedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic accountUpdatedTopic() {
+        return TopicBuilder.name(AccountUpdatedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic balanceUpdatedTopic() {
+        return TopicBuilder.name(BalanceUpdatedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic transactionSettledTopic() {
+        return TopicBuilder.name(TransactionSettledEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic transactionRejectedTopic() {
+        return TopicBuilder.name(TransactionRejectedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
@@ -1,24 +1,36 @@
 package com.banking.account.controller;
 
 import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.BalanceUpdateResult;
+import com.banking.account.dto.Connection;
+import com.banking.account.dto.TransactionView;
 import com.banking.account.dto.UpdateBalanceInput;
 import com.banking.account.model.Account;
+import com.banking.account.reactive.ReactiveAccountQueryService;
 import com.banking.account.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @Slf4j
 public class AccountGraphQLController {
     private final AccountService accountService;
+    // Present when banking.reactive-reads.enabled is set
+    private final ObjectProvider<ReactiveAccountQueryService> reactiveQueries;
 
     @QueryMapping
     public Account accountById(@Argument Long id) {
@@ -27,15 +39,29 @@ public class AccountGraphQLController {
     }
 
     @QueryMapping
-    public Account accountByNumber(@Argument String accountNumber) {
+    public Mono<Account> accountByNumber(@Argument String accountNumber) {
         log.info("GraphQL Query: accountByNumber - accountNumber: {}", accountNumber);
-        return accountService.getAccountByNumber(accountNumber);
+        ReactiveAccountQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getAccountByNumber(accountNumber);
+        }
+        return Mono.fromCallable(() -> accountService.getAccountByNumber(accountNumber));
     }
 
     @QueryMapping
-    public List<Account> accountsByCustomerId(@Argument Long customerId) {
+    public Flux<Account> accountsByCustomerId(@Argument Long customerId) {
         log.info("GraphQL Query: accountsByCustomerId - customerId: {}", customerId);
-        return accountService.getAccountsByCustomerId(customerId);
+        ReactiveAccountQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getAccountsByCustomerId(customerId);
+        }
+        return Flux.defer(() -> Flux.fromIterable(accountService.getAccountsByCustomerId(customerId)));
+    }
+
+    @QueryMapping
+    public List<Account> accountsByCustomerIds(@Argument List<Long> customerIds) {
+        log.info("GraphQL Query: accountsByCustomerIds - {} customers", customerIds.size());
+        return accountService.getAccountsByCustomerIds(customerIds);
     }
 
     @QueryMapping
@@ -44,6 +70,12 @@ public class AccountGraphQLController {
         return accountService.getAllAccounts();
     }
 
+    @QueryMapping
+    public Connection<Account> accountsConnection(@Argument Integer first, @Argument String after) {
+        log.info("GraphQL Query: accountsConnection - first: {}, after: {}", first, after);
+        return accountService.getAccountsPage(first, after);
+    }
+
     @MutationMapping
     public Account createAccount(@Argument @Valid AccountInput input) {
         log.info("GraphQL Mutation: createAccount - input: {}", input);
@@ -56,15 +88,37 @@ public class AccountGraphQLController {
         return accountService.updateBalance(input);
     }
 
+    @MutationMapping
+    public List<BalanceUpdateResult> updateBalances(@Argument List<@Valid UpdateBalanceInput> inputs) {
+        log.info("GraphQL Mutation: updateBalances - {} inputs", inputs.size());
+        return accountService.updateBalances(inputs);
+    }
+
     @MutationMapping
     public Account updateAccountStatus(@Argument String accountNumber, @Argument String status) {
         log.info("GraphQL Mutation: updateAccountStatus - accountNumber: {}, status: {}", accountNumber, status);
         return accountService.updateAccountStatus(accountNumber, status);
     }
 
+    @MutationMapping
+    public Account updateAccountStriping(@Argument String accountNumber, @Argument Integer stripeCount) {
+        log.info("GraphQL Mutation: updateAccountStriping - accountNumber: {}, stripeCount: {}", accountNumber, stripeCount);
+        return accountService.updateAccountStriping(accountNumber, stripeCount);
+    }
+
     @MutationMapping
     public Boolean deleteAccount(@Argument Long id) {
         log.info("GraphQL Mutation: deleteAccount - id: {}", id);
         return accountService.deleteAccount(id);
     }
+
+    @BatchMapping(typeName = "Account", field = "recentTransactions")
+    public Map<Account, List<TransactionView>> recentTransactions(List<Account> accounts) {
+        return accountService.getRecentTransactions(accounts);
+    }
+
+    @BatchMapping(typeName = "Account", field = "balance")
+    public Map<Account, BigDecimal> balance(List<Account> accounts) {
+        return accountService.getBalances(accounts);
+    }
 }
@@ -0,0 +1,24 @@
+package com.banking.account.dto;
+
+import com.banking.account.model.Account;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceUpdateResult {
+    private String accountNumber;
+    private boolean success;
+    // The idempotency key was already applied; balances are not reported again
+    private boolean duplicate;
+    private BigDecimal previousBalance;
+    private BigDecimal newBalance;
+    private Account account;
+    private String error;
+}
@@ -2,6 +2,7 @@ package com.banking.account.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,4 +23,8 @@ public class UpdateBalanceInput {
 
     @NotBlank(message = "Operation type is required (CREDIT or DEBIT)")
     private String operationType;
+
+    // Optional; retries carrying the same key are applied only once, and only to the same account
+    @Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
 }
@@ -0,0 +1,8 @@
+package com.banking.account.engine;
+
+import com.banking.account.model.Account;
+
+import java.math.BigDecimal;
+
+public record BalanceChange(Account account, BigDecimal previousBalance, BigDecimal newBalance) {
+}
@@ -0,0 +1,185 @@
+package com.banking.account.engine;
+
+import com.banking.account.model.Account;
+import com.banking.account.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process balance engine. Account numbers are hashed onto a fixed set of shards, each
+ * owned by a single thread that applies mutations to resident balances and persists them in
+ * group commits: the updates that queued up while the previous group was being written go
+ * to the {@code accounts} table in one database transaction, and each caller is answered
+ * only after that transaction has committed.
+ * <p>
+ * A group that cannot be committed is retried with exponential backoff up to
+ * {@code banking.balance-engine.commit-max-attempts} times. After that its updates fail,
+ * the resident balances they touched are reloaded from the database, and the
+ * {@code banking.balance-engine.commit.failures} counter is incremented.
+ * <p>
+ * Only one instance may own a given account at a time, so the engine is opt-in
+ * ({@code banking.balance-engine.enabled}) and meant for deployments where account-service
+ * runs as a single writer or is partitioned by account number.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceEngine {
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE accounts SET balance = ?, updated_at = ? WHERE account_number = ?";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${banking.balance-engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${banking.balance-engine.shards:0}")
+    private int shardCount;
+
+    @Value("${banking.balance-engine.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${banking.balance-engine.commit-max-attempts:5}")
+    private int commitMaxAttempts;
+
+    @Value("${banking.balance-engine.commit-backoff-ms:50}")
+    private long commitBackoffMs;
+
+    @Value("${banking.balance-engine.commit-max-backoff-ms:2000}")
+    private long commitMaxBackoffMs;
+
+    @Value("${banking.balance-engine.max-resident-accounts:100000}")
+    private int maxResidentAccounts;
+
+    private BalanceShard[] shards;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        Counter commitFailures = meterRegistry.counter("banking.balance-engine.commit.failures");
+        shards = new BalanceShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new BalanceShard(i, this::loadAccount, this::commit, commitFailures::increment,
+                    maxBatchSize, commitMaxAttempts, commitBackoffMs, commitMaxBackoffMs,
+                    Math.max(1, maxResidentAccounts / count));
+            shards[i].start();
+        }
+        log.info("Balance engine started with {} shards", count);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (shards == null) {
+            return;
+        }
+        for (BalanceShard shard : shards) {
+            shard.stop();
+        }
+        log.info("Balance engine stopped");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<BalanceChange> apply(String accountNumber, UnaryOperator<BigDecimal> operation) {
+        return apply(accountNumber, operation, change -> {
+        });
+    }
+
+    /**
+     * Applies {@code operation} to the balance of the account. The returned future completes
+     * once the new balance is committed; {@code journal} runs in the same database
+     * transaction, so anything it writes is committed or rolled back together with it.
+     */
+    public CompletableFuture<BalanceChange> apply(String accountNumber, UnaryOperator<BigDecimal> operation,
+                                                  Consumer<BalanceChange> journal) {
+        return shardFor(accountNumber).update(accountNumber, operation, journal);
+    }
+
+    public BalanceChange applyAndWait(String accountNumber, UnaryOperator<BigDecimal> operation) {
+        return await(apply(accountNumber, operation));
+    }
+
+    public BalanceChange applyAndWait(String accountNumber, UnaryOperator<BigDecimal> operation,
+                                      Consumer<BalanceChange> journal) {
+        return await(apply(accountNumber, operation, journal));
+    }
+
+    /**
+     * Commits any pending balance of the account and drops the in-memory copy, so that a
+     * following JPA read/write of the row sees the latest balance.
+     */
+    public void evict(String accountNumber) {
+        BalanceShard shard = shardFor(accountNumber);
+        await(shard.submit(() -> {
+            shard.evict(accountNumber);
+            return null;
+        }));
+    }
+
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private BalanceShard shardFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        hash ^= (hash >>> 16);
+        return shards[(hash & 0x7fffffff) % shards.length];
+    }
+
+    private Account loadAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found with number: " + accountNumber));
+    }
+
+    private void commit(List<Account> accounts, List<BalanceShard.PendingUpdate> updates) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, accounts, accounts.size(), (ps, account) -> {
+                ps.setBigDecimal(1, account.getBalance());
+                ps.setTimestamp(2, Timestamp.valueOf(account.getUpdatedAt()));
+                ps.setString(3, account.getAccountNumber());
+            });
+            for (int count : updated[0]) {
+                if (count == 0) {
+                    // The row was deleted behind the engine's back
+                    throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(UPDATE_BALANCE_SQL, 1, count);
+                }
+            }
+            for (BalanceShard.PendingUpdate update : updates) {
+                update.journal();
+            }
+        });
+        log.debug("Committed {} balance updates to {} accounts", updates.size(), accounts.size());
+    }
+}
@@ -0,0 +1,264 @@
+package com.banking.account.engine;
+
+import com.banking.account.model.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * One single-threaded owner of a slice of the account space. All state below is only
+ * touched from the shard thread; other threads talk to it through the mailbox.
+ * <p>
+ * Updates are applied to the resident balance as they arrive, but their callers are only
+ * answered once the group they belong to has been committed. A group is committed when the
+ * mailbox runs dry or {@code maxBatchSize} updates are pending, so under load one database
+ * transaction carries many updates while a lone update is committed right away.
+ */
+@Slf4j
+class BalanceShard implements Runnable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Writes the final balances of a group and runs the journal of each update, all in one
+     * database transaction.
+     */
+    interface Committer {
+        void commit(List<Account> balances, List<PendingUpdate> updates);
+    }
+
+    static final class PendingUpdate {
+        final String accountNumber;
+        final UnaryOperator<BigDecimal> operation;
+        final Consumer<BalanceChange> journal;
+        final CompletableFuture<BalanceChange> result = new CompletableFuture<>();
+        BalanceChange change;
+
+        PendingUpdate(String accountNumber, UnaryOperator<BigDecimal> operation, Consumer<BalanceChange> journal) {
+            this.accountNumber = accountNumber;
+            this.operation = operation;
+            this.journal = journal;
+        }
+
+        void journal() {
+            journal.accept(change);
+        }
+    }
+
+    private final int index;
+    private final Function<String, Account> loader;
+    private final Committer committer;
+    private final Runnable onCommitFailure;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private List<PendingUpdate> pending = new ArrayList<>();
+    // Accounts with uncommitted updates, which must stay resident until their group commits
+    private final Set<String> pendingAccounts = new HashSet<>();
+    private final Map<String, Account> accounts;
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    BalanceShard(int index, Function<String, Account> loader, Committer committer, Runnable onCommitFailure,
+                 int maxBatchSize, int maxAttempts, long backoffMs, long maxBackoffMs, int maxResidentAccounts) {
+        this.index = index;
+        this.loader = loader;
+        this.committer = committer;
+        this.onCommitFailure = onCommitFailure;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(maxBackoffMs);
+        this.accounts = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Account> eldest) {
+                return size() > maxResidentAccounts && !pendingAccounts.contains(eldest.getKey());
+            }
+        };
+    }
+
+    void start() {
+        thread = new Thread(this, "balance-shard-" + index);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    CompletableFuture<BalanceChange> update(String accountNumber, UnaryOperator<BigDecimal> operation,
+                                            Consumer<BalanceChange> journal) {
+        PendingUpdate update = new PendingUpdate(accountNumber, operation, journal);
+        enqueue(() -> {
+            try {
+                update.change = applyTo(load(accountNumber), update);
+                pending.add(update);
+                pendingAccounts.add(accountNumber);
+            } catch (Throwable e) {
+                update.result.completeExceptionally(e);
+            }
+        });
+        return update.result;
+    }
+
+    /**
+     * Commits pending updates and drops the resident copy, so that a following JPA read or
+     * write of the row sees the latest balance.
+     */
+    void evict(String accountNumber) {
+        commit();
+        accounts.remove(accountNumber);
+    }
+
+    @Override
+    public void run() {
+        while (running || !mailbox.isEmpty()) {
+            Runnable task = mailbox.poll();
+            if (task != null) {
+                task.run();
+            }
+            if (!pending.isEmpty() && (task == null || pending.size() >= maxBatchSize)) {
+                commit();
+            }
+            if (task == null && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        commit();
+    }
+
+    private void enqueue(Runnable task) {
+        mailbox.offer(task);
+        LockSupport.unpark(thread);
+    }
+
+    private Account load(String accountNumber) {
+        Account account = accounts.get(accountNumber);
+        if (account == null) {
+            account = loader.apply(accountNumber);
+            if (account.isStriped()) {
+                throw new RuntimeException("Account " + accountNumber + " has a striped balance and cannot be owned by the balance engine");
+            }
+            accounts.put(accountNumber, account);
+        }
+        return account;
+    }
+
+    private static BalanceChange applyTo(Account account, PendingUpdate update) {
+        BigDecimal previousBalance = account.getBalance();
+        BigDecimal newBalance = update.operation.apply(previousBalance);
+        account.setBalance(newBalance);
+        account.setUpdatedAt(LocalDateTime.now());
+        return new BalanceChange(account.toBuilder().build(), previousBalance, newBalance);
+    }
+
+    private void commit() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PendingUpdate> group = pending;
+        pending = new ArrayList<>();
+        pendingAccounts.clear();
+
+        Map<String, Account> balances = new LinkedHashMap<>();
+        for (PendingUpdate update : group) {
+            balances.put(update.accountNumber, update.change.account());
+        }
+
+        long backoff = backoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                committer.commit(new ArrayList<>(balances.values()), group);
+                for (PendingUpdate update : group) {
+                    update.result.complete(update.change);
+                }
+                return;
+            } catch (DataIntegrityViolationException | IncorrectUpdateSemanticsDataAccessException e) {
+                // One update of the group is at fault, e.g. a clashing key in its journal or a
+                // deleted account; retrying the group as a whole would fail the same way
+                log.warn("Balance shard {} could not commit a group of {} updates, committing them one by one",
+                        index, group.size(), e);
+                discard(balances);
+                commitOneByOne(group);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Balance shard {} failed to commit {} updates after {} attempts, rejecting them",
+                            index, group.size(), attempt, e);
+                    onCommitFailure.run();
+                    discard(balances);
+                    for (PendingUpdate update : group) {
+                        update.result.completeExceptionally(
+                                new RuntimeException("Balance update could not be persisted", e));
+                    }
+                    return;
+                }
+                log.warn("Balance shard {} failed to commit {} updates (attempt {} of {}), retrying in {} ms",
+                        index, group.size(), attempt, maxAttempts, TimeUnit.NANOSECONDS.toMillis(backoff), e);
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, maxBackoffNanos);
+            }
+        }
+    }
+
+    /**
+     * Re-runs each update of a failed group in its own transaction against the balance read
+     * back from the database; the resident copies of the group were discarded beforehand.
+     */
+    private void commitOneByOne(List<PendingUpdate> group) {
+        for (PendingUpdate update : group) {
+            try {
+                Account resident = load(update.accountNumber);
+                Account account = resident.toBuilder().build();
+                update.change = applyTo(account, update);
+                committer.commit(List.of(update.change.account()), List.of(update));
+                resident.setBalance(account.getBalance());
+                resident.setUpdatedAt(account.getUpdatedAt());
+                update.result.complete(update.change);
+            } catch (RuntimeException e) {
+                accounts.remove(update.accountNumber);
+                update.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void discard(Map<String, Account> balances) {
+        for (String accountNumber : balances.keySet()) {
+            accounts.remove(accountNumber);
+        }
+    }
+}
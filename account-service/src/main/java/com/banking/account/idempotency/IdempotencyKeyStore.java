@@ -0,0 +1,176 @@
+package com.banking.account.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency keys seen within the retention window, each mapped to a caller-defined value
+ * (typically the ID of the entity the request produced). Keys are kept as 128-bit
+ * fingerprints in primitive open-addressing tables, one per time slice of the window; a
+ * slice is wiped and reused once it falls out of the window, so memory is bounded by the
+ * keys seen per window rather than by total traffic. Keys older than the window must be
+ * resolved by the caller (e.g. through a unique database column).
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyStore {
+    public static final long ABSENT = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long sliceMillis;
+
+    public IdempotencyKeyStore(@Value("${banking.idempotency.retention:10m}") Duration retention,
+                               @Value("${banking.idempotency.slices:8}") int slices,
+                               @Value("${banking.idempotency.stripes:16}") int stripes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, slices));
+        }
+        this.stripeMask = stripeCount - 1;
+        this.sliceMillis = Math.max(1, retention.toMillis() / Math.max(1, slices));
+        log.info("Idempotency keys retained for {} in {} slices across {} stripes", retention, slices, stripeCount);
+    }
+
+    /**
+     * Returns the value recorded for the key, or {@link #ABSENT} if the key was not seen
+     * within the retention window.
+     */
+    public long get(String key) {
+        long high = fingerprint(key, 0xcbf29ce484222325L, 0x100000001b3L);
+        long low = fingerprint(key, 0x84222325cbf29ce4L, 0x9e3779b97f4a7c15L) | 1;
+        long now = System.currentTimeMillis() / sliceMillis;
+
+        Stripe stripe = stripes[(int) (high >>> 32) & stripeMask];
+        stripe.lock.lock();
+        try {
+            for (Slice slice : stripe.slices) {
+                if (slice.epoch > now - stripe.slices.length && slice.epoch <= now) {
+                    long value = slice.find(high, low);
+                    if (value != ABSENT) {
+                        return value;
+                    }
+                }
+            }
+            return ABSENT;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void put(String key, long value) {
+        long high = fingerprint(key, 0xcbf29ce484222325L, 0x100000001b3L);
+        long low = fingerprint(key, 0x84222325cbf29ce4L, 0x9e3779b97f4a7c15L) | 1;
+        long now = System.currentTimeMillis() / sliceMillis;
+
+        Stripe stripe = stripes[(int) (high >>> 32) & stripeMask];
+        stripe.lock.lock();
+        try {
+            Slice slice = stripe.slices[(int) (now % stripe.slices.length)];
+            if (slice.epoch != now) {
+                slice.reset(now);
+            }
+            slice.put(high, low, value);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // FNV-1a over the UTF-16 chars, finished with the murmur3 mixer
+    private static long fingerprint(String key, long seed, long prime) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * prime;
+        }
+        hash ^= key.length();
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Slice[] slices;
+
+        private Stripe(int sliceCount) {
+            slices = new Slice[sliceCount];
+            for (int i = 0; i < sliceCount; i++) {
+                slices[i] = new Slice();
+            }
+        }
+    }
+
+    /**
+     * Linear-probing table of fingerprints; the low half is never zero, so a zero marks an
+     * empty slot. Arrays only grow and are reused across epochs.
+     */
+    private static final class Slice {
+        private long epoch = Long.MIN_VALUE;
+        private long[] fingerprints = new long[INITIAL_CAPACITY * 2];
+        private long[] values = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private long find(long high, long low) {
+            int mask = values.length - 1;
+            for (int slot = (int) high & mask; ; slot = (slot + 1) & mask) {
+                long candidate = fingerprints[slot * 2 + 1];
+                if (candidate == 0) {
+                    return ABSENT;
+                }
+                if (candidate == low && fingerprints[slot * 2] == high) {
+                    return values[slot];
+                }
+            }
+        }
+
+        private void put(long high, long low, long value) {
+            if ((size + 1) * 4L > values.length * 3L) {
+                grow();
+            }
+            int mask = values.length - 1;
+            for (int slot = (int) high & mask; ; slot = (slot + 1) & mask) {
+                long candidate = fingerprints[slot * 2 + 1];
+                if (candidate == 0) {
+                    fingerprints[slot * 2] = high;
+                    fingerprints[slot * 2 + 1] = low;
+                    values[slot] = value;
+                    size++;
+                    return;
+                }
+                if (candidate == low && fingerprints[slot * 2] == high) {
+                    values[slot] = value;
+                    return;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldFingerprints = fingerprints;
+            long[] oldValues = values;
+            fingerprints = new long[oldFingerprints.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldValues.length; slot++) {
+                if (oldFingerprints[slot * 2 + 1] != 0) {
+                    put(oldFingerprints[slot * 2], oldFingerprints[slot * 2 + 1], oldValues[slot]);
+                }
+            }
+        }
+
+        private void reset(long newEpoch) {
+            if (size > 0) {
+                Arrays.fill(fingerprints, 0);
+                size = 0;
+            }
+            epoch = newEpoch;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.account.kafka;
+
+import com.banking.account.cache.AccountCache;
+import com.banking.account.kafka.event.AccountUpdatedEvent;
+import com.banking.account.kafka.event.BalanceUpdatedEvent;
+import com.banking.account.kafka.event.DomainEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCacheInvalidationConsumer {
+    private final AccountCache accountCache;
+    private final EventOrigin eventOrigin;
+
+    // Every instance needs every event, so each one joins with its own consumer group
+    @KafkaListener(topics = {AccountUpdatedEvent.TOPIC, BalanceUpdatedEvent.TOPIC},
+            groupId = "account-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void handleAccountChanged(DomainEvent event,
+                                     @Header(name = EventOrigin.HEADER, required = false) byte[] origin) {
+        // Local writes already refreshed the cache when they committed
+        if (eventOrigin.isLocal(origin)) {
+            return;
+        }
+        String accountNumber = null;
+        if (event instanceof AccountUpdatedEvent accountUpdated) {
+            accountNumber = accountUpdated.accountNumber();
+        } else if (event instanceof BalanceUpdatedEvent balanceUpdated) {
+            accountNumber = balanceUpdated.accountNumber();
+        }
+        if (accountNumber != null) {
+            accountCache.invalidate(accountNumber);
+            log.debug("Invalidated cached account {}", accountNumber);
+        }
+    }
+}
@@ -1,47 +1,72 @@
 package com.banking.account.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banking.account.kafka.event.AccountCreatedEvent;
+import com.banking.account.kafka.event.AccountUpdatedEvent;
+import com.banking.account.kafka.event.BalanceUpdatedEvent;
+import com.banking.account.kafka.event.DomainEvent;
+import com.banking.account.kafka.event.EventCodec;
+import com.banking.account.kafka.event.TransactionRejectedEvent;
+import com.banking.account.kafka.event.TransactionSettledEvent;
+import com.banking.account.model.OutboxEvent;
+import com.banking.account.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Writes events to the outbox table in the caller's transaction; {@link OutboxRelay} publishes
+ * them to Kafka after the commit.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AccountEventProducer {
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
-
-    public void sendAccountCreatedEvent(Map<String, Object> accountData) {
-        try {
-            String message = objectMapper.writeValueAsString(accountData);
-            kafkaTemplate.send("account-created", message);
-            log.info("Account created event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending account created event", e);
-        }
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventOrigin eventOrigin;
+
+    public void sendAccountCreatedEvent(AccountCreatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Account created event written to outbox: {}", event);
     }
 
-    public void sendAccountUpdatedEvent(Map<String, Object> accountData) {
-        try {
-            String message = objectMapper.writeValueAsString(accountData);
-            kafkaTemplate.send("account-updated", message);
-            log.info("Account updated event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending account updated event", e);
-        }
+    public void sendAccountUpdatedEvent(AccountUpdatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Account updated event written to outbox: {}", event);
     }
 
-    public void sendBalanceUpdatedEvent(Map<String, Object> balanceData) {
-        try {
-            String message = objectMapper.writeValueAsString(balanceData);
-            kafkaTemplate.send("balance-updated", message);
-            log.info("Balance updated event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending balance updated event", e);
+    public void sendBalanceUpdatedEvent(BalanceUpdatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Balance updated event written to outbox: {}", event);
+    }
+
+    public void sendTransactionSettledEvent(TransactionSettledEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Transaction settled event written to outbox: {}", event);
+    }
+
+    public void sendTransactionRejectedEvent(TransactionRejectedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Transaction rejected event written to outbox: {}", event);
+    }
+
+    public void sendBalanceUpdatedEvents(List<BalanceUpdatedEvent> events) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (BalanceUpdatedEvent event : events) {
+            outboxEvents.add(toOutboxEvent(event));
         }
+        outboxEventRepository.saveAll(outboxEvents);
+        log.info("{} balance updated events written to outbox", outboxEvents.size());
+    }
+
+    private OutboxEvent toOutboxEvent(DomainEvent event) {
+        return OutboxEvent.builder()
+                .topic(event.topic())
+                .eventKey(event.key())
+                .payload(EventCodec.encode(event))
+                .origin(eventOrigin.instanceId())
+                .build();
     }
 }
@@ -0,0 +1,96 @@
+package com.banking.account.kafka;
+
+import com.banking.account.model.OutboxEvent;
+import com.banking.account.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes events written to the outbox table by the service transactions. Rows are read
+ * in id order, sent as one batch so the producer can group and compress them, and deleted in
+ * bulk once Kafka has acknowledged them. Only the instance holding the {@link OutboxLease}
+ * relays, so replicas do not publish every row once each. Delivery is at-least-once: a crash
+ * between the send and the delete can publish a row twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxLease outboxLease;
+    // Resolved on the first send, so the lazy template is not created at startup
+    private final ObjectProvider<KafkaTemplate<String, byte[]>> kafkaTemplate;
+
+    @Value("${banking.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${banking.outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Scheduled(fixedDelayString = "${banking.outbox.poll-interval-ms:100}")
+    public void relay() {
+        List<OutboxEvent> batch;
+        do {
+            if (!outboxLease.tryAcquire()) {
+                return;
+            }
+            batch = outboxEventRepository.findByOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty() || publish(batch) < batch.size()) {
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private int publish(List<OutboxEvent> batch) {
+        long start = System.nanoTime();
+        KafkaTemplate<String, byte[]> template = kafkaTemplate.getObject();
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getEventKey(), event.getPayload());
+            if (event.getOrigin() != null) {
+                record.headers().add(EventOrigin.HEADER, event.getOrigin().getBytes(StandardCharsets.UTF_8));
+            }
+            sends.add(template.send(record));
+        }
+
+        // Only the acknowledged prefix is deleted, so a failed event is retried together with
+        // everything behind it and per-key order is kept
+        List<Long> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                published.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Error relaying outbox event {} to {}", batch.get(i).getId(), batch.get(i).getTopic(), e);
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            log.info("Relayed {} outbox events in {} ms ({} events/s)", published.size(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), published.size() * 1_000_000_000L / elapsedNanos);
+        }
+        return published.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.banking.account.kafka;
+
+import com.banking.account.kafka.event.TransactionCreatedEvent;
+import com.banking.account.service.TransferService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferConsumer {
+    private final TransferService transferService;
+
+    @Value("${banking.transfers.max-attempts:5}")
+    private int maxAttempts;
+
+    // Transfers are keyed by transaction id, so partitions run in parallel while each
+    // transfer is handled by exactly one thread
+    @KafkaListener(topics = TransactionCreatedEvent.TOPIC, groupId = "account-service-group",
+            concurrency = "${banking.transfers.concurrency:6}",
+            containerFactory = "transferKafkaListenerContainerFactory")
+    public void handleTransactionCreated(TransactionCreatedEvent event,
+                                         @Header(KafkaHeaders.DELIVERY_ATTEMPT) int deliveryAttempt) {
+        log.info("Received transaction created event: {} (attempt {})", event.transactionId(), deliveryAttempt);
+        try {
+            transferService.process(event);
+        } catch (RuntimeException e) {
+            if (deliveryAttempt < maxAttempts) {
+                throw e;
+            }
+            transferService.park(event, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.banking.account.kafka;
+
+import com.banking.account.kafka.event.BalanceUpdatedEvent;
+import com.banking.account.kafka.event.DomainEvent;
+import com.banking.account.velocity.VelocityLimiter;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Adds the DEBIT balance updates of other instances to the velocity windows, starting from the
+ * last day before this instance started. Debits of this instance were already recorded when
+ * {@code updateBalance} admitted them and are recognised by their origin header.
+ */
+@Component
+@RequiredArgsConstructor
+public class VelocityReplayConsumer implements ConsumerSeekAware {
+    private final VelocityLimiter velocityLimiter;
+    private final EventOrigin eventOrigin;
+
+    @KafkaListener(topics = BalanceUpdatedEvent.TOPIC,
+            groupId = "velocity-#{T(java.util.UUID).randomUUID()}",
+            autoStartup = "${banking.velocity.enabled:false}")
+    public void replayBalanceUpdate(ConsumerRecord<String, DomainEvent> record,
+                                    @Header(name = EventOrigin.HEADER, required = false) byte[] origin) {
+        if (!eventOrigin.isLocal(origin)
+                && record.value() instanceof BalanceUpdatedEvent updated
+                && "DEBIT".equalsIgnoreCase(updated.operationType())) {
+            velocityLimiter.record(updated.accountNumber(), updated.amount(), record.timestamp());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), velocityLimiter.getReplayFrom());
+    }
+}
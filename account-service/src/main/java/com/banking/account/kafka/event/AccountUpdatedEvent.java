@@ -0,0 +1,19 @@
+package com.banking.account.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record AccountUpdatedEvent(Long accountId, String accountNumber, String status, Integer stripeCount,
+                                  BigDecimal balance, LocalDateTime updatedAt) implements DomainEvent {
+    public static final String TOPIC = "account-updated";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return accountNumber;
+    }
+}
@@ -0,0 +1,19 @@
+package com.banking.account.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BalanceUpdatedEvent(Long accountId, String accountNumber, BigDecimal previousBalance, BigDecimal newBalance,
+                                 BigDecimal amount, String operationType, LocalDateTime updatedAt) implements DomainEvent {
+    public static final String TOPIC = "balance-updated";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return accountNumber;
+    }
+}
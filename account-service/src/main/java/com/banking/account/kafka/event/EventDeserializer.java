@@ -0,0 +1,85 @@
+package com.banking.account.kafka.event;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Decodes record values into {@link DomainEvent}s. Binary payloads go through
+ * {@link EventCodec}; JSON payloads published before the binary format are mapped by topic so
+ * that messages still on the topics can be consumed during the migration.
+ */
+public class EventDeserializer implements Deserializer<DomainEvent> {
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {
+    };
+
+    // Amounts are read as BigDecimal; doubles would drop their scale and precision
+    private final ObjectReader jsonReader;
+
+    public EventDeserializer(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(JSON_MAP).with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Override
+    public DomainEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            if (EventCodec.isBinary(data)) {
+                return EventCodec.decode(data);
+            }
+            return fromLegacyJson(topic, jsonReader.readValue(data));
+        } catch (Exception e) {
+            throw new SerializationException("Error deserializing event from topic " + topic, e);
+        }
+    }
+
+    private DomainEvent fromLegacyJson(String topic, Map<String, Object> data) {
+        return switch (topic) {
+            case AccountUpdatedEvent.TOPIC -> new AccountUpdatedEvent(longValue(data, "accountId"),
+                    string(data, "accountNumber"), string(data, "status"), intValue(data, "stripeCount"),
+                    decimal(data, "balance"), dateTime(data, "updatedAt"));
+            case BalanceUpdatedEvent.TOPIC -> new BalanceUpdatedEvent(longValue(data, "accountId"),
+                    string(data, "accountNumber"), decimal(data, "previousBalance"), decimal(data, "newBalance"),
+                    decimal(data, "amount"), string(data, "operationType"), dateTime(data, "updatedAt"));
+            case TransactionCreatedEvent.TOPIC -> new TransactionCreatedEvent(string(data, "transactionId"),
+                    string(data, "fromAccountNumber"), string(data, "toAccountNumber"), decimal(data, "amount"),
+                    string(data, "currency"), string(data, "transactionType"), string(data, "status"),
+                    string(data, "description"), dateTime(data, "transactionDate"));
+            default -> throw new RuntimeException("No JSON mapping for events on topic " + topic);
+        };
+    }
+
+    private static String string(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    private static Long longValue(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Integer intValue(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    private static BigDecimal decimal(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value == null ? null : new BigDecimal(value.toString());
+    }
+
+    private static LocalDateTime dateTime(Map<String, Object> data, String key) {
+        Object value = data.get(key);
+        return value == null ? null : LocalDateTime.parse(value.toString());
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.account.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by account-service when a transfer could not be applied; any debit has been
+ * reversed by the time this is sent.
+ */
+public record TransactionRejectedEvent(String transactionId, String fromAccountNumber, String toAccountNumber,
+                                       BigDecimal amount, String reason, LocalDateTime processedAt) implements DomainEvent {
+    public static final String TOPIC = "transaction-rejected";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return transactionId;
+    }
+}
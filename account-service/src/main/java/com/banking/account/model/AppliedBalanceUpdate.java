@@ -0,0 +1,33 @@
+package com.banking.account.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency key of an applied balance update. Written in the same transaction as the
+ * balance change, so retries arriving after the in-memory retention window still resolve
+ * to the original update.
+ */
+@Entity
+@Table(name = "applied_balance_updates", indexes = {
+        @Index(name = "idx_applied_balance_updates_applied_at", columnList = "applied_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedBalanceUpdate {
+    @Id
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,53 @@
+package com.banking.account.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a transfer handled by {@code TransferService}. The row is written in the same
+ * transaction as each balance leg, so a redelivered transaction-created event resumes where
+ * the previous attempt stopped instead of moving money twice.
+ */
+@Entity
+@Table(name = "processed_transfers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedTransfer {
+    public static final String DEBITED = "DEBITED";
+    public static final String SETTLED = "SETTLED";
+    public static final String REJECTED = "REJECTED";
+    public static final String COMPENSATED = "COMPENSATED";
+    // Gave up after repeated failures that were not business rule violations; an operator
+    // settles it by hand, the reason says which leg was applied
+    public static final String PARKED = "PARKED";
+    public static final int MAX_REASON_LENGTH = 255;
+
+    @Id
+    private String transactionId;
+
+    @Column(nullable = false)
+    private String state;
+
+    @Column(length = MAX_REASON_LENGTH)
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return !DEBITED.equals(state);
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.account.reactive;
+
+import com.banking.account.model.Account;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of the {@code accounts} table. Writes go through the JPA
+ * {@link Account} entity; rows are converted to it so the GraphQL field resolvers see one type.
+ */
+@Table("accounts")
+public record AccountRow(@Id Long id, String accountNumber, Long customerId, String accountType,
+                         BigDecimal balance, String currency, String status, Integer stripeCount,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public Account toAccount() {
+        return Account.builder()
+                .id(id)
+                .accountNumber(accountNumber)
+                .customerId(customerId)
+                .accountType(accountType)
+                .balance(balance)
+                .currency(currency)
+                .status(status)
+                .stripeCount(stripeCount)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
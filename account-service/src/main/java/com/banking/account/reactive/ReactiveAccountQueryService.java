@@ -0,0 +1,50 @@
+package com.banking.account.reactive;
+
+import com.banking.account.cache.AccountCache;
+import com.banking.account.model.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the read-heavy account queries from R2DBC when {@code banking.reactive-reads.enabled}
+ * is set, so no request thread waits on JDBC. List results are pulled from the database
+ * {@code prefetch} rows at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.reactive-reads.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveAccountQueryService {
+    private final ReactiveAccountRepository reactiveAccountRepository;
+    private final AccountCache accountCache;
+    private final int prefetch;
+
+    public ReactiveAccountQueryService(ReactiveAccountRepository reactiveAccountRepository,
+                                       AccountCache accountCache,
+                                       @Value("${banking.reactive-reads.prefetch:256}") int prefetch) {
+        this.reactiveAccountRepository = reactiveAccountRepository;
+        this.accountCache = accountCache;
+        this.prefetch = prefetch;
+        log.info("Serving account reads from R2DBC (prefetch {})", prefetch);
+    }
+
+    public Mono<Account> getAccountByNumber(String accountNumber) {
+        Account cached = accountCache.getIfPresent(accountNumber);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveAccountRepository.findByAccountNumber(accountNumber)
+                .map(AccountRow::toAccount)
+                .doOnNext(accountCache::put)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Account not found with number: " + accountNumber)));
+    }
+
+    public Flux<Account> getAccountsByCustomerId(Long customerId) {
+        return reactiveAccountRepository.findByCustomerId(customerId)
+                .limitRate(prefetch)
+                .map(AccountRow::toAccount);
+    }
+}
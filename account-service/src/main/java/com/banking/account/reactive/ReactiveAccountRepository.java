@@ -0,0 +1,15 @@
+package com.banking.account.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of the read methods of {@link com.banking.account.repository.AccountRepository}.
+ */
+@Repository
+public interface ReactiveAccountRepository extends R2dbcRepository<AccountRow, Long> {
+    Mono<AccountRow> findByAccountNumber(String accountNumber);
+    Flux<AccountRow> findByCustomerId(Long customerId);
+}
@@ -0,0 +1,36 @@
+package com.banking.account.repository;
+
+import com.banking.account.model.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceSlot s WHERE s.accountNumber = :accountNumber ORDER BY s.slotIndex")
+    List<AccountBalanceSlot> findForUpdateByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceSlot s WHERE s.accountNumber = :accountNumber AND s.slotIndex = :slotIndex")
+    Optional<AccountBalanceSlot> findForUpdateByAccountNumberAndSlotIndex(String accountNumber, int slotIndex);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceSlot s WHERE s.accountNumber = :accountNumber")
+    BigDecimal sumBalance(String accountNumber);
+
+    @Query("SELECT s.accountNumber, SUM(s.balance) FROM AccountBalanceSlot s " +
+            "WHERE s.accountNumber IN :accountNumbers GROUP BY s.accountNumber")
+    List<Object[]> sumBalances(Collection<String> accountNumbers);
+
+    @Modifying
+    @Query("DELETE FROM AccountBalanceSlot s WHERE s.accountNumber = :accountNumber")
+    int deleteByAccountNumber(String accountNumber);
+}
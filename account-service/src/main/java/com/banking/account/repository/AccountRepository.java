@@ -1,9 +1,14 @@
 package com.banking.account.repository;
 
 import com.banking.account.model.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +16,20 @@ import java.util.Optional;
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
     List<Account> findByCustomerId(Long customerId);
+    List<Account> findByCustomerIdIn(Collection<Long> customerIds);
     List<Account> findByStatus(String status);
+
+    @Query("SELECT a FROM Account a WHERE a.id > :afterId ORDER BY a.id")
+    List<Account> findPageAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT COALESCE(a.stripeCount, 0) FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Integer> findStripeCountByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findForUpdateByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber")
+    List<Account> findForUpdateByAccountNumberIn(Collection<String> accountNumbers);
 }
@@ -0,0 +1,25 @@
+package com.banking.account.repository;
+
+import com.banking.account.model.AppliedBalanceUpdate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AppliedBalanceUpdateRepository extends JpaRepository<AppliedBalanceUpdate, String> {
+    // Plain INSERT so a reused key fails immediately on the primary key instead of merging
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO applied_balance_updates (idempotency_key, account_number, applied_at) " +
+            "VALUES (:idempotencyKey, :accountNumber, CURRENT_TIMESTAMP)", nativeQuery = true)
+    void insert(String idempotencyKey, String accountNumber);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AppliedBalanceUpdate a WHERE a.appliedAt < :cutoff")
+    int deleteAppliedBefore(LocalDateTime cutoff);
+}
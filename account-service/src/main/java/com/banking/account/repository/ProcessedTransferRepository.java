@@ -0,0 +1,9 @@
+package com.banking.account.repository;
+
+import com.banking.account.model.ProcessedTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedTransferRepository extends JpaRepository<ProcessedTransfer, String> {
+}
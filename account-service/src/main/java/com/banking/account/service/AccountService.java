@@ -1,21 +1,48 @@
 package com.banking.account.service;
 
+import com.banking.account.cache.AccountCache;
+import com.banking.account.client.TransactionServiceClient;
 import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.BalanceUpdateResult;
+import com.banking.account.dto.Connection;
+import com.banking.account.dto.TransactionView;
 import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.engine.BalanceChange;
+import com.banking.account.engine.BalanceEngine;
+import com.banking.account.idempotency.IdempotencyKeyStore;
 import com.banking.account.kafka.AccountEventProducer;
+import com.banking.account.kafka.event.AccountCreatedEvent;
+import com.banking.account.kafka.event.AccountUpdatedEvent;
+import com.banking.account.kafka.event.BalanceUpdatedEvent;
 import com.banking.account.model.Account;
 import com.banking.account.repository.AccountRepository;
+import com.banking.account.repository.AppliedBalanceUpdateRepository;
+import com.banking.account.velocity.VelocityLimiter;
+import com.banking.common.id.SnowflakeIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +50,27 @@ import java.util.UUID;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountEventProducer eventProducer;
+    private final BalanceEngine balanceEngine;
+    private final StripedBalanceService stripedBalanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransactionServiceClient transactionServiceClient;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final AppliedBalanceUpdateRepository appliedBalanceUpdateRepository;
+    private final VelocityLimiter velocityLimiter;
+
+    @Value("${banking.striping.max-stripe-count:32}")
+    private int maxStripeCount;
+
+    @Value("${banking.services.recent-transactions-limit:10}")
+    private int recentTransactionsLimit;
+
+    @Value("${banking.idempotency.db-retention:7d}")
+    private Duration idempotencyDbRetention;
+
+    @Value("${banking.balance-updates.max-batch-size:1000}")
+    private int maxBalanceUpdateBatchSize;
 
     @Transactional
     public Account createAccount(AccountInput input) {
@@ -40,16 +88,10 @@ public class AccountService {
         Account savedAccount = accountRepository.save(account);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("accountId", savedAccount.getId());
-        eventData.put("accountNumber", savedAccount.getAccountNumber());
-        eventData.put("customerId", savedAccount.getCustomerId());
-        eventData.put("accountType", savedAccount.getAccountType());
-        eventData.put("balance", savedAccount.getBalance());
-        eventData.put("currency", savedAccount.getCurrency());
-        eventData.put("status", savedAccount.getStatus());
-        eventData.put("createdAt", savedAccount.getCreatedAt().toString());
-        eventProducer.sendAccountCreatedEvent(eventData);
+        eventProducer.sendAccountCreatedEvent(new AccountCreatedEvent(savedAccount.getId(),
+                savedAccount.getAccountNumber(), savedAccount.getCustomerId(), savedAccount.getAccountType(),
+                savedAccount.getBalance(), savedAccount.getCurrency(), savedAccount.getStatus(),
+                savedAccount.getCreatedAt()));
 
         return savedAccount;
     }
@@ -60,82 +102,557 @@ public class AccountService {
     }
 
     public Account getAccountByNumber(String accountNumber) {
+        return accountCache.get(accountNumber, this::findAccountByNumber);
+    }
+
+    private Account findAccountByNumber(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found with number: " + accountNumber));
+                .orElseThrow(() -> new BusinessRuleException("Account not found with number: " + accountNumber));
     }
 
     public List<Account> getAccountsByCustomerId(Long customerId) {
         return accountRepository.findByCustomerId(customerId);
     }
 
+    public List<Account> getAccountsByCustomerIds(List<Long> customerIds) {
+        return accountRepository.findByCustomerIdIn(customerIds);
+    }
+
+    /**
+     * Fetches the latest outgoing transactions of all given accounts from transaction-service
+     * in a single call.
+     */
+    public Map<Account, List<TransactionView>> getRecentTransactions(List<Account> accounts) {
+        List<String> accountNumbers = accounts.stream().map(Account::getAccountNumber).distinct().toList();
+        Map<String, List<TransactionView>> byAccount = transactionServiceClient
+                .getRecentTransactionsByFromAccounts(accountNumbers, recentTransactionsLimit).stream()
+                .collect(Collectors.groupingBy(TransactionView::getFromAccountNumber));
+
+        Map<Account, List<TransactionView>> transactions = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            transactions.put(account, byAccount.getOrDefault(account.getAccountNumber(), List.of()));
+        }
+        return transactions;
+    }
+
     public List<Account> getAllAccounts() {
         return accountRepository.findAll();
     }
 
-    @Transactional
+    public Connection<Account> getAccountsPage(Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        List<Account> rows = accountRepository.findPageAfter(Connection.afterId(after), PageRequest.of(0, pageSize + 1));
+        return Connection.of(rows, pageSize, after != null, account -> Connection.idCursor(account.getId()));
+    }
+
     public Account updateBalance(UpdateBalanceInput input) {
+        return updateBalance(input, change -> {
+        });
+    }
+
+    /**
+     * Applies a balance update and runs {@code journal} in the database transaction that
+     * commits the new balance, whether that is the caller's, a new one or a balance engine
+     * group commit. Callers record their own progress there instead of around this call,
+     * which the balance engine would not take part in.
+     */
+    public Account updateBalance(UpdateBalanceInput input, Consumer<BalanceChange> journal) {
         log.info("Updating balance for account: {}", input.getAccountNumber());
 
+        AppliedKey recentlyApplied = findRecentlyApplied(input);
+        if (recentlyApplied != null) {
+            log.info("Balance update {} was already applied to account {}", input.getIdempotencyKey(),
+                    input.getAccountNumber());
+            return duplicateAccount(input, recentlyApplied);
+        }
+
+        long velocityAcquiredAt = acquireVelocity(input);
+        BalanceChange change;
+        try {
+            if (balanceEngine.isEnabled()) {
+                change = applyWithEngine(input, journal);
+            } else {
+                change = transactionTemplate.execute(status -> {
+                    recordIdempotencyKey(input);
+                    BalanceChange applied = applyBalanceUpdate(input);
+                    // Send Kafka event with dynamic values
+                    eventProducer.sendBalanceUpdatedEvent(balanceUpdatedEvent(applied, input));
+                    journal.accept(applied);
+                    return applied;
+                });
+            }
+        } catch (DataIntegrityViolationException e) {
+            velocityLimiter.release(input.getAccountNumber(), input.getAmount(), velocityAcquiredAt);
+            AppliedKey applied = findStoredAppliedKey(input);
+            if (applied == null) {
+                throw e;
+            }
+            // Applied before the in-memory window, or concurrently; the database key is the only trace
+            log.info("Balance update {} was already applied to account {}", input.getIdempotencyKey(),
+                    input.getAccountNumber());
+            Account account = duplicateAccount(input, applied);
+            idempotencyKeyStore.put(input.getIdempotencyKey(), account.getId());
+            return account;
+        } catch (RuntimeException e) {
+            velocityLimiter.release(input.getAccountNumber(), input.getAmount(), velocityAcquiredAt);
+            throw e;
+        }
+        rememberIdempotencyKey(input, change.account());
+        // Deferred while a caller's transaction, such as a transfer leg, is still open
+        accountCache.putAfterCommit(change.account());
+
+        return change.account();
+    }
+
+    public List<BalanceUpdateResult> updateBalances(List<UpdateBalanceInput> inputs) {
+        log.info("Updating balances for {} mutations", inputs.size());
+        if (inputs.size() > maxBalanceUpdateBatchSize) {
+            throw new RuntimeException("At most " + maxBalanceUpdateBatchSize + " balance updates can be applied at once");
+        }
+
+        // Debits over a velocity limit fail on their own; the others are applied as one group
+        long[] velocityAcquiredAt = new long[inputs.size()];
+        String[] velocityErrors = new String[inputs.size()];
+        List<UpdateBalanceInput> admitted = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            try {
+                velocityAcquiredAt[i] = acquireVelocity(inputs.get(i));
+                admitted.add(inputs.get(i));
+            } catch (RuntimeException e) {
+                velocityAcquiredAt[i] = VelocityLimiter.NOT_ACQUIRED;
+                velocityErrors[i] = e.getMessage();
+            }
+        }
+
+        List<BalanceUpdateResult> admittedResults;
+        try {
+            if (balanceEngine.isEnabled()) {
+                admittedResults = applyBalanceUpdatesWithEngine(admitted);
+            } else {
+                admittedResults = transactionTemplate.execute(status -> {
+                    List<BalanceUpdateResult> applied = applyBalanceUpdates(admitted);
+                    sendBalanceUpdatedEvents(admitted, applied);
+                    return applied;
+                });
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < inputs.size(); i++) {
+                velocityLimiter.release(inputs.get(i).getAccountNumber(), inputs.get(i).getAmount(),
+                        velocityAcquiredAt[i]);
+            }
+            throw e;
+        }
+
+        List<BalanceUpdateResult> results = new ArrayList<>(inputs.size());
+        int next = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            UpdateBalanceInput input = inputs.get(i);
+            if (velocityErrors[i] != null) {
+                results.add(failedResult(input, velocityErrors[i]));
+                continue;
+            }
+            BalanceUpdateResult result = admittedResults.get(next++);
+            if (!result.isSuccess() || result.isDuplicate()) {
+                velocityLimiter.release(input.getAccountNumber(), input.getAmount(), velocityAcquiredAt[i]);
+            }
+            results.add(result);
+        }
+
+        for (int i = 0; i < inputs.size(); i++) {
+            BalanceUpdateResult result = results.get(i);
+            if (result.isSuccess() && !result.isDuplicate()) {
+                rememberIdempotencyKey(inputs.get(i), result.getAccount());
+                accountCache.putAfterCommit(result.getAccount());
+            }
+        }
+        return results;
+    }
+
+    private long acquireVelocity(UpdateBalanceInput input) {
+        if (!"DEBIT".equalsIgnoreCase(input.getOperationType())) {
+            return VelocityLimiter.NOT_ACQUIRED;
+        }
+        return velocityLimiter.acquire(input.getAccountNumber(), input.getAmount());
+    }
+
+    /**
+     * The account an idempotency key was applied to: its ID when known from the in-memory
+     * store, its number when known from applied_balance_updates or an earlier input.
+     */
+    private record AppliedKey(Long accountId, String accountNumber) {
+        boolean matches(Account account) {
+            return accountNumber != null
+                    ? accountNumber.equals(account.getAccountNumber())
+                    : accountId.equals(account.getId());
+        }
+    }
+
+    /**
+     * Checks the in-memory key store only; keys older than its window are caught by the
+     * primary key of applied_balance_updates when the update is recorded.
+     */
+    private AppliedKey findRecentlyApplied(UpdateBalanceInput input) {
+        if (input.getIdempotencyKey() == null) {
+            return null;
+        }
+        long accountId = idempotencyKeyStore.get(input.getIdempotencyKey());
+        return accountId == IdempotencyKeyStore.ABSENT ? null : new AppliedKey(accountId, null);
+    }
+
+    private AppliedKey findStoredAppliedKey(UpdateBalanceInput input) {
+        if (input.getIdempotencyKey() == null) {
+            return null;
+        }
+        return appliedBalanceUpdateRepository.findById(input.getIdempotencyKey())
+                .map(update -> new AppliedKey(null, update.getAccountNumber()))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the keys of the given inputs that were already applied, checking the in-memory
+     * store first and the database once for the rest.
+     */
+    private Map<String, AppliedKey> findAppliedIdempotencyKeys(List<UpdateBalanceInput> inputs) {
+        Map<String, AppliedKey> applied = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (UpdateBalanceInput input : inputs) {
+            AppliedKey recentlyApplied = findRecentlyApplied(input);
+            if (recentlyApplied != null) {
+                applied.put(input.getIdempotencyKey(), recentlyApplied);
+            } else if (input.getIdempotencyKey() != null) {
+                unknown.add(input.getIdempotencyKey());
+            }
+        }
+        if (!unknown.isEmpty()) {
+            appliedBalanceUpdateRepository.findAllById(unknown).forEach(update ->
+                    applied.put(update.getIdempotencyKey(), new AppliedKey(null, update.getAccountNumber())));
+        }
+        return applied;
+    }
+
+    /**
+     * Returns the current account for a repeated idempotency key, refusing a key that was
+     * applied to a different account: that retry is a different request.
+     */
+    private Account duplicateAccount(UpdateBalanceInput input, AppliedKey applied) {
         Account account = getAccountByNumber(input.getAccountNumber());
+        if (!applied.matches(account)) {
+            throw new BusinessRuleException("Idempotency key " + input.getIdempotencyKey()
+                    + " was already used for another account");
+        }
+        return account;
+    }
+
+    private void recordIdempotencyKey(UpdateBalanceInput input) {
+        if (input.getIdempotencyKey() != null) {
+            appliedBalanceUpdateRepository.insert(input.getIdempotencyKey(), input.getAccountNumber());
+        }
+    }
+
+    private void rememberIdempotencyKey(UpdateBalanceInput input, Account account) {
+        if (input.getIdempotencyKey() != null) {
+            idempotencyKeyStore.put(input.getIdempotencyKey(), account.getId());
+        }
+    }
+
+    /**
+     * The idempotency key and the event are written in the transaction that commits the
+     * balance, so a key that is already taken fails the update instead of committing it.
+     */
+    private BalanceChange applyWithEngine(UpdateBalanceInput input, Consumer<BalanceChange> journal) {
+        return balanceEngine.applyAndWait(input.getAccountNumber(), current -> applyOperation(current, input),
+                applied -> {
+                    recordIdempotencyKey(input);
+                    eventProducer.sendBalanceUpdatedEvent(balanceUpdatedEvent(applied, input));
+                    journal.accept(applied);
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.purge-interval-ms:3600000}")
+    public void purgeAppliedBalanceUpdates() {
+        int purged = appliedBalanceUpdateRepository.deleteAppliedBefore(LocalDateTime.now().minus(idempotencyDbRetention));
+        if (purged > 0) {
+            log.info("Purged {} expired balance update idempotency keys", purged);
+        }
+    }
+
+    private void sendBalanceUpdatedEvents(List<UpdateBalanceInput> inputs, List<BalanceUpdateResult> results) {
+        // Send Kafka events for the whole group in one outbox write
+        List<BalanceUpdatedEvent> events = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            BalanceUpdateResult result = results.get(i);
+            if (result.isSuccess() && !result.isDuplicate()) {
+                events.add(balanceUpdatedEvent(new BalanceChange(result.getAccount(),
+                        result.getPreviousBalance(), result.getNewBalance()), inputs.get(i)));
+            }
+        }
+        eventProducer.sendBalanceUpdatedEvents(events);
+    }
+
+    private List<BalanceUpdateResult> applyBalanceUpdates(List<UpdateBalanceInput> inputs) {
+        Set<String> accountNumbers = inputs.stream()
+                .map(UpdateBalanceInput::getAccountNumber)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Account> accounts = accountRepository.findForUpdateByAccountNumberIn(accountNumbers).stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        Map<String, AppliedKey> appliedKeys = findAppliedIdempotencyKeys(inputs);
+
+        List<BalanceUpdateResult> results = new ArrayList<>(inputs.size());
+        for (UpdateBalanceInput input : inputs) {
+            Account account = accounts.get(input.getAccountNumber());
+            if (account == null) {
+                results.add(failedResult(input, "Account not found with number: " + input.getAccountNumber()));
+                continue;
+            }
+            AppliedKey applied = input.getIdempotencyKey() == null ? null : appliedKeys.get(input.getIdempotencyKey());
+            if (applied != null) {
+                results.add(applied.matches(account)
+                        ? duplicateResult(account)
+                        : failedResult(input, "Idempotency key " + input.getIdempotencyKey()
+                                + " was already used for another account"));
+                continue;
+            }
+            try {
+                BalanceChange change;
+                if (account.isStriped()) {
+                    change = stripedBalanceService.apply(account, input, current -> applyOperation(current, input));
+                } else {
+                    BigDecimal currentBalance = account.getBalance();
+                    BigDecimal newBalance = applyOperation(currentBalance, input);
+                    account.setBalance(newBalance);
+                    change = new BalanceChange(account, currentBalance, newBalance);
+                }
+                recordIdempotencyKey(input);
+                if (input.getIdempotencyKey() != null) {
+                    appliedKeys.put(input.getIdempotencyKey(), new AppliedKey(null, input.getAccountNumber()));
+                }
+                results.add(successResult(change));
+            } catch (RuntimeException e) {
+                results.add(failedResult(input, e.getMessage()));
+            }
+        }
+
+        accountRepository.saveAll(accounts.values());
+        return results;
+    }
+
+    private List<BalanceUpdateResult> applyBalanceUpdatesWithEngine(List<UpdateBalanceInput> inputs) {
+        Map<String, AppliedKey> appliedKeys = findAppliedIdempotencyKeys(inputs);
+
+        // A null future marks an input that is not submitted because its key was already applied
+        List<CompletableFuture<BalanceChange>> pending = new ArrayList<>(inputs.size());
+        List<AppliedKey> duplicates = new ArrayList<>(inputs.size());
+        for (UpdateBalanceInput input : inputs) {
+            AppliedKey applied = input.getIdempotencyKey() == null
+                    ? null
+                    : appliedKeys.putIfAbsent(input.getIdempotencyKey(), new AppliedKey(null, input.getAccountNumber()));
+            duplicates.add(applied);
+            if (applied != null) {
+                pending.add(null);
+                continue;
+            }
+            // The key is written with the balance; a key taken meanwhile fails only this update
+            pending.add(balanceEngine.apply(input.getAccountNumber(), current -> applyOperation(current, input),
+                    change -> {
+                        recordIdempotencyKey(input);
+                        eventProducer.sendBalanceUpdatedEvent(balanceUpdatedEvent(change, input));
+                    }));
+        }
+
+        List<BalanceUpdateResult> results = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            UpdateBalanceInput input = inputs.get(i);
+            AppliedKey applied = duplicates.get(i);
+            if (pending.get(i) != null) {
+                try {
+                    results.add(successResult(BalanceEngine.await(pending.get(i))));
+                    continue;
+                } catch (DataIntegrityViolationException e) {
+                    applied = findStoredAppliedKey(input);
+                    if (applied == null) {
+                        results.add(failedResult(input, e.getMessage()));
+                        continue;
+                    }
+                } catch (RuntimeException e) {
+                    results.add(failedResult(input, e.getMessage()));
+                    continue;
+                }
+            }
+            try {
+                results.add(duplicateResult(duplicateAccount(input, applied)));
+            } catch (RuntimeException e) {
+                results.add(failedResult(input, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Several results of a group can refer to the same managed account, so each one gets a
+    // copy taken at the point of its own update
+    private BalanceUpdateResult successResult(BalanceChange change) {
+        return BalanceUpdateResult.builder()
+                .accountNumber(change.account().getAccountNumber())
+                .success(true)
+                .previousBalance(change.previousBalance())
+                .newBalance(change.newBalance())
+                .account(change.account().toBuilder().build())
+                .build();
+    }
+
+    private BalanceUpdateResult duplicateResult(Account account) {
+        return BalanceUpdateResult.builder()
+                .accountNumber(account.getAccountNumber())
+                .success(true)
+                .duplicate(true)
+                .account(account.toBuilder().build())
+                .build();
+    }
+
+    private BalanceUpdateResult failedResult(UpdateBalanceInput input, String error) {
+        return BalanceUpdateResult.builder()
+                .accountNumber(input.getAccountNumber())
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private BalanceUpdatedEvent balanceUpdatedEvent(BalanceChange change, UpdateBalanceInput input) {
+        return new BalanceUpdatedEvent(change.account().getId(), change.account().getAccountNumber(),
+                change.previousBalance(), change.newBalance(), input.getAmount(), input.getOperationType(),
+                LocalDateTime.now());
+    }
+
+    private BalanceChange applyBalanceUpdate(UpdateBalanceInput input) {
+        int stripeCount = accountRepository.findStripeCountByAccountNumber(input.getAccountNumber())
+                .orElseThrow(() -> new BusinessRuleException("Account not found with number: " + input.getAccountNumber()));
+        if (stripeCount > 0) {
+            // Striped accounts only lock their slots, unless the slots changed since the count was read
+            BalanceChange change = stripedBalanceService.tryApply(getAccountByNumber(input.getAccountNumber()),
+                    stripeCount, input, current -> applyOperation(current, input));
+            if (change != null) {
+                return change;
+            }
+        }
+
+        Account account = accountRepository.findForUpdateByAccountNumber(input.getAccountNumber())
+                .orElseThrow(() -> new BusinessRuleException("Account not found with number: " + input.getAccountNumber()));
+        if (account.isStriped()) {
+            return stripedBalanceService.apply(account, input, current -> applyOperation(current, input));
+        }
         BigDecimal currentBalance = account.getBalance();
-        BigDecimal newBalance;
+        BigDecimal newBalance = applyOperation(currentBalance, input);
 
+        account.setBalance(newBalance);
+        return new BalanceChange(accountRepository.save(account), currentBalance, newBalance);
+    }
+
+    private BigDecimal applyOperation(BigDecimal currentBalance, UpdateBalanceInput input) {
         if ("CREDIT".equalsIgnoreCase(input.getOperationType())) {
-            newBalance = currentBalance.add(input.getAmount());
+            return currentBalance.add(input.getAmount());
         } else if ("DEBIT".equalsIgnoreCase(input.getOperationType())) {
             if (currentBalance.compareTo(input.getAmount()) < 0) {
-                throw new RuntimeException("Insufficient balance");
+                throw new BusinessRuleException("Insufficient balance");
             }
-            newBalance = currentBalance.subtract(input.getAmount());
+            return currentBalance.subtract(input.getAmount());
         } else {
             throw new RuntimeException("Invalid operation type: " + input.getOperationType());
         }
+    }
 
-        account.setBalance(newBalance);
+    @Transactional
+    public Account updateAccountStatus(String accountNumber, String status) {
+        log.info("Updating account status: {} to {}", accountNumber, status);
+
+        if (balanceEngine.isEnabled()) {
+            balanceEngine.evict(accountNumber);
+        }
+        Account account = findAccountByNumber(accountNumber);
+        account.setStatus(status);
         Account updatedAccount = accountRepository.save(account);
+        accountCache.putAfterCommit(updatedAccount);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("accountId", updatedAccount.getId());
-        eventData.put("accountNumber", updatedAccount.getAccountNumber());
-        eventData.put("previousBalance", currentBalance);
-        eventData.put("newBalance", newBalance);
-        eventData.put("amount", input.getAmount());
-        eventData.put("operationType", input.getOperationType());
-        eventData.put("updatedAt", LocalDateTime.now().toString());
-        eventProducer.sendBalanceUpdatedEvent(eventData);
+        eventProducer.sendAccountUpdatedEvent(new AccountUpdatedEvent(updatedAccount.getId(),
+                updatedAccount.getAccountNumber(), updatedAccount.getStatus(), null, null,
+                updatedAccount.getUpdatedAt()));
 
         return updatedAccount;
     }
 
     @Transactional
-    public Account updateAccountStatus(String accountNumber, String status) {
-        log.info("Updating account status: {} to {}", accountNumber, status);
+    public Account updateAccountStriping(String accountNumber, int stripeCount) {
+        log.info("Updating balance striping of account {} to {} slots", accountNumber, stripeCount);
 
-        Account account = getAccountByNumber(accountNumber);
-        account.setStatus(status);
+        if (balanceEngine.isEnabled()) {
+            throw new RuntimeException("Balance striping is not available while the balance engine is enabled");
+        }
+        if (stripeCount < 0 || stripeCount > maxStripeCount) {
+            throw new RuntimeException("Stripe count must be between 0 and " + maxStripeCount);
+        }
+
+        Account account = accountRepository.findForUpdateByAccountNumber(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found with number: " + accountNumber));
+        BigDecimal balance = account.isStriped()
+                ? stripedBalanceService.removeSlots(accountNumber)
+                : account.getBalance();
+
+        if (stripeCount == 0) {
+            account.setBalance(balance);
+            account.setStripeCount(null);
+        } else {
+            stripedBalanceService.createSlots(accountNumber, stripeCount, balance);
+            account.setBalance(BigDecimal.ZERO);
+            account.setStripeCount(stripeCount);
+        }
         Account updatedAccount = accountRepository.save(account);
+        accountCache.putAfterCommit(updatedAccount);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("accountId", updatedAccount.getId());
-        eventData.put("accountNumber", updatedAccount.getAccountNumber());
-        eventData.put("status", updatedAccount.getStatus());
-        eventData.put("updatedAt", updatedAccount.getUpdatedAt().toString());
-        eventProducer.sendAccountUpdatedEvent(eventData);
+        eventProducer.sendAccountUpdatedEvent(new AccountUpdatedEvent(updatedAccount.getId(),
+                updatedAccount.getAccountNumber(), updatedAccount.getStatus(), stripeCount, balance,
+                LocalDateTime.now()));
 
         return updatedAccount;
     }
 
+    /**
+     * Resolves the effective balance of each account, summing the slots of striped accounts.
+     */
+    public Map<Account, BigDecimal> getBalances(List<Account> accounts) {
+        List<String> stripedAccountNumbers = accounts.stream()
+                .filter(Account::isStriped)
+                .map(Account::getAccountNumber)
+                .toList();
+        Map<String, BigDecimal> stripedBalances = stripedAccountNumbers.isEmpty()
+                ? Map.of()
+                : stripedBalanceService.getBalances(stripedAccountNumbers);
+
+        Map<Account, BigDecimal> balances = new LinkedHashMap<>();
+        for (Account account : accounts) {
+            balances.put(account, account.isStriped()
+                    ? stripedBalances.getOrDefault(account.getAccountNumber(), BigDecimal.ZERO)
+                    : account.getBalance());
+        }
+        return balances;
+    }
+
     @Transactional
     public boolean deleteAccount(Long id) {
         log.info("Deleting account with id: {}", id);
         Account account = getAccountById(id);
+        if (balanceEngine.isEnabled()) {
+            balanceEngine.evict(account.getAccountNumber());
+        }
+        if (account.isStriped()) {
+            stripedBalanceService.removeSlots(account.getAccountNumber());
+        }
         accountRepository.delete(account);
+        accountCache.invalidateAfterCommit(account.getAccountNumber());
         return true;
     }
 
     private String generateAccountNumber() {
-        return "ACC" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        return idGenerator.nextId("ACC");
     }
 }
@@ -0,0 +1,11 @@
+package com.banking.account.service;
+
+/**
+ * A request refused by a business rule, such as an insufficient balance or an inactive
+ * account. Retrying it unchanged fails the same way, unlike a database or broker failure.
+ */
+public class BusinessRuleException extends RuntimeException {
+    public BusinessRuleException(String message) {
+        super(message);
+    }
+}
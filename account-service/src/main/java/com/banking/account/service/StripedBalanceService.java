@@ -0,0 +1,138 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.engine.BalanceChange;
+import com.banking.account.model.Account;
+import com.banking.account.model.AccountBalanceSlot;
+import com.banking.account.repository.AccountBalanceSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Balance handling for hot accounts whose balance is split across several
+ * {@link AccountBalanceSlot} rows. Credits lock a single random slot, so concurrent
+ * credits contend on one of K rows instead of the account row; debits lock all slots,
+ * check the total and spread the remainder evenly again.
+ * <p>
+ * Changing the stripe count locks the account row and replaces all slots. Updates that do
+ * not hold the account row lock use {@link #tryApply}, which returns {@code null} when the
+ * slots they found do not match the stripe count they read; the caller then locks the account
+ * row and retries with {@link #apply}. Callers are expected to run inside a transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripedBalanceService {
+    private final AccountBalanceSlotRepository slotRepository;
+
+    /**
+     * Applies the update to the slots of an account whose row the caller has locked, so that
+     * its stripe count cannot change underneath.
+     */
+    public BalanceChange apply(Account lockedAccount, UpdateBalanceInput input, UnaryOperator<BigDecimal> operation) {
+        BalanceChange change = tryApply(lockedAccount, lockedAccount.getStripeCount(), input, operation);
+        if (change == null) {
+            throw new RuntimeException("Balance slots of account " + lockedAccount.getAccountNumber()
+                    + " do not match its stripe count");
+        }
+        return change;
+    }
+
+    /**
+     * Applies the update to the slots of an account without locking the account row, or returns
+     * {@code null} if the slots were replaced since {@code stripeCount} was read.
+     * The previous balance is the slot total read while this update holds its slot lock(s), so
+     * it is a total that was committed, not one derived from the new balance.
+     */
+    public BalanceChange tryApply(Account account, int stripeCount, UpdateBalanceInput input,
+                                  UnaryOperator<BigDecimal> operation) {
+        String accountNumber = account.getAccountNumber();
+
+        if ("CREDIT".equalsIgnoreCase(input.getOperationType())) {
+            int slotIndex = ThreadLocalRandom.current().nextInt(stripeCount);
+            AccountBalanceSlot slot = slotRepository.findForUpdateByAccountNumberAndSlotIndex(accountNumber, slotIndex)
+                    .orElse(null);
+            if (slot == null) {
+                return null;
+            }
+            BigDecimal previousBalance = slotRepository.sumBalance(accountNumber);
+            BigDecimal newBalance = operation.apply(previousBalance);
+            slot.setBalance(slot.getBalance().add(newBalance.subtract(previousBalance)));
+            slotRepository.save(slot);
+            return new BalanceChange(account, previousBalance, newBalance);
+        }
+
+        List<AccountBalanceSlot> slots = slotRepository.findForUpdateByAccountNumber(accountNumber);
+        if (slots.size() != stripeCount) {
+            return null;
+        }
+        BigDecimal previousBalance = sum(slots);
+        BigDecimal newBalance = operation.apply(previousBalance);
+        distribute(slots, newBalance);
+        slotRepository.saveAll(slots);
+        return new BalanceChange(account, previousBalance, newBalance);
+    }
+
+    public void createSlots(String accountNumber, int stripeCount, BigDecimal balance) {
+        List<AccountBalanceSlot> slots = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            slots.add(AccountBalanceSlot.builder()
+                    .accountNumber(accountNumber)
+                    .slotIndex(i)
+                    .balance(BigDecimal.ZERO)
+                    .build());
+        }
+        distribute(slots, balance);
+        slotRepository.saveAll(slots);
+        log.info("Striped balance of account {} across {} slots", accountNumber, stripeCount);
+    }
+
+    /**
+     * Locks and removes all slots of the account, returning the balance they held.
+     */
+    public BigDecimal removeSlots(String accountNumber) {
+        BigDecimal balance = sum(slotRepository.findForUpdateByAccountNumber(accountNumber));
+        slotRepository.deleteByAccountNumber(accountNumber);
+        return balance;
+    }
+
+    public BigDecimal getBalance(String accountNumber) {
+        return slotRepository.sumBalance(accountNumber);
+    }
+
+    public Map<String, BigDecimal> getBalances(Collection<String> accountNumbers) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (Object[] row : slotRepository.sumBalances(accountNumbers)) {
+            balances.put((String) row[0], (BigDecimal) row[1]);
+        }
+        return balances;
+    }
+
+    private static BigDecimal sum(List<AccountBalanceSlot> slots) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountBalanceSlot slot : slots) {
+            total = total.add(slot.getBalance());
+        }
+        return total;
+    }
+
+    private static void distribute(List<AccountBalanceSlot> slots, BigDecimal balance) {
+        BigDecimal share = balance.divide(BigDecimal.valueOf(slots.size()), balance.scale(), RoundingMode.DOWN);
+        BigDecimal remainder = balance.subtract(share.multiply(BigDecimal.valueOf(slots.size())));
+        for (AccountBalanceSlot slot : slots) {
+            slot.setBalance(share);
+        }
+        slots.get(0).setBalance(share.add(remainder));
+    }
+}
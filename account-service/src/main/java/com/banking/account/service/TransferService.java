@@ -0,0 +1,139 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.kafka.AccountEventProducer;
+import com.banking.account.kafka.event.TransactionCreatedEvent;
+import com.banking.account.kafka.event.TransactionRejectedEvent;
+import com.banking.account.kafka.event.TransactionSettledEvent;
+import com.banking.account.model.Account;
+import com.banking.account.model.ProcessedTransfer;
+import com.banking.account.repository.ProcessedTransferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves the money for transactions recorded by transaction-service: debits the source
+ * account, credits the target account and reports the outcome. Each leg commits together with
+ * the transfer's progress row and, for the last step, its outcome event, in whichever
+ * transaction commits the balance, including a balance engine group commit. If the credit is
+ * refused the debit is reversed before the transfer is reported as rejected.
+ * <p>
+ * Only {@link BusinessRuleException}s reject a transfer. Any other failure is thrown to the
+ * listener, so the event is redelivered and the transfer resumes from its progress row; once
+ * the deliveries are used up it is {@linkplain #park parked}.
+ * <p>
+ * The counterparty {@value #EXTERNAL_ACCOUNT} is outside the bank, so deposits only have a
+ * credit leg and withdrawals only a debit leg.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferService {
+    public static final String EXTERNAL_ACCOUNT = "EXTERNAL";
+
+    private final AccountService accountService;
+    private final ProcessedTransferRepository processedTransferRepository;
+    private final AccountEventProducer eventProducer;
+    private final TransactionTemplate transactionTemplate;
+
+    public void process(TransactionCreatedEvent transfer) {
+        ProcessedTransfer progress = processedTransferRepository.findById(transfer.transactionId()).orElse(null);
+        if (progress != null && progress.isFinished()) {
+            log.debug("Transfer {} already {}", transfer.transactionId(), progress.getState());
+            return;
+        }
+
+        if (progress == null) {
+            try {
+                checkActive(transfer.fromAccountNumber());
+                applyLeg(transfer.fromAccountNumber(), transfer, "DEBIT",
+                        () -> saveProgress(transfer, ProcessedTransfer.DEBITED, null));
+            } catch (BusinessRuleException e) {
+                transactionTemplate.executeWithoutResult(status ->
+                        reject(transfer, ProcessedTransfer.REJECTED, "Debit failed: " + e.getMessage()));
+                return;
+            }
+        }
+
+        try {
+            checkActive(transfer.toAccountNumber());
+            applyLeg(transfer.toAccountNumber(), transfer, "CREDIT", () -> {
+                saveProgress(transfer, ProcessedTransfer.SETTLED, null);
+                eventProducer.sendTransactionSettledEvent(new TransactionSettledEvent(transfer.transactionId(),
+                        transfer.fromAccountNumber(), transfer.toAccountNumber(), transfer.amount(), LocalDateTime.now()));
+            });
+            log.info("Settled transfer {}", transfer.transactionId());
+        } catch (BusinessRuleException e) {
+            log.warn("Credit of transfer {} was refused, reversing the debit: {}", transfer.transactionId(), e.getMessage());
+            // Compensation: put the money back on the source account, even if it was frozen since
+            applyLeg(transfer.fromAccountNumber(), transfer, "CREDIT",
+                    () -> reject(transfer, ProcessedTransfer.COMPENSATED, "Credit failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stops retrying a transfer that keeps failing for a reason other than a business rule,
+     * such as a compensation that cannot be committed. No outcome is reported, since the
+     * debit may already have been applied; the row tells an operator where it stopped.
+     */
+    public void park(TransactionCreatedEvent transfer, RuntimeException cause) {
+        ProcessedTransfer progress = processedTransferRepository.findById(transfer.transactionId()).orElse(null);
+        if (progress != null && progress.isFinished()) {
+            return;
+        }
+        String applied = progress == null ? "nothing applied" : "source debited";
+        saveProgress(transfer, ProcessedTransfer.PARKED, "Parked with " + applied + ": " + cause.getMessage());
+        log.error("Parked transfer {} with {}", transfer.transactionId(), applied, cause);
+    }
+
+    /**
+     * Applies one leg and runs {@code journal} in the transaction that commits it; for the
+     * external counterparty the journal runs on its own.
+     */
+    private void applyLeg(String accountNumber, TransactionCreatedEvent transfer, String operationType,
+                          Runnable journal) {
+        if (EXTERNAL_ACCOUNT.equals(accountNumber)) {
+            transactionTemplate.executeWithoutResult(status -> journal.run());
+            return;
+        }
+        accountService.updateBalance(UpdateBalanceInput.builder()
+                .accountNumber(accountNumber)
+                .amount(transfer.amount())
+                .operationType(operationType)
+                .build(), change -> journal.run());
+    }
+
+    private void checkActive(String accountNumber) {
+        if (EXTERNAL_ACCOUNT.equals(accountNumber)) {
+            return;
+        }
+        Account account = accountService.getAccountByNumber(accountNumber);
+        if (!"ACTIVE".equals(account.getStatus())) {
+            throw new BusinessRuleException("Account is not active: " + accountNumber);
+        }
+    }
+
+    // Runs in the caller's transaction
+    private void reject(TransactionCreatedEvent transfer, String state, String reason) {
+        saveProgress(transfer, state, reason);
+        eventProducer.sendTransactionRejectedEvent(new TransactionRejectedEvent(transfer.transactionId(),
+                transfer.fromAccountNumber(), transfer.toAccountNumber(), transfer.amount(), reason,
+                LocalDateTime.now()));
+        log.info("Rejected transfer {}: {}", transfer.transactionId(), reason);
+    }
+
+    private void saveProgress(TransactionCreatedEvent transfer, String state, String reason) {
+        if (reason != null && reason.length() > ProcessedTransfer.MAX_REASON_LENGTH) {
+            reason = reason.substring(0, ProcessedTransfer.MAX_REASON_LENGTH);
+        }
+        processedTransferRepository.save(ProcessedTransfer.builder()
+                .transactionId(transfer.transactionId())
+                .state(state)
+                .reason(reason)
+                .build());
+    }
+}
@@ -0,0 +1,108 @@
+package com.banking.account.velocity;
+
+import com.banking.account.service.BusinessRuleException;
+import com.banking.common.velocity.VelocityWindows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-account limits on the number and total amount of debits within the last minute, hour
+ * and day, enabled with {@code banking.velocity.enabled}. The windows are kept by
+ * {@link VelocityWindows}.
+ * <p>
+ * Counters are held in memory by each instance. An instance checks the debits it admits itself
+ * against its counters, and learns about the DEBIT balance updates of the other instances from Kafka,
+ * including the last day of them after a restart. Debits admitted by different instances
+ * within the Kafka lag are not seen by each other, so with N instances an account can briefly
+ * get up to N times a limit.
+ */
+@Component
+@Slf4j
+public class VelocityLimiter {
+    public static final long NOT_ACQUIRED = -1;
+
+    private final boolean enabled;
+    private final VelocityWindows windows;
+    private final long startedAt = System.currentTimeMillis();
+
+    public VelocityLimiter(@Value("${banking.velocity.enabled:false}") boolean enabled,
+                           @Value("${banking.velocity.buckets:10}") int buckets,
+                           @Value("${banking.velocity.stripes:64}") int stripes,
+                           @Value("${banking.velocity.minute.max-count:30}") long minuteMaxCount,
+                           @Value("${banking.velocity.minute.max-amount:10000}") BigDecimal minuteMaxAmount,
+                           @Value("${banking.velocity.hour.max-count:300}") long hourMaxCount,
+                           @Value("${banking.velocity.hour.max-amount:50000}") BigDecimal hourMaxAmount,
+                           @Value("${banking.velocity.day.max-count:2000}") long dayMaxCount,
+                           @Value("${banking.velocity.day.max-amount:250000}") BigDecimal dayMaxAmount) {
+        this.enabled = enabled;
+        this.windows = new VelocityWindows(buckets, stripes,
+                new VelocityWindows.Limit(minuteMaxCount, minuteMaxAmount),
+                new VelocityWindows.Limit(hourMaxCount, hourMaxAmount),
+                new VelocityWindows.Limit(dayMaxCount, dayMaxAmount));
+        log.info("Velocity limits {}: {} buckets per window across {} stripes", enabled ? "enabled" : "disabled",
+                windows.buckets(), windows.stripes());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Earliest time a debit of another instance can still count towards a window.
+     */
+    public long getReplayFrom() {
+        return startedAt - VelocityWindows.Window.DAY.millis();
+    }
+
+    /**
+     * Records a debit if it keeps the account within every window, and returns the time it
+     * was recorded at for {@link #release}. Throws if a limit would be exceeded; returns
+     * {@link #NOT_ACQUIRED} when limits are disabled.
+     */
+    public long acquire(String accountNumber, BigDecimal amount) {
+        if (!enabled) {
+            return NOT_ACQUIRED;
+        }
+        long now = System.currentTimeMillis();
+        VelocityWindows.Window exceeded = windows.tryAcquire(accountNumber, amount, now);
+        if (exceeded != null) {
+            throw new BusinessRuleException("Velocity limit exceeded for account " + accountNumber + ": "
+                    + windows.describe(exceeded));
+        }
+        return now;
+    }
+
+    /**
+     * Takes back a debit recorded by {@link #acquire} that did not go through.
+     */
+    public void release(String accountNumber, BigDecimal amount, long acquiredAt) {
+        if (acquiredAt != NOT_ACQUIRED) {
+            windows.release(accountNumber, amount, acquiredAt);
+        }
+    }
+
+    /**
+     * Records a debit admitted by another instance at the given time without checking limits.
+     */
+    public void record(String accountNumber, BigDecimal amount, long timestamp) {
+        if (enabled && timestamp >= getReplayFrom()) {
+            windows.record(accountNumber, amount, timestamp);
+        }
+    }
+
+    public int getAccountCount() {
+        return windows.accountCount();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.velocity.eviction-interval-ms:60000}")
+    public void evictIdleAccounts() {
+        int evicted = windows.evictIdle(System.currentTimeMillis());
+        if (evicted > 0) {
+            log.debug("Evicted {} idle accounts from the velocity windows", evicted);
+        }
+    }
+}
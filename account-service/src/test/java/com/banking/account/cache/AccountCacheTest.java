@@ -0,0 +1,84 @@
+package com.banking.account.cache;
+
+import com.banking.account.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountCacheTest {
+    private final AccountCache cache = new AccountCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOnceAndKeepsADetachedCopy() {
+        AtomicInteger loads = new AtomicInteger();
+        Account loaded = account("ACC1", "10");
+        cache.get("ACC1", key -> {
+            loads.incrementAndGet();
+            return loaded;
+        });
+        loaded.setBalance(BigDecimal.ZERO);
+
+        Account second = cache.get("ACC1", key -> {
+            loads.incrementAndGet();
+            return account(key, "99");
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(second.getBalance()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void putAfterCommitWaitsForTheCommit() {
+        cache.put(account("ACC1", "10"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.putAfterCommit(account("ACC1", "20"));
+        assertThat(cache.getIfPresent("ACC1").getBalance()).isEqualByComparingTo("10");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.getIfPresent("ACC1").getBalance()).isEqualByComparingTo("20");
+    }
+
+    @Test
+    void putAfterCommitIsDroppedOnRollback() {
+        cache.put(account("ACC1", "10"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.putAfterCommit(account("ACC1", "20"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.getIfPresent("ACC1").getBalance()).isEqualByComparingTo("10");
+    }
+
+    @Test
+    void appliesImmediatelyOutsideATransaction() {
+        cache.putAfterCommit(account("ACC1", "10"));
+        assertThat(cache.getIfPresent("ACC1")).isNotNull();
+
+        cache.invalidateAfterCommit("ACC1");
+        assertThat(cache.getIfPresent("ACC1")).isNull();
+    }
+
+    private static Account account(String accountNumber, String balance) {
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+}
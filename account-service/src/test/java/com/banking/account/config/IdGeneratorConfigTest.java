@@ -0,0 +1,27 @@
+package com.banking.account.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorConfigTest {
+    private final IdGeneratorConfig config = new IdGeneratorConfig();
+
+    @Test
+    void refusesToStartWithoutANodeId() {
+        assertThatThrownBy(() -> config.idGenerator(" "))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("banking.id.node-id (BANKING_NODE_ID) must be set");
+    }
+
+    @Test
+    void refusesANodeIdOutOfRange() {
+        assertThatThrownBy(() -> config.idGenerator("512")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void usesTheConfiguredNodeId() {
+        assertThat(config.idGenerator("42").nodeId()).isEqualTo(42);
+    }
+}
@@ -0,0 +1,128 @@
+package com.banking.account.engine;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.kafka.AccountEventProducer;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=true",
+        "banking.balance-engine.shards=4",
+        "banking.balance-engine.commit-max-attempts=1",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class BalanceEngineIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private AccountEventProducer eventProducer;
+
+    @Test
+    void updateBalanceReturnsOnlyOnceTheBalanceIsCommitted() {
+        Account account = createAccount("100.00");
+
+        Account updated = accountService.updateBalance(update(account, "CREDIT", "25.50"));
+
+        assertThat(updated.getBalance()).isEqualByComparingTo("125.50");
+        assertThat(storedBalance(account)).isEqualByComparingTo("125.50");
+    }
+
+    @Test
+    void concurrentUpdatesOfOneAccountAreAllPersisted() throws Exception {
+        Account account = createAccount("0.00");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Account>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                results.add(executor.submit(() -> accountService.updateBalance(update(account, "CREDIT", "1.00"))));
+            }
+            for (Future<Account> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(storedBalance(account)).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void rejectedUpdateLeavesTheStoredBalanceUnchanged() {
+        Account account = createAccount("10.00");
+
+        assertThatThrownBy(() -> accountService.updateBalance(update(account, "DEBIT", "10.01")))
+                .hasMessage("Insufficient balance");
+
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+        assertThat(accountService.updateBalance(update(account, "DEBIT", "10.00")).getBalance())
+                .isEqualByComparingTo("0.00");
+        assertThat(storedBalance(account)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void balanceAndOutboxEventAreCommittedTogether() {
+        Account account = createAccount("10.00");
+        doThrow(new RuntimeException("Outbox unavailable")).when(eventProducer).sendBalanceUpdatedEvent(
+                argThat(event -> event.accountNumber().equals(account.getAccountNumber())));
+
+        assertThatThrownBy(() -> accountService.updateBalance(update(account, "CREDIT", "5.00")))
+                .hasMessage("Balance update could not be persisted");
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+
+        reset(eventProducer);
+        accountService.updateBalance(update(account, "CREDIT", "5.00"));
+        assertThat(storedBalance(account)).isEqualByComparingTo("15.00");
+        verify(eventProducer).sendBalanceUpdatedEvent(
+                argThat(event -> event.newBalance().compareTo(new BigDecimal("15.00")) == 0));
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal(balance))
+                .currency("USD")
+                .build());
+    }
+
+    private static UpdateBalanceInput update(Account account, String operationType, String amount) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(account.getAccountNumber())
+                .operationType(operationType)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private BigDecimal storedBalance(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE account_number = ?",
+                BigDecimal.class, account.getAccountNumber());
+    }
+}
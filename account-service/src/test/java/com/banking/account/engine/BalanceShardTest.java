@@ -0,0 +1,216 @@
+package com.banking.account.engine;
+
+import com.banking.account.model.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BalanceShardTest {
+    private final Map<String, BigDecimal> database = new ConcurrentHashMap<>();
+    private final List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger commitFailures = new AtomicInteger();
+    private BalanceShard shard;
+
+    @AfterEach
+    void stopShard() throws InterruptedException {
+        if (shard != null) {
+            shard.stop();
+        }
+    }
+
+    @Test
+    void acknowledgesUpdatesOnlyAfterTheirGroupIsCommitted() throws Exception {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        database.put("ACC1", new BigDecimal("100"));
+        start((balances, updates) -> {
+            commitStarted.countDown();
+            await(releaseCommit);
+            persist(balances, updates);
+        }, 3);
+
+        CompletableFuture<BalanceChange> result = shard.update("ACC1", balance -> balance.add(BigDecimal.TEN), change -> {
+        });
+
+        assertThat(commitStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(result).isNotDone();
+        assertThat(database.get("ACC1")).isEqualByComparingTo("100");
+
+        releaseCommit.countDown();
+        BalanceChange change = result.get(5, TimeUnit.SECONDS);
+        assertThat(change.previousBalance()).isEqualByComparingTo("100");
+        assertThat(change.newBalance()).isEqualByComparingTo("110");
+        assertThat(database.get("ACC1")).isEqualByComparingTo("110");
+    }
+
+    @Test
+    void commitsUpdatesQueuedDuringACommitAsOneGroup() throws Exception {
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        database.put("ACC1", BigDecimal.ZERO);
+        database.put("ACC2", BigDecimal.ZERO);
+        start((balances, updates) -> {
+            commitStarted.countDown();
+            await(releaseCommit);
+            persist(balances, updates);
+        }, 3);
+
+        CompletableFuture<BalanceChange> first = shard.update("ACC1", balance -> balance.add(BigDecimal.ONE), change -> {
+        });
+        assertThat(commitStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<BalanceChange>> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queued.add(shard.update(i % 2 == 0 ? "ACC1" : "ACC2", balance -> balance.add(BigDecimal.ONE), change -> {
+            }));
+        }
+        releaseCommit.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(queued.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(database.get("ACC1")).isEqualByComparingTo("6");
+        assertThat(database.get("ACC2")).isEqualByComparingTo("5");
+        assertThat(groupSizes).containsExactly(1, 10);
+    }
+
+    @Test
+    void failsTheGroupAndReloadsBalancesAfterTheLastAttempt() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        database.put("ACC1", new BigDecimal("100"));
+        start((balances, updates) -> {
+            if (failing.get()) {
+                attempts.incrementAndGet();
+                throw new TransientDataAccessResourceException("database unavailable");
+            }
+            persist(balances, updates);
+        }, 3);
+
+        CompletableFuture<BalanceChange> result = shard.update("ACC1", balance -> balance.add(BigDecimal.TEN), change -> {
+        });
+
+        assertThatThrownBy(() -> BalanceEngine.await(result))
+                .hasMessage("Balance update could not be persisted");
+        assertThat(attempts).hasValue(3);
+        assertThat(commitFailures).hasValue(1);
+
+        // The next update starts from the committed balance, not the rejected one
+        failing.set(false);
+        BalanceChange change = shard.update("ACC1", balance -> balance.add(BigDecimal.ONE), c -> {
+        }).get(5, TimeUnit.SECONDS);
+        assertThat(change.previousBalance()).isEqualByComparingTo("100");
+        assertThat(database.get("ACC1")).isEqualByComparingTo("101");
+    }
+
+    @Test
+    void retriesTransientFailuresBeforeAcknowledging() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        database.put("ACC1", BigDecimal.ZERO);
+        start((balances, updates) -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new TransientDataAccessResourceException("lock timeout");
+            }
+            persist(balances, updates);
+        }, 5);
+
+        BalanceChange change = shard.update("ACC1", balance -> balance.add(BigDecimal.ONE), c -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(change.newBalance()).isEqualByComparingTo("1");
+        assertThat(attempts).hasValue(3);
+        assertThat(commitFailures).hasValue(0);
+    }
+
+    @Test
+    void commitsTheRestOfTheGroupWhenOneJournalEntryClashes() throws Exception {
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        database.put("ACC1", BigDecimal.ZERO);
+        start((balances, updates) -> {
+            await(releaseCommit);
+            for (BalanceShard.PendingUpdate update : updates) {
+                update.journal();
+            }
+            persist(balances, updates);
+        }, 3);
+
+        CompletableFuture<BalanceChange> blocker = shard.update("ACC1", balance -> balance.add(BigDecimal.ONE), c -> {
+        });
+        CompletableFuture<BalanceChange> first = shard.update("ACC1", balance -> balance.add(BigDecimal.TEN), c -> {
+        });
+        CompletableFuture<BalanceChange> clashing = shard.update("ACC1", balance -> balance.add(new BigDecimal("100")), c -> {
+            throw new DataIntegrityViolationException("duplicate key");
+        });
+        CompletableFuture<BalanceChange> last = shard.update("ACC1", balance -> balance.add(new BigDecimal("1000")), c -> {
+        });
+        releaseCommit.countDown();
+
+        blocker.get(5, TimeUnit.SECONDS);
+        assertThat(first.get(5, TimeUnit.SECONDS).newBalance()).isEqualByComparingTo("11");
+        assertThatThrownBy(() -> BalanceEngine.await(clashing)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(last.get(5, TimeUnit.SECONDS).newBalance()).isEqualByComparingTo("1011");
+        assertThat(database.get("ACC1")).isEqualByComparingTo("1011");
+    }
+
+    @Test
+    void rejectsAnUpdateWhoseOperationFailsWithoutCommittingIt() throws Exception {
+        database.put("ACC1", BigDecimal.ONE);
+        start(this::persist, 3);
+
+        CompletableFuture<BalanceChange> result = shard.update("ACC1", balance -> {
+            throw new RuntimeException("Insufficient balance");
+        }, c -> {
+        });
+
+        assertThatThrownBy(() -> BalanceEngine.await(result)).hasMessage("Insufficient balance");
+        assertThat(groupSizes).isEmpty();
+    }
+
+    private void start(BalanceShard.Committer committer, int maxAttempts) {
+        shard = new BalanceShard(0, this::load, committer, commitFailures::incrementAndGet,
+                500, maxAttempts, 1, 4, 100);
+        shard.start();
+    }
+
+    private Account load(String accountNumber) {
+        BigDecimal balance = database.get(accountNumber);
+        if (balance == null) {
+            throw new RuntimeException("Account not found with number: " + accountNumber);
+        }
+        return Account.builder()
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void persist(List<Account> balances, List<BalanceShard.PendingUpdate> updates) {
+        for (Account account : balances) {
+            database.put(account.getAccountNumber(), account.getBalance());
+        }
+        groupSizes.add(updates.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.account.engine;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Credits a small set of hot accounts from many threads through {@link AccountService#updateBalance}
+ * and reports updates per second and latency percentiles. Subclasses run it with the balance
+ * engine on and off; run with {@code mvn -B test -Pbenchmarks -pl account-service}.
+ */
+@Tag("benchmark")
+abstract class BalanceUpdateBenchmark {
+    private static final int THREADS = 16;
+    private static final int ACCOUNTS = 8;
+    private static final int WARMUP_UPDATES = 2_000;
+    private static final int MEASURED_UPDATES = 20_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.balance-engine.enabled}")
+    private boolean engineEnabled;
+
+    @Test
+    void creditHotAccounts() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(accountService.createAccount(AccountInput.builder()
+                    .customerId(1L)
+                    .accountType("CHECKING")
+                    .initialBalance(BigDecimal.ZERO)
+                    .currency("USD")
+                    .build()));
+        }
+
+        run(accounts, WARMUP_UPDATES);
+        long start = System.nanoTime();
+        long[] latencies = run(accounts, MEASURED_UPDATES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        System.out.printf("%s: %d updates from %d threads over %d accounts in %d ms: %.0f updates/s, "
+                        + "p50 %.2f ms, p99 %.2f ms%n",
+                engineEnabled ? "balance engine" : "row locks", MEASURED_UPDATES, THREADS, ACCOUNTS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), MEASURED_UPDATES * 1e9 / elapsedNanos,
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6);
+
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts WHERE account_number IN ("
+                        + String.join(",", accounts.stream().map(account -> "'" + account.getAccountNumber() + "'").toList())
+                        + ")", BigDecimal.class);
+        assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(WARMUP_UPDATES + MEASURED_UPDATES));
+    }
+
+    private long[] run(List<Account> accounts, int updates) throws Exception {
+        long[] latencies = new long[updates];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int first = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = first; i < updates; i += THREADS) {
+                        Account account = accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+                        long start = System.nanoTime();
+                        accountService.updateBalance(UpdateBalanceInput.builder()
+                                .accountNumber(account.getAccountNumber())
+                                .operationType("CREDIT")
+                                .amount(BigDecimal.ONE)
+                                .build());
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return latencies;
+    }
+}
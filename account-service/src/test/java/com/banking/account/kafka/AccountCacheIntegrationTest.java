@@ -0,0 +1,131 @@
+package com.banking.account.kafka;
+
+import com.banking.account.cache.AccountCache;
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.kafka.event.AccountUpdatedEvent;
+import com.banking.account.kafka.event.EventCodec;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "banking.velocity.enabled=false")
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class AccountCacheIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private EventOrigin eventOrigin;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Test
+    void balanceUpdateRolledBackByTheCallerLeavesTheCacheUntouched() {
+        Account account = createAccount();
+        accountService.getAccountByNumber(account.getAccountNumber());
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            accountService.updateBalance(credit(account, "50.00"));
+            throw new RuntimeException("Transfer leg failed");
+        })).hasMessage("Transfer leg failed");
+
+        assertThat(accountCache.getIfPresent(account.getAccountNumber()).getBalance()).isEqualByComparingTo("100.00");
+        assertThat(accountService.getAccountByNumber(account.getAccountNumber()).getBalance())
+                .isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void balanceUpdateRefreshesTheCacheOnceTheCallerCommits() {
+        Account account = createAccount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accountService.updateBalance(credit(account, "50.00"));
+            assertThat(accountCache.getIfPresent(account.getAccountNumber())).isNull();
+        });
+
+        assertThat(accountCache.getIfPresent(account.getAccountNumber()).getBalance()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void ownEventsAreSkippedAndOtherInstancesEventsInvalidate() throws InterruptedException {
+        // The listener starts from the latest offset, so events sent before it is assigned are lost
+        waitUntil(() -> listenerRegistry.getListenerContainers().stream()
+                .filter(container -> container.getGroupId().startsWith("account-cache-"))
+                .allMatch(container -> container.getAssignedPartitions() != null
+                        && !container.getAssignedPartitions().isEmpty()));
+        Account own = createAccount();
+        Account other = createAccount();
+        accountService.getAccountByNumber(own.getAccountNumber());
+        accountService.getAccountByNumber(other.getAccountNumber());
+
+        send(own, eventOrigin.instanceId());
+        send(other, "another-instance");
+
+        // Both events share a partition, so the own event has been handled once the other one is
+        waitUntil(() -> accountCache.getIfPresent(other.getAccountNumber()) == null);
+        assertThat(accountCache.getIfPresent(own.getAccountNumber())).isNotNull();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 30 s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private void send(Account account, String origin) {
+        AccountUpdatedEvent event = new AccountUpdatedEvent(account.getId(), account.getAccountNumber(), "ACTIVE",
+                null, null, LocalDateTime.now());
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(AccountUpdatedEvent.TOPIC, event.key(),
+                EventCodec.encode(event));
+        record.headers().add(EventOrigin.HEADER, origin.getBytes(StandardCharsets.UTF_8));
+        kafkaTemplate.send(record).join();
+    }
+
+    private Account createAccount() {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build());
+    }
+
+    private static UpdateBalanceInput credit(Account account, String amount) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(account.getAccountNumber())
+                .operationType("CREDIT")
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.account.kafka;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=true",
+        "banking.balance-engine.commit-max-attempts=1",
+        "banking.velocity.enabled=false",
+        "banking.transfers.max-attempts=3",
+        "banking.transfers.retry-backoff-ms=100"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class EngineTransferSagaIntegrationTest extends TransferSagaIntegrationTest {
+}
@@ -0,0 +1,15 @@
+package com.banking.account.kafka;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=false",
+        "banking.velocity.enabled=false",
+        "logging.level.com.banking.account=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class JpaTransferSagaBenchmark extends TransferSagaBenchmark {
+}
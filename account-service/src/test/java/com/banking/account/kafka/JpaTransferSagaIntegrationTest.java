@@ -0,0 +1,16 @@
+package com.banking.account.kafka;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=false",
+        "banking.velocity.enabled=false",
+        "banking.transfers.max-attempts=3",
+        "banking.transfers.retry-backoff-ms=100"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class JpaTransferSagaIntegrationTest extends TransferSagaIntegrationTest {
+}
@@ -0,0 +1,78 @@
+package com.banking.account.kafka;
+
+import com.banking.account.model.OutboxRelayLease;
+import com.banking.account.repository.OutboxRelayLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database of its own keeps the relays of other cached contexts away from the lease, and the
+// relay of this context only polls once at startup
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxleasedb;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///outboxleasedb",
+        "banking.outbox.poll-interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class OutboxLeaseIntegrationTest {
+    @Autowired
+    private OutboxRelayLeaseRepository leaseRepository;
+
+    @Autowired
+    private OutboxLease relayLease;
+
+    private static boolean relayPolled;
+
+    @BeforeEach
+    void clearLease() throws InterruptedException {
+        while (!relayPolled && !relayLease.isHeld()) {
+            Thread.sleep(20);
+        }
+        relayPolled = true;
+        relayLease.release();
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheLease() {
+        OutboxLease first = new OutboxLease(leaseRepository, 60_000);
+        OutboxLease second = new OutboxLease(leaseRepository, 60_000);
+
+        assertThat(first.tryAcquire()).isTrue();
+        assertThat(second.tryAcquire()).isFalse();
+        assertThat(first.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void releasedLeaseIsTakenOverRightAway() {
+        OutboxLease first = new OutboxLease(leaseRepository, 60_000);
+        OutboxLease second = new OutboxLease(leaseRepository, 60_000);
+        first.tryAcquire();
+
+        first.release();
+
+        assertThat(second.tryAcquire()).isTrue();
+        assertThat(first.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() {
+        OutboxLease stalled = new OutboxLease(leaseRepository, 60_000);
+        OutboxLease standby = new OutboxLease(leaseRepository, 60_000);
+        assertThat(stalled.tryAcquire()).isTrue();
+        assertThat(standby.tryAcquire()).isFalse();
+
+        OutboxRelayLease lease = leaseRepository.findById(OutboxLease.NAME).orElseThrow();
+        lease.setExpiresAt(System.currentTimeMillis() - 1);
+        leaseRepository.save(lease);
+
+        assertThat(standby.tryAcquire()).isTrue();
+        assertThat(stalled.tryAcquire()).isFalse();
+    }
+}
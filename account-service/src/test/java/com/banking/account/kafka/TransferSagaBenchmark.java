@@ -0,0 +1,122 @@
+package com.banking.account.kafka;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.kafka.event.EventCodec;
+import com.banking.account.kafka.event.TransactionCreatedEvent;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the transfer saga: publishes transaction-created events between a set of
+ * accounts as fast as the producer allows and reports settled transfers per second and the
+ * latency from publishing to the settled progress row. Subclasses run it with the balance
+ * engine on and off; run with {@code mvn -B test -Pbenchmarks -pl account-service}.
+ */
+@Tag("benchmark")
+abstract class TransferSagaBenchmark {
+    private static final int ACCOUNTS = 32;
+    private static final int WARMUP_TRANSFERS = 500;
+    private static final int MEASURED_TRANSFERS = 5_000;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.balance-engine.enabled}")
+    private boolean engineEnabled;
+
+    @Test
+    void settleTransfers() throws Exception {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(accountService.createAccount(AccountInput.builder()
+                    .customerId(1L)
+                    .accountType("CHECKING")
+                    .initialBalance(new BigDecimal("1000000"))
+                    .currency("USD")
+                    .build()));
+        }
+
+        run(accounts, "WARMUP-", WARMUP_TRANSFERS);
+        long start = System.nanoTime();
+        long[] latencies = run(accounts, "LOAD-", MEASURED_TRANSFERS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.printf("%s: %d transfers between %d accounts in %d ms: %.0f transfers/s, "
+                        + "p50 %d ms, p99 %d ms%n",
+                engineEnabled ? "balance engine" : "row locks", MEASURED_TRANSFERS, ACCOUNTS,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), MEASURED_TRANSFERS * 1e9 / elapsedNanos,
+                latencies[latencies.length / 2], latencies[latencies.length * 99 / 100]);
+
+        BigDecimal total = jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts WHERE account_number IN ("
+                        + String.join(",", accounts.stream().map(account -> "'" + account.getAccountNumber() + "'").toList())
+                        + ")", BigDecimal.class);
+        assertThat(total).isEqualByComparingTo(new BigDecimal("1000000").multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    // Returns the sorted publish-to-settle latencies in milliseconds
+    private long[] run(List<Account> accounts, String prefix, int transfers) throws Exception {
+        String runPrefix = prefix + System.nanoTime() + "-";
+        Map<String, Long> sentAt = new HashMap<>();
+        for (int i = 0; i < transfers; i++) {
+            int from = ThreadLocalRandom.current().nextInt(accounts.size());
+            int to = (from + 1 + ThreadLocalRandom.current().nextInt(accounts.size() - 1)) % accounts.size();
+            String transactionId = runPrefix + i;
+            TransactionCreatedEvent event = new TransactionCreatedEvent(transactionId,
+                    accounts.get(from).getAccountNumber(), accounts.get(to).getAccountNumber(), BigDecimal.ONE,
+                    "USD", "TRANSFER", "PENDING", null, LocalDateTime.now());
+            sentAt.put(transactionId, System.currentTimeMillis());
+            kafkaTemplate.send(TransactionCreatedEvent.TOPIC, transactionId, EventCodec.encode(event));
+        }
+        kafkaTemplate.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+        while (settled(runPrefix) < transfers) {
+            assertThat(System.nanoTime()).as("transfers settled within 10 minutes").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT transaction_id, updated_at FROM processed_transfers WHERE transaction_id LIKE ?", runPrefix + "%");
+        long[] latencies = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            long settledAt = ((Timestamp) rows.get(i).get("UPDATED_AT")).toLocalDateTime()
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            latencies[i] = settledAt - sentAt.get((String) rows.get(i).get("TRANSACTION_ID"));
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private int settled(String runPrefix) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM processed_transfers WHERE state = 'SETTLED' AND transaction_id LIKE ?",
+                Integer.class, runPrefix + "%");
+        return count == null ? 0 : count;
+    }
+}
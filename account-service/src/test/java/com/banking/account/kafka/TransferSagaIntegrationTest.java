@@ -0,0 +1,136 @@
+package com.banking.account.kafka;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.kafka.event.EventCodec;
+import com.banking.account.kafka.event.TransactionCreatedEvent;
+import com.banking.account.model.Account;
+import com.banking.account.model.ProcessedTransfer;
+import com.banking.account.repository.ProcessedTransferRepository;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs transfers through the transaction-created topic into the saga. Subclasses run it with
+ * the balance engine on and off.
+ */
+abstract class TransferSagaIntegrationTest {
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ProcessedTransferRepository processedTransferRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private AccountEventProducer eventProducer;
+
+    @Test
+    void settlesATransfer() throws Exception {
+        Account from = createAccount("100.00");
+        Account to = createAccount("0.00");
+
+        ProcessedTransfer progress = transferAndWait(from, to, "30.00");
+
+        assertThat(progress.getState()).isEqualTo(ProcessedTransfer.SETTLED);
+        assertThat(storedBalance(from)).isEqualByComparingTo("70.00");
+        assertThat(storedBalance(to)).isEqualByComparingTo("30.00");
+        verify(eventProducer).sendTransactionSettledEvent(argThat(event -> event.transactionId().equals(progress.getTransactionId())));
+    }
+
+    @Test
+    void rejectsATransferWithoutEnoughFunds() throws Exception {
+        Account from = createAccount("10.00");
+        Account to = createAccount("0.00");
+
+        ProcessedTransfer progress = transferAndWait(from, to, "30.00");
+
+        assertThat(progress.getState()).isEqualTo(ProcessedTransfer.REJECTED);
+        assertThat(progress.getReason()).isEqualTo("Debit failed: Insufficient balance");
+        assertThat(storedBalance(from)).isEqualByComparingTo("10.00");
+        verify(eventProducer).sendTransactionRejectedEvent(argThat(event -> event.transactionId().equals(progress.getTransactionId())));
+    }
+
+    @Test
+    void reversesTheDebitWhenTheTargetIsInactive() throws Exception {
+        Account from = createAccount("100.00");
+        Account to = createAccount("0.00");
+        accountService.updateAccountStatus(to.getAccountNumber(), "FROZEN");
+
+        ProcessedTransfer progress = transferAndWait(from, to, "30.00");
+
+        assertThat(progress.getState()).isEqualTo(ProcessedTransfer.COMPENSATED);
+        assertThat(storedBalance(from)).isEqualByComparingTo("100.00");
+        assertThat(storedBalance(to)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void parksATransferWhoseCreditKeepsFailing() throws Exception {
+        Account from = createAccount("100.00");
+        Account to = createAccount("0.00");
+        doThrow(new RuntimeException("Outbox unavailable")).when(eventProducer).sendTransactionSettledEvent(
+                argThat(event -> event.toAccountNumber().equals(to.getAccountNumber())));
+
+        ProcessedTransfer progress = transferAndWait(from, to, "30.00");
+
+        // The debit committed together with its progress row; the credit never did
+        assertThat(progress.getState()).isEqualTo(ProcessedTransfer.PARKED);
+        assertThat(progress.getReason()).startsWith("Parked with source debited");
+        assertThat(storedBalance(from)).isEqualByComparingTo("70.00");
+        assertThat(storedBalance(to)).isEqualByComparingTo("0.00");
+        verify(eventProducer, never()).sendTransactionRejectedEvent(argThat(event -> event.transactionId().equals(progress.getTransactionId())));
+    }
+
+    private ProcessedTransfer transferAndWait(Account from, Account to, String amount) throws Exception {
+        String transactionId = "TXN-" + UUID.randomUUID();
+        TransactionCreatedEvent event = new TransactionCreatedEvent(transactionId, from.getAccountNumber(),
+                to.getAccountNumber(), new BigDecimal(amount), "USD", "TRANSFER", "PENDING", null, LocalDateTime.now());
+        kafkaTemplate.send(TransactionCreatedEvent.TOPIC, transactionId, EventCodec.encode(event)).get();
+        waitUntil(() -> processedTransferRepository.findById(transactionId).filter(ProcessedTransfer::isFinished).isPresent());
+        Optional<ProcessedTransfer> progress = processedTransferRepository.findById(transactionId);
+        return progress.orElseThrow();
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal(balance))
+                .currency("USD")
+                .build());
+    }
+
+    private BigDecimal storedBalance(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE account_number = ?",
+                BigDecimal.class, account.getAccountNumber());
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met within 60 s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.banking.account.kafka.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the binary codec against the JSON path it replaced: a HashMap per event
+ * written with ObjectMapper as a String and read back as a Map. Run with the benchmarks
+ * profile; the GC profiler reports allocated bytes per operation.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+    private static final TypeReference<Map<String, Object>> JSON_MAP = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BalanceUpdatedEvent event = new BalanceUpdatedEvent(1_234_567L, "ACC0B4K9M2XQ7T1",
+            new BigDecimal("15230.75"), new BigDecimal("15105.50"), new BigDecimal("125.25"), "DEBIT",
+            LocalDateTime.of(2024, 5, 17, 10, 15, 30, 123_456_789));
+    private final byte[] binary = EventCodec.encode(event);
+    private final byte[] json = legacyJson(event).getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return EventCodec.encode(event);
+    }
+
+    @Benchmark
+    public DomainEvent decodeBinary() {
+        return EventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return legacyJson(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeJson() throws Exception {
+        return objectMapper.readValue(new String(json, StandardCharsets.UTF_8), JSON_MAP);
+    }
+
+    private String legacyJson(BalanceUpdatedEvent e) {
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("accountId", e.accountId());
+        eventData.put("accountNumber", e.accountNumber());
+        eventData.put("previousBalance", e.previousBalance());
+        eventData.put("newBalance", e.newBalance());
+        eventData.put("amount", e.amount());
+        eventData.put("operationType", e.operationType());
+        eventData.put("updatedAt", e.updatedAt().toString());
+        try {
+            return objectMapper.writeValueAsString(eventData);
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Test
+    void run() throws RunnerException {
+        System.out.printf("balance-updated event: %d bytes binary, %d bytes JSON%n", binary.length, json.length);
+        new Runner(new OptionsBuilder()
+                .include(EventCodecBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.banking.account.kafka.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 5, 17, 10, 15, 30, 123_456_789);
+
+    @Test
+    void decodesWhatItEncodes() {
+        List<DomainEvent> events = List.of(
+                new AccountCreatedEvent(1L, "ACC1", 7L, "CHECKING", new BigDecimal("100.00"), "USD", "ACTIVE", AT),
+                new AccountUpdatedEvent(1L, "ACC1", "FROZEN", 8, new BigDecimal("-12.345"), AT),
+                new AccountUpdatedEvent(null, "ACC1", null, null, null, null),
+                new BalanceUpdatedEvent(1L, "ACC1", new BigDecimal("100.00"), new BigDecimal("1e30"),
+                        new BigDecimal("0.01"), "CREDIT", AT),
+                new TransactionCreatedEvent("TXN1", "ACC1", "ACC2", new BigDecimal("5.00"), "USD", "TRANSFER",
+                        "PENDING", "Rent €", AT),
+                new TransactionSettledEvent("TXN1", "ACC1", "ACC2", new BigDecimal("5.00"), AT),
+                new TransactionRejectedEvent("TXN1", "ACC1", "ACC2", new BigDecimal("5.00"), "Insufficient balance", AT));
+
+        for (DomainEvent event : events) {
+            byte[] encoded = EventCodec.encode(event);
+            assertThat(EventCodec.isBinary(encoded)).isTrue();
+            assertThat(EventCodec.decode(encoded)).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void readsNewerVersionsAndIgnoresTheirAppendedComponents() {
+        BalanceUpdatedEvent event = new BalanceUpdatedEvent(1L, "ACC1", BigDecimal.ONE, BigDecimal.TEN,
+                new BigDecimal("9"), "CREDIT", AT);
+        byte[] encoded = EventCodec.encode(event);
+        byte[] newer = Arrays.copyOf(encoded, encoded.length + 3);
+        newer[1] = EventCodec.VERSION + 1;
+        newer[encoded.length] = 42;
+
+        assertThat(EventCodec.decode(newer)).isEqualTo(event);
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        byte[] encoded = EventCodec.encode(new TransactionSettledEvent("TXN1", "ACC1", "ACC2", BigDecimal.ONE, AT));
+
+        byte[] versionZero = encoded.clone();
+        versionZero[1] = 0;
+        assertThatThrownBy(() -> EventCodec.decode(versionZero)).hasMessage("Unsupported event version: 0");
+
+        byte[] unknownType = encoded.clone();
+        unknownType[2] = 99;
+        assertThatThrownBy(() -> EventCodec.decode(unknownType)).hasMessage("Unknown event type: 99");
+
+        assertThatThrownBy(() -> EventCodec.decode(Arrays.copyOf(encoded, encoded.length - 4)))
+                .hasMessageStartingWith("Truncated event");
+    }
+
+    @Test
+    void deserializerReadsBinaryAndLegacyJsonPayloads() {
+        EventDeserializer deserializer = new EventDeserializer(new ObjectMapper());
+        BalanceUpdatedEvent event = new BalanceUpdatedEvent(1L, "ACC1", new BigDecimal("100.00"),
+                new BigDecimal("75.00"), new BigDecimal("25.00"), "DEBIT", AT);
+        String json = "{\"accountId\":1,\"accountNumber\":\"ACC1\",\"previousBalance\":100.00,"
+                + "\"newBalance\":75.00,\"amount\":25.00,\"operationType\":\"DEBIT\","
+                + "\"updatedAt\":\"" + AT + "\"}";
+
+        assertThat(deserializer.deserialize(BalanceUpdatedEvent.TOPIC, EventCodec.encode(event))).isEqualTo(event);
+        assertThat(deserializer.deserialize(BalanceUpdatedEvent.TOPIC, json.getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(event);
+        String large = "{\"accountNumber\":\"ACC1\",\"newBalance\":12345678901234567.89}";
+        assertThat(((BalanceUpdatedEvent) deserializer.deserialize(BalanceUpdatedEvent.TOPIC,
+                large.getBytes(StandardCharsets.UTF_8))).newBalance()).isEqualTo(new BigDecimal("12345678901234567.89"));
+        assertThatThrownBy(() -> deserializer.deserialize(BalanceUpdatedEvent.TOPIC,
+                "not json".getBytes(StandardCharsets.UTF_8))).isInstanceOf(SerializationException.class);
+    }
+}
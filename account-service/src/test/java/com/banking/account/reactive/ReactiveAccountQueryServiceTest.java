@@ -0,0 +1,74 @@
+package com.banking.account.reactive;
+
+import com.banking.account.cache.AccountCache;
+import com.banking.account.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveAccountQueryServiceTest {
+    private final ReactiveAccountRepository repository = mock(ReactiveAccountRepository.class);
+    private final AccountCache accountCache = new AccountCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    private final ReactiveAccountQueryService service = new ReactiveAccountQueryService(repository, accountCache, 4);
+
+    @Test
+    void loadsAMissFromTheDatabaseAndCachesIt() {
+        when(repository.findByAccountNumber("ACC-1")).thenReturn(Mono.just(row(1L)));
+
+        Account account = service.getAccountByNumber("ACC-1").block();
+
+        assertThat(account.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(account.getStripeCount()).isEqualTo(1);
+        assertThat(accountCache.getIfPresent("ACC-1")).isEqualTo(account);
+    }
+
+    @Test
+    void servesACachedAccountWithoutTheDatabase() {
+        accountCache.put(row(2L).toAccount());
+
+        assertThat(service.getAccountByNumber("ACC-2").block().getId()).isEqualTo(2L);
+        verify(repository, never()).findByAccountNumber(anyString());
+    }
+
+    @Test
+    void failsForAnUnknownAccount() {
+        when(repository.findByAccountNumber("ACC-404")).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> service.getAccountByNumber("ACC-404").block())
+                .hasMessage("Account not found with number: ACC-404");
+        assertThat(accountCache.getIfPresent("ACC-404")).isNull();
+    }
+
+    @Test
+    void requestsCustomerAccountsPrefetchAtATime() {
+        AtomicLong largestRequest = new AtomicLong();
+        when(repository.findByCustomerId(42L)).thenReturn(Flux.fromStream(LongStream.rangeClosed(1, 10).mapToObj(
+                ReactiveAccountQueryServiceTest::row)).doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max)));
+
+        List<Account> accounts = service.getAccountsByCustomerId(42L).collectList().block();
+
+        assertThat(accounts).hasSize(10);
+        assertThat(largestRequest.get()).isEqualTo(4);
+    }
+
+    private static AccountRow row(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new AccountRow(id, "ACC-" + id, 42L, "SAVINGS", new BigDecimal("100.00"), "EUR", "ACTIVE", 1, now, now);
+    }
+}
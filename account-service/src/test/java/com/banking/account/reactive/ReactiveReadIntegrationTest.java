@@ -0,0 +1,112 @@
+package com.banking.account.reactive;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "banking.reactive-reads.enabled=true",
+        "banking.reactive-reads.prefetch=4",
+        "banking.velocity.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:reactivereads;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivereads"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class ReactiveReadIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Test
+    void servesAccountByNumberFromR2dbcWithTheFieldsOfTheJpaEntity() {
+        Account created = createAccount(customerId(), "250.00");
+        Account fromJpa = accountService.getAccountByNumber(created.getAccountNumber());
+
+        GraphQlTester.Response response = accountByNumber(created.getAccountNumber());
+
+        response.path("accountByNumber.id").entity(Long.class).isEqualTo(created.getId());
+        response.path("accountByNumber.customerId").entity(Long.class).isEqualTo(created.getCustomerId());
+        response.path("accountByNumber.balance").entity(Double.class).isEqualTo(250.0);
+        response.path("accountByNumber.status").entity(String.class).isEqualTo(fromJpa.getStatus());
+        response.path("accountByNumber.createdAt").entity(String.class).isEqualTo(fromJpa.getCreatedAt().toString());
+    }
+
+    @Test
+    void reportsTheBalanceAfterACommittedCredit() {
+        Account created = createAccount(customerId(), "10.00");
+        accountByNumber(created.getAccountNumber());
+
+        accountService.updateBalance(UpdateBalanceInput.builder()
+                .accountNumber(created.getAccountNumber())
+                .operationType("CREDIT")
+                .amount(new BigDecimal("5.00"))
+                .build());
+
+        accountByNumber(created.getAccountNumber()).path("accountByNumber.balance").entity(Double.class).isEqualTo(15.0);
+    }
+
+    @Test
+    void streamsAllAccountsOfACustomerBeyondThePrefetch() {
+        long customerId = customerId();
+        for (int i = 0; i < 10; i++) {
+            createAccount(customerId, "1.00");
+        }
+
+        List<String> accountNumbers = ExecutionGraphQlServiceTester.create(graphQlService)
+                .document("{ accountsByCustomerId(customerId: " + customerId + ") { accountNumber balance } }")
+                .execute()
+                .path("accountsByCustomerId[*].accountNumber").entityList(String.class).get();
+
+        assertThat(accountNumbers).containsExactlyInAnyOrderElementsOf(accountService.getAccountsByCustomerId(customerId)
+                .stream().map(Account::getAccountNumber).toList());
+        assertThat(accountNumbers).hasSize(10);
+    }
+
+    @Test
+    void reportsAnUnknownAccountAsAGraphQlError() {
+        ExecutionGraphQlServiceTester.create(graphQlService)
+                .document("{ accountByNumber(accountNumber: \"ACC-UNKNOWN\") { id } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).singleElement()
+                        .satisfies(error -> assertThat(error.getPath()).isEqualTo("accountByNumber")));
+    }
+
+    private GraphQlTester.Response accountByNumber(String accountNumber) {
+        return ExecutionGraphQlServiceTester.create(graphQlService)
+                .document("{ accountByNumber(accountNumber: \"" + accountNumber + "\") "
+                        + "{ id customerId balance status createdAt } }")
+                .execute();
+    }
+
+    private Account createAccount(long customerId, String initialBalance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(customerId)
+                .accountType("SAVINGS")
+                .initialBalance(new BigDecimal(initialBalance))
+                .currency("EUR")
+                .build());
+    }
+
+    private static long customerId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000, 2_000_000);
+    }
+}
@@ -0,0 +1,146 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.BalanceUpdateResult;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.kafka.AccountEventProducer;
+import com.banking.account.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Idempotency keys of balance updates, from the in-memory store and from
+ * applied_balance_updates. Subclasses run it with the balance engine on and off.
+ */
+abstract class BalanceUpdateIdempotencyIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private AccountEventProducer eventProducer;
+
+    @Test
+    void appliesARepeatedKeyOnce() {
+        Account account = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+
+        accountService.updateBalance(update(account, "10.00", key));
+        Account repeated = accountService.updateBalance(update(account, "10.00", key));
+
+        assertThat(repeated.getAccountNumber()).isEqualTo(account.getAccountNumber());
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+        assertThat(storedKeyAccount(key)).isEqualTo(account.getAccountNumber());
+    }
+
+    @Test
+    void rejectsARecentKeyRetriedForAnotherAccount() {
+        Account account = createAccount("0.00");
+        Account other = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+        accountService.updateBalance(update(account, "10.00", key));
+
+        assertThatThrownBy(() -> accountService.updateBalance(update(other, "10.00", key)))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage("Idempotency key " + key + " was already used for another account");
+        assertThat(storedBalance(other)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void resolvesAKeyOnlyKnownToTheDatabase() {
+        Account account = createAccount("0.00");
+        Account other = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO applied_balance_updates (idempotency_key, account_number, applied_at) "
+                + "VALUES (?, ?, CURRENT_TIMESTAMP)", key, account.getAccountNumber());
+
+        assertThat(accountService.updateBalance(update(account, "10.00", key)).getAccountNumber())
+                .isEqualTo(account.getAccountNumber());
+        assertThat(storedBalance(account)).isEqualByComparingTo("0.00");
+
+        String otherKey = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO applied_balance_updates (idempotency_key, account_number, applied_at) "
+                + "VALUES (?, ?, CURRENT_TIMESTAMP)", otherKey, account.getAccountNumber());
+        assertThatThrownBy(() -> accountService.updateBalance(update(other, "10.00", otherKey)))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThat(storedBalance(other)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void commitsTheKeyOnlyWithTheBalance() {
+        Account account = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+        doThrow(new RuntimeException("Outbox unavailable")).when(eventProducer).sendBalanceUpdatedEvent(
+                argThat(event -> event.accountNumber().equals(account.getAccountNumber())));
+
+        assertThatThrownBy(() -> accountService.updateBalance(update(account, "10.00", key)));
+        assertThat(storedKeyAccount(key)).isNull();
+        assertThat(storedBalance(account)).isEqualByComparingTo("0.00");
+
+        reset(eventProducer);
+        accountService.updateBalance(update(account, "10.00", key));
+        assertThat(storedKeyAccount(key)).isEqualTo(account.getAccountNumber());
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void failsABatchInputWhoseKeyBelongsToAnotherAccount() {
+        Account account = createAccount("0.00");
+        Account other = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                update(account, "10.00", key),
+                update(account, "10.00", key),
+                update(other, "10.00", key)));
+
+        assertThat(results).extracting(BalanceUpdateResult::isSuccess).containsExactly(true, true, false);
+        assertThat(results).extracting(BalanceUpdateResult::isDuplicate).containsExactly(false, true, false);
+        assertThat(results.get(2).getError()).isEqualTo("Idempotency key " + key + " was already used for another account");
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+        assertThat(storedBalance(other)).isEqualByComparingTo("0.00");
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal(balance))
+                .currency("USD")
+                .build());
+    }
+
+    private static UpdateBalanceInput update(Account account, String amount, String key) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(account.getAccountNumber())
+                .operationType("CREDIT")
+                .amount(new BigDecimal(amount))
+                .idempotencyKey(key)
+                .build();
+    }
+
+    private BigDecimal storedBalance(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE account_number = ?",
+                BigDecimal.class, account.getAccountNumber());
+    }
+
+    private String storedKeyAccount(String key) {
+        List<String> accountNumbers = jdbcTemplate.queryForList(
+                "SELECT account_number FROM applied_balance_updates WHERE idempotency_key = ?", String.class, key);
+        return accountNumbers.isEmpty() ? null : accountNumbers.get(0);
+    }
+}
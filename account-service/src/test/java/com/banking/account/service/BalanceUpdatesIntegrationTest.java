@@ -0,0 +1,122 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.BalanceUpdateResult;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.model.Account;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "banking.balance-updates.max-batch-size=5",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class BalanceUpdatesIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void eachResultReportsTheAccountAsOfItsOwnUpdate() {
+        Account account = createAccount("0.00");
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                update(account, "CREDIT", "10.00", null),
+                update(account, "CREDIT", "20.00", null),
+                update(account, "DEBIT", "5.00", null)));
+
+        assertThat(results).extracting(BalanceUpdateResult::getNewBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("30.00"), new BigDecimal("25.00"));
+        assertThat(results).extracting(result -> result.getAccount().getBalance())
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("30.00"), new BigDecimal("25.00"));
+        assertThat(storedBalance(account)).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void aRejectedInputDoesNotFailTheRestOfTheGroup() {
+        Account first = createAccount("5.00");
+        Account second = createAccount("5.00");
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                update(first, "DEBIT", "6.00", null),
+                update(second, "CREDIT", "1.00", null),
+                update(account("ACC-MISSING"), "CREDIT", "1.00", null)));
+
+        assertThat(results).extracting(BalanceUpdateResult::isSuccess).containsExactly(false, true, false);
+        assertThat(results.get(0).getError()).isEqualTo("Insufficient balance");
+        assertThat(results.get(2).getError()).isEqualTo("Account not found with number: ACC-MISSING");
+        assertThat(storedBalance(first)).isEqualByComparingTo("5.00");
+        assertThat(storedBalance(second)).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void repeatedIdempotencyKeyIsAppliedOnce() {
+        Account account = createAccount("0.00");
+        String key = UUID.randomUUID().toString();
+
+        List<BalanceUpdateResult> results = accountService.updateBalances(List.of(
+                update(account, "CREDIT", "10.00", key),
+                update(account, "CREDIT", "10.00", key)));
+
+        assertThat(results).extracting(BalanceUpdateResult::isDuplicate).containsExactly(false, true);
+        assertThat(storedBalance(account)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void rejectsBatchesAboveTheConfiguredSize() {
+        Account account = createAccount("0.00");
+        List<UpdateBalanceInput> inputs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            inputs.add(update(account, "CREDIT", "1.00", null));
+        }
+
+        assertThatThrownBy(() -> accountService.updateBalances(inputs))
+                .hasMessage("At most 5 balance updates can be applied at once");
+        assertThat(storedBalance(account)).isEqualByComparingTo("0.00");
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal(balance))
+                .currency("USD")
+                .build());
+    }
+
+    private static Account account(String accountNumber) {
+        return Account.builder().accountNumber(accountNumber).build();
+    }
+
+    private static UpdateBalanceInput update(Account account, String operationType, String amount, String key) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(account.getAccountNumber())
+                .operationType(operationType)
+                .amount(new BigDecimal(amount))
+                .idempotencyKey(key)
+                .build();
+    }
+
+    private BigDecimal storedBalance(Account account) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE account_number = ?",
+                BigDecimal.class, account.getAccountNumber());
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.account.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=true",
+        "banking.balance-engine.commit-max-attempts=1",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class EngineBalanceUpdateIdempotencyIntegrationTest extends BalanceUpdateIdempotencyIntegrationTest {
+}
@@ -0,0 +1,98 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.model.Account;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Credits one hot account from 1 to 32 threads, once with a single balance row and once
+ * striped across 8 slots, and reports credits per second for each thread count.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "banking.velocity.enabled=false",
+        "logging.level.com.banking.account=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class HotAccountStripingBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+    private static final int STRIPE_COUNT = 8;
+    private static final int CREDITS = 4_000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void creditOneHotAccount() throws Exception {
+        Account single = createAccount();
+        Account striped = createAccount();
+        accountService.updateAccountStriping(striped.getAccountNumber(), STRIPE_COUNT);
+        run(single, 4, CREDITS / 4);
+        run(striped, 4, CREDITS / 4);
+
+        System.out.printf("%8s %16s %16s %10s%n", "threads", "single credits/s", "striped credits/s", "errors");
+        for (int threads : THREAD_COUNTS) {
+            double[] singleResult = run(single, threads, CREDITS);
+            double[] stripedResult = run(striped, threads, CREDITS);
+            System.out.printf("%8d %16.0f %16.0f %5.0f/%.0f%n", threads, singleResult[0], stripedResult[0],
+                    singleResult[1], stripedResult[1]);
+        }
+    }
+
+    // Returns {credits per second, failed credits}
+    private double[] run(Account account, int threads, int credits) throws Exception {
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = first; i < credits; i += threads) {
+                        try {
+                            accountService.updateBalance(UpdateBalanceInput.builder()
+                                    .accountNumber(account.getAccountNumber())
+                                    .operationType("CREDIT")
+                                    .amount(BigDecimal.ONE)
+                                    .build());
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        return new double[]{(credits - failed.get()) * 1e9 / elapsedNanos, failed.get()};
+    }
+
+    private Account createAccount() {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(BigDecimal.ZERO)
+                .currency("USD")
+                .build());
+    }
+}
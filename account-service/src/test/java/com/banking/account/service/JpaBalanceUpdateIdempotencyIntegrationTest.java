@@ -0,0 +1,14 @@
+package com.banking.account.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "banking.balance-engine.enabled=false",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class JpaBalanceUpdateIdempotencyIntegrationTest extends BalanceUpdateIdempotencyIntegrationTest {
+}
@@ -0,0 +1,114 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.model.Account;
+import com.banking.account.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "banking.velocity.enabled=false")
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class StripedBalanceIntegrationTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void creditsAndDebitsSpreadOverSlotsKeepTheTotal() {
+        Account account = createAccount("100.00");
+        accountService.updateAccountStriping(account.getAccountNumber(), 4);
+
+        accountService.updateBalance(update(account, "CREDIT", "7.50"));
+        accountService.updateBalance(update(account, "DEBIT", "57.50"));
+
+        assertThat(balanceOf(account)).isEqualByComparingTo("50.00");
+        accountService.updateAccountStriping(account.getAccountNumber(), 0);
+        assertThat(accountRepository.findByAccountNumber(account.getAccountNumber()).orElseThrow().getBalance())
+                .isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void noCreditIsLostWhileTheStripeCountChanges() throws Exception {
+        Account account = createAccount("100.00");
+        accountService.updateAccountStriping(account.getAccountNumber(), 4);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicBoolean crediting = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            Future<?> restriping = executor.submit(() -> {
+                int[] stripeCounts = {8, 2, 0, 4};
+                for (int i = 0; crediting.get(); i++) {
+                    try {
+                        accountService.updateAccountStriping(account.getAccountNumber(), stripeCounts[i % stripeCounts.length]);
+                    } catch (RuntimeException e) {
+                        // Lock timeouts under contention only delay the next change
+                    }
+                }
+            });
+            List<Future<?>> creditors = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                creditors.add(executor.submit(() -> {
+                    for (int i = 0; i < 40; i++) {
+                        try {
+                            accountService.updateBalance(update(account, "CREDIT", "1.00"));
+                            applied.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // A lock timeout rejects the credit, which must then leave no trace
+                        }
+                    }
+                }));
+            }
+            for (Future<?> creditor : creditors) {
+                creditor.get();
+            }
+            crediting.set(false);
+            restriping.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(applied.get()).isPositive();
+        assertThat(balanceOf(account)).isEqualByComparingTo(new BigDecimal(100 + applied.get()));
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        Account current = accountRepository.findByAccountNumber(account.getAccountNumber()).orElseThrow();
+        return accountService.getBalances(List.of(current)).get(current);
+    }
+
+    private Account createAccount(String balance) {
+        return accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("CHECKING")
+                .initialBalance(new BigDecimal(balance))
+                .currency("USD")
+                .build());
+    }
+
+    private static UpdateBalanceInput update(Account account, String operationType, String amount) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(account.getAccountNumber())
+                .operationType(operationType)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
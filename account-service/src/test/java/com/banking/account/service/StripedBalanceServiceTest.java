@@ -0,0 +1,117 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.engine.BalanceChange;
+import com.banking.account.model.Account;
+import com.banking.account.model.AccountBalanceSlot;
+import com.banking.account.repository.AccountBalanceSlotRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StripedBalanceServiceTest {
+    private static final String ACCOUNT_NUMBER = "ACC1";
+
+    private final AccountBalanceSlotRepository slotRepository = mock(AccountBalanceSlotRepository.class);
+    private final StripedBalanceService service = new StripedBalanceService(slotRepository);
+    private final Account account = Account.builder().accountNumber(ACCOUNT_NUMBER).stripeCount(4).build();
+
+    @Test
+    void creditReportsTheTotalReadUnderTheSlotLockAsPreviousBalance() {
+        AccountBalanceSlot slot = slot(0, "10.00");
+        when(slotRepository.findForUpdateByAccountNumberAndSlotIndex(eq(ACCOUNT_NUMBER), anyInt()))
+                .thenReturn(Optional.of(slot));
+        when(slotRepository.sumBalance(ACCOUNT_NUMBER)).thenReturn(new BigDecimal("40.00"));
+
+        BalanceChange change = service.tryApply(account, 4, input("CREDIT", "5.00"), current -> current.add(new BigDecimal("5.00")));
+
+        assertThat(change.previousBalance()).isEqualByComparingTo("40.00");
+        assertThat(change.newBalance()).isEqualByComparingTo("45.00");
+        assertThat(slot.getBalance()).isEqualByComparingTo("15.00");
+        verify(slotRepository).save(slot);
+    }
+
+    @Test
+    void creditGivesUpWhenItsSlotNoLongerExists() {
+        when(slotRepository.findForUpdateByAccountNumberAndSlotIndex(eq(ACCOUNT_NUMBER), anyInt()))
+                .thenReturn(Optional.empty());
+
+        assertThat(service.tryApply(account, 4, input("CREDIT", "5.00"), current -> current)).isNull();
+        assertThatThrownBy(() -> service.apply(account, input("CREDIT", "5.00"), current -> current))
+                .hasMessage("Balance slots of account ACC1 do not match its stripe count");
+        verify(slotRepository, never()).save(any());
+    }
+
+    @Test
+    void debitGivesUpWhenTheSlotsWereReplaced() {
+        when(slotRepository.findForUpdateByAccountNumber(ACCOUNT_NUMBER))
+                .thenReturn(slots("1.00", "1.00", "1.00", "1.00", "1.00", "1.00", "1.00", "1.00"));
+
+        assertThat(service.tryApply(account, 4, input("DEBIT", "1.00"), current -> current.subtract(BigDecimal.ONE)))
+                .isNull();
+    }
+
+    @Test
+    void debitSpreadsTheRemainderEvenlyWithTheRoundingInTheFirstSlot() {
+        List<AccountBalanceSlot> slots = slots("10.00", "0.00", "3.01", "0.00");
+        when(slotRepository.findForUpdateByAccountNumber(ACCOUNT_NUMBER)).thenReturn(slots);
+
+        BalanceChange change = service.tryApply(account, 4, input("DEBIT", "3.00"),
+                current -> current.subtract(new BigDecimal("3.00")));
+
+        assertThat(change.previousBalance()).isEqualByComparingTo("13.01");
+        assertThat(change.newBalance()).isEqualByComparingTo("10.01");
+        assertThat(slots).extracting(AccountBalanceSlot::getBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("2.51"), new BigDecimal("2.50"), new BigDecimal("2.50"), new BigDecimal("2.50"));
+    }
+
+    @Test
+    void rejectedDebitLeavesTheSlotsUnchanged() {
+        List<AccountBalanceSlot> slots = slots("1.00", "1.00", "1.00", "1.00");
+        when(slotRepository.findForUpdateByAccountNumber(ACCOUNT_NUMBER)).thenReturn(slots);
+
+        assertThatThrownBy(() -> service.tryApply(account, 4, input("DEBIT", "5.00"), current -> {
+            throw new RuntimeException("Insufficient balance");
+        })).hasMessage("Insufficient balance");
+        assertThat(slots).extracting(AccountBalanceSlot::getBalance)
+                .allSatisfy(balance -> assertThat(balance).isEqualByComparingTo("1.00"));
+    }
+
+    private static UpdateBalanceInput input(String operationType, String amount) {
+        return UpdateBalanceInput.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .operationType(operationType)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static List<AccountBalanceSlot> slots(String... balances) {
+        List<AccountBalanceSlot> slots = new ArrayList<>();
+        for (int i = 0; i < balances.length; i++) {
+            slots.add(slot(i, balances[i]));
+        }
+        return slots;
+    }
+
+    private static AccountBalanceSlot slot(int index, String balance) {
+        return AccountBalanceSlot.builder()
+                .accountNumber(ACCOUNT_NUMBER)
+                .slotIndex(index)
+                .balance(new BigDecimal(balance))
+                .build();
+    }
+}
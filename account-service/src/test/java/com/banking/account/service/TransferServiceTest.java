@@ -0,0 +1,181 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.UpdateBalanceInput;
+import com.banking.account.engine.BalanceChange;
+import com.banking.account.kafka.AccountEventProducer;
+import com.banking.account.kafka.event.TransactionCreatedEvent;
+import com.banking.account.kafka.event.TransactionRejectedEvent;
+import com.banking.account.model.Account;
+import com.banking.account.model.ProcessedTransfer;
+import com.banking.account.repository.ProcessedTransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransferServiceTest {
+    private final AccountService accountService = mock(AccountService.class);
+    private final ProcessedTransferRepository processedTransferRepository = mock(ProcessedTransferRepository.class);
+    private final AccountEventProducer eventProducer = mock(AccountEventProducer.class);
+    private final List<String> legs = new ArrayList<>();
+    private final List<RuntimeException> legFailures = new ArrayList<>();
+    private TransferService transferService;
+
+    @BeforeEach
+    void setUp() {
+        transferService = new TransferService(accountService, processedTransferRepository, eventProducer,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        when(processedTransferRepository.findById(any())).thenReturn(Optional.empty());
+        when(accountService.getAccountByNumber(any())).thenAnswer(invocation -> account(invocation.getArgument(0), "ACTIVE"));
+        when(accountService.updateBalance(any(), any())).thenAnswer(invocation -> {
+            UpdateBalanceInput input = invocation.getArgument(0);
+            legs.add(input.getOperationType() + " " + input.getAccountNumber());
+            if (!legFailures.isEmpty()) {
+                RuntimeException failure = legFailures.remove(0);
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            Consumer<BalanceChange> journal = invocation.getArgument(1);
+            journal.accept(null);
+            return account(input.getAccountNumber(), "ACTIVE");
+        });
+    }
+
+    @Test
+    void settlesATransferWithBothLegsJournaled() {
+        transferService.process(transfer());
+
+        assertThat(legs).containsExactly("DEBIT ACC-FROM", "CREDIT ACC-TO");
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.DEBITED, ProcessedTransfer.SETTLED);
+        verify(eventProducer).sendTransactionSettledEvent(any());
+    }
+
+    @Test
+    void rejectsATransferWhoseDebitBreaksABusinessRule() {
+        legFailures.add(new BusinessRuleException("Insufficient balance"));
+
+        transferService.process(transfer());
+
+        assertThat(legs).containsExactly("DEBIT ACC-FROM");
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.REJECTED);
+        ArgumentCaptor<TransactionRejectedEvent> rejected = ArgumentCaptor.forClass(TransactionRejectedEvent.class);
+        verify(eventProducer).sendTransactionRejectedEvent(rejected.capture());
+        assertThat(rejected.getValue().reason()).isEqualTo("Debit failed: Insufficient balance");
+    }
+
+    @Test
+    void rejectsATransferFromAnInactiveAccountWithoutDebitingIt() {
+        when(accountService.getAccountByNumber("ACC-FROM")).thenReturn(account("ACC-FROM", "FROZEN"));
+
+        transferService.process(transfer());
+
+        assertThat(legs).isEmpty();
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.REJECTED);
+    }
+
+    @Test
+    void rethrowsOtherDebitFailuresWithoutRejecting() {
+        legFailures.add(new RuntimeException("Balance update could not be persisted"));
+
+        assertThatThrownBy(() -> transferService.process(transfer()))
+                .hasMessage("Balance update could not be persisted");
+
+        assertThat(savedStates()).isEmpty();
+        verify(eventProducer, never()).sendTransactionRejectedEvent(any());
+    }
+
+    @Test
+    void reversesTheDebitWhenTheCreditBreaksABusinessRule() {
+        when(accountService.getAccountByNumber("ACC-TO")).thenReturn(account("ACC-TO", "CLOSED"));
+
+        transferService.process(transfer());
+
+        assertThat(legs).containsExactly("DEBIT ACC-FROM", "CREDIT ACC-FROM");
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.DEBITED, ProcessedTransfer.COMPENSATED);
+        verify(eventProducer).sendTransactionRejectedEvent(any());
+    }
+
+    @Test
+    void resumesADebitedTransferWithItsCredit() {
+        when(processedTransferRepository.findById("TXN-1")).thenReturn(Optional.of(progress(ProcessedTransfer.DEBITED)));
+        legFailures.add(new RuntimeException("Lock timeout"));
+
+        assertThatThrownBy(() -> transferService.process(transfer())).hasMessage("Lock timeout");
+        transferService.process(transfer());
+
+        assertThat(legs).containsExactly("CREDIT ACC-TO", "CREDIT ACC-TO");
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.SETTLED);
+    }
+
+    @Test
+    void rethrowsAFailedCompensation() {
+        when(accountService.getAccountByNumber("ACC-TO")).thenReturn(account("ACC-TO", "CLOSED"));
+        legFailures.add(null);
+        legFailures.add(new RuntimeException("Database unavailable"));
+
+        assertThatThrownBy(() -> transferService.process(transfer())).hasMessage("Database unavailable");
+
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.DEBITED);
+        verify(eventProducer, never()).sendTransactionRejectedEvent(any());
+    }
+
+    @Test
+    void parksATransferAndRecordsWhichLegWasApplied() {
+        when(processedTransferRepository.findById("TXN-1")).thenReturn(Optional.of(progress(ProcessedTransfer.DEBITED)));
+
+        transferService.park(transfer(), new RuntimeException("Database unavailable"));
+
+        ArgumentCaptor<ProcessedTransfer> saved = ArgumentCaptor.forClass(ProcessedTransfer.class);
+        verify(processedTransferRepository).save(saved.capture());
+        assertThat(saved.getValue().getState()).isEqualTo(ProcessedTransfer.PARKED);
+        assertThat(saved.getValue().getReason()).isEqualTo("Parked with source debited: Database unavailable");
+        assertThat(saved.getValue().isFinished()).isTrue();
+        verify(eventProducer, never()).sendTransactionRejectedEvent(any());
+    }
+
+    @Test
+    void skipsTheLegsOfTheExternalCounterparty() {
+        transferService.process(new TransactionCreatedEvent("TXN-1", TransferService.EXTERNAL_ACCOUNT, "ACC-TO",
+                BigDecimal.TEN, "EUR", "DEPOSIT", "PENDING", null, LocalDateTime.now()));
+
+        assertThat(legs).containsExactly("CREDIT ACC-TO");
+        assertThat(savedStates()).containsExactly(ProcessedTransfer.DEBITED, ProcessedTransfer.SETTLED);
+    }
+
+    private List<String> savedStates() {
+        ArgumentCaptor<ProcessedTransfer> saved = ArgumentCaptor.forClass(ProcessedTransfer.class);
+        verify(processedTransferRepository, atLeast(0)).save(saved.capture());
+        return saved.getAllValues().stream().map(ProcessedTransfer::getState).toList();
+    }
+
+    private static TransactionCreatedEvent transfer() {
+        return new TransactionCreatedEvent("TXN-1", "ACC-FROM", "ACC-TO", BigDecimal.TEN, "EUR", "TRANSFER",
+                "PENDING", null, LocalDateTime.now());
+    }
+
+    private static ProcessedTransfer progress(String state) {
+        return ProcessedTransfer.builder().transactionId("TXN-1").state(state).build();
+    }
+
+    private static Account account(String accountNumber, String status) {
+        return Account.builder().accountNumber(accountNumber).status(status).balance(BigDecimal.ZERO).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.banking.account.velocity;
+
+import com.banking.account.service.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VelocityLimiterTest {
+
+    @Test
+    void rejectsTheDebitOverTheLimit() {
+        VelocityLimiter limiter = limiter(true);
+        limiter.acquire("ACC-1", BigDecimal.TEN);
+        limiter.acquire("ACC-1", BigDecimal.TEN);
+
+        assertThatThrownBy(() -> limiter.acquire("ACC-1", BigDecimal.TEN))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage("Velocity limit exceeded for account ACC-1: more than 2 debits or 100.00 in 1 minute");
+    }
+
+    @Test
+    void releasedDebitsNoLongerCount() {
+        VelocityLimiter limiter = limiter(true);
+        limiter.acquire("ACC-1", BigDecimal.TEN);
+        long acquiredAt = limiter.acquire("ACC-1", BigDecimal.TEN);
+
+        limiter.release("ACC-1", BigDecimal.TEN, acquiredAt);
+
+        assertThat(limiter.acquire("ACC-1", BigDecimal.TEN)).isNotEqualTo(VelocityLimiter.NOT_ACQUIRED);
+    }
+
+    @Test
+    void recordsDebitsOfOtherInstancesFromTheLastDayOnly() {
+        VelocityLimiter limiter = limiter(true);
+        limiter.record("ACC-1", BigDecimal.TEN, limiter.getReplayFrom() - 1);
+        limiter.record("ACC-2", BigDecimal.TEN, System.currentTimeMillis());
+        limiter.record("ACC-2", BigDecimal.TEN, System.currentTimeMillis());
+
+        assertThat(limiter.getAccountCount()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.acquire("ACC-2", BigDecimal.TEN)).isInstanceOf(BusinessRuleException.class);
+    }
+
+    @Test
+    void admitsEverythingWhenDisabled() {
+        VelocityLimiter limiter = limiter(false);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire("ACC-1", BigDecimal.TEN)).isEqualTo(VelocityLimiter.NOT_ACQUIRED);
+        }
+        limiter.record("ACC-1", BigDecimal.TEN, System.currentTimeMillis());
+
+        assertThat(limiter.getAccountCount()).isZero();
+    }
+
+    private static VelocityLimiter limiter(boolean enabled) {
+        return new VelocityLimiter(enabled, 10, 4, 2, new BigDecimal("100"), 10, new BigDecimal("1000"),
+                100, new BigDecimal("10000"));
+    }
+}
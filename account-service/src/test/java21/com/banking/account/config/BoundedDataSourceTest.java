@@ -0,0 +1,73 @@
+package com.banking.account.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedDataSourceTest {
+    private final DataSource target = mock(DataSource.class);
+
+    @Test
+    void refusesAConnectionBeyondThePermitsOnceTheWaitIsOver() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 2, 50);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessage("No connection available within 50 ms");
+
+        first.close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void returnsThePermitOnlyOnceForARepeatedClose() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, 50);
+
+        Connection bounded = dataSource.getConnection();
+        bounded.close();
+        bounded.close();
+
+        verify(connection, atLeastOnce()).close();
+        dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void returnsThePermitWhenThePoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(mock(Connection.class));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void passesOtherCallsToTheConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement("SELECT 1")).thenThrow(new SQLException("syntax error"));
+        when(target.getConnection()).thenReturn(connection);
+
+        Connection bounded = new BoundedDataSource(target, 1, 50).getConnection();
+
+        assertThat(bounded.getAutoCommit()).isTrue();
+        assertThatThrownBy(() -> bounded.prepareStatement("SELECT 1"))
+                .isInstanceOf(SQLException.class)
+                .hasMessage("syntax error");
+    }
+}
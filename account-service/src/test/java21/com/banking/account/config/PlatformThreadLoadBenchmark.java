@@ -0,0 +1,16 @@
+package com.banking.account.config;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "banking.virtual-threads.enabled=false",
+        "banking.velocity.enabled=false",
+        "logging.level.com.banking.account=WARN",
+        "logging.level.org.springframework.graphql=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class PlatformThreadLoadBenchmark extends ThreadModeLoadBenchmark {
+}
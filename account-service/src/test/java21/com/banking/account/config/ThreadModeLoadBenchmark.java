@@ -0,0 +1,121 @@
+package com.banking.account.config;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the GraphQL endpoint with a fixed number of closed-loop clients at 50, 200 and 800
+ * concurrent requests and reports requests per second, p99 latency and failed requests.
+ * Subclasses run it with platform and with virtual request threads; this replaces
+ * scripts/load-test.sh where hey is not available. The clients are platform threads so they do
+ * not compete with the server for carrier threads.
+ */
+@Tag("benchmark")
+abstract class ThreadModeLoadBenchmark {
+    private static final int[] CONCURRENCY = {50, 200, 800};
+    private static final long DURATION_MS = 10_000;
+    private static final String QUERY =
+            "{\"query\":\"{ accountsConnection(first: 20) { edges { node { accountNumber balance } } } }\"}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Value("${banking.virtual-threads.enabled}")
+    private boolean virtualThreads;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void graphQlUnderRisingConcurrency() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            accountService.createAccount(AccountInput.builder()
+                    .customerId(1L)
+                    .accountType("SAVINGS")
+                    .initialBalance(BigDecimal.TEN)
+                    .currency("EUR")
+                    .build());
+        }
+        run(50, DURATION_MS / 2);
+
+        System.out.printf("%-9s %12s %10s %10s %10s%n", "mode", "concurrency", "req/s", "p99-ms", "errors");
+        for (int concurrency : CONCURRENCY) {
+            Result result = run(concurrency, DURATION_MS);
+            System.out.printf("%-9s %12d %10.0f %10.1f %10d%n", virtualThreads ? "virtual" : "platform",
+                    concurrency, result.requestsPerSecond, result.p99Ms, result.errors);
+        }
+    }
+
+    private Result run(int concurrency, long durationMs) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/graphql"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(QUERY))
+                .build();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + durationMs * 1_000_000;
+        for (int c = 0; c < concurrency; c++) {
+            long[] samples = new long[1 << 16];
+            latencies.add(samples);
+            clients.add(Thread.ofPlatform().start(() -> {
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                    if (n < samples.length - 1) {
+                        samples[++n] = System.nanoTime() - sent;
+                    }
+                }
+                samples[0] = n;
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int total = 0;
+        for (long[] samples : latencies) {
+            total += (int) samples[0];
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 1, all, position, (int) samples[0]);
+            position += (int) samples[0];
+        }
+        Arrays.sort(all);
+        double p99Ms = all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1e6;
+        return new Result(completed.get() / seconds, p99Ms, errors.get());
+    }
+
+    private record Result(double requestsPerSecond, double p99Ms, long errors) {
+    }
+}
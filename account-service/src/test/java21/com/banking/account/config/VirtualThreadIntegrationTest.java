@@ -0,0 +1,88 @@
+package com.banking.account.config;
+
+import com.banking.account.dto.AccountInput;
+import com.banking.account.model.Account;
+import com.banking.account.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "banking.virtual-threads.enabled=true",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class VirtualThreadIntegrationTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<?, ?> kafkaListenerContainerFactory;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void handlesRequestsOnVirtualThreads() {
+        assertThat(restTemplate.getForObject("/test/thread", Boolean.class)).isTrue();
+    }
+
+    @Test
+    void boundsJdbcWorkAndRunsListenersOnVirtualThreads() {
+        assertThat(dataSource).isInstanceOf(BoundedDataSource.class);
+        assertThat(kafkaListenerContainerFactory.getContainerProperties().getListenerTaskExecutor()).isNotNull();
+    }
+
+    @Test
+    void servesGraphQlQueriesThroughTheBoundedDataSource() {
+        Account account = accountService.createAccount(AccountInput.builder()
+                .customerId(1L)
+                .accountType("SAVINGS")
+                .initialBalance(new BigDecimal("25.00"))
+                .currency("EUR")
+                .build());
+
+        ResponseEntity<Map> response = restTemplate.postForEntity("/graphql", Map.of("query",
+                "{ accountByNumber(accountNumber: \"" + account.getAccountNumber() + "\") { balance } }"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting("data").extracting("accountByNumber").extracting("balance")
+                .isEqualTo(25.0);
+    }
+
+    @TestConfiguration
+    static class ThreadProbeConfig {
+        @Bean
+        ThreadProbe threadProbe() {
+            return new ThreadProbe();
+        }
+    }
+
+    @RestController
+    static class ThreadProbe {
+        @GetMapping("/test/thread")
+        boolean isVirtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
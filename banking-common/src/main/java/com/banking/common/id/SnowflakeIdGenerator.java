@@ -0,0 +1,97 @@
+package com.banking.common.id;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordination-free, time-ordered ID generator. Each ID packs 41 bits of milliseconds since
+ * {@link #EPOCH}, a 9-bit node ID and a 10-bit per-millisecond sequence into 60 bits, which
+ * are rendered as 12 Crockford base32 characters behind a prefix (e.g. {@code TXN…}).
+ * The fixed-width encoding keeps the string order equal to the numeric order, so new IDs
+ * land at the end of unique indexes instead of at random positions.
+ * <p>
+ * IDs are only unique if no two running instances share a node ID, so the node ID has to be
+ * assigned explicitly; there is no fallback that could silently collide.
+ */
+public class SnowflakeIdGenerator {
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 9;
+    private static final int SEQUENCE_BITS = 10;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 12;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private final long nodeId;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence)
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nodeId() {
+        return nodeId;
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long previous = state.get();
+            // Within the same millisecond, or if the clock moved backwards, keep counting from the
+            // last issued value; a sequence overflow carries into the timestamp bits.
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public String nextId(String prefix) {
+        return format(prefix, nextId());
+    }
+
+    public static String format(String prefix, long id) {
+        int prefixLength = prefix.length();
+        char[] chars = new char[prefixLength + ENCODED_LENGTH];
+        prefix.getChars(0, prefixLength, chars, 0);
+        for (int i = chars.length - 1; i >= prefixLength; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Inverse of {@link #format}: the numeric ID behind {@code prefix}, or -1 if the value was
+     * not produced by this generator (IDs only use 60 bits, so they are never negative).
+     */
+    public static long parse(String prefix, String value) {
+        if (value == null || value.length() != prefix.length() + ENCODED_LENGTH || !value.startsWith(prefix)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = prefix.length(); i < value.length(); i++) {
+            char c = value.charAt(i);
+            int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+}
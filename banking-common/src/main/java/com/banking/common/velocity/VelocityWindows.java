@@ -0,0 +1,388 @@
+package com.banking.common.velocity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-account counts and totals of debits within the last minute, hour and day, checked
+ * against a limit per window. Each window is a ring of time buckets per account, held in
+ * primitive arrays inside striped open-addressing maps, so checking and recording a debit
+ * allocates nothing once the account is known. Windows slide one bucket at a time; accounts
+ * idle for longer than the longest window are removed by {@link #evictIdle}.
+ * <p>
+ * Callers pass the time of each debit, and decide what to do when {@link #tryAcquire} reports
+ * an exceeded window.
+ */
+public class VelocityWindows {
+    private static final int AMOUNT_SCALE = 2;
+    private static final int INITIAL_CAPACITY = 64;
+
+    public enum Window {
+        MINUTE(60_000L, "1 minute"),
+        HOUR(3_600_000L, "1 hour"),
+        DAY(86_400_000L, "24 hours");
+
+        private final long millis;
+        private final String label;
+
+        Window(long millis, String label) {
+            this.millis = millis;
+            this.label = label;
+        }
+
+        public long millis() {
+            return millis;
+        }
+    }
+
+    /**
+     * The most debits and the largest total allowed within a window.
+     */
+    public record Limit(long maxCount, BigDecimal maxAmount) {
+    }
+
+    private static final Window[] WINDOWS = Window.values();
+
+    private final int buckets;
+    private final long[] bucketMillis = new long[WINDOWS.length];
+    private final long[] maxCounts = new long[WINDOWS.length];
+    private final long[] maxAmounts = new long[WINDOWS.length];
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public VelocityWindows(int buckets, int stripes, Limit minute, Limit hour, Limit day) {
+        this.buckets = Math.max(1, buckets);
+        Limit[] limits = {minute, hour, day};
+        for (Window window : WINDOWS) {
+            int w = window.ordinal();
+            bucketMillis[w] = Math.max(1, window.millis / this.buckets);
+            maxCounts[w] = limits[w].maxCount();
+            maxAmounts[w] = toMinorUnits(limits[w].maxAmount());
+        }
+
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(WINDOWS.length * this.buckets);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Records a debit made at {@code now} if it keeps the account within every window.
+     * Returns the first window it would exceed, in which case nothing is recorded, or null.
+     */
+    public Window tryAcquire(String accountNumber, BigDecimal amount, long now) {
+        long minorUnits = toMinorUnits(amount);
+        int hash = hash(accountNumber);
+        Stripe stripe = stripes[hash & stripeMask];
+        stripe.lock.lock();
+        try {
+            int row = stripe.rowFor(accountNumber, hash, now);
+            return stripe.tryAdd(row, minorUnits, now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes back a debit recorded by {@link #tryAcquire} at {@code acquiredAt} that did not go
+     * through. Buckets that have already slid out of a window are left alone.
+     */
+    public void release(String accountNumber, BigDecimal amount, long acquiredAt) {
+        long minorUnits = toMinorUnits(amount);
+        int hash = hash(accountNumber);
+        Stripe stripe = stripes[hash & stripeMask];
+        stripe.lock.lock();
+        try {
+            int row = stripe.find(accountNumber, hash);
+            if (row >= 0) {
+                stripe.add(row, -1, -minorUnits, acquiredAt);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Records a debit that already happened at {@code timestamp} without checking limits.
+     */
+    public void record(String accountNumber, BigDecimal amount, long timestamp) {
+        long minorUnits = toMinorUnits(amount);
+        int hash = hash(accountNumber);
+        Stripe stripe = stripes[hash & stripeMask];
+        stripe.lock.lock();
+        try {
+            int row = stripe.rowFor(accountNumber, hash, timestamp);
+            stripe.add(row, 1, minorUnits, timestamp);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Describes the limit of a window, e.g. "more than 30 debits or 10000.00 in 1 minute".
+     */
+    public String describe(Window window) {
+        return "more than " + maxCounts[window.ordinal()] + " debits or "
+                + BigDecimal.valueOf(maxAmounts[window.ordinal()], AMOUNT_SCALE) + " in " + window.label;
+    }
+
+    public int accountCount() {
+        int accounts = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                accounts += stripe.size;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return accounts;
+    }
+
+    /**
+     * Removes the accounts without debits in the day before {@code now}; returns how many.
+     */
+    public int evictIdle(long now) {
+        long idleBefore = now - Window.DAY.millis;
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                evicted += stripe.evictIdle(idleBefore);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        return amount.movePointRight(AMOUNT_SCALE).setScale(0, RoundingMode.UP).longValue();
+    }
+
+    private static int hash(String accountNumber) {
+        int h = accountNumber.hashCode() * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Accounts map to dense rows through a linear-probing table of keys. Row r owns the
+     * buckets [r * width, (r + 1) * width), laid out window by window, and one head per
+     * window holding the bucket epoch the ring was last advanced to.
+     */
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int width;
+
+        private String[] keys = new String[INITIAL_CAPACITY];
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private int[] rowsBySlot = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private long[] heads;
+        private long[] lastSeen;
+        private int[] counts;
+        private long[] amounts;
+        private int[] freeRows = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private int rowCount;
+
+        private Stripe(int width) {
+            this.width = width;
+            int rows = INITIAL_CAPACITY * 3 / 4;
+            heads = new long[rows * WINDOWS.length];
+            lastSeen = new long[rows];
+            counts = new int[rows * width];
+            amounts = new long[rows * width];
+        }
+
+        private int find(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int slot = (hash >>> 8) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    return rowsBySlot[slot];
+                }
+            }
+            return -1;
+        }
+
+        private int rowFor(String key, int hash, long now) {
+            int mask = keys.length - 1;
+            int slot = (hash >>> 8) & mask;
+            for (; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && keys[slot].equals(key)) {
+                    int row = rowsBySlot[slot];
+                    if (lastSeen[row] < now) {
+                        lastSeen[row] = now;
+                    }
+                    return row;
+                }
+            }
+            if ((size + 1) * 4 > keys.length * 3) {
+                growKeys();
+                return rowFor(key, hash, now);
+            }
+            int row = allocateRow();
+            keys[slot] = key;
+            hashes[slot] = hash;
+            rowsBySlot[slot] = row;
+            lastSeen[row] = now;
+            size++;
+            return row;
+        }
+
+        /**
+         * Advances the windows of the row to {@code now} and adds the debit to all of them,
+         * unless that would break a limit; returns the first window that would be exceeded.
+         */
+        private Window tryAdd(int row, long amount, long now) {
+            for (Window window : WINDOWS) {
+                int w = window.ordinal();
+                advance(row, w, now / bucketMillis[w]);
+                int base = row * width + w * buckets;
+                long count = 0;
+                long total = 0;
+                for (int b = 0; b < buckets; b++) {
+                    count += counts[base + b];
+                    total += amounts[base + b];
+                }
+                if (count + 1 > maxCounts[w] || total + amount > maxAmounts[w]) {
+                    return window;
+                }
+            }
+            for (int w = 0; w < WINDOWS.length; w++) {
+                int bucket = row * width + w * buckets + (int) ((now / bucketMillis[w]) % buckets);
+                counts[bucket]++;
+                amounts[bucket] += amount;
+            }
+            return null;
+        }
+
+        private void add(int row, int count, long amount, long timestamp) {
+            for (int w = 0; w < WINDOWS.length; w++) {
+                long epoch = timestamp / bucketMillis[w];
+                if (epoch > heads[row * WINDOWS.length + w]) {
+                    advance(row, w, epoch);
+                } else if (epoch <= heads[row * WINDOWS.length + w] - buckets) {
+                    continue;
+                }
+                int bucket = row * width + w * buckets + (int) (epoch % buckets);
+                counts[bucket] += count;
+                amounts[bucket] += amount;
+            }
+        }
+
+        // Clears the buckets that slid out of the window since it was last advanced
+        private void advance(int row, int w, long epoch) {
+            int head = row * WINDOWS.length + w;
+            long behind = epoch - heads[head];
+            if (behind <= 0) {
+                return;
+            }
+            int base = row * width + w * buckets;
+            if (behind >= buckets) {
+                Arrays.fill(counts, base, base + buckets, 0);
+                Arrays.fill(amounts, base, base + buckets, 0);
+            } else {
+                for (long e = heads[head] + 1; e <= epoch; e++) {
+                    int bucket = base + (int) (e % buckets);
+                    counts[bucket] = 0;
+                    amounts[bucket] = 0;
+                }
+            }
+            heads[head] = epoch;
+        }
+
+        private int evictIdle(long idleBefore) {
+            int evicted = 0;
+            int mask = keys.length - 1;
+            for (int slot = 0; slot < keys.length; ) {
+                if (keys[slot] != null && lastSeen[rowsBySlot[slot]] < idleBefore) {
+                    freeRow(rowsBySlot[slot]);
+                    removeSlot(slot, mask);
+                    evicted++;
+                    // removeSlot may have shifted another key into this slot
+                } else {
+                    slot++;
+                }
+            }
+            return evicted;
+        }
+
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        private void removeSlot(int slot, int mask) {
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+                int home = (hashes[next] >>> 8) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    hashes[hole] = hashes[next];
+                    rowsBySlot[hole] = rowsBySlot[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = null;
+            size--;
+        }
+
+        private int allocateRow() {
+            int row;
+            if (freeCount > 0) {
+                row = freeRows[--freeCount];
+            } else {
+                row = rowCount++;
+                if (row == lastSeen.length) {
+                    int rows = lastSeen.length * 2;
+                    heads = Arrays.copyOf(heads, rows * WINDOWS.length);
+                    lastSeen = Arrays.copyOf(lastSeen, rows);
+                    counts = Arrays.copyOf(counts, rows * width);
+                    amounts = Arrays.copyOf(amounts, rows * width);
+                }
+            }
+            Arrays.fill(heads, row * WINDOWS.length, (row + 1) * WINDOWS.length, 0);
+            Arrays.fill(counts, row * width, (row + 1) * width, 0);
+            Arrays.fill(amounts, row * width, (row + 1) * width, 0);
+            return row;
+        }
+
+        private void freeRow(int row) {
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+            }
+            freeRows[freeCount++] = row;
+        }
+
+        private void growKeys() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldRows = rowsBySlot;
+            keys = new String[oldKeys.length * 2];
+            hashes = new int[oldKeys.length * 2];
+            rowsBySlot = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = (oldHashes[i] >>> 8) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    hashes[slot] = oldHashes[i];
+                    rowsBySlot[slot] = oldRows[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.banking.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void issuesIncreasingIdsWhoseStringsSortTheSameWay() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        List<Long> ids = new ArrayList<>();
+        List<String> formatted = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            ids.add(id);
+            formatted.add(SnowflakeIdGenerator.format("ACC", id));
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(formatted).isSorted();
+    }
+
+    @Test
+    void issuesUniqueIdsAcrossThreads() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(160_000);
+    }
+
+    @Test
+    void nodesNeverIssueTheSameId() {
+        Set<Long> ids = new HashSet<>();
+        for (long node : new long[]{0, 1, SnowflakeIdGenerator.MAX_NODE_ID}) {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(node);
+            for (int i = 0; i < 5_000; i++) {
+                assertThat(ids.add(generator.nextId())).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void parsesWhatItFormats() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        long id = generator.nextId();
+        String value = SnowflakeIdGenerator.format("TXN", id);
+
+        assertThat(value).hasSize(15).startsWith("TXN");
+        assertThat(SnowflakeIdGenerator.parse("TXN", value)).isEqualTo(id);
+        assertThat(SnowflakeIdGenerator.parse("ACC", value)).isEqualTo(-1);
+        assertThat(SnowflakeIdGenerator.parse("TXN", "TXN-not-an-id")).isEqualTo(-1);
+        assertThat(SnowflakeIdGenerator.parse("TXN", null)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.common.velocity;
+
+import com.banking.common.velocity.VelocityWindows.Limit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: checking and recording a debit against the velocity windows of 1M tracked accounts, and
+ * the heap the windows retain for them.
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VelocityWindowsBenchmark {
+    private static final int ACCOUNTS = 1_000_000;
+    private static final BigDecimal AMOUNT = new BigDecimal("12.50");
+    private static final Limit UNLIMITED = new Limit(Long.MAX_VALUE, new BigDecimal("1000000000000"));
+
+    private String[] accountNumbers;
+    private VelocityWindows windows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.format("ACC%012d", i);
+        }
+        long before = usedHeap();
+        windows = new VelocityWindows(10, 64, UNLIMITED, UNLIMITED, UNLIMITED);
+        long now = System.currentTimeMillis();
+        for (String accountNumber : accountNumbers) {
+            windows.record(accountNumber, AMOUNT, now);
+        }
+        System.out.printf("%nVelocity windows of %d accounts retain %.1f MB%n", windows.accountCount(),
+                (usedHeap() - before) / 1e6);
+    }
+
+    // Spreads the lookups over all accounts so most of them miss the CPU caches
+    private String nextAccount() {
+        next = (next + 7_919) % ACCOUNTS;
+        return accountNumbers[next];
+    }
+
+    @Benchmark
+    public VelocityWindows.Window tryAcquire() {
+        return windows.tryAcquire(nextAccount(), AMOUNT, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public void tryAcquireAndRelease() {
+        String accountNumber = nextAccount();
+        long now = System.currentTimeMillis();
+        windows.tryAcquire(accountNumber, AMOUNT, now);
+        windows.release(accountNumber, AMOUNT, now);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VelocityWindowsBenchmark.class.getName() + "\\.")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.common.velocity;
+
+import com.banking.common.velocity.VelocityWindows.Limit;
+import com.banking.common.velocity.VelocityWindows.Window;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityWindowsTest {
+    private static final long MINUTE = 60_000;
+    private static final long NOW = 1_000 * 86_400_000L;
+
+    private final VelocityWindows windows = new VelocityWindows(10, 4,
+            new Limit(3, new BigDecimal("100")),
+            new Limit(5, new BigDecimal("1000")),
+            new Limit(8, new BigDecimal("5000")));
+
+    @Test
+    void rejectsTheDebitThatWouldExceedACountOrAmountLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + i)).isNull();
+        }
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + 3)).isEqualTo(Window.MINUTE);
+
+        assertThat(windows.tryAcquire("ACC-2", new BigDecimal("99.99"), NOW)).isNull();
+        assertThat(windows.tryAcquire("ACC-2", new BigDecimal("0.02"), NOW)).isEqualTo(Window.MINUTE);
+        assertThat(windows.tryAcquire("ACC-2", new BigDecimal("0.01"), NOW)).isNull();
+    }
+
+    @Test
+    void slidesOldDebitsOutOfEachWindow() {
+        for (int i = 0; i < 3; i++) {
+            windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW);
+        }
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + MINUTE / 2)).isEqualTo(Window.MINUTE);
+
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + MINUTE + MINUTE / 10)).isNull();
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + 2 * MINUTE)).isNull();
+        // Five debits are now in the last hour
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + 3 * MINUTE)).isEqualTo(Window.HOUR);
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW + 61 * MINUTE)).isNull();
+    }
+
+    @Test
+    void releaseTakesBackAnAdmittedDebit() {
+        for (int i = 0; i < 3; i++) {
+            windows.tryAcquire("ACC-1", BigDecimal.TEN, NOW);
+        }
+        windows.release("ACC-1", BigDecimal.TEN, NOW);
+
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.TEN, NOW + 1)).isNull();
+        // Releasing an unknown account does not create it
+        windows.release("ACC-UNKNOWN", BigDecimal.TEN, NOW);
+        assertThat(windows.accountCount()).isEqualTo(1);
+    }
+
+    @Test
+    void recordedDebitsCountWithoutBeingChecked() {
+        for (int i = 0; i < 4; i++) {
+            windows.record("ACC-1", BigDecimal.ONE, NOW - MINUTE / 4);
+        }
+        windows.record("ACC-2", BigDecimal.ONE, NOW - 2 * MINUTE);
+
+        assertThat(windows.tryAcquire("ACC-1", BigDecimal.ONE, NOW)).isEqualTo(Window.MINUTE);
+        assertThat(windows.tryAcquire("ACC-2", BigDecimal.ONE, NOW)).isNull();
+    }
+
+    @Test
+    void evictsIdleAccountsAndKeepsTheOthersReachable() {
+        for (int i = 0; i < 2_000; i++) {
+            windows.record("ACC-" + i, BigDecimal.ONE, i % 2 == 0 ? NOW - 2 * 86_400_000L : NOW);
+        }
+
+        assertThat(windows.evictIdle(NOW)).isEqualTo(1_000);
+        assertThat(windows.accountCount()).isEqualTo(1_000);
+        for (int i = 1; i < 2_000; i += 2) {
+            windows.record("ACC-" + i, BigDecimal.ONE, NOW);
+            windows.record("ACC-" + i, BigDecimal.ONE, NOW);
+            assertThat(windows.tryAcquire("ACC-" + i, BigDecimal.ONE, NOW)).isEqualTo(Window.MINUTE);
+        }
+        assertThat(windows.accountCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void describesTheLimitOfAWindow() {
+        assertThat(windows.describe(Window.MINUTE)).isEqualTo("more than 3 debits or 100.00 in 1 minute");
+        assertThat(windows.describe(Window.DAY)).isEqualTo("more than 8 debits or 5000.00 in 24 hours");
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.customer.client;
+
+import com.banking.customer.dto.AccountView;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class AccountServiceClient {
+    private static final String ACCOUNTS_BY_CUSTOMER_IDS_QUERY = """
+            query($customerIds: [ID!]!) {
+              accountsByCustomerIds(customerIds: $customerIds) {
+                id
+                accountNumber
+                customerId
+                accountType
+                balance
+                currency
+                status
+                createdAt
+                updatedAt
+              }
+            }""";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AccountServiceClient(RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper,
+                                @Value("${banking.services.account-url}") String accountServiceUrl,
+                                @Value("${banking.services.timeout:5s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .rootUri(accountServiceUrl)
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public List<AccountView> getAccountsByCustomerIds(Collection<Long> customerIds) {
+        log.debug("Fetching accounts for {} customers", customerIds.size());
+        JsonNode data = execute(ACCOUNTS_BY_CUSTOMER_IDS_QUERY, Map.of("customerIds", customerIds));
+        return objectMapper.convertValue(data.get("accountsByCustomerIds"), new TypeReference<List<AccountView>>() {});
+    }
+
+    private JsonNode execute(String query, Map<String, Object> variables) {
+        JsonNode response = restTemplate.postForObject("/graphql",
+                Map.of("query", query, "variables", variables), JsonNode.class);
+        if (response == null) {
+            throw new RuntimeException("Empty response from account-service");
+        }
+        if (response.hasNonNull("errors")) {
+            throw new RuntimeException("account-service returned errors: " + response.get("errors"));
+        }
+        return response.get("data");
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.customer.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ends the class data sharing training run of the fast-startup build once the application is
+ * ready, so the JVM archives the classes loaded during startup. The flag is read at runtime
+ * rather than through a condition, as AOT processing fixes conditions at build time.
+ */
+@Component
+@Slf4j
+public class CdsTrainingRun {
+    @Value("${banking.startup.exit-on-ready:false}")
+    private boolean exitOnReady;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitIfTraining(ApplicationReadyEvent event) {
+        if (exitOnReady) {
+            log.info("Startup complete; exiting the class data sharing training run");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
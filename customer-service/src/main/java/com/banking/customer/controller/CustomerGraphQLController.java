@@ -1,29 +1,44 @@
 package com.banking.customer.controller;
 
+import com.banking.customer.dto.AccountView;
+import com.banking.customer.dto.Connection;
 import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.dto.CustomerSearchIndexStats;
 import com.banking.customer.dto.UpdateCustomerInput;
 import com.banking.customer.model.Customer;
+import com.banking.customer.reactive.ReactiveCustomerQueryService;
 import com.banking.customer.service.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerGraphQLController {
     private final CustomerService customerService;
+    // Present when banking.reactive-reads.enabled is set
+    private final ObjectProvider<ReactiveCustomerQueryService> reactiveQueries;
 
     @QueryMapping
-    public Customer customerById(@Argument Long id) {
+    public Mono<Customer> customerById(@Argument Long id) {
         log.info("GraphQL Query: customerById - id: {}", id);
-        return customerService.getCustomerById(id);
+        ReactiveCustomerQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getCustomerById(id);
+        }
+        return Mono.fromCallable(() -> customerService.getCustomerById(id));
     }
 
     @QueryMapping
@@ -33,9 +48,13 @@ public class CustomerGraphQLController {
     }
 
     @QueryMapping
-    public List<Customer> customersByCity(@Argument String city) {
+    public Flux<Customer> customersByCity(@Argument String city) {
         log.info("GraphQL Query: customersByCity - city: {}", city);
-        return customerService.getCustomersByCity(city);
+        ReactiveCustomerQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getCustomersByCity(city);
+        }
+        return Flux.defer(() -> Flux.fromIterable(customerService.getCustomersByCity(city)));
     }
 
     @QueryMapping
@@ -44,6 +63,25 @@ public class CustomerGraphQLController {
         return customerService.getAllCustomers();
     }
 
+    @QueryMapping
+    public Connection<Customer> customersConnection(@Argument Integer first, @Argument String after) {
+        log.info("GraphQL Query: customersConnection - first: {}, after: {}", first, after);
+        return customerService.getCustomersPage(first, after);
+    }
+
+    @QueryMapping
+    public Connection<Customer> searchCustomers(@Argument String query, @Argument Integer first,
+                                                @Argument String after) {
+        log.info("GraphQL Query: searchCustomers - query: {}, first: {}, after: {}", query, first, after);
+        return customerService.searchCustomers(query, first, after);
+    }
+
+    @QueryMapping
+    public CustomerSearchIndexStats customerSearchIndexStats() {
+        log.info("GraphQL Query: customerSearchIndexStats");
+        return customerService.getSearchIndexStats();
+    }
+
     @MutationMapping
     public Customer createCustomer(@Argument @Valid CustomerInput input) {
         log.info("GraphQL Mutation: createCustomer - input: {}", input);
@@ -67,4 +105,9 @@ public class CustomerGraphQLController {
         log.info("GraphQL Mutation: deleteCustomer - id: {}", id);
         return customerService.deleteCustomer(id);
     }
+
+    @BatchMapping(typeName = "Customer", field = "accounts")
+    public Map<Customer, List<AccountView>> accounts(List<Customer> customers) {
+        return customerService.getAccountsForCustomers(customers);
+    }
 }
@@ -0,0 +1,40 @@
+package com.banking.customer.controller;
+
+import com.banking.customer.dto.CustomerImportResult;
+import com.banking.customer.dto.ImportFormat;
+import com.banking.customer.service.CustomerImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk customer onboarding from partner files. Kept outside GraphQL so the upload can be
+ * streamed instead of arriving as one parsed request document.
+ */
+@RestController
+@RequestMapping("/imports")
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerImportController {
+    private final CustomerImportService importService;
+
+    @PostMapping("/customers")
+    public CustomerImportResult importCustomers(@RequestParam(required = false) String format,
+                                                @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false)
+                                                String contentEncoding,
+                                                InputStream body) throws IOException {
+        log.info("REST Import: customers - format: {}, encoding: {}", format, contentEncoding);
+        ImportFormat importFormat = ImportFormat.parse(format);
+        InputStream input = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 65536) : body;
+        return importService.importCustomers(input, importFormat);
+    }
+}
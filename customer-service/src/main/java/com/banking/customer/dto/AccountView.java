@@ -0,0 +1,24 @@
+package com.banking.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountView {
+    private Long id;
+    private String accountNumber;
+    private Long customerId;
+    private String accountType;
+    private BigDecimal balance;
+    private String currency;
+    private String status;
+    private String createdAt;
+    private String updatedAt;
+}
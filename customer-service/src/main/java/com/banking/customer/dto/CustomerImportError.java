@@ -0,0 +1,17 @@
+package com.banking.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportError {
+    // Line in the uploaded file, starting at 1
+    private long line;
+    private String email;
+    private String message;
+}
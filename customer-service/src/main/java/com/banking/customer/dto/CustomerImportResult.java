@@ -0,0 +1,23 @@
+package com.banking.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportResult {
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private List<CustomerImportError> errors;
+    // Set when more rows were rejected than banking.import.max-errors lists
+    private boolean errorsTruncated;
+}
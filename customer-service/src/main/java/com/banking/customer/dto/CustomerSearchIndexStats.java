@@ -0,0 +1,20 @@
+package com.banking.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSearchIndexStats {
+    private boolean ready;
+    private int documents;
+    private int deletedDocuments;
+    private int trigrams;
+    private long postings;
+    // Estimated heap used by the index
+    private long memoryBytes;
+}
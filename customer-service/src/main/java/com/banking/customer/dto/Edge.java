@@ -0,0 +1,13 @@
+package com.banking.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Edge<T> {
+    private T node;
+    private String cursor;
+}
@@ -0,0 +1,16 @@
+package com.banking.customer.dto;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static ImportFormat parse(String value) {
+        try {
+            return value == null ? NDJSON : valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported import format: " + value);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.banking.customer.index;
+
+import com.banking.customer.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Fills the {@link EmailIndex} and the {@link CustomerSearchIndex} from the customers table
+ * once the application is up. The id range is split into chunks that are read and tokenized
+ * in parallel, each in its own read-only transaction. Events received while loading are
+ * applied alongside; until the load finishes both indexes report themselves as not ready.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerIndexLoader {
+    private static final int BATCH_SIZE = 1000;
+
+    private final EmailIndex emailIndex;
+    private final CustomerSearchIndex searchIndex;
+    private final CustomerRepository customerRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${banking.search.build-parallelism:4}")
+    private int buildParallelism;
+
+    @Value("${banking.search.build-chunk-size:100000}")
+    private int buildChunkSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "customer-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, buildParallelism));
+        try {
+            Long maxId = customerRepository.findMaxId();
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long fromId = 1; maxId != null && fromId <= maxId; fromId += buildChunkSize) {
+                long chunkStart = fromId;
+                chunks.add(executor.submit(() -> loadChunk(chunkStart, chunkStart + buildChunkSize)));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+            emailIndex.markReady();
+            searchIndex.markReady();
+            log.info("Loaded {} customers into the email and search indexes in {} chunks in {} ms",
+                    emailIndex.size(), chunks.size(), System.currentTimeMillis() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Could not load the customer indexes; email checks keep going to the database "
+                    + "and search stays unavailable", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void loadChunk(long fromId, long toId) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.executeWithoutResult(status -> {
+            List<IndexedCustomer> batch = new ArrayList<>(BATCH_SIZE);
+            try (Stream<IndexedCustomer> customers = customerRepository.streamIndexedCustomers(fromId, toId)) {
+                customers.forEach(customer -> {
+                    emailIndex.add(customer.email());
+                    batch.add(customer);
+                    if (batch.size() == BATCH_SIZE) {
+                        searchIndex.load(batch);
+                        batch.clear();
+                    }
+                });
+            }
+            searchIndex.load(batch);
+        });
+    }
+}
@@ -0,0 +1,552 @@
+package com.banking.customer.index;
+
+import com.banking.customer.dto.CustomerSearchIndexStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over the first name, last name, email, city and postal code of all
+ * customers. Every field is lowercased and split into tokens of letters and digits; each
+ * token is padded with a start and an end marker and cut into trigrams, so "ann" yields
+ * "^an", "ann" and "nn$". Each trigram has a {@link PostingList} of the documents that
+ * contain it.
+ * <p>
+ * Documents are numbered in the order they are indexed. A changed customer gets a new
+ * document and the old one is marked deleted; deleted documents are dropped from the posting
+ * lists by {@link #compactIfNeeded()}.
+ * <p>
+ * Queries are tokenized the same way, except that the last token has no end marker unless
+ * the query ends with a separator, so "joh" finds "johnson". Customers containing every
+ * query trigram come first. If there are not enough of them, customers missing a few
+ * trigrams are added, ranked by the number of trigrams they share with the query, which
+ * catches typos such as "smyth" for "smith".
+ */
+@Component
+@Slf4j
+public class CustomerSearchIndex {
+    private static final char TOKEN_START = '\u0001';
+    private static final char TOKEN_END = '\u0002';
+    private static final PostingList EMPTY = new PostingList();
+    // A typo changes up to three trigrams of a token
+    private static final int TRIGRAMS_PER_TYPO = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final LongIntMap docByCustomer = new LongIntMap();
+    private final BitSet deletedDocs = new BitSet();
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final int maxTypos;
+    private final int fuzzyCandidateLimit;
+    private final double compactDeletedRatio;
+
+    private volatile boolean ready;
+    private long[] customerIdByDoc = new long[1024];
+    private long[] textHashByDoc = new long[1024];
+    private int docCount;
+    private int deletedCount;
+    private long postingCount;
+
+    public CustomerSearchIndex(@Value("${banking.search.max-typos:2}") int maxTypos,
+                               @Value("${banking.search.fuzzy-candidate-limit:100000}") int fuzzyCandidateLimit,
+                               @Value("${banking.search.compact-deleted-ratio:0.2}") double compactDeletedRatio) {
+        this.maxTypos = maxTypos;
+        this.fuzzyCandidateLimit = fuzzyCandidateLimit;
+        this.compactDeletedRatio = compactDeletedRatio;
+    }
+
+    /**
+     * False until the initial load has finished.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        removedWhileLoading.clear();
+    }
+
+    /**
+     * Adds customers read by the initial load. Customers already indexed or removed since
+     * the load started were changed by a live update, which is newer than the snapshot, so
+     * they are skipped.
+     */
+    public void load(List<IndexedCustomer> customers) {
+        long[][] trigrams = new long[customers.size()][];
+        long[] textHashes = new long[customers.size()];
+        for (int i = 0; i < customers.size(); i++) {
+            trigrams[i] = trigrams(customers.get(i));
+            textHashes[i] = textHash(customers.get(i));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < customers.size(); i++) {
+                long customerId = customers.get(i).id();
+                if (docByCustomer.get(customerId) < 0 && !removedWhileLoading.contains(customerId)) {
+                    append(customerId, textHashes[i], trigrams[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a new or changed customer; a customer whose indexed fields did not change is
+     * left alone.
+     */
+    public void index(IndexedCustomer customer) {
+        indexAll(List.of(customer));
+    }
+
+    public void indexAll(List<IndexedCustomer> customers) {
+        long[][] trigrams = new long[customers.size()][];
+        long[] textHashes = new long[customers.size()];
+        for (int i = 0; i < customers.size(); i++) {
+            trigrams[i] = trigrams(customers.get(i));
+            textHashes[i] = textHash(customers.get(i));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < customers.size(); i++) {
+                long customerId = customers.get(i).id();
+                int doc = docByCustomer.get(customerId);
+                if (doc >= 0) {
+                    if (textHashByDoc[doc] == textHashes[i]) {
+                        continue;
+                    }
+                    delete(doc);
+                }
+                append(customerId, textHashes[i], trigrams[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long customerId) {
+        lock.writeLock().lock();
+        try {
+            int doc = docByCustomer.remove(customerId);
+            if (doc >= 0) {
+                delete(doc);
+            } else if (!ready) {
+                // The load may not have reached this customer yet
+                removedWhileLoading.add(customerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of up to {@code limit} customers matching the query, best matches first and in
+     * index order within the same score.
+     */
+    public List<Long> search(String query, int limit) {
+        long[] trigrams = queryTrigrams(query);
+        if (trigrams.length == 0) {
+            throw new RuntimeException("Search query must contain at least two letters or digits");
+        }
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[trigrams.length];
+            for (int i = 0; i < trigrams.length; i++) {
+                lists[i] = postings.getOrDefault(trigrams[i], EMPTY);
+            }
+            // Rarest first: the shortest list drives the intersection
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+            List<Long> matches = intersect(lists, limit);
+            int typos = Math.min(maxTypos, trigrams.length >= 10 ? 2 : 1);
+            int allowedMisses = Math.min(TRIGRAMS_PER_TYPO * typos, trigrams.length - 1);
+            if (matches.size() >= limit || allowedMisses <= 0) {
+                return matches;
+            }
+            return fuzzy(lists, allowedMisses, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public CustomerSearchIndexStats stats() {
+        lock.readLock().lock();
+        try {
+            long memoryBytes = 16L * customerIdByDoc.length + deletedDocs.size() / 8 + docByCustomer.memoryBytes()
+                    // HashMap node, boxed key and table slot per trigram
+                    + 56L * postings.size();
+            for (PostingList list : postings.values()) {
+                memoryBytes += list.memoryBytes();
+            }
+            return CustomerSearchIndexStats.builder()
+                    .ready(ready)
+                    .documents(docCount - deletedCount)
+                    .deletedDocuments(deletedCount)
+                    .trigrams(postings.size())
+                    .postings(postingCount)
+                    .memoryBytes(memoryBytes)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the posting lists without deleted documents once they make up
+     * {@code banking.search.compact-deleted-ratio} of the index. Searches wait for the
+     * rewrite, which takes time proportional to the number of postings.
+     */
+    @Scheduled(fixedDelayString = "${banking.search.compaction-interval-ms:60000}")
+    public void compactIfNeeded() {
+        lock.writeLock().lock();
+        try {
+            if (deletedCount == 0 || deletedCount < compactDeletedRatio * docCount) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            int[] newDocs = new int[docCount];
+            int liveCount = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                newDocs[doc] = deletedDocs.get(doc) ? -1 : liveCount++;
+            }
+
+            postingCount = 0;
+            Iterator<Map.Entry<Long, PostingList>> entries = postings.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Long, PostingList> entry = entries.next();
+                PostingList compacted = new PostingList();
+                PostingList.Cursor cursor = entry.getValue().cursor();
+                for (int doc = cursor.next(); doc != PostingList.NO_MORE_DOCS; doc = cursor.next()) {
+                    if (newDocs[doc] >= 0) {
+                        compacted.add(newDocs[doc]);
+                    }
+                }
+                if (compacted.size() == 0) {
+                    entries.remove();
+                } else {
+                    entry.setValue(compacted);
+                    postingCount += compacted.size();
+                }
+            }
+
+            long[] customerIds = new long[Math.max(1024, liveCount + (liveCount >> 1))];
+            long[] textHashes = new long[customerIds.length];
+            docByCustomer.clear();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (newDocs[doc] >= 0) {
+                    customerIds[newDocs[doc]] = customerIdByDoc[doc];
+                    textHashes[newDocs[doc]] = textHashByDoc[doc];
+                    docByCustomer.put(customerIdByDoc[doc], newDocs[doc]);
+                }
+            }
+            log.info("Compacted customer search index from {} to {} documents in {} ms", docCount, liveCount,
+                    System.currentTimeMillis() - start);
+            customerIdByDoc = customerIds;
+            textHashByDoc = textHashes;
+            docCount = liveCount;
+            deletedCount = 0;
+            deletedDocs.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void append(long customerId, long textHash, long[] trigrams) {
+        if (docCount == customerIdByDoc.length) {
+            customerIdByDoc = Arrays.copyOf(customerIdByDoc, docCount + (docCount >> 1));
+            textHashByDoc = Arrays.copyOf(textHashByDoc, customerIdByDoc.length);
+        }
+        int doc = docCount++;
+        customerIdByDoc[doc] = customerId;
+        textHashByDoc[doc] = textHash;
+        docByCustomer.put(customerId, doc);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(doc);
+        }
+        postingCount += trigrams.length;
+    }
+
+    private void delete(int doc) {
+        deletedDocs.set(doc);
+        deletedCount++;
+    }
+
+    // Leapfrogs all cursors to the next document the rarest list contains
+    private List<Long> intersect(PostingList[] lists, int limit) {
+        List<Long> matches = new ArrayList<>();
+        if (lists[0].size() == 0) {
+            return matches;
+        }
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            cursors[i] = lists[i].cursor();
+        }
+        int doc = cursors[0].next();
+        while (doc != PostingList.NO_MORE_DOCS && matches.size() < limit) {
+            int next = doc;
+            for (int i = 1; i < cursors.length && next == doc; i++) {
+                next = cursors[i].advance(doc);
+            }
+            if (next != doc) {
+                doc = cursors[0].advance(next);
+                continue;
+            }
+            if (!deletedDocs.get(doc)) {
+                matches.add(customerIdByDoc[doc]);
+            }
+            doc = cursors[0].next();
+        }
+        return matches;
+    }
+
+    /**
+     * A document missing at most {@code allowedMisses} of the query trigrams contains at
+     * least one of any {@code allowedMisses + 1} of them, so candidates are drawn from the
+     * rarest lists only and checked against the rest. To bound the latency of vague queries,
+     * the scan stops after {@code banking.search.fuzzy-candidate-limit} candidates once a page
+     * has been found, so closer matches further down the index can be missed.
+     */
+    private List<Long> fuzzy(PostingList[] lists, int allowedMisses, int limit) {
+        int candidateLists = allowedMisses + 1;
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            cursors[i] = lists[i].cursor();
+            if (i < candidateLists) {
+                cursors[i].next();
+            }
+        }
+        List<List<Long>> byMisses = new ArrayList<>();
+        for (int misses = 0; misses <= allowedMisses; misses++) {
+            byMisses.add(new ArrayList<>());
+        }
+        int found = 0;
+        for (int candidates = 0; candidates < fuzzyCandidateLimit || found < limit; candidates++) {
+            int doc = PostingList.NO_MORE_DOCS;
+            for (int i = 0; i < candidateLists; i++) {
+                doc = Math.min(doc, cursors[i].doc());
+            }
+            if (doc == PostingList.NO_MORE_DOCS) {
+                break;
+            }
+            int misses = 0;
+            for (int i = 0; i < cursors.length && misses <= allowedMisses; i++) {
+                if (cursors[i].advance(doc) != doc) {
+                    misses++;
+                }
+            }
+            for (int i = 0; i < candidateLists; i++) {
+                if (cursors[i].doc() == doc) {
+                    cursors[i].next();
+                }
+            }
+            if (misses > allowedMisses || deletedDocs.get(doc) || byMisses.get(misses).size() == limit) {
+                continue;
+            }
+            byMisses.get(misses).add(customerIdByDoc[doc]);
+            found++;
+            // Once the closer matches fill the page, worse ones are no longer needed
+            int closer = 0;
+            for (int level = 0; level < allowedMisses; level++) {
+                closer += byMisses.get(level).size();
+                if (closer >= limit) {
+                    allowedMisses = level;
+                    candidateLists = level + 1;
+                    break;
+                }
+            }
+        }
+        List<Long> matches = new ArrayList<>(limit);
+        for (List<Long> group : byMisses) {
+            for (int i = 0; i < group.size() && matches.size() < limit; i++) {
+                matches.add(group.get(i));
+            }
+        }
+        return matches;
+    }
+
+    private static long[] trigrams(IndexedCustomer customer) {
+        Trigrams trigrams = new Trigrams();
+        trigrams.addText(customer.firstName(), false);
+        trigrams.addText(customer.lastName(), false);
+        trigrams.addText(customer.email(), false);
+        trigrams.addText(customer.city(), false);
+        trigrams.addText(customer.postalCode(), false);
+        return trigrams.distinct();
+    }
+
+    private static long[] queryTrigrams(String query) {
+        Trigrams trigrams = new Trigrams();
+        boolean typing = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        trigrams.addText(query, typing);
+        return trigrams.distinct();
+    }
+
+    private static long textHash(IndexedCustomer customer) {
+        String text = customer.firstName() + '\0' + customer.lastName() + '\0' + customer.email() + '\0'
+                + customer.city() + '\0' + customer.postalCode();
+        // FNV-1a over the UTF-16 chars, finished with the murmur3 mixer
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ Character.toLowerCase(text.charAt(i))) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Collects the trigrams of padded, lowercased tokens, each packed into a long.
+     */
+    private static final class Trigrams {
+        private long[] values = new long[64];
+        private int count;
+        private char[] token = new char[32];
+
+        void addText(String text, boolean openLastToken) {
+            if (text == null) {
+                return;
+            }
+            int length = 0;
+            for (int i = 0; i <= text.length(); i++) {
+                char c = i < text.length() ? text.charAt(i) : ' ';
+                if (Character.isLetterOrDigit(c)) {
+                    if (length + 2 >= token.length) {
+                        token = Arrays.copyOf(token, token.length * 2);
+                    }
+                    token[++length] = Character.toLowerCase(c);
+                } else if (length > 0) {
+                    boolean open = openLastToken && i == text.length();
+                    addToken(length, !open);
+                    length = 0;
+                }
+            }
+        }
+
+        // The token occupies token[1..length]
+        private void addToken(int length, boolean closed) {
+            token[0] = TOKEN_START;
+            int end = length + 1;
+            if (closed) {
+                token[end++] = TOKEN_END;
+            }
+            for (int i = 0; i + 2 < end; i++) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, count * 2);
+                }
+                values[count++] = ((long) token[i] << 32) | ((long) token[i + 1] << 16) | token[i + 2];
+            }
+        }
+
+        long[] distinct() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+
+    /**
+     * Open-addressing map from customer id to document, avoiding a boxed entry per
+     * customer. Customer ids are positive, so 0 marks a free slot.
+     */
+    private static final class LongIntMap {
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new long[oldKeys.length * 2];
+                values = new int[oldKeys.length * 2];
+                size = 0;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != 0) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != key) {
+                if (keys[slot] == 0) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int value = values[slot];
+            // Backward-shift deletion keeps probe sequences intact without tombstones
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return value;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0L);
+            size = 0;
+        }
+
+        long memoryBytes() {
+            return 12L * keys.length;
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+            return (int) (hash ^ (hash >>> 33)) & mask;
+        }
+    }
+}
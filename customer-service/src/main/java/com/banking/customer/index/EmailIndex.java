@@ -0,0 +1,173 @@
+package com.banking.customer.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Emails of all customers, used to skip the database lookup when an email is new. A Bloom
+ * filter answers most misses without touching the exact set; hits are confirmed by the set.
+ * The index is filled once at startup and then follows the customer events, so an entry can
+ * be briefly missing or stale: callers treat a hit as "check the database" and rely on the
+ * unique constraint for emails that are not indexed yet.
+ * <p>
+ * Bloom filter bits cannot be cleared, so removed emails keep their bits until the filter is
+ * rebuilt from the set, which happens once removals and growth exceed its sizing.
+ */
+@Component
+@Slf4j
+public class EmailIndex {
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger removals = new AtomicInteger();
+    private final double falsePositiveRate;
+
+    private volatile boolean ready;
+    private AtomicLongArray bits;
+    private int bitCount;
+    private int hashCount;
+    private int capacity;
+
+    public EmailIndex(@Value("${banking.email-index.expected-emails:1000000}") int expectedEmails,
+                      @Value("${banking.email-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        resize(Math.max(1024, expectedEmails));
+    }
+
+    /**
+     * False until the initial load has finished; callers must go to the database meanwhile.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Whether the email is indexed. Most emails that are not are rejected by the Bloom filter
+     * alone.
+     */
+    public boolean contains(String email) {
+        long h1 = hash(email, 0xcbf29ce484222325L, 0x100000001b3L);
+        long h2 = hash(email, 0x84222325cbf29ce4L, 0x9e3779b97f4a7c15L);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return emails.contains(email);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        long h1 = hash(email, 0xcbf29ce484222325L, 0x100000001b3L);
+        long h2 = hash(email, 0x84222325cbf29ce4L, 0x9e3779b97f4a7c15L);
+        boolean full;
+        lock.readLock().lock();
+        try {
+            setBits(bits, bitCount, hashCount, h1, h2);
+            emails.add(email);
+            full = emails.size() + removals.get() > capacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (full) {
+            rebuild();
+        }
+    }
+
+    public void remove(String email) {
+        if (email == null) {
+            return;
+        }
+        boolean full;
+        lock.readLock().lock();
+        try {
+            if (!emails.remove(email)) {
+                return;
+            }
+            removals.incrementAndGet();
+            full = emails.size() + removals.get() > capacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (full) {
+            rebuild();
+        }
+    }
+
+    public int size() {
+        return emails.size();
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (emails.size() + removals.get() <= capacity) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            resize(Math.max(capacity, emails.size() * 2));
+            for (String email : emails) {
+                setBits(bits, bitCount, hashCount, hash(email, 0xcbf29ce484222325L, 0x100000001b3L),
+                        hash(email, 0x84222325cbf29ce4L, 0x9e3779b97f4a7c15L));
+            }
+            log.info("Rebuilt email index Bloom filter for {} emails ({} bits) in {} ms", emails.size(), bitCount,
+                    System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Sized for the false positive rate at the given number of emails; callers hold the write lock
+    private void resize(int newCapacity) {
+        double ln2 = Math.log(2);
+        long bitsNeeded = (long) Math.ceil(-newCapacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        capacity = newCapacity;
+        bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bitsNeeded));
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / newCapacity * ln2));
+        bits = new AtomicLongArray((bitCount + 63) >>> 6);
+        removals.set(0);
+    }
+
+    private static void setBits(AtomicLongArray bits, int bitCount, int hashCount, long h1, long h2) {
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    // FNV-1a over the UTF-16 chars, finished with the murmur3 mixer
+    private static long hash(String key, long seed, long prime) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * prime;
+        }
+        hash ^= key.length();
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
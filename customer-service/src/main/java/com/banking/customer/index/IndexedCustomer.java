@@ -0,0 +1,8 @@
+package com.banking.customer.index;
+
+/**
+ * The customer fields covered by the {@link CustomerSearchIndex}.
+ */
+public record IndexedCustomer(Long id, String firstName, String lastName, String email, String city,
+                              String postalCode) {
+}
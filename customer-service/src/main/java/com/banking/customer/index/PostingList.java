@@ -0,0 +1,157 @@
+package com.banking.customer.index;
+
+import java.util.Arrays;
+
+/**
+ * Ascending document ids of one trigram, stored as varint deltas in blocks of
+ * {@value #BLOCK_SIZE}. The first id and byte offset of each block are kept uncompressed, so a
+ * {@link Cursor} can skip to any id without decoding the blocks before it. Ids can only be
+ * appended in increasing order.
+ */
+final class PostingList {
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+    private static final int BLOCK_SIZE = 128;
+
+    private byte[] bytes = new byte[8];
+    private int byteCount;
+    private int[] blockFirstDocs = new int[1];
+    private int[] blockOffsets = new int[1];
+    private int blockCount;
+    private int size;
+    private int lastDoc = -1;
+
+    void add(int doc) {
+        if (doc <= lastDoc) {
+            return;
+        }
+        if (size % BLOCK_SIZE == 0) {
+            if (blockCount == blockFirstDocs.length) {
+                blockFirstDocs = Arrays.copyOf(blockFirstDocs, blockCount * 2);
+                blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+            }
+            blockFirstDocs[blockCount] = doc;
+            blockOffsets[blockCount] = byteCount;
+            blockCount++;
+        } else {
+            writeVarInt(doc - lastDoc);
+        }
+        lastDoc = doc;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memoryBytes() {
+        return 48L + bytes.length + 8L * blockFirstDocs.length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (byteCount + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(byteCount + 5, bytes.length + (bytes.length >> 1)));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[byteCount++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteCount++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator. {@link #advance} returns the first id at or after the target,
+     * or {@link #NO_MORE_DOCS}.
+     */
+    final class Cursor {
+        private int block = -1;
+        private int remainingInBlock;
+        private int position;
+        private int doc = -1;
+
+        int doc() {
+            return doc;
+        }
+
+        int next() {
+            return advance(doc + 1);
+        }
+
+        int advance(int target) {
+            if (doc >= target) {
+                return doc;
+            }
+            // Jump straight to the last block that starts at or before the target
+            if (block < 0 || (block + 1 < blockCount && blockFirstDocs[block + 1] <= target)) {
+                enterBlock(findBlock(target));
+                if (doc >= target) {
+                    return doc;
+                }
+            }
+            while (remainingInBlock > 0) {
+                doc += readVarInt();
+                remainingInBlock--;
+                if (doc >= target) {
+                    return doc;
+                }
+            }
+            if (block + 1 < blockCount) {
+                enterBlock(block + 1);
+                return doc;
+            }
+            doc = NO_MORE_DOCS;
+            return doc;
+        }
+
+        private int findBlock(int target) {
+            int low = Math.max(block, 0);
+            if (blockCount == 0 || blockFirstDocs[low] > target) {
+                return low;
+            }
+            // Gallop first, as targets are usually close to the current block
+            int step = 1;
+            int high = low + 1;
+            while (high < blockCount && blockFirstDocs[high] <= target) {
+                low = high;
+                step <<= 1;
+                high = low + step;
+            }
+            high = Math.min(high, blockCount) - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (blockFirstDocs[mid] <= target) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        private void enterBlock(int newBlock) {
+            if (newBlock >= blockCount) {
+                doc = NO_MORE_DOCS;
+                remainingInBlock = 0;
+                return;
+            }
+            block = newBlock;
+            doc = blockFirstDocs[newBlock];
+            position = blockOffsets[newBlock];
+            remainingInBlock = Math.min(BLOCK_SIZE, size - newBlock * BLOCK_SIZE) - 1;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,49 @@
 package com.banking.customer.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banking.customer.kafka.event.AccountCreatedEvent;
+import com.banking.customer.kafka.event.DomainEvent;
+import com.banking.customer.model.CustomerAccount;
+import com.banking.customer.service.CustomerAccountService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class AccountEventConsumer {
-    private final ObjectMapper objectMapper;
+    private final CustomerAccountService customerAccountService;
 
-    @KafkaListener(topics = "account-created", groupId = "customer-service-group")
-    public void handleAccountCreated(String message) {
-        try {
-            Map<String, Object> accountData = objectMapper.readValue(message, Map.class);
-            log.info("Received account created event: {}", accountData);
-            // Process account created event if needed
-        } catch (Exception e) {
-            log.error("Error processing account created event", e);
+    @KafkaListener(topics = AccountCreatedEvent.TOPIC, groupId = "customer-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleAccountsCreated(List<ConsumerRecord<String, DomainEvent>> records) {
+        long start = System.nanoTime();
+        List<CustomerAccount> accounts = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            if (!(record.value() instanceof AccountCreatedEvent event) || event.customerId() == null) {
+                log.warn("Skipping unusable account created event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            accounts.add(CustomerAccount.builder()
+                    .accountNumber(event.accountNumber())
+                    .customerId(event.customerId())
+                    .accountType(event.accountType())
+                    .currency(event.currency())
+                    .status(event.status())
+                    .createdAt(event.createdAt())
+                    .build());
         }
+
+        customerAccountService.recordAccounts(accounts);
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        log.info("Received {} account created events, applied in {} ms ({} records/s)", records.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), records.size() * 1_000_000_000L / elapsedNanos);
     }
 }
@@ -1,47 +1,46 @@
 package com.banking.customer.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banking.customer.kafka.event.CustomerCreatedEvent;
+import com.banking.customer.kafka.event.CustomerDeletedEvent;
+import com.banking.customer.kafka.event.CustomerUpdatedEvent;
+import com.banking.customer.kafka.event.DomainEvent;
+import com.banking.customer.kafka.event.EventCodec;
+import com.banking.customer.model.OutboxEvent;
+import com.banking.customer.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
+/**
+ * Writes events to the outbox table in the caller's transaction; {@link OutboxRelay} publishes
+ * them to Kafka after the commit.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerEventProducer {
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void sendCustomerCreatedEvent(CustomerCreatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Customer created event written to outbox: {}", event);
+    }
 
-    public void sendCustomerCreatedEvent(Map<String, Object> customerData) {
-        try {
-            String message = objectMapper.writeValueAsString(customerData);
-            kafkaTemplate.send("customer-created", message);
-            log.info("Customer created event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending customer created event", e);
-        }
+    public void sendCustomerUpdatedEvent(CustomerUpdatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Customer updated event written to outbox: {}", event);
     }
 
-    public void sendCustomerUpdatedEvent(Map<String, Object> customerData) {
-        try {
-            String message = objectMapper.writeValueAsString(customerData);
-            kafkaTemplate.send("customer-updated", message);
-            log.info("Customer updated event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending customer updated event", e);
-        }
+    public void sendCustomerDeletedEvent(CustomerDeletedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Customer deleted event written to outbox: {}", event);
     }
 
-    public void sendCustomerDeletedEvent(Map<String, Object> customerData) {
-        try {
-            String message = objectMapper.writeValueAsString(customerData);
-            kafkaTemplate.send("customer-deleted", message);
-            log.info("Customer deleted event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending customer deleted event", e);
-        }
+    private OutboxEvent toOutboxEvent(DomainEvent event) {
+        return OutboxEvent.builder()
+                .topic(event.topic())
+                .eventKey(event.key())
+                .payload(EventCodec.encode(event))
+                .build();
     }
 }
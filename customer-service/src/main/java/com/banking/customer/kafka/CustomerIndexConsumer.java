@@ -0,0 +1,45 @@
+package com.banking.customer.kafka;
+
+import com.banking.customer.index.CustomerSearchIndex;
+import com.banking.customer.index.EmailIndex;
+import com.banking.customer.index.IndexedCustomer;
+import com.banking.customer.kafka.event.CustomerCreatedEvent;
+import com.banking.customer.kafka.event.CustomerDeletedEvent;
+import com.banking.customer.kafka.event.CustomerUpdatedEvent;
+import com.banking.customer.kafka.event.DomainEvent;
+import com.banking.customer.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class CustomerIndexConsumer {
+    private final EmailIndex emailIndex;
+    private final CustomerSearchIndex searchIndex;
+    private final CustomerRepository customerRepository;
+
+    // Every instance keeps the full indexes, so each one joins with its own consumer group
+    @KafkaListener(topics = {CustomerCreatedEvent.TOPIC, CustomerUpdatedEvent.TOPIC, CustomerDeletedEvent.TOPIC},
+            groupId = "customer-index-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void handleCustomerEvent(DomainEvent event) {
+        if (event instanceof CustomerCreatedEvent created) {
+            emailIndex.add(created.email());
+            searchIndex.index(new IndexedCustomer(created.customerId(), created.firstName(), created.lastName(),
+                    created.email(), created.city(), created.postalCode()));
+        } else if (event instanceof CustomerUpdatedEvent updated && updated.email() != null) {
+            if (updated.previousEmail() != null && !updated.previousEmail().equals(updated.email())) {
+                emailIndex.remove(updated.previousEmail());
+            }
+            emailIndex.add(updated.email());
+            // The event lacks the names, so the indexed fields are read back from the database
+            customerRepository.findById(updated.customerId()).ifPresent(customer -> searchIndex.index(
+                    new IndexedCustomer(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                            customer.getEmail(), customer.getCity(), customer.getPostalCode())));
+        } else if (event instanceof CustomerDeletedEvent deleted) {
+            emailIndex.remove(deleted.email());
+            searchIndex.remove(deleted.customerId());
+        }
+    }
+}
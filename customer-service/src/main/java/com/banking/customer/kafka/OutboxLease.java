@@ -0,0 +1,67 @@
+package com.banking.customer.kafka;
+
+import com.banking.customer.repository.OutboxRelayLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Elects the one instance that relays the outbox, through a lease row in the database. The
+ * holder renews the lease before every batch; another instance takes over once it has not
+ * been renewed for {@code banking.outbox.lease-ms}. A holder stalled for longer than that
+ * can overlap with its successor for one batch, which at-least-once delivery already allows.
+ */
+@Component
+@Slf4j
+public class OutboxLease {
+    static final String NAME = "outbox-relay";
+
+    private final OutboxRelayLeaseRepository leaseRepository;
+    private final long leaseMs;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile boolean held;
+
+    public OutboxLease(OutboxRelayLeaseRepository leaseRepository,
+                       @Value("${banking.outbox.lease-ms:30000}") long leaseMs) {
+        this.leaseRepository = leaseRepository;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Acquires or renews the lease; false while another instance holds it.
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        boolean acquired = leaseRepository.acquire(NAME, owner, now, now + leaseMs) == 1;
+        if (!acquired && !leaseRepository.existsById(NAME)) {
+            try {
+                leaseRepository.insert(NAME, owner, now + leaseMs);
+                acquired = true;
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first
+            }
+        }
+        if (acquired != held) {
+            log.info(acquired ? "Acquired the outbox relay lease" : "Lost the outbox relay lease to another instance");
+            held = acquired;
+        }
+        return acquired;
+    }
+
+    public boolean isHeld() {
+        return held;
+    }
+
+    // Lets another instance take over right away instead of after the lease expires
+    @PreDestroy
+    public void release() {
+        if (held) {
+            leaseRepository.release(NAME, owner);
+            held = false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.banking.customer.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record AccountCreatedEvent(Long accountId, String accountNumber, Long customerId, String accountType, BigDecimal balance,
+                                  String currency, String status, LocalDateTime createdAt) implements DomainEvent {
+    public static final String TOPIC = "account-created";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return accountNumber;
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.customer.kafka.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public record CustomerCreatedEvent(Long customerId, String firstName, String lastName, String email,
+                                   String phoneNumber, LocalDate dateOfBirth, String address, String city,
+                                   String country, String postalCode, String status, LocalDateTime createdAt) implements DomainEvent {
+    public static final String TOPIC = "customer-created";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(customerId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.customer.kafka.event;
+
+import java.time.LocalDateTime;
+
+public record CustomerDeletedEvent(Long customerId, String email, LocalDateTime deletedAt) implements DomainEvent {
+    public static final String TOPIC = "customer-deleted";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(customerId);
+    }
+}
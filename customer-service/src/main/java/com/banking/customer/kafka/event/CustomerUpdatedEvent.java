@@ -0,0 +1,20 @@
+package com.banking.customer.kafka.event;
+
+import java.time.LocalDateTime;
+
+// previousEmail is set when the email changed, so consumers can drop the old one
+public record CustomerUpdatedEvent(Long customerId, String email, String phoneNumber, String address,
+                                   String city, String postalCode, String status, LocalDateTime updatedAt,
+                                   String previousEmail) implements DomainEvent {
+    public static final String TOPIC = "customer-updated";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return String.valueOf(customerId);
+    }
+}
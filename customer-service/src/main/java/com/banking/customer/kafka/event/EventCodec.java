@@ -0,0 +1,116 @@
+package com.banking.customer.kafka.event;
+
+/**
+ * Binary wire format for {@link DomainEvent}s: a magic byte, a format version, a type id and
+ * then the record components in declaration order. New components may only be appended and
+ * bump {@link #VERSION}, so a reader of an older version decodes the components it knows from a
+ * newer payload and ignores the trailing bytes. A change that is not an append needs a new
+ * {@link #MAGIC} instead.
+ */
+public final class EventCodec {
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    static final int ACCOUNT_CREATED = 1;
+    static final int CUSTOMER_CREATED = 20;
+    static final int CUSTOMER_UPDATED = 21;
+    static final int CUSTOMER_DELETED = 22;
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(DomainEvent event) {
+        EventWriter out = new EventWriter();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        if (event instanceof AccountCreatedEvent e) {
+            out.writeByte(ACCOUNT_CREATED);
+            out.writeNullableLong(e.accountId());
+            out.writeString(e.accountNumber());
+            out.writeNullableLong(e.customerId());
+            out.writeString(e.accountType());
+            out.writeDecimal(e.balance());
+            out.writeString(e.currency());
+            out.writeString(e.status());
+            out.writeDateTime(e.createdAt());
+        } else if (event instanceof CustomerCreatedEvent e) {
+            out.writeByte(CUSTOMER_CREATED);
+            out.writeNullableLong(e.customerId());
+            out.writeString(e.firstName());
+            out.writeString(e.lastName());
+            out.writeString(e.email());
+            out.writeString(e.phoneNumber());
+            out.writeDate(e.dateOfBirth());
+            out.writeString(e.address());
+            out.writeString(e.city());
+            out.writeString(e.country());
+            out.writeString(e.postalCode());
+            out.writeString(e.status());
+            out.writeDateTime(e.createdAt());
+        } else if (event instanceof CustomerUpdatedEvent e) {
+            out.writeByte(CUSTOMER_UPDATED);
+            out.writeNullableLong(e.customerId());
+            out.writeString(e.email());
+            out.writeString(e.phoneNumber());
+            out.writeString(e.address());
+            out.writeString(e.city());
+            out.writeString(e.postalCode());
+            out.writeString(e.status());
+            out.writeDateTime(e.updatedAt());
+            out.writeString(e.previousEmail());
+        } else if (event instanceof CustomerDeletedEvent e) {
+            out.writeByte(CUSTOMER_DELETED);
+            out.writeNullableLong(e.customerId());
+            out.writeString(e.email());
+            out.writeDateTime(e.deletedAt());
+        } else {
+            throw new RuntimeException("Unsupported event type: " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 2 && data[0] == MAGIC;
+    }
+
+    public static DomainEvent decode(byte[] data) {
+        EventReader in = new EventReader(data);
+        if ((byte) in.readByte() != MAGIC) {
+            throw new RuntimeException("Payload is not a binary event");
+        }
+        int version = in.readByte();
+        // Newer versions only append components, which the readers below leave unread
+        if (version < 1) {
+            throw new RuntimeException("Unsupported event version: " + version);
+        }
+        int type = in.readByte();
+        return switch (type) {
+            case ACCOUNT_CREATED -> readAccountCreated(in);
+            case CUSTOMER_CREATED -> readCustomerCreated(in);
+            case CUSTOMER_UPDATED -> readCustomerUpdated(in);
+            case CUSTOMER_DELETED -> readCustomerDeleted(in);
+            default -> throw new RuntimeException("Unknown event type: " + type);
+        };
+    }
+
+    private static AccountCreatedEvent readAccountCreated(EventReader in) {
+        return new AccountCreatedEvent(in.readNullableLong(), in.readString(), in.readNullableLong(),
+                in.readString(), in.readDecimal(), in.readString(), in.readString(), in.readDateTime());
+    }
+
+    private static CustomerCreatedEvent readCustomerCreated(EventReader in) {
+        return new CustomerCreatedEvent(in.readNullableLong(), in.readString(), in.readString(),
+                in.readString(), in.readString(), in.readDate(), in.readString(), in.readString(),
+                in.readString(), in.readString(), in.readString(), in.readDateTime());
+    }
+
+    private static CustomerUpdatedEvent readCustomerUpdated(EventReader in) {
+        return new CustomerUpdatedEvent(in.readNullableLong(), in.readString(), in.readString(),
+                in.readString(), in.readString(), in.readString(), in.readString(), in.readDateTime(),
+                in.hasRemaining() ? in.readString() : null);
+    }
+
+    private static CustomerDeletedEvent readCustomerDeleted(EventReader in) {
+        return new CustomerDeletedEvent(in.readNullableLong(), in.readString(), in.readDateTime());
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.customer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of the accounts opened for each customer, built from account-created events.
+ */
+@Entity
+@Table(name = "customer_accounts", indexes = {
+        @Index(name = "idx_customer_accounts_customer", columnList = "customer_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAccount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String accountNumber;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column
+    private String accountType;
+
+    @Column
+    private String currency;
+
+    @Column
+    private String status;
+
+    @Column
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package com.banking.customer.reactive;
+
+import com.banking.customer.model.Customer;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of the {@code customers} table. Writes go through the JPA
+ * {@link Customer} entity, which rows are converted to so the {@code accounts} batch mapping
+ * keeps working.
+ */
+@Table("customers")
+public record CustomerRow(@Id Long id, String firstName, String lastName, String email,
+                          String phoneNumber, LocalDate dateOfBirth, String address, String city,
+                          String country, String postalCode, String status,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public Customer toCustomer() {
+        return Customer.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .phoneNumber(phoneNumber)
+                .dateOfBirth(dateOfBirth)
+                .address(address)
+                .city(city)
+                .country(country)
+                .postalCode(postalCode)
+                .status(status)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.banking.customer.reactive;
+
+import com.banking.customer.model.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the read-heavy customer queries from R2DBC when {@code banking.reactive-reads.enabled}
+ * is set. List results are pulled from the database {@code prefetch} rows at a time.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.reactive-reads.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveCustomerQueryService {
+    private final ReactiveCustomerRepository reactiveCustomerRepository;
+    private final int prefetch;
+
+    public ReactiveCustomerQueryService(ReactiveCustomerRepository reactiveCustomerRepository,
+                                        @Value("${banking.reactive-reads.prefetch:256}") int prefetch) {
+        this.reactiveCustomerRepository = reactiveCustomerRepository;
+        this.prefetch = prefetch;
+        log.info("Serving customer reads from R2DBC (prefetch {})", prefetch);
+    }
+
+    public Mono<Customer> getCustomerById(Long id) {
+        return reactiveCustomerRepository.findById(id)
+                .map(CustomerRow::toCustomer)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Customer not found with id: " + id)));
+    }
+
+    public Flux<Customer> getCustomersByCity(String city) {
+        return reactiveCustomerRepository.findByCity(city)
+                .limitRate(prefetch)
+                .map(CustomerRow::toCustomer);
+    }
+}
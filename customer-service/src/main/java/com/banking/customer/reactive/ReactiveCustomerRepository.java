@@ -0,0 +1,13 @@
+package com.banking.customer.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * R2DBC counterpart of the read methods of {@link com.banking.customer.repository.CustomerRepository}.
+ */
+@Repository
+public interface ReactiveCustomerRepository extends R2dbcRepository<CustomerRow, Long> {
+    Flux<CustomerRow> findByCity(String city);
+}
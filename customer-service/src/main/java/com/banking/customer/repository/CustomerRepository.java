@@ -1,16 +1,40 @@
 package com.banking.customer.repository;
 
+import com.banking.customer.index.IndexedCustomer;
 import com.banking.customer.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
+    boolean existsByEmail(String email);
+
+    @Query("SELECT c.email FROM Customer c WHERE c.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
     List<Customer> findByStatus(String status);
     List<Customer> findByCity(String city);
     List<Customer> findByCountry(String country);
+
+    @Query("SELECT c FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+    List<Customer> findPageAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(c.id) FROM Customer c")
+    Long findMaxId();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.banking.customer.index.IndexedCustomer(c.id, c.firstName, c.lastName, c.email, c.city, "
+            + "c.postalCode) FROM Customer c WHERE c.id >= :fromId AND c.id < :toId")
+    Stream<IndexedCustomer> streamIndexedCustomers(Long fromId, Long toId);
 }
@@ -0,0 +1,51 @@
+package com.banking.customer.service;
+
+import com.banking.customer.model.CustomerAccount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerAccountService {
+    // Standard SQL MERGE rather than a vendor upsert, so it runs on any database with SQL:2003 MERGE
+    private static final String MERGE_ACCOUNT_SQL =
+            "MERGE INTO customer_accounts t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), "
+                    + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), "
+                    + "CAST(? AS TIMESTAMP))) "
+                    + "AS s (account_number, customer_id, account_type, currency, status, created_at) "
+                    + "ON t.account_number = s.account_number "
+                    + "WHEN MATCHED THEN UPDATE SET customer_id = s.customer_id, account_type = s.account_type, "
+                    + "currency = s.currency, status = s.status, created_at = s.created_at "
+                    + "WHEN NOT MATCHED THEN INSERT (account_number, customer_id, account_type, currency, status, "
+                    + "created_at) VALUES (s.account_number, s.customer_id, s.account_type, s.currency, s.status, "
+                    + "s.created_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upserts a whole poll of accounts as one JDBC batch, keyed by account number so that
+     * redelivered events are harmless.
+     */
+    @Transactional
+    public void recordAccounts(List<CustomerAccount> accounts) {
+        if (accounts.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_ACCOUNT_SQL, accounts, accounts.size(), (ps, account) -> {
+            ps.setString(1, account.getAccountNumber());
+            ps.setLong(2, account.getCustomerId());
+            ps.setString(3, account.getAccountType());
+            ps.setString(4, account.getCurrency());
+            ps.setString(5, account.getStatus());
+            ps.setTimestamp(6, account.getCreatedAt() == null ? null : Timestamp.valueOf(account.getCreatedAt()));
+        });
+        log.debug("Recorded {} customer accounts", accounts.size());
+    }
+}
@@ -0,0 +1,350 @@
+package com.banking.customer.service;
+
+import com.banking.customer.dto.CustomerImportError;
+import com.banking.customer.dto.CustomerImportResult;
+import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.dto.ImportFormat;
+import com.banking.customer.index.CustomerSearchIndex;
+import com.banking.customer.index.EmailIndex;
+import com.banking.customer.index.IndexedCustomer;
+import com.banking.customer.kafka.event.CustomerCreatedEvent;
+import com.banking.customer.kafka.event.EventCodec;
+import com.banking.customer.model.Customer;
+import com.banking.customer.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Onboards customers from partner files. Rows are read one at a time from the upload, checked
+ * and collected into chunks of {@code banking.import.chunk-size}; each chunk is inserted with
+ * JDBC batches in its own transaction together with the outbox rows of its created events.
+ * A failed row is reported with its line number and does not stop the import.
+ * <p>
+ * NDJSON has one customer object per line. CSV needs a header naming the columns after the
+ * {@link CustomerInput} fields; values can be quoted, but a row cannot span lines.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerImportService {
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO outbox_events (topic, event_key, payload, created_at) VALUES (?, ?, ?, ?)";
+    private static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "phoneNumber",
+            "dateOfBirth", "address", "city", "country", "postalCode");
+
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EmailIndex emailIndex;
+    private final CustomerSearchIndex searchIndex;
+
+    @Value("${banking.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${banking.import.max-errors:10000}")
+    private int maxErrors;
+
+    public CustomerImportResult importCustomers(InputStream input, ImportFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        Report report = new Report();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        if (format == ImportFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            columns = csvColumns(header);
+        }
+
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.rowsRead++;
+            CustomerInput customer;
+            try {
+                customer = format == ImportFormat.CSV ? parseCsv(line, columns) : parseJson(line);
+            } catch (RuntimeException e) {
+                report.reject(lineNumber, null, e.getMessage());
+                continue;
+            }
+            String violations = validator.validate(customer).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                report.reject(lineNumber, customer.getEmail(), violations);
+                continue;
+            }
+            if (!seenEmails.add(customer.getEmail())) {
+                report.reject(lineNumber, customer.getEmail(), "Duplicate email within the import");
+                continue;
+            }
+            chunk.add(new Row(lineNumber, customer));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, report);
+
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - start);
+        log.info("Imported {} of {} customers ({} rejected) in {} ms ({} rows/s)", report.imported,
+                report.rowsRead, report.rejected, elapsedMs, report.imported * 1000 / elapsedMs);
+        return CustomerImportResult.builder()
+                .rowsRead(report.rowsRead)
+                .imported(report.imported)
+                .rejected(report.rejected)
+                .elapsedMs(elapsedMs)
+                .rowsPerSecond(report.imported * 1000 / elapsedMs)
+                .errors(report.errors)
+                .errorsTruncated(report.rejected > report.errors.size())
+                .build();
+    }
+
+    private void importChunk(List<Row> chunk, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // Emails the index has never seen need no database check
+        List<String> candidates = chunk.stream()
+                .map(row -> row.input().getEmail())
+                .filter(email -> !emailIndex.isReady() || emailIndex.contains(email))
+                .toList();
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : new HashSet<>(customerRepository.findExistingEmails(candidates));
+
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.input().getEmail())) {
+                report.reject(row.line(), row.input().getEmail(),
+                        "Customer with email " + row.input().getEmail() + " already exists");
+            } else {
+                rows.add(row);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Customer> saved;
+        try {
+            saved = insert(rows);
+        } catch (DataIntegrityViolationException e) {
+            // An email was taken after the check; find it by inserting the rows one at a time
+            saved = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                try {
+                    saved.addAll(insert(List.of(row)));
+                } catch (DataIntegrityViolationException rowError) {
+                    report.reject(row.line(), row.input().getEmail(),
+                            "Customer with email " + row.input().getEmail() + " already exists");
+                }
+            }
+        }
+        report.imported += saved.size();
+
+        // Other instances catch up through the customer events
+        List<IndexedCustomer> indexed = new ArrayList<>(saved.size());
+        for (Customer customer : saved) {
+            emailIndex.add(customer.getEmail());
+            indexed.add(new IndexedCustomer(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getCity(), customer.getPostalCode()));
+        }
+        searchIndex.indexAll(indexed);
+    }
+
+    private List<Customer> insert(List<Row> rows) {
+        return transactionTemplate.execute(status -> {
+            List<Customer> customers = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                CustomerInput input = row.input();
+                customers.add(Customer.builder()
+                        .firstName(input.getFirstName())
+                        .lastName(input.getLastName())
+                        .email(input.getEmail())
+                        .phoneNumber(input.getPhoneNumber())
+                        .dateOfBirth(input.getDateOfBirth())
+                        .address(input.getAddress())
+                        .city(input.getCity())
+                        .country(input.getCountry())
+                        .postalCode(input.getPostalCode())
+                        .status("ACTIVE")
+                        .build());
+            }
+            List<Customer> saved = customerRepository.saveAll(customers);
+            customerRepository.flush();
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, saved, saved.size(), (ps, customer) -> {
+                CustomerCreatedEvent event = new CustomerCreatedEvent(customer.getId(), customer.getFirstName(),
+                        customer.getLastName(), customer.getEmail(), customer.getPhoneNumber(),
+                        customer.getDateOfBirth(), customer.getAddress(), customer.getCity(), customer.getCountry(),
+                        customer.getPostalCode(), customer.getStatus(), customer.getCreatedAt());
+                ps.setString(1, event.topic());
+                ps.setString(2, event.key());
+                ps.setBytes(3, EventCodec.encode(event));
+                ps.setTimestamp(4, now);
+            });
+            // The chunk is done with; keeps the persistence context from growing with the import
+            entityManager.clear();
+            return saved;
+        });
+    }
+
+    private CustomerInput parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new RuntimeException("Expected a JSON object");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String column : COLUMNS) {
+            JsonNode value = node.get(column);
+            values.put(column, value == null || value.isNull() ? null : value.asText());
+        }
+        return toInput(values);
+    }
+
+    private static Map<String, Integer> csvColumns(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV import is missing its header row");
+        }
+        Map<String, String> byLowerCase = COLUMNS.stream()
+                .collect(Collectors.toMap(column -> column.toLowerCase(Locale.ROOT), column -> column));
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            String column = byLowerCase.get(names.get(i).trim().toLowerCase(Locale.ROOT));
+            if (column != null) {
+                columns.put(column, i);
+            }
+        }
+        List<String> missing = COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static CustomerInput parseCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        Map<String, String> values = new HashMap<>();
+        for (Map.Entry<String, Integer> column : columns.entrySet()) {
+            values.put(column.getKey(), column.getValue() < fields.size() ? fields.get(column.getValue()) : null);
+        }
+        return toInput(values);
+    }
+
+    private static CustomerInput toInput(Map<String, String> values) {
+        String dateOfBirth = values.get("dateOfBirth");
+        LocalDate parsedDateOfBirth = null;
+        if (dateOfBirth != null && !dateOfBirth.isBlank()) {
+            try {
+                parsedDateOfBirth = LocalDate.parse(dateOfBirth.trim());
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid date of birth: " + dateOfBirth);
+            }
+        }
+        return CustomerInput.builder()
+                .firstName(values.get("firstName"))
+                .lastName(values.get("lastName"))
+                .email(values.get("email"))
+                .phoneNumber(values.get("phoneNumber"))
+                .dateOfBirth(parsedDateOfBirth)
+                .address(values.get("address"))
+                .city(values.get("city"))
+                .country(values.get("country"))
+                .postalCode(values.get("postalCode"))
+                .build();
+    }
+
+    // Fields separated by commas; double quotes enclose fields and "" escapes a quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(long line, CustomerInput input) {
+    }
+
+    private class Report {
+        private final List<CustomerImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        void reject(long line, String email, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new CustomerImportError(line, email, message));
+            }
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package com.banking.customer.service;
 
+import com.banking.customer.client.AccountServiceClient;
+import com.banking.customer.dto.AccountView;
+import com.banking.customer.dto.Connection;
 import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.dto.CustomerSearchIndexStats;
 import com.banking.customer.dto.UpdateCustomerInput;
+import com.banking.customer.index.CustomerSearchIndex;
+import com.banking.customer.index.EmailIndex;
+import com.banking.customer.index.IndexedCustomer;
 import com.banking.customer.kafka.CustomerEventProducer;
+import com.banking.customer.kafka.event.CustomerCreatedEvent;
+import com.banking.customer.kafka.event.CustomerDeletedEvent;
+import com.banking.customer.kafka.event.CustomerUpdatedEvent;
 import com.banking.customer.model.Customer;
 import com.banking.customer.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,13 +38,16 @@ import java.util.Map;
 public class CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerEventProducer eventProducer;
+    private final AccountServiceClient accountServiceClient;
+    private final EmailIndex emailIndex;
+    private final CustomerSearchIndex searchIndex;
 
     @Transactional
     public Customer createCustomer(CustomerInput input) {
         log.info("Creating customer: {} {}", input.getFirstName(), input.getLastName());
 
         // Check if email already exists
-        if (customerRepository.findByEmail(input.getEmail()).isPresent()) {
+        if (isEmailTaken(input.getEmail())) {
             throw new RuntimeException("Customer with email " + input.getEmail() + " already exists");
         }
 
@@ -44,23 +64,22 @@ public class CustomerService {
                 .status("ACTIVE")
                 .build();
 
-        Customer savedCustomer = customerRepository.save(customer);
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerRepository.save(customer);
+        } catch (DataIntegrityViolationException e) {
+            // Taken by a customer the email index has not seen yet
+            throw new RuntimeException("Customer with email " + input.getEmail() + " already exists");
+        }
+        updateEmailIndexAfterCommit(null, savedCustomer.getEmail());
+        updateSearchIndexAfterCommit(savedCustomer, false);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("customerId", savedCustomer.getId());
-        eventData.put("firstName", savedCustomer.getFirstName());
-        eventData.put("lastName", savedCustomer.getLastName());
-        eventData.put("email", savedCustomer.getEmail());
-        eventData.put("phoneNumber", savedCustomer.getPhoneNumber());
-        eventData.put("dateOfBirth", savedCustomer.getDateOfBirth().toString());
-        eventData.put("address", savedCustomer.getAddress());
-        eventData.put("city", savedCustomer.getCity());
-        eventData.put("country", savedCustomer.getCountry());
-        eventData.put("postalCode", savedCustomer.getPostalCode());
-        eventData.put("status", savedCustomer.getStatus());
-        eventData.put("createdAt", savedCustomer.getCreatedAt().toString());
-        eventProducer.sendCustomerCreatedEvent(eventData);
+        eventProducer.sendCustomerCreatedEvent(new CustomerCreatedEvent(savedCustomer.getId(),
+                savedCustomer.getFirstName(), savedCustomer.getLastName(), savedCustomer.getEmail(),
+                savedCustomer.getPhoneNumber(), savedCustomer.getDateOfBirth(), savedCustomer.getAddress(),
+                savedCustomer.getCity(), savedCustomer.getCountry(), savedCustomer.getPostalCode(),
+                savedCustomer.getStatus(), savedCustomer.getCreatedAt()));
 
         return savedCustomer;
     }
@@ -79,20 +98,79 @@ public class CustomerService {
         return customerRepository.findByCity(city);
     }
 
+    /**
+     * Fetches the accounts of all given customers from account-service in a single call.
+     */
+    public Map<Customer, List<AccountView>> getAccountsForCustomers(List<Customer> customers) {
+        List<Long> customerIds = customers.stream().map(Customer::getId).distinct().toList();
+        Map<Long, List<AccountView>> byCustomer = accountServiceClient.getAccountsByCustomerIds(customerIds).stream()
+                .collect(Collectors.groupingBy(AccountView::getCustomerId));
+
+        Map<Customer, List<AccountView>> accounts = new LinkedHashMap<>();
+        for (Customer customer : customers) {
+            accounts.put(customer, byCustomer.getOrDefault(customer.getId(), List.of()));
+        }
+        return accounts;
+    }
+
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    public Connection<Customer> getCustomersPage(Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        List<Customer> rows = customerRepository.findPageAfter(Connection.afterId(after), PageRequest.of(0, pageSize + 1));
+        return Connection.of(rows, pageSize, after != null, customer -> Connection.idCursor(customer.getId()));
+    }
+
+    /**
+     * Customers matching a free-text query over name, email, city and postal code, ranked by
+     * the {@link CustomerSearchIndex}. The cursor is the position in the ranking, so pages of
+     * a query shift if customers are added or changed in between.
+     */
+    public Connection<Customer> searchCustomers(String query, Integer first, String after) {
+        if (!searchIndex.isReady()) {
+            throw new RuntimeException("Customer search is not available until the search index has loaded");
+        }
+        int pageSize = Connection.pageSize(first);
+        int offset = (int) Math.min(Connection.afterId(after), Integer.MAX_VALUE - Connection.MAX_PAGE_SIZE - 1);
+        List<Long> ids = searchIndex.search(query, offset + pageSize + 1);
+        List<Long> pageIds = ids.subList(Math.min(offset, ids.size()), ids.size());
+
+        Map<Long, Customer> byId = new HashMap<>();
+        for (Customer customer : customerRepository.findAllById(pageIds)) {
+            byId.put(customer.getId(), customer);
+        }
+        // Keep the ranking; customers deleted since they were indexed are skipped
+        List<Customer> rows = new ArrayList<>(pageIds.size());
+        Map<Long, Long> positions = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            Customer customer = byId.get(pageIds.get(i));
+            if (customer != null) {
+                rows.add(customer);
+                positions.put(customer.getId(), (long) offset + i + 1);
+            }
+        }
+        return Connection.of(rows, pageSize, after != null,
+                customer -> Connection.idCursor(positions.get(customer.getId())));
+    }
+
+    public CustomerSearchIndexStats getSearchIndexStats() {
+        return searchIndex.stats();
+    }
+
     @Transactional
     public Customer updateCustomer(UpdateCustomerInput input) {
         log.info("Updating customer with id: {}", input.getId());
 
         Customer customer = getCustomerById(input.getId());
+        String previousEmail = null;
 
         if (input.getEmail() != null && !input.getEmail().equals(customer.getEmail())) {
-            if (customerRepository.findByEmail(input.getEmail()).isPresent()) {
+            if (isEmailTaken(input.getEmail())) {
                 throw new RuntimeException("Email " + input.getEmail() + " is already in use");
             }
+            previousEmail = customer.getEmail();
             customer.setEmail(input.getEmail());
         }
 
@@ -112,18 +190,23 @@ public class CustomerService {
             customer.setPostalCode(input.getPostalCode());
         }
 
-        Customer updatedCustomer = customerRepository.save(customer);
+        Customer updatedCustomer;
+        try {
+            // Flushed here so a clash on the unique email column surfaces before the commit
+            updatedCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Email " + input.getEmail() + " is already in use");
+        }
+        if (previousEmail != null) {
+            updateEmailIndexAfterCommit(previousEmail, updatedCustomer.getEmail());
+        }
+        updateSearchIndexAfterCommit(updatedCustomer, false);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("customerId", updatedCustomer.getId());
-        eventData.put("email", updatedCustomer.getEmail());
-        eventData.put("phoneNumber", updatedCustomer.getPhoneNumber());
-        eventData.put("address", updatedCustomer.getAddress());
-        eventData.put("city", updatedCustomer.getCity());
-        eventData.put("postalCode", updatedCustomer.getPostalCode());
-        eventData.put("updatedAt", updatedCustomer.getUpdatedAt().toString());
-        eventProducer.sendCustomerUpdatedEvent(eventData);
+        eventProducer.sendCustomerUpdatedEvent(new CustomerUpdatedEvent(updatedCustomer.getId(),
+                updatedCustomer.getEmail(), updatedCustomer.getPhoneNumber(), updatedCustomer.getAddress(),
+                updatedCustomer.getCity(), updatedCustomer.getPostalCode(), null, updatedCustomer.getUpdatedAt(),
+                previousEmail));
 
         return updatedCustomer;
     }
@@ -137,11 +220,8 @@ public class CustomerService {
         Customer updatedCustomer = customerRepository.save(customer);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("customerId", updatedCustomer.getId());
-        eventData.put("status", updatedCustomer.getStatus());
-        eventData.put("updatedAt", updatedCustomer.getUpdatedAt().toString());
-        eventProducer.sendCustomerUpdatedEvent(eventData);
+        eventProducer.sendCustomerUpdatedEvent(new CustomerUpdatedEvent(updatedCustomer.getId(),
+                null, null, null, null, null, updatedCustomer.getStatus(), updatedCustomer.getUpdatedAt(), null));
 
         return updatedCustomer;
     }
@@ -152,13 +232,49 @@ public class CustomerService {
         Customer customer = getCustomerById(id);
         
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("customerId", customer.getId());
-        eventData.put("email", customer.getEmail());
-        eventData.put("deletedAt", LocalDateTime.now().toString());
-        eventProducer.sendCustomerDeletedEvent(eventData);
+        eventProducer.sendCustomerDeletedEvent(new CustomerDeletedEvent(customer.getId(), customer.getEmail(),
+                LocalDateTime.now()));
 
         customerRepository.delete(customer);
+        updateEmailIndexAfterCommit(customer.getEmail(), null);
+        updateSearchIndexAfterCommit(customer, true);
         return true;
     }
+
+    /**
+     * Most new emails are answered by the index alone. Indexed emails are confirmed in the
+     * database, as the entry may belong to a customer another instance has just removed.
+     */
+    private boolean isEmailTaken(String email) {
+        if (emailIndex.isReady() && !emailIndex.contains(email)) {
+            return false;
+        }
+        return customerRepository.existsByEmail(email);
+    }
+
+    // Other instances catch up through the customer events
+    private void updateEmailIndexAfterCommit(String removedEmail, String addedEmail) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailIndex.remove(removedEmail);
+                emailIndex.add(addedEmail);
+            }
+        });
+    }
+
+    private void updateSearchIndexAfterCommit(Customer customer, boolean deleted) {
+        IndexedCustomer indexed = new IndexedCustomer(customer.getId(), customer.getFirstName(),
+                customer.getLastName(), customer.getEmail(), customer.getCity(), customer.getPostalCode());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (deleted) {
+                    searchIndex.remove(indexed.id());
+                } else {
+                    searchIndex.index(indexed);
+                }
+            }
+        });
+    }
 }
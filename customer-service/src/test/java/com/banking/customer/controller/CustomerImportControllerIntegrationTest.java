@@ -0,0 +1,121 @@
+package com.banking.customer.controller;
+
+import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.model.Customer;
+import com.banking.customer.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-import;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///customer-import",
+        "banking.import.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class CustomerImportControllerIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void importsValidRowsAndReportsTheRejectedOnesByLine() throws Exception {
+        String run = UUID.randomUUID().toString();
+        customerService.createCustomer(input("existing-" + run + "@example.com"));
+        String ndjson = String.join("\n",
+                json("a-" + run + "@example.com", "Springfield"),
+                "{not json",
+                json("b-" + run + "@example.com", ""),
+                json("a-" + run + "@example.com", "Springfield"),
+                "",
+                json("existing-" + run + "@example.com", "Springfield"),
+                json("c-" + run + "@example.com", "Shelbyville"),
+                json("d-" + run + "@example.com", "Shelbyville"));
+
+        mockMvc.perform(post("/imports/customers").param("format", "ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsRead").value(7))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(4))
+                .andExpect(jsonPath("$.errors[*].line").value(contains(2, 3, 4, 6)))
+                .andExpect(jsonPath("$.errors[1].message").value("City is required"))
+                .andExpect(jsonPath("$.errors[2].message").value("Duplicate email within the import"))
+                .andExpect(jsonPath("$.errors[3].message")
+                        .value("Customer with email existing-" + run + "@example.com already exists"));
+
+        Customer imported = customerService.getCustomerByEmail("d-" + run + "@example.com");
+        assertThat(imported.getStatus()).isEqualTo("ACTIVE");
+        assertThat(imported.getCity()).isEqualTo("Shelbyville");
+        assertThat(customerService.searchCustomers("Shelbyville", 10, null).getEdges())
+                .extracting(edge -> edge.getNode().getEmail())
+                .contains("c-" + run + "@example.com", "d-" + run + "@example.com");
+    }
+
+    @Test
+    void importsGzippedCsvWithQuotedFields() throws Exception {
+        String run = UUID.randomUUID().toString();
+        String csv = "email,firstName,lastName,phoneNumber,dateOfBirth,address,city,country,postalCode\n"
+                + "csv-" + run + "@example.com,Ada,\"O\"\"Neil\",+15550100,1985-06-15,\"1 Main St, Apt 2\",Springfield,USA,12345\n";
+
+        mockMvc.perform(post("/imports/customers").param("format", "csv")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(csv)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(0));
+
+        Customer imported = customerService.getCustomerByEmail("csv-" + run + "@example.com");
+        assertThat(imported.getLastName()).isEqualTo("O\"Neil");
+        assertThat(imported.getAddress()).isEqualTo("1 Main St, Apt 2");
+    }
+
+    private static String json(String email, String city) {
+        return "{\"firstName\":\"Bench\",\"lastName\":\"Customer\",\"email\":\"" + email + "\",\"phoneNumber\":\"+15550100\","
+                + "\"dateOfBirth\":\"1985-06-15\",\"address\":\"1 Main St\",\"city\":\"" + city
+                + "\",\"country\":\"USA\",\"postalCode\":\"12345\"}";
+    }
+
+    private static CustomerInput input(String email) {
+        return CustomerInput.builder()
+                .firstName("Bench")
+                .lastName("Customer")
+                .email(email)
+                .phoneNumber("+15550100")
+                .dateOfBirth(LocalDate.of(1985, 6, 15))
+                .address("1 Main St")
+                .city("Springfield")
+                .country("USA")
+                .postalCode("12345")
+                .build();
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,154 @@
+package com.banking.customer.reactive;
+
+import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.model.Customer;
+import com.banking.customer.service.CustomerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Drives customerById and customersByCity over HTTP with closed-loop clients and reports requests
+ * per second, p99 latency and process CPU time per request. Subclasses run it with the JPA read
+ * path and with R2DBC; scripts/reactive-read-benchmark.sh does the same against a packaged jar.
+ */
+@Tag("benchmark")
+abstract class CustomerReadBenchmark {
+    private static final int CUSTOMERS = 2_000;
+    private static final int CITY_SIZE = 1_000;
+    private static final int CLIENTS = 16;
+    private static final long DURATION_MS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Value("${banking.reactive-reads.enabled}")
+    private boolean reactiveReads;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void pointLookupsAndCityLists() throws InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            ids.add(customerService.createCustomer(input(i < CITY_SIZE ? "Springfield" : "City-" + i)).getId());
+        }
+        Supplier<String> byId = () -> "{ customerById(id: " + ids.get(ThreadLocalRandom.current().nextInt(ids.size()))
+                + ") { id email city status } }";
+        Supplier<String> byCity = () -> "{ customersByCity(city: \"Springfield\") { id email city status } }";
+        run(byId, DURATION_MS / 2);
+        run(byCity, DURATION_MS / 2);
+
+        System.out.printf("%-9s %-16s %10s %10s %12s %8s%n", "reads", "query", "req/s", "p99-ms", "cpu-ms/req", "errors");
+        print("customerById", run(byId, DURATION_MS));
+        print("customersByCity", run(byCity, DURATION_MS));
+    }
+
+    private void print(String query, Result result) {
+        System.out.printf("%-9s %-16s %10.0f %10.1f %12.3f %8d%n", reactiveReads ? "r2dbc" : "jpa", query,
+                result.requestsPerSecond, result.p99Ms, result.cpuMsPerRequest, result.errors);
+    }
+
+    private Result run(Supplier<String> query, long durationMs) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        long cpuStart = processCpuNanos();
+        long start = System.nanoTime();
+        long deadline = start + durationMs * 1_000_000;
+        for (int c = 0; c < CLIENTS; c++) {
+            long[] samples = new long[1 << 18];
+            latencies.add(samples);
+            Thread thread = new Thread(() -> {
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request(query.get()), HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200 || response.body().contains("\"errors\"")) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                    if (n < samples.length - 1) {
+                        samples[++n] = System.nanoTime() - sent;
+                    }
+                }
+                samples[0] = n;
+            });
+            thread.start();
+            clients.add(thread);
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double cpuMs = (processCpuNanos() - cpuStart) / 1e6;
+
+        int total = 0;
+        for (long[] samples : latencies) {
+            total += (int) samples[0];
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 1, all, position, (int) samples[0]);
+            position += (int) samples[0];
+        }
+        Arrays.sort(all);
+        double p99Ms = all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1e6;
+        long requests = Math.max(1, completed.get());
+        return new Result(completed.get() / seconds, p99Ms, cpuMs / requests, errors.get());
+    }
+
+    private HttpRequest request(String query) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/graphql"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"query\":\"" + query.replace("\"", "\\\"") + "\"}"))
+                .build();
+    }
+
+    // Includes the clients, which do the same work in both modes
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    private static CustomerInput input(String city) {
+        return CustomerInput.builder()
+                .firstName("Bench")
+                .lastName("Reader")
+                .email("reader-" + System.nanoTime() + "@example.com")
+                .phoneNumber("+15550100")
+                .dateOfBirth(LocalDate.of(1985, 6, 15))
+                .address("1 Main St")
+                .city(city)
+                .country("USA")
+                .postalCode("12345")
+                .build();
+    }
+
+    private record Result(double requestsPerSecond, double p99Ms, double cpuMsPerRequest, long errors) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.customer.reactive;
+
+import com.banking.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveCustomerQueryServiceTest {
+    private final ReactiveCustomerRepository repository = mock(ReactiveCustomerRepository.class);
+    private final ReactiveCustomerQueryService service = new ReactiveCustomerQueryService(repository, 4);
+
+    @Test
+    void convertsTheRowToTheCustomerEntity() {
+        when(repository.findById(7L)).thenReturn(Mono.just(row(7L)));
+
+        Customer customer = service.getCustomerById(7L).block();
+
+        assertThat(customer.getId()).isEqualTo(7L);
+        assertThat(customer.getEmail()).isEqualTo("customer-7@example.com");
+        assertThat(customer.getDateOfBirth()).isEqualTo(LocalDate.of(1985, 6, 15));
+        assertThat(customer.getStatus()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void failsForAnUnknownCustomer() {
+        when(repository.findById(8L)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> service.getCustomerById(8L).block())
+                .hasMessage("Customer not found with id: 8");
+    }
+
+    @Test
+    void requestsCityRowsPrefetchAtATime() {
+        AtomicLong largestRequest = new AtomicLong();
+        when(repository.findByCity("Springfield")).thenReturn(Flux.fromStream(LongStream.rangeClosed(1, 10).mapToObj(
+                ReactiveCustomerQueryServiceTest::row)).doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max)));
+
+        List<Customer> customers = service.getCustomersByCity("Springfield").collectList().block();
+
+        assertThat(customers).extracting(Customer::getId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(largestRequest.get()).isEqualTo(4);
+    }
+
+    private static CustomerRow row(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CustomerRow(id, "Ada", "Lovelace", "customer-" + id + "@example.com", "+15550100",
+                LocalDate.of(1985, 6, 15), "1 Main St", "Springfield", "USA", "12345", "ACTIVE", now, now);
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.customer.reactive;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "banking.reactive-reads.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:r2dbcreadbench;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///r2dbcreadbench",
+        "logging.level.com.banking.customer=WARN",
+        "logging.level.org.springframework.graphql=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class ReactiveCustomerReadBenchmark extends CustomerReadBenchmark {
+}
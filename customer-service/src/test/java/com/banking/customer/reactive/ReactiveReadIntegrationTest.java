@@ -0,0 +1,107 @@
+package com.banking.customer.reactive;
+
+import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.model.Customer;
+import com.banking.customer.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "banking.reactive-reads.enabled=true",
+        "banking.reactive-reads.prefetch=4",
+        "spring.datasource.url=jdbc:h2:mem:reactivereads;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivereads"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class ReactiveReadIntegrationTest {
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ReactiveCustomerQueryService reactiveCustomerQueryService;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Test
+    void servesCustomerByIdFromR2dbcWithTheFieldsOfTheJpaEntity() {
+        Customer created = customerService.createCustomer(input("Lisbon"));
+        Customer fromJpa = customerService.getCustomerById(created.getId());
+
+        GraphQlTester.Response response = tester().document("{ customerById(id: " + created.getId() + ") "
+                + "{ id firstName lastName email dateOfBirth city status createdAt updatedAt } }").execute();
+
+        response.path("customerById.id").entity(Long.class).isEqualTo(created.getId());
+        response.path("customerById.email").entity(String.class).isEqualTo(created.getEmail());
+        response.path("customerById.dateOfBirth").entity(String.class).isEqualTo("1985-06-15");
+        response.path("customerById.status").entity(String.class).isEqualTo(fromJpa.getStatus());
+        response.path("customerById.createdAt").entity(String.class).isEqualTo(fromJpa.getCreatedAt().toString());
+        response.path("customerById.updatedAt").entity(String.class).isEqualTo(fromJpa.getUpdatedAt().toString());
+    }
+
+    @Test
+    void seesCommittedJpaWritesOnTheR2dbcSide() {
+        Customer created = customerService.createCustomer(input("Porto"));
+
+        customerService.updateCustomerStatus(created.getId(), "SUSPENDED");
+
+        assertThat(reactiveCustomerQueryService.getCustomerById(created.getId()).block().getStatus())
+                .isEqualTo("SUSPENDED");
+    }
+
+    @Test
+    void streamsAllCustomersOfACityBeyondThePrefetch() {
+        String city = "City-" + UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            customerService.createCustomer(input(city));
+        }
+
+        List<String> emails = tester().document("{ customersByCity(city: \"" + city + "\") { email city } }")
+                .execute()
+                .path("customersByCity[*].email").entityList(String.class).get();
+
+        assertThat(emails).hasSize(10)
+                .containsExactlyInAnyOrderElementsOf(customerService.getCustomersByCity(city).stream()
+                        .map(Customer::getEmail).toList());
+    }
+
+    @Test
+    void reportsAnUnknownCustomerAsAGraphQlError() {
+        tester().document("{ customerById(id: 987654321) { id } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).singleElement()
+                        .satisfies(error -> assertThat(error.getPath()).isEqualTo("customerById")));
+    }
+
+    private ExecutionGraphQlServiceTester tester() {
+        return ExecutionGraphQlServiceTester.create(graphQlService);
+    }
+
+    private static CustomerInput input(String city) {
+        return CustomerInput.builder()
+                .firstName("Reactive")
+                .lastName("Reader")
+                .email("reactive-" + UUID.randomUUID() + "@example.com")
+                .phoneNumber("+15550100")
+                .dateOfBirth(LocalDate.of(1985, 6, 15))
+                .address("1 Main St")
+                .city(city)
+                .country("PRT")
+                .postalCode("1000-001")
+                .build();
+    }
+}
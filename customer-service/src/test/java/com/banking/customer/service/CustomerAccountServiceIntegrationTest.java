@@ -0,0 +1,52 @@
+package com.banking.customer.service;
+
+import com.banking.customer.model.CustomerAccount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class CustomerAccountServiceIntegrationTest {
+    @Autowired
+    private CustomerAccountService customerAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void upsertsAccountsByAccountNumber() {
+        customerAccountService.recordAccounts(List.of(
+                account("ACC-UPSERT-1", "ACTIVE"),
+                account("ACC-UPSERT-2", "ACTIVE")));
+
+        customerAccountService.recordAccounts(List.of(account("ACC-UPSERT-2", "FROZEN")));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT account_number, status FROM customer_accounts WHERE account_number LIKE 'ACC-UPSERT-%' "
+                        + "ORDER BY account_number");
+        assertThat(rows).extracting(row -> row.get("ACCOUNT_NUMBER") + "=" + row.get("STATUS"))
+                .containsExactly("ACC-UPSERT-1=ACTIVE", "ACC-UPSERT-2=FROZEN");
+    }
+
+    private static CustomerAccount account(String accountNumber, String status) {
+        return CustomerAccount.builder()
+                .accountNumber(accountNumber)
+                .customerId(42L)
+                .accountType("SAVINGS")
+                .currency("EUR")
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.banking.customer.service;
+
+import com.banking.customer.dto.CustomerImportResult;
+import com.banking.customer.dto.CustomerInput;
+import com.banking.customer.dto.ImportFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Onboards customers through {@link CustomerImportService} from an NDJSON upload and through
+ * one {@link CustomerService#createCustomer} call per row, and reports rows per second. Both
+ * run in-process, so HTTP and GraphQL parsing are left out of the per-row figure.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///import-benchmark",
+        "logging.level.com.banking.customer=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class CustomerImportBenchmark {
+    private static final int IMPORT_ROWS = 100_000;
+    private static final int CREATE_ROWS = 5_000;
+
+    @Autowired
+    private CustomerImportService importService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    private long nextCustomer;
+
+    @Test
+    void importAgainstCreateCustomer() throws IOException {
+        runImport(IMPORT_ROWS / 10);
+        runCreate(CREATE_ROWS / 5);
+
+        System.out.printf("%-16s %8s %10s%n", "path", "rows", "rows/s");
+        System.out.printf("%-16s %8d %10.0f%n", "import", IMPORT_ROWS, runImport(IMPORT_ROWS));
+        System.out.printf("%-16s %8d %10.0f%n", "createCustomer", CREATE_ROWS, runCreate(CREATE_ROWS));
+    }
+
+    private double runImport(int rows) throws IOException {
+        StringBuilder ndjson = new StringBuilder(rows * 220);
+        for (int i = 0; i < rows; i++) {
+            ndjson.append("{\"firstName\":\"Bench\",\"lastName\":\"Customer\",\"email\":\"bench-").append(nextCustomer++)
+                    .append("@example.com\",\"phoneNumber\":\"+15550100\",\"dateOfBirth\":\"1985-06-15\",")
+                    .append("\"address\":\"1 Main St\",\"city\":\"Springfield\",\"country\":\"USA\",\"postalCode\":\"12345\"}\n");
+        }
+        byte[] upload = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        CustomerImportResult result = importService.importCustomers(new ByteArrayInputStream(upload), ImportFormat.NDJSON);
+        double rowsPerSecond = rows / ((System.nanoTime() - start) / 1e9);
+        assertThat(result.getImported()).isEqualTo(rows);
+        return rowsPerSecond;
+    }
+
+    private double runCreate(int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            customerService.createCustomer(CustomerInput.builder()
+                    .firstName("Bench")
+                    .lastName("Customer")
+                    .email("bench-" + nextCustomer++ + "@example.com")
+                    .phoneNumber("+15550100")
+                    .dateOfBirth(LocalDate.of(1985, 6, 15))
+                    .address("1 Main St")
+                    .city("Springfield")
+                    .country("USA")
+                    .postalCode("12345")
+                    .build());
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+}
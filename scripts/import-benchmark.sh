@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Compares customer onboarding throughput of the bulk import endpoint with one
+# createCustomer mutation per row. Needs a running customer-service.
+#
+#   scripts/import-benchmark.sh [rows] [mutation-rows] [base-url]
+set -euo pipefail
+
+ROWS=${1:-100000}
+MUTATION_ROWS=${2:-1000}
+BASE_URL=${3:-http://localhost:8083}
+RUN=$(date +%s)
+FILE=$(mktemp)
+trap 'rm -f "$FILE"' EXIT
+
+customer_json() {
+  printf '{"firstName":"Bench","lastName":"Customer%d","email":"%s%d@example.com","phoneNumber":"+1555%07d",' "$2" "$1" "$2" "$2"
+  printf '"dateOfBirth":"1985-06-15","address":"%d Main St","city":"Springfield","country":"USA","postalCode":"%05d"}' "$2" "$(( $2 % 100000 ))"
+}
+
+for ((i = 1; i <= ROWS; i++)); do
+  customer_json "bulk-$RUN-" "$i"
+  echo
+done > "$FILE"
+
+echo "Bulk import of $ROWS rows:"
+curl -s -X POST "$BASE_URL/imports/customers?format=ndjson" \
+  -H 'Content-Type: application/x-ndjson' --data-binary @"$FILE" \
+  | grep -o '"rowsRead":[0-9]*,"imported":[0-9]*,"rejected":[0-9]*,"elapsedMs":[0-9]*,"rowsPerSecond":[0-9]*'
+
+echo "createCustomer mutations for $MUTATION_ROWS rows:"
+start=$(date +%s%N)
+for ((i = 1; i <= MUTATION_ROWS; i++)); do
+  input=$(customer_json "mutation-$RUN-" "$i" | sed 's/"\([a-zA-Z]*\)":/\1:/g; s/"/\\"/g')
+  curl -s -o /dev/null -X POST "$BASE_URL/graphql" -H 'Content-Type: application/json' \
+    -d "{\"query\":\"mutation { createCustomer(input: $input) { id } }\"}"
+done
+elapsed_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+echo "\"imported\":$MUTATION_ROWS,\"elapsedMs\":$elapsed_ms,\"rowsPerSecond\":$(( MUTATION_ROWS * 1000 / (elapsed_ms > 0 ? elapsed_ms : 1) ))"
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compares platform threads with virtual threads under rising concurrency for one service.
+# Needs hey (https://github.com/rakyll/hey), Java 21 and a jar built with -Pjava21.
+#
+#   scripts/load-test.sh [service] [duration] [concurrency levels...]
+set -euo pipefail
+
+SERVICE=${1:-account-service}
+DURATION=${2:-20s}
+LEVELS=("${@:3}")
+[[ ${#LEVELS[@]} -gt 0 ]] || LEVELS=(50 200 800 2000)
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+declare -A PORTS=([account-service]=8081 [transaction-service]=8082 [customer-service]=8083)
+declare -A QUERIES=(
+  [account-service]='{ accountsConnection(first: 20) { edges { node { accountNumber balance } } } }'
+  [transaction-service]='{ transactionsConnection(first: 20) { edges { node { transactionId amount } } } }'
+  [customer-service]='{ customersConnection(first: 20) { edges { node { id email } } } }'
+)
+PORT=${PORTS[$SERVICE]}
+JAR=$(ls "$ROOT/$SERVICE"/target/"$SERVICE"-*.jar | head -1)
+
+printf '%-9s %12s %10s %10s %10s %14s\n' mode concurrency req/s p99-ms errors peak-in-flight
+for mode in platform virtual; do
+  log="$WORK/$mode.log"
+  java -Dbanking.id.node-id=1 -Dbanking.virtual-threads.enabled=$([[ $mode == virtual ]] && echo true || echo false) \
+    -Djdk.tracePinnedThreads=short -jar "$JAR" > "$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/graphiql"; do
+    kill -0 "$pid" 2> /dev/null || { tail -20 "$log" >&2; exit 1; }
+    sleep 0.2
+  done
+
+  for concurrency in "${LEVELS[@]}"; do
+    report=$(hey -z "$DURATION" -c "$concurrency" -m POST -T application/json \
+      -d "{\"query\":\"${QUERIES[$SERVICE]}\"}" "http://localhost:$PORT/graphql")
+    rps=$(awk '/Requests\/sec/ { printf "%d", $2 }' <<< "$report")
+    p99=$(awk '/ 99% in / { printf "%.1f", $3 * 1000 }' <<< "$report")
+    errors=$(awk '/Status code distribution/ { status = 1; next } /Error distribution/ { status = 0; failed = 1; next }
+      status && /\[[0-9]+\]/ && $1 != "[200]" { sum += $2 }
+      failed && /\[[0-9]+\]/ { gsub(/[][]/, "", $1); sum += $1 } END { print sum + 0 }' <<< "$report")
+    # Only the virtual-thread mode counts requests in flight; platform threads are capped by Tomcat's pool
+    peak=$(grep -o 'Peak in-flight requests: [0-9]*' "$log" | tail -1 | awk '{ print $4 }')
+    printf '%-9s %12s %10s %10s %10s %14s\n' "$mode" "$concurrency" "$rps" "$p99" "$errors" "${peak:--}"
+  done
+
+  if [[ $mode == virtual ]]; then
+    echo "pinned-thread stack traces logged: $(grep -c '<== monitors' "$log" || true)"
+  fi
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+done
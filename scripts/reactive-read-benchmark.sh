@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Compares the JPA read path with the R2DBC one (banking.reactive-reads.enabled) on
+# customer-service: a point lookup (customerById) under high concurrency and a large list
+# (customersByCity) under low concurrency. Reports requests per second, p99 latency,
+# requests per CPU second and the peak resident memory of the service.
+# Needs hey (https://github.com/rakyll/hey) and a packaged customer-service jar.
+#
+#   scripts/reactive-read-benchmark.sh [customers] [duration] [point-concurrency] [list-concurrency]
+set -euo pipefail
+
+ROWS=${1:-50000}
+DURATION=${2:-20s}
+POINT_CONCURRENCY=${3:-200}
+LIST_CONCURRENCY=${4:-8}
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+PORT=8083
+JAR=$(ls "$ROOT"/customer-service/target/customer-service-*.jar | head -1)
+CLOCK_TICKS=$(getconf CLK_TCK)
+
+for ((i = 1; i <= ROWS; i++)); do
+  printf '{"firstName":"Bench","lastName":"Customer%d","email":"reactive-%d@example.com","phoneNumber":"+1555%07d",' "$i" "$i" "$i"
+  printf '"dateOfBirth":"1985-06-15","address":"%d Main St","city":"Springfield","country":"USA","postalCode":"%05d"}\n' "$i" "$(( i % 100000 ))"
+done > "$WORK/customers.ndjson"
+
+cpu_ticks() {
+  awk '{ print $14 + $15 }' "/proc/$1/stat"
+}
+
+run() {
+  local pid=$1 name=$2 concurrency=$3 query=$4
+  local before report rps p99 errors ticks total per_cpu
+  before=$(cpu_ticks "$pid")
+  report=$(hey -z "$DURATION" -c "$concurrency" -m POST -T application/json \
+    -d "{\"query\":\"$query\"}" "http://localhost:$PORT/graphql")
+  ticks=$(( $(cpu_ticks "$pid") - before ))
+  rps=$(awk '/Requests\/sec/ { printf "%d", $2 }' <<< "$report")
+  p99=$(awk '/ 99% in / { printf "%.1f", $3 * 1000 }' <<< "$report")
+  errors=$(awk '/Status code distribution/ { status = 1; next } /Error distribution/ { status = 0; failed = 1; next }
+    status && /\[[0-9]+\]/ && $1 != "[200]" { sum += $2 }
+    failed && /\[[0-9]+\]/ { gsub(/[][]/, "", $1); sum += $1 } END { print sum + 0 }' <<< "$report")
+  total=$(awk '/Status code distribution/ { status = 1; next } status && /\[[0-9]+\]/ { sum += $2 } END { print sum + 0 }' <<< "$report")
+  per_cpu=$(( total * CLOCK_TICKS / (ticks > 0 ? ticks : 1) ))
+  printf '%-6s %-14s %12s %10s %10s %10s %12s\n' "$mode" "$name" "$concurrency" "$rps" "$p99" "$errors" "$per_cpu"
+}
+
+printf '%-6s %-14s %12s %10s %10s %10s %12s\n' mode query concurrency req/s p99-ms errors req/cpu-s
+for mode in jpa r2dbc; do
+  log="$WORK/$mode.log"
+  java -Dbanking.reactive-reads.enabled=$([[ $mode == r2dbc ]] && echo true || echo false) \
+    -Dspring.jpa.show-sql=false -Dlogging.level.com.banking.customer=INFO \
+    -Dlogging.level.org.springframework.graphql=INFO -jar "$JAR" > "$log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/graphiql"; do
+    kill -0 "$pid" 2> /dev/null || { tail -20 "$log" >&2; exit 1; }
+    sleep 0.2
+  done
+  curl -sf -o /dev/null -X POST "http://localhost:$PORT/imports/customers?format=ndjson" \
+    -H 'Content-Type: application/x-ndjson' --data-binary @"$WORK/customers.ndjson"
+  id=$(curl -s -X POST "http://localhost:$PORT/graphql" -H 'Content-Type: application/json' \
+    -d '{"query":"{ customersConnection(first: 1) { edges { node { id } } } }"}' | grep -o '"id":"[0-9]*"' | grep -o '[0-9]*')
+
+  run "$pid" customerById "$POINT_CONCURRENCY" "{ customerById(id: $id) { id email city } }"
+  run "$pid" customersByCity "$LIST_CONCURRENCY" "{ customersByCity(city: \\\"Springfield\\\") { id email } }"
+  echo "$mode peak RSS: $(awk '/VmHWM/ { printf "%d MB", $2 / 1024 }' "/proc/$pid/status")"
+
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+done
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GraphQL query for each service,
+# once with the regular build and once with the fast-startup build (Spring AOT + AppCDS).
+# Kafka should be reachable on localhost:9092 as for a normal local run.
+#
+#   scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-3}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+SERVICES=(account-service transaction-service customer-service)
+declare -A PORTS=([account-service]=8081 [transaction-service]=8082 [customer-service]=8083)
+declare -A QUERIES=(
+  [account-service]='{ accountsConnection(first: 1) { pageInfo { hasNextPage } } }'
+  [transaction-service]='{ transactionsConnection(first: 1) { pageInfo { hasNextPage } } }'
+  [customer-service]='{ customersConnection(first: 1) { pageInfo { hasNextPage } } }'
+)
+
+# Prints the milliseconds until the query succeeds; extra arguments go to the JVM
+time_to_first_query() {
+  local service=$1 jar=$2
+  shift 2
+  local port=${PORTS[$service]}
+  local body="{\"query\":\"${QUERIES[$service]}\"}"
+  local start pid response
+  start=$(date +%s%N)
+  # A file database outlives the run, so the prod profile finds the schema created by the baseline run
+  java "$@" -Dbanking.id.node-id=1 -Dspring.datasource.url="jdbc:h2:file:$WORK/$service-db" -jar "$jar" > "$WORK/$service.log" 2>&1 &
+  pid=$!
+  until response=$(curl -sf -H 'Content-Type: application/json' -d "$body" "http://localhost:$port/graphql") \
+      && [[ $response == *'"data"'* && $response != *'"errors"'* ]]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$service exited before answering; see its log:" >&2
+      tail -20 "$WORK/$service.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  echo $(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+}
+
+median() {
+  printf '%s\n' "$@" | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+cd "$ROOT"
+echo "Building regular jars..."
+mvn -q -B -DskipTests package
+for service in "${SERVICES[@]}"; do
+  cp "$service"/target/"$service"-*.jar "$WORK/$service-baseline.jar"
+done
+echo "Building fast-startup jars..."
+mvn -q -B -DskipTests -Pfast-startup package
+
+printf '%-22s %14s %14s\n' service baseline-ms fast-startup-ms
+for service in "${SERVICES[@]}"; do
+  baseline=() fast=()
+  for ((run = 1; run <= RUNS; run++)); do
+    baseline+=("$(time_to_first_query "$service" "$WORK/$service-baseline.jar")")
+    fast+=("$(time_to_first_query "$service" "$(ls "$service"/target/"$service"-*.jar)" \
+      -XX:SharedArchiveFile="$service/target/app-cds.jsa" -Dspring.aot.enabled=true -Dspring.profiles.active=prod)")
+  done
+  printf '%-22s %14s %14s\n' "$service" "$(median "${baseline[@]}")" "$(median "${fast[@]}")"
+done
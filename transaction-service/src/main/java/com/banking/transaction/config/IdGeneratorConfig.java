@@ -0,0 +1,27 @@
+package com.banking.transaction.config;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Two instances with the same node ID can issue the same ID in the same millisecond, so the
+ * service refuses to start until banking.id.node-id (BANKING_NODE_ID) is set.
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfig {
+
+    @Bean
+    public SnowflakeIdGenerator idGenerator(@Value("${banking.id.node-id:}") String nodeId) {
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException("banking.id.node-id (BANKING_NODE_ID) must be set to a value between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID + " that no other running instance uses");
+        }
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(Long.parseLong(nodeId.trim()));
+        log.info("ID generator using node id {}", idGenerator.nodeId());
+        return idGenerator;
+    }
+}
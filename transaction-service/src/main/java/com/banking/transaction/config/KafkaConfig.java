@@ -1,15 +1,26 @@
 package com.banking.transaction.config;
 
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.kafka.event.EventDeserializer;
+import com.banking.transaction.kafka.event.TransactionCompletedEvent;
+import com.banking.transaction.kafka.event.TransactionCreatedEvent;
+import com.banking.transaction.kafka.event.TransactionFailedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,37 +31,125 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // A group without committed offsets starts from the oldest event, so events published
+    // before the first assignment, such as transfers, are not skipped
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    @Value("${banking.kafka.producer.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${banking.kafka.producer.batch-size:131072}")
+    private int batchSize;
+
+    @Value("${banking.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${banking.kafka.consumer.concurrency:3}")
+    private int consumerConcurrency;
+
+    @Value("${banking.kafka.topics.partitions:6}")
+    private int topicPartitions;
+
+    @Value("${banking.kafka.topics.replicas:1}")
+    private int topicReplicas;
+
+    @Value("${banking.kafka.consumer.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${banking.kafka.consumer.batch.fetch-min-bytes:65536}")
+    private int batchFetchMinBytes;
+
+    @Value("${banking.kafka.consumer.batch.fetch-max-wait-ms:100}")
+    private int batchFetchMaxWaitMs;
+
+    // Producers are created on the first outbox send rather than during startup
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    @Lazy
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Values are already encoded by EventCodec when they are written to the outbox
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // The outbox relay sends in bursts, so let the producer group and compress them
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    @Lazy
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, DomainEvent> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig(), new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(objectMapper())));
+    }
+
+    @Bean
+    public ConsumerFactory<String, DomainEvent> batchConsumerFactory() {
+        Map<String, Object> configProps = consumerConfig();
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchFetchMinBytes);
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchFetchMaxWaitMs);
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new EventDeserializer(objectMapper())));
+    }
+
+    private Map<String, Object> consumerConfig() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "transaction-service-group");
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        return configProps;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, DomainEvent> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DomainEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // Events are keyed by aggregate id, so partitions can be consumed in parallel without
+        // reordering the events of one account, transaction or customer
+        factory.setConcurrency(consumerConcurrency);
         return factory;
     }
 
+    /**
+     * Hands each poll to the listener as one list. Offsets are committed once the listener
+     * returns, i.e. after the batch has been persisted; a failed batch is redelivered.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DomainEvent> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, DomainEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(batchConsumerFactory());
+        factory.setConcurrency(consumerConcurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @Bean
+    public NewTopic transactionCreatedTopic() {
+        return TopicBuilder.name(TransactionCreatedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic transactionCompletedTopic() {
+        return TopicBuilder.name(TransactionCompletedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
+    @Bean
+    public NewTopic transactionFailedTopic() {
+        return TopicBuilder.name(TransactionFailedEvent.TOPIC).partitions(topicPartitions).replicas(topicReplicas).build();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         return new ObjectMapper();
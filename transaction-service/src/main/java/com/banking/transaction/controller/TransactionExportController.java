@@ -0,0 +1,73 @@
+package com.banking.transaction.controller;
+
+import com.banking.transaction.dto.BulkExportRequest;
+import com.banking.transaction.dto.ExportFormat;
+import com.banking.transaction.service.TransactionExportService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * File downloads of account statements. Kept outside GraphQL because a response holding a
+ * full history would have to be built in memory before it is sent.
+ */
+@RestController
+@RequestMapping("/exports")
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionExportController {
+    private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+    private static final MediaType APPLICATION_ZIP = MediaType.parseMediaType("application/zip");
+
+    private final TransactionExportService exportService;
+
+    @GetMapping("/accounts/{accountNumber}/transactions")
+    public ResponseEntity<StreamingResponseBody> exportAccount(@PathVariable String accountNumber,
+                                                               @RequestParam(required = false) String from,
+                                                               @RequestParam(required = false) String to,
+                                                               @RequestParam(required = false) String format) {
+        log.info("REST Export: account transactions - accountNumber: {}, from: {}, to: {}, format: {}",
+                accountNumber, from, to, format);
+        // Arguments are checked before the response starts so errors still get a proper status
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        LocalDateTime fromDate = exportService.startOf(from);
+        LocalDateTime toDate = exportService.endOf(to);
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment(exportService.fileName(accountNumber, exportFormat)))
+                .body(out -> exportService.exportAccount(accountNumber, fromDate, toDate, exportFormat, out));
+    }
+
+    @PostMapping("/transactions")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@Valid @RequestBody BulkExportRequest request) {
+        log.info("REST Export: bulk transactions - accounts: {}, from: {}, to: {}, format: {}",
+                request.getAccountNumbers().size(), request.getFrom(), request.getTo(), request.getFormat());
+        ExportFormat exportFormat = ExportFormat.parse(request.getFormat());
+        LocalDateTime fromDate = exportService.startOf(request.getFrom());
+        LocalDateTime toDate = exportService.endOf(request.getTo());
+
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("transactions-export.zip"))
+                .body(out -> exportService.exportAccounts(request.getAccountNumbers(), fromDate, toDate, exportFormat, out));
+    }
+
+    private static String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
+}
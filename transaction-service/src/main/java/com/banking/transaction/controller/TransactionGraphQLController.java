@@ -1,15 +1,23 @@
 package com.banking.transaction.controller;
 
+import com.banking.transaction.dto.AccountProjectionStatus;
+import com.banking.transaction.dto.Connection;
 import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.model.DailyTransactionRollup;
 import com.banking.transaction.model.Transaction;
+import com.banking.transaction.reactive.ReactiveTransactionQueryService;
+import com.banking.transaction.service.TransactionRollupService;
 import com.banking.transaction.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -18,6 +26,9 @@ import java.util.List;
 @Slf4j
 public class TransactionGraphQLController {
     private final TransactionService transactionService;
+    private final TransactionRollupService rollupService;
+    // Present when banking.reactive-reads.enabled is set
+    private final ObjectProvider<ReactiveTransactionQueryService> reactiveQueries;
 
     @QueryMapping
     public Transaction transactionById(@Argument Long id) {
@@ -26,21 +37,40 @@ public class TransactionGraphQLController {
     }
 
     @QueryMapping
-    public Transaction transactionByTransactionId(@Argument String transactionId) {
+    public Mono<Transaction> transactionByTransactionId(@Argument String transactionId) {
         log.info("GraphQL Query: transactionByTransactionId - transactionId: {}", transactionId);
-        return transactionService.getTransactionByTransactionId(transactionId);
+        ReactiveTransactionQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getTransactionByTransactionId(transactionId);
+        }
+        return Mono.fromCallable(() -> transactionService.getTransactionByTransactionId(transactionId));
     }
 
     @QueryMapping
-    public List<Transaction> transactionsByFromAccount(@Argument String fromAccountNumber) {
+    public Flux<Transaction> transactionsByFromAccount(@Argument String fromAccountNumber) {
         log.info("GraphQL Query: transactionsByFromAccount - fromAccountNumber: {}", fromAccountNumber);
-        return transactionService.getTransactionsByFromAccount(fromAccountNumber);
+        ReactiveTransactionQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getTransactionsByFromAccount(fromAccountNumber);
+        }
+        return Flux.defer(() -> Flux.fromIterable(transactionService.getTransactionsByFromAccount(fromAccountNumber)));
     }
 
     @QueryMapping
-    public List<Transaction> transactionsByToAccount(@Argument String toAccountNumber) {
+    public Flux<Transaction> transactionsByToAccount(@Argument String toAccountNumber) {
         log.info("GraphQL Query: transactionsByToAccount - toAccountNumber: {}", toAccountNumber);
-        return transactionService.getTransactionsByToAccount(toAccountNumber);
+        ReactiveTransactionQueryService reactive = reactiveQueries.getIfAvailable();
+        if (reactive != null) {
+            return reactive.getTransactionsByToAccount(toAccountNumber);
+        }
+        return Flux.defer(() -> Flux.fromIterable(transactionService.getTransactionsByToAccount(toAccountNumber)));
+    }
+
+    @QueryMapping
+    public List<Transaction> recentTransactionsByFromAccounts(@Argument List<String> accountNumbers,
+                                                              @Argument Integer limit) {
+        log.info("GraphQL Query: recentTransactionsByFromAccounts - {} accounts, limit: {}", accountNumbers.size(), limit);
+        return transactionService.getRecentTransactionsByFromAccounts(accountNumbers, limit);
     }
 
     @QueryMapping
@@ -49,6 +79,54 @@ public class TransactionGraphQLController {
         return transactionService.getAllTransactions();
     }
 
+    @QueryMapping
+    public Connection<Transaction> transactionsConnection(@Argument Integer first, @Argument String after) {
+        log.info("GraphQL Query: transactionsConnection - first: {}, after: {}", first, after);
+        return transactionService.getTransactionsPage(first, after);
+    }
+
+    @QueryMapping
+    public Connection<Transaction> transactionsByFromAccountConnection(@Argument String fromAccountNumber,
+                                                                       @Argument Integer first,
+                                                                       @Argument String after) {
+        log.info("GraphQL Query: transactionsByFromAccountConnection - fromAccountNumber: {}, first: {}, after: {}",
+                fromAccountNumber, first, after);
+        return transactionService.getTransactionsPageByFromAccount(fromAccountNumber, first, after);
+    }
+
+    @QueryMapping
+    public Connection<Transaction> transactionsByToAccountConnection(@Argument String toAccountNumber,
+                                                                     @Argument Integer first,
+                                                                     @Argument String after) {
+        log.info("GraphQL Query: transactionsByToAccountConnection - toAccountNumber: {}, first: {}, after: {}",
+                toAccountNumber, first, after);
+        return transactionService.getTransactionsPageByToAccount(toAccountNumber, first, after);
+    }
+
+    @QueryMapping
+    public Connection<Transaction> transactionsForAccount(@Argument String accountNumber, @Argument String from,
+                                                          @Argument String to, @Argument Integer first,
+                                                          @Argument String after) {
+        log.info("GraphQL Query: transactionsForAccount - accountNumber: {}, from: {}, to: {}, first: {}, after: {}",
+                accountNumber, from, to, first, after);
+        return transactionService.getTransactionsPageForAccount(accountNumber, from, to, first, after);
+    }
+
+    @QueryMapping
+    public AccountProjectionStatus accountProjectionStatus() {
+        log.info("GraphQL Query: accountProjectionStatus");
+        return transactionService.getAccountProjectionStatus();
+    }
+
+    @QueryMapping
+    public List<DailyTransactionRollup> transactionSummary(@Argument String accountNumber, @Argument String from,
+                                                           @Argument String to, @Argument String currency,
+                                                           @Argument String transactionType) {
+        log.info("GraphQL Query: transactionSummary - accountNumber: {}, from: {}, to: {}, currency: {}, transactionType: {}",
+                accountNumber, from, to, currency, transactionType);
+        return rollupService.getSummary(accountNumber, from, to, currency, transactionType);
+    }
+
     @MutationMapping
     public Transaction createTransaction(@Argument @Valid TransactionInput input) {
         log.info("GraphQL Mutation: createTransaction - input: {}", input);
@@ -60,4 +138,10 @@ public class TransactionGraphQLController {
         log.info("GraphQL Mutation: updateTransactionStatus - transactionId: {}, status: {}", transactionId, status);
         return transactionService.updateTransactionStatus(transactionId, status);
     }
+
+    @MutationMapping
+    public Integer rebuildTransactionSummaries(@Argument String from, @Argument String to) {
+        log.info("GraphQL Mutation: rebuildTransactionSummaries - from: {}, to: {}", from, to);
+        return rollupService.rebuild(from, to);
+    }
 }
@@ -0,0 +1,19 @@
+package com.banking.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountProjectionStatus {
+    private boolean enabled;
+    private int accounts;
+    private long lag;
+    private LocalDateTime snapshotAt;
+}
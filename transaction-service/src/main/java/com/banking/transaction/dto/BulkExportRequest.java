@@ -0,0 +1,25 @@
+package com.banking.transaction.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkExportRequest {
+    @NotEmpty(message = "At least one account number is required")
+    private List<String> accountNumbers;
+
+    // ISO date or date-time; from is inclusive, to exclusive
+    private String from;
+    private String to;
+
+    // ndjson (default) or csv
+    private String format;
+}
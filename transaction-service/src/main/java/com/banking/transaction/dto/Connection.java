@@ -0,0 +1,77 @@
+package com.banking.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relay-style connection for keyset pagination. Pages are fetched with one extra row so
+ * that {@code hasNextPage} can be answered without a count query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Connection<T> {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private List<Edge<T>> edges;
+    private PageInfo pageInfo;
+
+    public static <T> Connection<T> of(List<T> rows, int pageSize, boolean hasPreviousPage,
+                                       Function<T, String> cursorOf) {
+        boolean hasNextPage = rows.size() > pageSize;
+        List<T> page = hasNextPage ? rows.subList(0, pageSize) : rows;
+
+        List<Edge<T>> edges = new ArrayList<>(page.size());
+        for (T node : page) {
+            edges.add(new Edge<>(node, cursorOf.apply(node)));
+        }
+        String startCursor = edges.isEmpty() ? null : edges.get(0).getCursor();
+        String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+        return new Connection<>(edges, new PageInfo(hasNextPage, hasPreviousPage, startCursor, endCursor));
+    }
+
+    public static int pageSize(Integer first) {
+        if (first == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (first < 1) {
+            throw new RuntimeException("first must be positive");
+        }
+        return Math.min(first, MAX_PAGE_SIZE);
+    }
+
+    public static String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static String idCursor(Long id) {
+        return encodeCursor(Long.toString(id));
+    }
+
+    public static long afterId(String after) {
+        if (after == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decodeCursor(after));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor: " + after);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.transaction.dto;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV;
+
+    public String extension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static ExportFormat parse(String value) {
+        try {
+            return value == null ? NDJSON : valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
+}
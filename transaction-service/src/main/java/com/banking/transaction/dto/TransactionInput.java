@@ -3,6 +3,7 @@ package com.banking.transaction.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,4 +33,8 @@ public class TransactionInput {
     private String transactionType;
 
     private String description;
+
+    // Optional; retries carrying the same key return the transaction created by the first attempt
+    @Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
 }
@@ -0,0 +1,50 @@
+package com.banking.transaction.kafka;
+
+import com.banking.transaction.kafka.event.AccountCreatedEvent;
+import com.banking.transaction.kafka.event.AccountUpdatedEvent;
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.projection.AccountProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountProjectionConsumer implements ConsumerSeekAware {
+    private final AccountProjection accountProjection;
+
+    // Every instance keeps the full projection, so each one joins with its own consumer group
+    // and positions itself from its snapshot rather than from committed offsets
+    @KafkaListener(topics = {AccountCreatedEvent.TOPIC, AccountUpdatedEvent.TOPIC},
+            groupId = "account-projection-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${banking.projection.enabled:true}")
+    public void handleAccountEvents(List<ConsumerRecord<String, DomainEvent>> records, Consumer<?, ?> consumer) {
+        accountProjection.apply(records);
+        for (TopicPartition partition : consumer.assignment()) {
+            consumer.currentLag(partition).ifPresent(lag -> accountProjection.updateLag(partition, lag));
+        }
+        log.debug("Applied {} account events to the projection, lag {}", records.size(), accountProjection.getLag());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        for (TopicPartition partition : assignments.keySet()) {
+            Long position = accountProjection.getPosition(partition);
+            if (position != null) {
+                callback.seek(partition.topic(), partition.partition(), position);
+            } else {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package com.banking.transaction.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banking.transaction.kafka.event.BalanceUpdatedEvent;
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.model.BalanceLedgerEntry;
+import com.banking.transaction.service.BalanceLedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class BalanceUpdateConsumer {
-    private final ObjectMapper objectMapper;
+    private final BalanceLedgerService balanceLedgerService;
 
-    @KafkaListener(topics = "balance-updated", groupId = "transaction-service-group")
-    public void handleBalanceUpdate(String message) {
-        try {
-            Map<String, Object> balanceData = objectMapper.readValue(message, Map.class);
-            log.info("Received balance update event: {}", balanceData);
-            // Process balance update event if needed
-        } catch (Exception e) {
-            log.error("Error processing balance update event", e);
+    @KafkaListener(topics = BalanceUpdatedEvent.TOPIC, groupId = "transaction-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void handleBalanceUpdates(List<ConsumerRecord<String, DomainEvent>> records) {
+        long start = System.nanoTime();
+        List<BalanceLedgerEntry> entries = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            if (!(record.value() instanceof BalanceUpdatedEvent event)) {
+                log.warn("Skipping undecodable balance update at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            entries.add(BalanceLedgerEntry.builder()
+                    .accountNumber(event.accountNumber())
+                    .previousBalance(event.previousBalance())
+                    .newBalance(event.newBalance())
+                    .amount(event.amount())
+                    .operationType(event.operationType())
+                    .updatedAt(event.updatedAt())
+                    .kafkaPartition(record.partition())
+                    .kafkaOffset(record.offset())
+                    .build());
         }
+
+        balanceLedgerService.recordBalanceUpdates(entries);
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        log.info("Received {} balance update events, applied in {} ms ({} records/s)", records.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), records.size() * 1_000_000_000L / elapsedNanos);
     }
 }
@@ -0,0 +1,27 @@
+package com.banking.transaction.kafka;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Identifies this running instance on the events it writes, so that it can recognise its
+ * own events when they come back from Kafka. The id is new on every start.
+ */
+@Component
+public class EventOrigin {
+    public static final String HEADER = "banking-origin";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final byte[] instanceIdBytes = instanceId.getBytes(StandardCharsets.UTF_8);
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public boolean isLocal(byte[] origin) {
+        return origin != null && Arrays.equals(origin, instanceIdBytes);
+    }
+}
@@ -1,47 +1,48 @@
 package com.banking.transaction.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.kafka.event.EventCodec;
+import com.banking.transaction.kafka.event.TransactionCompletedEvent;
+import com.banking.transaction.kafka.event.TransactionCreatedEvent;
+import com.banking.transaction.kafka.event.TransactionFailedEvent;
+import com.banking.transaction.model.OutboxEvent;
+import com.banking.transaction.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
+/**
+ * Writes events to the outbox table in the caller's transaction; {@link OutboxRelay} publishes
+ * them to Kafka after the commit.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventProducer {
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventOrigin eventOrigin;
+
+    public void sendTransactionCreatedEvent(TransactionCreatedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Transaction created event written to outbox: {}", event);
+    }
 
-    public void sendTransactionCreatedEvent(Map<String, Object> transactionData) {
-        try {
-            String message = objectMapper.writeValueAsString(transactionData);
-            kafkaTemplate.send("transaction-created", message);
-            log.info("Transaction created event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending transaction created event", e);
-        }
+    public void sendTransactionCompletedEvent(TransactionCompletedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Transaction completed event written to outbox: {}", event);
     }
 
-    public void sendTransactionCompletedEvent(Map<String, Object> transactionData) {
-        try {
-            String message = objectMapper.writeValueAsString(transactionData);
-            kafkaTemplate.send("transaction-completed", message);
-            log.info("Transaction completed event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending transaction completed event", e);
-        }
+    public void sendTransactionFailedEvent(TransactionFailedEvent event) {
+        outboxEventRepository.save(toOutboxEvent(event));
+        log.info("Transaction failed event written to outbox: {}", event);
     }
 
-    public void sendTransactionFailedEvent(Map<String, Object> transactionData) {
-        try {
-            String message = objectMapper.writeValueAsString(transactionData);
-            kafkaTemplate.send("transaction-failed", message);
-            log.info("Transaction failed event sent: {}", message);
-        } catch (Exception e) {
-            log.error("Error sending transaction failed event", e);
-        }
+    private OutboxEvent toOutboxEvent(DomainEvent event) {
+        return OutboxEvent.builder()
+                .topic(event.topic())
+                .eventKey(event.key())
+                .payload(EventCodec.encode(event))
+                .origin(eventOrigin.instanceId())
+                .build();
     }
 }
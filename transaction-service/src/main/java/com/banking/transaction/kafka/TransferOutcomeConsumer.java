@@ -0,0 +1,27 @@
+package com.banking.transaction.kafka;
+
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.kafka.event.TransactionRejectedEvent;
+import com.banking.transaction.kafka.event.TransactionSettledEvent;
+import com.banking.transaction.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferOutcomeConsumer {
+    private final TransactionService transactionService;
+
+    @KafkaListener(topics = {TransactionSettledEvent.TOPIC, TransactionRejectedEvent.TOPIC},
+            groupId = "transaction-service-group")
+    public void handleTransferOutcome(DomainEvent event) {
+        if (event instanceof TransactionSettledEvent settled) {
+            transactionService.completeTransfer(settled.transactionId(), "COMPLETED", null);
+        } else if (event instanceof TransactionRejectedEvent rejected) {
+            transactionService.completeTransfer(rejected.transactionId(), "FAILED", rejected.reason());
+        }
+    }
+}
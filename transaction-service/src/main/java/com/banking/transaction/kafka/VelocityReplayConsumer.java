@@ -0,0 +1,55 @@
+package com.banking.transaction.kafka;
+
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.kafka.event.TransactionCreatedEvent;
+import com.banking.transaction.service.TransactionService;
+import com.banking.transaction.velocity.VelocityLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the transactions created by other instances to the velocity windows, starting from the
+ * last day before this instance started. Transactions of this instance were already recorded
+ * when {@code createTransaction} admitted them and are recognised by their origin header.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VelocityReplayConsumer implements ConsumerSeekAware {
+    private final VelocityLimiter velocityLimiter;
+    private final EventOrigin eventOrigin;
+
+    @KafkaListener(topics = TransactionCreatedEvent.TOPIC,
+            groupId = "velocity-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${banking.velocity.enabled:false}")
+    public void replayTransactions(List<ConsumerRecord<String, DomainEvent>> records) {
+        int replayed = 0;
+        for (ConsumerRecord<String, DomainEvent> record : records) {
+            Header origin = record.headers().lastHeader(EventOrigin.HEADER);
+            if (!eventOrigin.isLocal(origin == null ? null : origin.value())
+                    && record.value() instanceof TransactionCreatedEvent created
+                    && !TransactionService.EXTERNAL_ACCOUNT.equals(created.fromAccountNumber())) {
+                velocityLimiter.record(created.fromAccountNumber(), created.amount(), record.timestamp());
+                replayed++;
+            }
+        }
+        if (replayed > 0) {
+            log.debug("Replayed {} transactions into the velocity windows", replayed);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), velocityLimiter.getReplayFrom());
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.transaction.kafka.event;
+
+/**
+ * An event published through the outbox. Implementations are plain records; their wire
+ * format lives in {@link EventCodec}.
+ */
+public interface DomainEvent {
+    String topic();
+
+    /**
+     * Id of the aggregate the event belongs to, used as the record key so that all events of
+     * one account, transaction or customer land on the same partition in order.
+     */
+    String key();
+}
@@ -0,0 +1,173 @@
+package com.banking.transaction.kafka.event;
+
+/**
+ * Binary wire format for {@link DomainEvent}s: a magic byte, a format version, a type id and
+ * then the record components in declaration order. New components may only be appended and
+ * bump {@link #VERSION}, so a reader of an older version decodes the components it knows from a
+ * newer payload and ignores the trailing bytes. A change that is not an append needs a new
+ * {@link #MAGIC} instead.
+ */
+public final class EventCodec {
+    static final byte MAGIC = (byte) 0xB1;
+    static final byte VERSION = 1;
+
+    static final int ACCOUNT_CREATED = 1;
+    static final int ACCOUNT_UPDATED = 2;
+    static final int BALANCE_UPDATED = 3;
+    static final int TRANSACTION_CREATED = 10;
+    static final int TRANSACTION_COMPLETED = 11;
+    static final int TRANSACTION_FAILED = 12;
+    static final int TRANSACTION_SETTLED = 13;
+    static final int TRANSACTION_REJECTED = 14;
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(DomainEvent event) {
+        EventWriter out = new EventWriter();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        if (event instanceof AccountCreatedEvent e) {
+            out.writeByte(ACCOUNT_CREATED);
+            out.writeNullableLong(e.accountId());
+            out.writeString(e.accountNumber());
+            out.writeNullableLong(e.customerId());
+            out.writeString(e.accountType());
+            out.writeDecimal(e.balance());
+            out.writeString(e.currency());
+            out.writeString(e.status());
+            out.writeDateTime(e.createdAt());
+        } else if (event instanceof AccountUpdatedEvent e) {
+            out.writeByte(ACCOUNT_UPDATED);
+            out.writeNullableLong(e.accountId());
+            out.writeString(e.accountNumber());
+            out.writeString(e.status());
+            out.writeNullableInt(e.stripeCount());
+            out.writeDecimal(e.balance());
+            out.writeDateTime(e.updatedAt());
+        } else if (event instanceof BalanceUpdatedEvent e) {
+            out.writeByte(BALANCE_UPDATED);
+            out.writeNullableLong(e.accountId());
+            out.writeString(e.accountNumber());
+            out.writeDecimal(e.previousBalance());
+            out.writeDecimal(e.newBalance());
+            out.writeDecimal(e.amount());
+            out.writeString(e.operationType());
+            out.writeDateTime(e.updatedAt());
+        } else if (event instanceof TransactionCreatedEvent e) {
+            out.writeByte(TRANSACTION_CREATED);
+            out.writeString(e.transactionId());
+            out.writeString(e.fromAccountNumber());
+            out.writeString(e.toAccountNumber());
+            out.writeDecimal(e.amount());
+            out.writeString(e.currency());
+            out.writeString(e.transactionType());
+            out.writeString(e.status());
+            out.writeString(e.description());
+            out.writeDateTime(e.transactionDate());
+        } else if (event instanceof TransactionCompletedEvent e) {
+            out.writeByte(TRANSACTION_COMPLETED);
+            out.writeString(e.transactionId());
+            out.writeString(e.fromAccountNumber());
+            out.writeString(e.toAccountNumber());
+            out.writeDecimal(e.amount());
+            out.writeString(e.status());
+            out.writeDateTime(e.updatedAt());
+        } else if (event instanceof TransactionFailedEvent e) {
+            out.writeByte(TRANSACTION_FAILED);
+            out.writeString(e.transactionId());
+            out.writeString(e.fromAccountNumber());
+            out.writeString(e.toAccountNumber());
+            out.writeDecimal(e.amount());
+            out.writeString(e.status());
+            out.writeDateTime(e.updatedAt());
+        } else if (event instanceof TransactionSettledEvent e) {
+            out.writeByte(TRANSACTION_SETTLED);
+            out.writeString(e.transactionId());
+            out.writeString(e.fromAccountNumber());
+            out.writeString(e.toAccountNumber());
+            out.writeDecimal(e.amount());
+            out.writeDateTime(e.processedAt());
+        } else if (event instanceof TransactionRejectedEvent e) {
+            out.writeByte(TRANSACTION_REJECTED);
+            out.writeString(e.transactionId());
+            out.writeString(e.fromAccountNumber());
+            out.writeString(e.toAccountNumber());
+            out.writeDecimal(e.amount());
+            out.writeString(e.reason());
+            out.writeDateTime(e.processedAt());
+        } else {
+            throw new RuntimeException("Unsupported event type: " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 2 && data[0] == MAGIC;
+    }
+
+    public static DomainEvent decode(byte[] data) {
+        EventReader in = new EventReader(data);
+        if ((byte) in.readByte() != MAGIC) {
+            throw new RuntimeException("Payload is not a binary event");
+        }
+        int version = in.readByte();
+        // Newer versions only append components, which the readers below leave unread
+        if (version < 1) {
+            throw new RuntimeException("Unsupported event version: " + version);
+        }
+        int type = in.readByte();
+        return switch (type) {
+            case ACCOUNT_CREATED -> readAccountCreated(in);
+            case ACCOUNT_UPDATED -> readAccountUpdated(in);
+            case BALANCE_UPDATED -> readBalanceUpdated(in);
+            case TRANSACTION_CREATED -> readTransactionCreated(in);
+            case TRANSACTION_COMPLETED -> readTransactionCompleted(in);
+            case TRANSACTION_FAILED -> readTransactionFailed(in);
+            case TRANSACTION_SETTLED -> readTransactionSettled(in);
+            case TRANSACTION_REJECTED -> readTransactionRejected(in);
+            default -> throw new RuntimeException("Unknown event type: " + type);
+        };
+    }
+
+    private static AccountCreatedEvent readAccountCreated(EventReader in) {
+        return new AccountCreatedEvent(in.readNullableLong(), in.readString(), in.readNullableLong(),
+                in.readString(), in.readDecimal(), in.readString(), in.readString(), in.readDateTime());
+    }
+
+    private static AccountUpdatedEvent readAccountUpdated(EventReader in) {
+        return new AccountUpdatedEvent(in.readNullableLong(), in.readString(), in.readString(),
+                in.readNullableInt(), in.readDecimal(), in.readDateTime());
+    }
+
+    private static BalanceUpdatedEvent readBalanceUpdated(EventReader in) {
+        return new BalanceUpdatedEvent(in.readNullableLong(), in.readString(), in.readDecimal(),
+                in.readDecimal(), in.readDecimal(), in.readString(), in.readDateTime());
+    }
+
+    private static TransactionCreatedEvent readTransactionCreated(EventReader in) {
+        return new TransactionCreatedEvent(in.readString(), in.readString(), in.readString(),
+                in.readDecimal(), in.readString(), in.readString(), in.readString(), in.readString(),
+                in.readDateTime());
+    }
+
+    private static TransactionCompletedEvent readTransactionCompleted(EventReader in) {
+        return new TransactionCompletedEvent(in.readString(), in.readString(), in.readString(),
+                in.readDecimal(), in.readString(), in.readDateTime());
+    }
+
+    private static TransactionFailedEvent readTransactionFailed(EventReader in) {
+        return new TransactionFailedEvent(in.readString(), in.readString(), in.readString(), in.readDecimal(),
+                in.readString(), in.readDateTime());
+    }
+
+    private static TransactionSettledEvent readTransactionSettled(EventReader in) {
+        return new TransactionSettledEvent(in.readString(), in.readString(), in.readString(),
+                in.readDecimal(), in.readDateTime());
+    }
+
+    private static TransactionRejectedEvent readTransactionRejected(EventReader in) {
+        return new TransactionRejectedEvent(in.readString(), in.readString(), in.readString(),
+                in.readDecimal(), in.readString(), in.readDateTime());
+    }
+}
@@ -0,0 +1,99 @@
+package com.banking.transaction.kafka.event;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Cursor over an encoded event, the counterpart of {@link EventWriter}. Values are decoded
+ * straight from the record's byte array without an intermediate copy.
+ */
+final class EventReader {
+    private final byte[] data;
+    private int position;
+
+    EventReader(byte[] data) {
+        this.data = data;
+    }
+
+    int readByte() {
+        if (position >= data.length) {
+            throw new RuntimeException("Truncated event at byte " + position);
+        }
+        return data[position++];
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException("Malformed varint at byte " + position);
+    }
+
+    long readLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    Long readNullableLong() {
+        return readByte() == 0 ? null : readLong();
+    }
+
+    Integer readNullableInt() {
+        return readByte() == 0 ? null : Math.toIntExact(readLong());
+    }
+
+    String readString() {
+        int length = (int) readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        checkAvailable(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    BigDecimal readDecimal() {
+        int tag = readByte();
+        if (tag == 0) {
+            return null;
+        }
+        if (tag == 1) {
+            long unscaled = readLong();
+            return BigDecimal.valueOf(unscaled, Math.toIntExact(readLong()));
+        }
+        int length = (int) readVarLong();
+        checkAvailable(length);
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(data, position, position + length));
+        position += length;
+        return new BigDecimal(unscaled, Math.toIntExact(readLong()));
+    }
+
+    LocalDateTime readDateTime() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long epochSecond = readLong();
+        return LocalDateTime.ofEpochSecond(epochSecond, (int) readVarLong(), ZoneOffset.UTC);
+    }
+
+    LocalDate readDate() {
+        return readByte() == 0 ? null : LocalDate.ofEpochDay(readLong());
+    }
+
+    private void checkAvailable(int length) {
+        if (position + length > data.length) {
+            throw new RuntimeException("Truncated event at byte " + position);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.transaction.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionCreatedEvent(String transactionId, String fromAccountNumber, String toAccountNumber,
+                                      BigDecimal amount, String currency, String transactionType, String status,
+                                      String description, LocalDateTime transactionDate) implements DomainEvent {
+    public static final String TOPIC = "transaction-created";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return transactionId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.banking.transaction.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionFailedEvent(String transactionId, String fromAccountNumber, String toAccountNumber,
+                                      BigDecimal amount, String status, LocalDateTime updatedAt) implements DomainEvent {
+    public static final String TOPIC = "transaction-failed";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return transactionId;
+    }
+}
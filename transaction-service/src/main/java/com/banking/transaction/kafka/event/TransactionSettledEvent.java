@@ -0,0 +1,22 @@
+package com.banking.transaction.kafka.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published by account-service once both legs of a transfer have been applied.
+ */
+public record TransactionSettledEvent(String transactionId, String fromAccountNumber, String toAccountNumber,
+                                      BigDecimal amount, LocalDateTime processedAt) implements DomainEvent {
+    public static final String TOPIC = "transaction-settled";
+
+    @Override
+    public String topic() {
+        return TOPIC;
+    }
+
+    @Override
+    public String key() {
+        return transactionId;
+    }
+}
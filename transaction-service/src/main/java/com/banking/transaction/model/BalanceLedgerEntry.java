@@ -0,0 +1,54 @@
+package com.banking.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A balance change reported by account-service, kept for reconciliation against the
+ * transactions recorded here. The Kafka position makes redelivered records idempotent.
+ */
+@Entity
+@Table(name = "balance_ledger", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_balance_ledger_position", columnNames = {"kafka_partition", "kafka_offset"})
+}, indexes = {
+        @Index(name = "idx_balance_ledger_account", columnList = "account_number, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column
+    private BigDecimal previousBalance;
+
+    @Column
+    private BigDecimal newBalance;
+
+    @Column
+    private BigDecimal amount;
+
+    @Column
+    private String operationType;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @Column(name = "kafka_partition", nullable = false)
+    private Integer kafkaPartition;
+
+    @Column(name = "kafka_offset", nullable = false)
+    private Long kafkaOffset;
+}
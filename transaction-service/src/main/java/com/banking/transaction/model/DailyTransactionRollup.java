@@ -0,0 +1,70 @@
+package com.banking.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one account's transactions on one day for a currency, type and direction.
+ * Maintained as transactions are created and change status; pending figures are the
+ * totals minus the completed and failed ones.
+ */
+@Entity
+@Table(name = "daily_transaction_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_transaction_rollups_key",
+                columnNames = {"account_number", "rollup_date", "currency", "transaction_type", "direction"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyTransactionRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(name = "transaction_type", nullable = false)
+    private String transactionType;
+
+    // DEBIT for transfers out of the account, CREDIT for transfers into it
+    @Column(nullable = false)
+    private String direction;
+
+    @Column(nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private BigDecimal minAmount;
+
+    @Column(nullable = false)
+    private BigDecimal maxAmount;
+
+    @Column(nullable = false)
+    private Long completedCount;
+
+    @Column(nullable = false)
+    private BigDecimal completedAmount;
+
+    @Column(nullable = false)
+    private Long failedCount;
+
+    @Column(nullable = false)
+    private BigDecimal failedAmount;
+}
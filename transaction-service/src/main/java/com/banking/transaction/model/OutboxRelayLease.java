@@ -0,0 +1,29 @@
+package com.banking.transaction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The right to relay the outbox, held by one instance at a time until it expires. Only the
+ * holder reads and publishes outbox rows, so replicas do not publish each row once per replica.
+ */
+@Entity
+@Table(name = "outbox_relay_leases")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLease {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private String owner;
+
+    // Epoch milliseconds
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
@@ -10,7 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_account", columnList = "from_account_number, id"),
+        @Index(name = "idx_transactions_to_account", columnList = "to_account_number, id"),
+        @Index(name = "idx_transactions_from_account_date", columnList = "from_account_number, transaction_date, id"),
+        @Index(name = "idx_transactions_to_account_date", columnList = "to_account_number, transaction_date, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,10 +28,10 @@ public class Transaction {
     @Column(nullable = false, unique = true)
     private String transactionId;
 
-    @Column(nullable = false)
+    @Column(name = "from_account_number", nullable = false)
     private String fromAccountNumber;
 
-    @Column(nullable = false)
+    @Column(name = "to_account_number", nullable = false)
     private String toAccountNumber;
 
     @Column(nullable = false)
@@ -44,7 +49,10 @@ public class Transaction {
     @Column
     private String description;
 
-    @Column(nullable = false)
+    @Column(unique = true)
+    private String idempotencyKey;
+
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
 
     @Column(nullable = false)
@@ -0,0 +1,356 @@
+package com.banking.transaction.projection;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.transaction.kafka.event.AccountCreatedEvent;
+import com.banking.transaction.kafka.event.AccountUpdatedEvent;
+import com.banking.transaction.kafka.event.DomainEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory view of account status, built from account-service events, used to reject
+ * transfers between inactive accounts without a call to account-service.
+ * <p>
+ * Only the status is kept: account-updated events are keyed by account number and so arrive
+ * in order, whereas balances also move through balance-updated, a separate topic whose events
+ * can overtake or trail them, and the events carry no version to tell an older balance from
+ * a newer one. Sufficient funds are left to account-service.
+ * <p>
+ * Account numbers issued by {@link SnowflakeIdGenerator} are decoded back to their 60-bit ID
+ * and kept in an open-addressing table of primitive arrays. Lookups use optimistic
+ * {@link StampedLock} reads and do not allocate for known accounts. The projection trails account-service by the consumer lag reported in
+ * {@link #getLag()}, and is periodically written to disk together with the Kafka positions it
+ * reflects, so a restart only replays the events published since the last snapshot.
+ */
+@Component
+@Slf4j
+public class AccountProjection {
+    public enum Check { OK, UNKNOWN_ACCOUNT, INACTIVE }
+
+    private static final String ACCOUNT_PREFIX = "ACC";
+    private static final byte ACTIVE = 1;
+    private static final long EMPTY = -1;
+    private static final int SNAPSHOT_MAGIC = 0x41505331;
+    private static final int SNAPSHOT_VERSION = 2;
+
+    /**
+     * One generation of the hash table. A resize builds a new instance, so a reader that holds
+     * a reference always sees arrays of matching length.
+     */
+    private static final class Table {
+        final long[] keys;
+        final byte[] flags;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            flags = new byte[capacity];
+            mask = capacity - 1;
+        }
+
+        int indexOf(long key) {
+            int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+            while (keys[index] != EMPTY && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table = new Table(1 << 16);
+    // Flags of accounts whose number was not issued by SnowflakeIdGenerator
+    private final Map<String, Byte> legacyAccounts = new HashMap<>();
+    private final Map<TopicPartition, Long> positions = new HashMap<>();
+    private final Map<TopicPartition, Long> lag = new ConcurrentHashMap<>();
+    private volatile LocalDateTime snapshotAt;
+
+    @Value("${banking.projection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${banking.projection.snapshot-path:data/account-projection.snap}")
+    private Path snapshotPath;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        if (!enabled || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognized snapshot format");
+            }
+            LocalDateTime takenAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneId.systemDefault());
+            for (int i = in.readInt(); i > 0; i--) {
+                positions.put(new TopicPartition(in.readUTF(), in.readInt()), in.readLong());
+            }
+            int accounts = in.readInt();
+            Table loaded = new Table(capacityFor(accounts));
+            for (int i = 0; i < accounts; i++) {
+                long key = in.readLong();
+                int index = loaded.indexOf(key);
+                loaded.keys[index] = key;
+                loaded.flags[index] = in.readByte();
+                loaded.size++;
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                legacyAccounts.put(in.readUTF(), in.readByte());
+            }
+            table = loaded;
+            snapshotAt = takenAt;
+            log.info("Loaded account projection snapshot from {} with {} accounts", takenAt, accounts + legacyAccounts.size());
+        } catch (IOException e) {
+            log.warn("Could not read account projection snapshot {}, rebuilding from the topics", snapshotPath, e);
+            positions.clear();
+            legacyAccounts.clear();
+            table = new Table(1 << 16);
+        }
+    }
+
+    /**
+     * Kafka position to resume from for a partition, or {@code null} if the snapshot holds
+     * nothing for it.
+     */
+    public Long getPosition(TopicPartition partition) {
+        long stamp = lock.readLock();
+        try {
+            return positions.get(partition);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void apply(List<ConsumerRecord<String, DomainEvent>> records) {
+        long stamp = lock.writeLock();
+        try {
+            for (ConsumerRecord<String, DomainEvent> record : records) {
+                DomainEvent event = record.value();
+                if (event instanceof AccountUpdatedEvent accountUpdated) {
+                    update(accountUpdated.accountNumber(), accountUpdated.status(), true);
+                } else if (event instanceof AccountCreatedEvent accountCreated) {
+                    // An account update can overtake the creation event, which sits on another topic
+                    update(accountCreated.accountNumber(), accountCreated.status(), false);
+                }
+                positions.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void updateLag(TopicPartition partition, long partitionLag) {
+        lag.put(partition, partitionLag);
+    }
+
+    /**
+     * Number of account events published but not yet applied, or -1 before the first poll.
+     */
+    public long getLag() {
+        if (lag.isEmpty()) {
+            return -1;
+        }
+        long total = 0;
+        for (long partitionLag : lag.values()) {
+            total += partitionLag;
+        }
+        return total;
+    }
+
+    public int getAccountCount() {
+        long stamp = lock.readLock();
+        try {
+            return table.size + legacyAccounts.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    /**
+     * Checks that an account is known to the projection and active.
+     */
+    public Check check(String accountNumber) {
+        long key = SnowflakeIdGenerator.parse(ACCOUNT_PREFIX, accountNumber);
+        int flags;
+        if (key >= 0) {
+            long stamp = lock.tryOptimisticRead();
+            Table current = table;
+            int index = current.indexOf(key);
+            boolean found = current.keys[index] == key;
+            flags = current.flags[index];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    current = table;
+                    index = current.indexOf(key);
+                    found = current.keys[index] == key;
+                    flags = current.flags[index];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (!found) {
+                return Check.UNKNOWN_ACCOUNT;
+            }
+        } else {
+            long stamp = lock.readLock();
+            try {
+                Byte entry = legacyAccounts.get(accountNumber);
+                if (entry == null) {
+                    return Check.UNKNOWN_ACCOUNT;
+                }
+                flags = entry;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return (flags & ACTIVE) != 0 ? Check.OK : Check.INACTIVE;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.projection.snapshot-interval-ms:60000}")
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        Table copy;
+        Map<String, Byte> legacyCopy;
+        Map<TopicPartition, Long> positionsCopy;
+        long stamp = lock.readLock();
+        try {
+            if (positions.isEmpty()) {
+                return;
+            }
+            Table current = table;
+            copy = new Table(current.keys.length);
+            System.arraycopy(current.keys, 0, copy.keys, 0, current.keys.length);
+            System.arraycopy(current.flags, 0, copy.flags, 0, current.flags.length);
+            copy.size = current.size;
+            legacyCopy = new HashMap<>(legacyAccounts);
+            positionsCopy = new HashMap<>(positions);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "account-projection", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(start);
+                out.writeInt(positionsCopy.size());
+                for (Map.Entry<TopicPartition, Long> position : positionsCopy.entrySet()) {
+                    out.writeUTF(position.getKey().topic());
+                    out.writeInt(position.getKey().partition());
+                    out.writeLong(position.getValue());
+                }
+                out.writeInt(copy.size);
+                for (int i = 0; i < copy.keys.length; i++) {
+                    if (copy.keys[i] != EMPTY) {
+                        out.writeLong(copy.keys[i]);
+                        out.writeByte(copy.flags[i]);
+                    }
+                }
+                out.writeInt(legacyCopy.size());
+                for (Map.Entry<String, Byte> entry : legacyCopy.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeByte(entry.getValue());
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(start), ZoneId.systemDefault());
+            log.info("Wrote account projection snapshot with {} accounts in {} ms",
+                    copy.size + legacyCopy.size(), System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            log.error("Error writing account projection snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    // Caller holds the write lock. A creation event only sets the status of an account that no
+    // update has been seen for yet.
+    private void update(String accountNumber, String status, boolean overwrite) {
+        if (accountNumber == null || status == null) {
+            return;
+        }
+        byte flags = "ACTIVE".equalsIgnoreCase(status) ? ACTIVE : 0;
+        long key = SnowflakeIdGenerator.parse(ACCOUNT_PREFIX, accountNumber);
+        if (key < 0) {
+            if (overwrite) {
+                legacyAccounts.put(accountNumber, flags);
+            } else {
+                legacyAccounts.putIfAbsent(accountNumber, flags);
+            }
+            return;
+        }
+
+        Table current = table;
+        if ((current.size + 1) * 10 > current.keys.length * 6) {
+            current = resize(current);
+        }
+        int index = current.indexOf(key);
+        if (current.keys[index] == EMPTY) {
+            current.keys[index] = key;
+            current.flags[index] = flags;
+            current.size++;
+        } else if (overwrite) {
+            current.flags[index] = flags;
+        }
+    }
+
+    private Table resize(Table current) {
+        Table resized = new Table(current.keys.length * 2);
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.keys[i] != EMPTY) {
+                int index = resized.indexOf(current.keys[i]);
+                resized.keys[index] = current.keys[i];
+                resized.flags[index] = current.flags[i];
+            }
+        }
+        resized.size = current.size;
+        table = resized;
+        return resized;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = 1 << 16;
+        while (entries * 10 > capacity * 6) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
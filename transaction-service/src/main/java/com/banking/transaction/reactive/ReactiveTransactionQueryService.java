@@ -0,0 +1,55 @@
+package com.banking.transaction.reactive;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.store.JpaTransactionStore;
+import com.banking.transaction.store.TransactionStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the read-heavy transaction queries from R2DBC when {@code banking.reactive-reads.enabled}
+ * is set. Full account histories are pulled from the database {@code prefetch} rows at a time
+ * instead of being loaded into a persistence context. Reads the {@code transactions} table, so it
+ * cannot be combined with the journal store.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.reactive-reads.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveTransactionQueryService {
+    private final ReactiveTransactionRepository reactiveTransactionRepository;
+    private final int prefetch;
+
+    public ReactiveTransactionQueryService(ReactiveTransactionRepository reactiveTransactionRepository,
+                                           TransactionStore transactionStore,
+                                           @Value("${banking.reactive-reads.prefetch:256}") int prefetch) {
+        if (!(transactionStore instanceof JpaTransactionStore)) {
+            throw new RuntimeException("banking.reactive-reads.enabled reads the transactions table "
+                    + "and cannot be combined with the journal profile");
+        }
+        this.reactiveTransactionRepository = reactiveTransactionRepository;
+        this.prefetch = prefetch;
+        log.info("Serving transaction reads from R2DBC (prefetch {})", prefetch);
+    }
+
+    public Mono<Transaction> getTransactionByTransactionId(String transactionId) {
+        return reactiveTransactionRepository.findByTransactionId(transactionId)
+                .map(TransactionRow::toTransaction)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Transaction not found with transactionId: " + transactionId)));
+    }
+
+    public Flux<Transaction> getTransactionsByFromAccount(String fromAccountNumber) {
+        return reactiveTransactionRepository.findByFromAccountNumber(fromAccountNumber)
+                .limitRate(prefetch)
+                .map(TransactionRow::toTransaction);
+    }
+
+    public Flux<Transaction> getTransactionsByToAccount(String toAccountNumber) {
+        return reactiveTransactionRepository.findByToAccountNumber(toAccountNumber)
+                .limitRate(prefetch)
+                .map(TransactionRow::toTransaction);
+    }
+}
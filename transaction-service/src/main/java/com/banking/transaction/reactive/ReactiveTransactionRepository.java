@@ -0,0 +1,17 @@
+package com.banking.transaction.reactive;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of the read methods of
+ * {@link com.banking.transaction.repository.TransactionRepository}.
+ */
+@Repository
+public interface ReactiveTransactionRepository extends R2dbcRepository<TransactionRow, Long> {
+    Mono<TransactionRow> findByTransactionId(String transactionId);
+    Flux<TransactionRow> findByFromAccountNumber(String fromAccountNumber);
+    Flux<TransactionRow> findByToAccountNumber(String toAccountNumber);
+}
@@ -0,0 +1,37 @@
+package com.banking.transaction.reactive;
+
+import com.banking.transaction.model.Transaction;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC mapping of the {@code transactions} table. Writes go through the JPA
+ * {@link Transaction} entity, which rows are converted to before they reach GraphQL.
+ */
+@Table("transactions")
+public record TransactionRow(@Id Long id, String transactionId, String fromAccountNumber,
+                             String toAccountNumber, BigDecimal amount, String currency,
+                             String transactionType, String status, String description,
+                             String idempotencyKey, LocalDateTime transactionDate,
+                             LocalDateTime createdAt) {
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .id(id)
+                .transactionId(transactionId)
+                .fromAccountNumber(fromAccountNumber)
+                .toAccountNumber(toAccountNumber)
+                .amount(amount)
+                .currency(currency)
+                .transactionType(transactionType)
+                .status(status)
+                .description(description)
+                .idempotencyKey(idempotencyKey)
+                .transactionDate(transactionDate)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.model.DailyTransactionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyTransactionRollupRepository extends JpaRepository<DailyTransactionRollup, Long> {
+    // Range scan over the unique (account_number, rollup_date, ...) index
+    @Query("SELECT r FROM DailyTransactionRollup r WHERE r.accountNumber = :accountNumber " +
+            "AND r.rollupDate >= :from AND r.rollupDate < :to " +
+            "AND (:currency IS NULL OR r.currency = :currency) " +
+            "AND (:transactionType IS NULL OR r.transactionType = :transactionType) " +
+            "ORDER BY r.rollupDate, r.currency, r.transactionType, r.direction")
+    List<DailyTransactionRollup> findSummary(String accountNumber, LocalDate from, LocalDate to,
+                                             String currency, String transactionType);
+}
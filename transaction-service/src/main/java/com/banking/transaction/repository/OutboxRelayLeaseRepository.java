@@ -0,0 +1,30 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.model.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, String> {
+    // Renews a lease held by the owner, or takes over one that has expired
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxRelayLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int acquire(String name, String owner, long now, long expiresAt);
+
+    // Plain INSERT so two instances creating the lease at once clash on the primary key
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO outbox_relay_leases (name, owner, expires_at) VALUES (:name, :owner, :expiresAt)",
+            nativeQuery = true)
+    void insert(String name, String owner, long expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxRelayLease l SET l.expiresAt = 0 WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner);
+}
@@ -1,16 +1,75 @@
 package com.banking.transaction.repository;
 
 import com.banking.transaction.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionId(String transactionId);
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
     List<Transaction> findByFromAccountNumber(String fromAccountNumber);
     List<Transaction> findByToAccountNumber(String toAccountNumber);
     List<Transaction> findByStatus(String status);
+
+    @Query(value = "SELECT ranked.* FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.from_account_number " +
+            "ORDER BY t.transaction_date DESC, t.id DESC) AS row_num FROM transactions t " +
+            "WHERE t.from_account_number IN (:fromAccountNumbers)) ranked WHERE ranked.row_num <= :limit",
+            nativeQuery = true)
+    List<Transaction> findRecentByFromAccountNumberIn(Collection<String> fromAccountNumbers, int limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.id > :afterId ORDER BY t.id")
+    List<Transaction> findPageAfter(Long afterId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccountNumber = :fromAccountNumber AND t.id > :afterId ORDER BY t.id")
+    List<Transaction> findPageByFromAccountNumberAfter(String fromAccountNumber, Long afterId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.toAccountNumber = :toAccountNumber AND t.id > :afterId ORDER BY t.id")
+    List<Transaction> findPageByToAccountNumberAfter(String toAccountNumber, Long afterId, Pageable pageable);
+
+    // Newest-first page of both directions below (beforeDate, beforeId); each branch is a bounded
+    // range scan of its (account, transaction_date, id) index. Self-transfers are only read once.
+    @Query(value = "SELECT u.* FROM (" +
+            "SELECT * FROM (SELECT t.* FROM transactions t WHERE t.from_account_number = :accountNumber " +
+            "AND t.transaction_date >= :from AND t.transaction_date <= :beforeDate " +
+            "AND (t.transaction_date < :beforeDate OR t.id < :beforeId) " +
+            "ORDER BY t.transaction_date DESC, t.id DESC LIMIT :limit) outgoing " +
+            "UNION ALL " +
+            "SELECT * FROM (SELECT t.* FROM transactions t WHERE t.to_account_number = :accountNumber " +
+            "AND t.from_account_number <> :accountNumber " +
+            "AND t.transaction_date >= :from AND t.transaction_date <= :beforeDate " +
+            "AND (t.transaction_date < :beforeDate OR t.id < :beforeId) " +
+            "ORDER BY t.transaction_date DESC, t.id DESC LIMIT :limit) incoming" +
+            ") u ORDER BY u.transaction_date DESC, u.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findPageByAccountNumberBefore(String accountNumber, LocalDateTime from,
+                                                    LocalDateTime beforeDate, long beforeId, int limit);
+
+    // Forward-only cursors over the (account, transaction_date, id) indexes, for exports
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccountNumber = :accountNumber " +
+            "AND t.transactionDate >= :from AND t.transactionDate < :to ORDER BY t.transactionDate, t.id")
+    Stream<Transaction> streamByFromAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.toAccountNumber = :accountNumber AND t.fromAccountNumber <> :accountNumber " +
+            "AND t.transactionDate >= :from AND t.transactionDate < :to ORDER BY t.transactionDate, t.id")
+    Stream<Transaction> streamByToAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,56 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.model.BalanceLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceLedgerService {
+    // Standard SQL MERGE rather than a vendor upsert, so it runs on any database with SQL:2003 MERGE
+    private static final String MERGE_ENTRY_SQL =
+            "MERGE INTO balance_ledger t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS DECIMAL(38, 2)), "
+                    + "CAST(? AS DECIMAL(38, 2)), CAST(? AS DECIMAL(38, 2)), CAST(? AS VARCHAR(255)), "
+                    + "CAST(? AS TIMESTAMP), CAST(? AS INTEGER), CAST(? AS BIGINT))) "
+                    + "AS s (account_number, previous_balance, new_balance, amount, operation_type, updated_at, "
+                    + "kafka_partition, kafka_offset) "
+                    + "ON t.kafka_partition = s.kafka_partition AND t.kafka_offset = s.kafka_offset "
+                    + "WHEN MATCHED THEN UPDATE SET account_number = s.account_number, "
+                    + "previous_balance = s.previous_balance, new_balance = s.new_balance, amount = s.amount, "
+                    + "operation_type = s.operation_type, updated_at = s.updated_at "
+                    + "WHEN NOT MATCHED THEN INSERT (account_number, previous_balance, new_balance, amount, "
+                    + "operation_type, updated_at, kafka_partition, kafka_offset) "
+                    + "VALUES (s.account_number, s.previous_balance, s.new_balance, s.amount, s.operation_type, "
+                    + "s.updated_at, s.kafka_partition, s.kafka_offset)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes a whole poll of balance updates as one JDBC batch. Entries already stored for the
+     * same Kafka position are overwritten, so a redelivered batch does not duplicate rows.
+     */
+    @Transactional
+    public void recordBalanceUpdates(List<BalanceLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MERGE_ENTRY_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setString(1, entry.getAccountNumber());
+            ps.setBigDecimal(2, entry.getPreviousBalance());
+            ps.setBigDecimal(3, entry.getNewBalance());
+            ps.setBigDecimal(4, entry.getAmount());
+            ps.setString(5, entry.getOperationType());
+            ps.setTimestamp(6, entry.getUpdatedAt() == null ? null : Timestamp.valueOf(entry.getUpdatedAt()));
+            ps.setInt(7, entry.getKafkaPartition());
+            ps.setLong(8, entry.getKafkaOffset());
+        });
+        log.debug("Recorded {} balance ledger entries", entries.size());
+    }
+}
@@ -0,0 +1,271 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.dto.ExportFormat;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.store.TransactionStore;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes account statements as gzip-compressed NDJSON or CSV. Rows come from a forward-only
+ * cursor and are written as they arrive, so memory use does not depend on the length of the
+ * history. Bulk exports render accounts in parallel into temporary files, which are sent as
+ * the entries of one ZIP archive in the order they complete.
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,transactionId,direction,fromAccountNumber,toAccountNumber,amount," +
+            "currency,transactionType,status,description,transactionDate\n";
+
+    private final TransactionStore transactionStore;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService executor;
+    private final Path tempDirectory;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TransactionExportService(TransactionStore transactionStore,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${banking.export.parallelism:4}") int parallelism,
+                                    @Value("${banking.export.temp-directory:${java.io.tmpdir}}") Path tempDirectory) {
+        this.transactionStore = transactionStore;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.tempDirectory = tempDirectory;
+        jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public LocalDateTime startOf(String from) {
+        return from == null ? TransactionService.HISTORY_START : TransactionService.parseDateTime(from);
+    }
+
+    public LocalDateTime endOf(String to) {
+        return to == null ? TransactionService.HISTORY_END : TransactionService.parseDateTime(to);
+    }
+
+    public String fileName(String accountNumber, ExportFormat format) {
+        return accountNumber + "-transactions." + format.extension() + ".gz";
+    }
+
+    /**
+     * Writes the transactions of one account within [from, to) to the stream as a gzip member,
+     * leaving the stream open. Returns the number of rows written.
+     */
+    public long exportAccount(String accountNumber, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                              OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator json = jsonFactory.createGenerator(writer);
+        json.setRootValueSeparator(null);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        Long rows = readOnlyTransactionTemplate.execute(status -> {
+            try (Stream<Transaction> transactions = transactionStore.streamByAccountNumber(accountNumber, from, to)) {
+                long count = 0;
+                for (Iterator<Transaction> iterator = transactions.iterator(); iterator.hasNext(); count++) {
+                    Transaction transaction = iterator.next();
+                    if (format == ExportFormat.CSV) {
+                        writeCsvRow(writer, accountNumber, transaction);
+                    } else {
+                        writeJsonRow(json, accountNumber, transaction);
+                    }
+                }
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.flush();
+        writer.flush();
+        gzip.finish();
+
+        log.info("Exported {} transactions of account {} in {} ms", rows, accountNumber,
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * Writes a ZIP archive with one gzip-compressed statement per account. Up to
+     * {@code banking.export.parallelism} accounts are rendered at the same time.
+     */
+    public void exportAccounts(List<String> accountNumbers, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                               OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        CompletionService<ExportFile> completion = new ExecutorCompletionService<>(executor);
+        List<Future<ExportFile>> pending = new ArrayList<>();
+        for (String accountNumber : new LinkedHashSet<>(accountNumbers)) {
+            pending.add(completion.submit(() -> exportToFile(accountNumber, from, to, format)));
+        }
+
+        long rows = 0;
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            for (int i = 0; i < pending.size(); i++) {
+                ExportFile file = take(completion);
+                try {
+                    // The files are already compressed, so they are stored as they are
+                    ZipEntry entry = new ZipEntry(fileName(file.accountNumber(), format));
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(file.size());
+                    entry.setCompressedSize(file.size());
+                    entry.setCrc(file.crc());
+                    zip.putNextEntry(entry);
+                    Files.copy(file.path(), zip);
+                    zip.closeEntry();
+                    rows += file.rows();
+                } finally {
+                    Files.deleteIfExists(file.path());
+                }
+            }
+            zip.finish();
+        } finally {
+            // Stop exports still running if the client went away, and drop files already written
+            for (Future<ExportFile> future : pending) {
+                if (!future.cancel(true) && !future.isCancelled()) {
+                    try {
+                        Files.deleteIfExists(future.get().path());
+                    } catch (InterruptedException | ExecutionException ignored) {
+                        // Failed exports remove their own file
+                    }
+                }
+            }
+        }
+
+        log.info("Exported {} transactions of {} accounts in {} ms", rows, pending.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ExportFile exportToFile(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                    ExportFormat format) throws IOException {
+        Path path = Files.createTempFile(tempDirectory, "export-", ".gz");
+        try {
+            CRC32 crc = new CRC32();
+            long rows;
+            try (OutputStream out = new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE), crc)) {
+                rows = exportAccount(accountNumber, from, to, format, out);
+            }
+            return new ExportFile(accountNumber, path, Files.size(path), crc.getValue(), rows);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static ExportFile take(CompletionService<ExportFile> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Export interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new RuntimeException("Export failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void writeJsonRow(JsonGenerator json, String accountNumber, Transaction transaction) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", transaction.getId());
+        json.writeStringField("transactionId", transaction.getTransactionId());
+        json.writeStringField("direction", direction(accountNumber, transaction));
+        json.writeStringField("fromAccountNumber", transaction.getFromAccountNumber());
+        json.writeStringField("toAccountNumber", transaction.getToAccountNumber());
+        json.writeNumberField("amount", transaction.getAmount());
+        json.writeStringField("currency", transaction.getCurrency());
+        json.writeStringField("transactionType", transaction.getTransactionType());
+        json.writeStringField("status", transaction.getStatus());
+        json.writeStringField("description", transaction.getDescription());
+        json.writeStringField("transactionDate", transaction.getTransactionDate().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsvRow(Writer writer, String accountNumber, Transaction transaction) throws IOException {
+        writer.write(Long.toString(transaction.getId()));
+        writer.write(',');
+        writer.write(csv(transaction.getTransactionId()));
+        writer.write(',');
+        writer.write(direction(accountNumber, transaction));
+        writer.write(',');
+        writer.write(csv(transaction.getFromAccountNumber()));
+        writer.write(',');
+        writer.write(csv(transaction.getToAccountNumber()));
+        writer.write(',');
+        writer.write(transaction.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(csv(transaction.getCurrency()));
+        writer.write(',');
+        writer.write(csv(transaction.getTransactionType()));
+        writer.write(',');
+        writer.write(csv(transaction.getStatus()));
+        writer.write(',');
+        writer.write(csv(transaction.getDescription()));
+        writer.write(',');
+        writer.write(transaction.getTransactionDate().toString());
+        writer.write('\n');
+    }
+
+    private static String direction(String accountNumber, Transaction transaction) {
+        return accountNumber.equals(transaction.getFromAccountNumber()) ? "DEBIT" : "CREDIT";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record ExportFile(String accountNumber, Path path, long size, long crc, long rows) {
+    }
+}
@@ -0,0 +1,324 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.model.DailyTransactionRollup;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.repository.DailyTransactionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps {@link DailyTransactionRollup} rows in step with the transactions table. Each
+ * transaction adds to a DEBIT row of the source account and a CREDIT row of the target
+ * account; status changes move its amount between the completed and failed figures. The
+ * updates run in the caller's database transaction, so rollups commit together with the
+ * transaction that produced them.
+ * <p>
+ * Writers and rebuilds of the same day are serialized by a striped lock per day: a writer holds
+ * the read lock of the transaction's day until its database transaction completes, and a rebuild
+ * holds the write locks of the days it recomputes until the rebuilt rollups are committed. The
+ * lock is per instance, so rebuilds must run on an instance that takes all writes or while the
+ * other instances are stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupService {
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int FAILED = 2;
+    private static final int DAY_LOCK_STRIPES = 64;
+
+    private static final String KEY_CONDITION = " WHERE account_number = ? AND rollup_date = ? AND currency = ? "
+            + "AND transaction_type = ? AND direction = ?";
+
+    private static final String ADD_TRANSACTION_SQL =
+            "UPDATE daily_transaction_rollups SET transaction_count = transaction_count + 1, "
+                    + "total_amount = total_amount + ?, min_amount = LEAST(min_amount, ?), "
+                    + "max_amount = GREATEST(max_amount, ?), completed_count = completed_count + ?, "
+                    + "completed_amount = completed_amount + ?, failed_count = failed_count + ?, "
+                    + "failed_amount = failed_amount + ?" + KEY_CONDITION;
+
+    private static final String INSERT_ROLLUP_SQL =
+            "INSERT INTO daily_transaction_rollups (account_number, rollup_date, currency, transaction_type, "
+                    + "direction, transaction_count, total_amount, min_amount, max_amount, completed_count, "
+                    + "completed_amount, failed_count, failed_amount) VALUES (?, ?, ?, ?, ?, 1, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CHANGE_STATUS_SQL =
+            "UPDATE daily_transaction_rollups SET completed_count = completed_count + ?, "
+                    + "completed_amount = completed_amount + ?, failed_count = failed_count + ?, "
+                    + "failed_amount = failed_amount + ?" + KEY_CONDITION;
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM daily_transaction_rollups WHERE rollup_date >= ? AND rollup_date < ?";
+
+    private static final String REBUILD_SIDE_SQL =
+            "SELECT %s, CAST(transaction_date AS DATE), currency, transaction_type, '%s', COUNT(*), SUM(amount), "
+                    + "MIN(amount), MAX(amount), "
+                    + "SUM(CASE WHEN UPPER(status) = 'COMPLETED' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN UPPER(status) = 'COMPLETED' THEN amount ELSE 0 END), "
+                    + "SUM(CASE WHEN UPPER(status) = 'FAILED' THEN 1 ELSE 0 END), "
+                    + "SUM(CASE WHEN UPPER(status) = 'FAILED' THEN amount ELSE 0 END) "
+                    + "FROM transactions WHERE transaction_date >= ? AND transaction_date < ? "
+                    + "GROUP BY %s, CAST(transaction_date AS DATE), currency, transaction_type";
+
+    private static final String REBUILD_RANGE_SQL =
+            "INSERT INTO daily_transaction_rollups (account_number, rollup_date, currency, transaction_type, "
+                    + "direction, transaction_count, total_amount, min_amount, max_amount, completed_count, "
+                    + "completed_amount, failed_count, failed_amount) "
+                    + String.format(REBUILD_SIDE_SQL, "from_account_number", "DEBIT", "from_account_number")
+                    + " UNION ALL "
+                    + String.format(REBUILD_SIDE_SQL, "to_account_number", "CREDIT", "to_account_number");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailyTransactionRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+    private final ReadWriteLock[] dayLocks = newDayLocks();
+
+    @Value("${banking.rollup.rebuild-parallelism:4}")
+    private int rebuildParallelism;
+
+    @Value("${banking.rollup.rebuild-chunk-days:7}")
+    private int rebuildChunkDays;
+
+    @Value("${banking.rollup.rebuild-lock-wait-ms:30000}")
+    private long rebuildLockWaitMs;
+
+    @Transactional
+    public void recordCreated(Transaction transaction) {
+        lockDayForWrite(transaction.getTransactionDate().toLocalDate());
+        addTransaction(transaction, transaction.getFromAccountNumber(), "DEBIT");
+        addTransaction(transaction, transaction.getToAccountNumber(), "CREDIT");
+    }
+
+    @Transactional
+    public void recordStatusChange(Transaction transaction, String previousStatus) {
+        int before = bucket(previousStatus);
+        int after = bucket(transaction.getStatus());
+        if (before == after) {
+            return;
+        }
+        // Transactions older than the rollups have no row to adjust; a rebuild picks them up
+        lockDayForWrite(transaction.getTransactionDate().toLocalDate());
+        BigDecimal amount = transaction.getAmount();
+        long completedCount = (after == COMPLETED ? 1 : 0) - (before == COMPLETED ? 1 : 0);
+        long failedCount = (after == FAILED ? 1 : 0) - (before == FAILED ? 1 : 0);
+        for (String direction : new String[]{"DEBIT", "CREDIT"}) {
+            String accountNumber = "DEBIT".equals(direction)
+                    ? transaction.getFromAccountNumber() : transaction.getToAccountNumber();
+            jdbcTemplate.update(CHANGE_STATUS_SQL,
+                    completedCount, amount.multiply(BigDecimal.valueOf(completedCount)),
+                    failedCount, amount.multiply(BigDecimal.valueOf(failedCount)),
+                    accountNumber, Date.valueOf(transaction.getTransactionDate().toLocalDate()),
+                    transaction.getCurrency(), transaction.getTransactionType(), direction);
+        }
+    }
+
+    /**
+     * Daily figures of an account with {@code from} inclusive and {@code to} exclusive; the
+     * cost depends on the number of days in the range, not on the number of transactions.
+     */
+    public List<DailyTransactionRollup> getSummary(String accountNumber, String from, String to,
+                                                   String currency, String transactionType) {
+        return rollupRepository.findSummary(accountNumber, parseDate(from), parseDate(to), currency, transactionType);
+    }
+
+    /**
+     * Recomputes the rollups of [from, to) from the transactions table, splitting the range
+     * into chunks of {@code banking.rollup.rebuild-chunk-days} that are rebuilt in parallel,
+     * each in its own database transaction. Without bounds the whole history is rebuilt.
+     * Each chunk waits for in-flight writes of its days to commit and holds off new ones until
+     * it has committed; it fails if the writes do not complete within
+     * {@code banking.rollup.rebuild-lock-wait-ms}.
+     */
+    public int rebuild(String from, String to) {
+        if (environment.acceptsProfiles(Profiles.of("journal"))) {
+            throw new RuntimeException("Rollups cannot be rebuilt while transactions are stored in the journal");
+        }
+        long startTime = System.currentTimeMillis();
+
+        LocalDateTime[] bounds = jdbcTemplate.queryForObject(
+                "SELECT MIN(transaction_date), MAX(transaction_date) FROM transactions",
+                (rs, rowNum) -> new LocalDateTime[]{
+                        rs.getObject(1, LocalDateTime.class), rs.getObject(2, LocalDateTime.class)});
+        LocalDate start = from != null ? parseDate(from)
+                : bounds[0] == null ? null : bounds[0].toLocalDate();
+        LocalDate end = to != null ? parseDate(to)
+                : bounds[1] == null ? null : bounds[1].toLocalDate().plusDays(1);
+        if (start == null || end == null) {
+            // No transactions to rebuild from
+            if (from == null && to == null) {
+                jdbcTemplate.update("DELETE FROM daily_transaction_rollups");
+            }
+            return 0;
+        }
+
+        List<LocalDate[]> chunks = new ArrayList<>();
+        for (LocalDate chunkStart = start; chunkStart.isBefore(end); ) {
+            LocalDate chunkEnd = chunkStart.plusDays(Math.max(1, rebuildChunkDays));
+            chunks.add(new LocalDate[]{chunkStart, chunkEnd.isAfter(end) ? end : chunkEnd});
+            chunkStart = chunkEnd;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(rebuildParallelism, chunks.size())));
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (LocalDate[] chunk : chunks) {
+                results.add(executor.submit(() -> rebuildRange(chunk[0], chunk[1])));
+            }
+            int rows = 0;
+            for (Future<Integer> result : results) {
+                rows += result.get();
+            }
+            log.info("Rebuilt {} transaction rollups for {} to {} in {} chunks in {} ms", rows, start, end,
+                    chunks.size(), System.currentTimeMillis() - startTime);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rollup rebuild interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int rebuildRange(LocalDate start, LocalDate end) {
+        List<Lock> locks = lockDaysForRebuild(start, end);
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(DELETE_RANGE_SQL, Date.valueOf(start), Date.valueOf(end));
+                Timestamp from = Timestamp.valueOf(start.atStartOfDay());
+                Timestamp to = Timestamp.valueOf(end.atStartOfDay());
+                return jdbcTemplate.update(REBUILD_RANGE_SQL, from, to, from, to);
+            });
+            log.debug("Rebuilt {} transaction rollups for {} to {}", rows, start, end);
+            return rows == null ? 0 : rows;
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    // Held until the caller's database transaction completes, so a rebuild sees either all or none of it
+    private void lockDayForWrite(LocalDate day) {
+        Lock lock = dayLocks[stripe(day)].readLock();
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    // Stripes are taken in ascending order so concurrent chunks cannot deadlock each other
+    private List<Lock> lockDaysForRebuild(LocalDate start, LocalDate end) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        long days = Math.min(ChronoUnit.DAYS.between(start, end), DAY_LOCK_STRIPES);
+        for (int i = 0; i < days; i++) {
+            stripes.add(stripe(start.plusDays(i)));
+        }
+        List<Lock> locks = new ArrayList<>();
+        try {
+            for (int stripe : stripes) {
+                Lock lock = dayLocks[stripe].writeLock();
+                if (!lock.tryLock(rebuildLockWaitMs, TimeUnit.MILLISECONDS)) {
+                    throw new RuntimeException("Timed out waiting for writes to " + start + " to " + end
+                            + " to complete");
+                }
+                locks.add(lock);
+            }
+            return locks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            locks.forEach(Lock::unlock);
+            throw new RuntimeException("Rollup rebuild interrupted");
+        } catch (RuntimeException e) {
+            locks.forEach(Lock::unlock);
+            throw e;
+        }
+    }
+
+    private static int stripe(LocalDate day) {
+        return Math.floorMod(day.toEpochDay(), DAY_LOCK_STRIPES);
+    }
+
+    private static ReadWriteLock[] newDayLocks() {
+        ReadWriteLock[] locks = new ReadWriteLock[DAY_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        return locks;
+    }
+
+    private void addTransaction(Transaction transaction, String accountNumber, String direction) {
+        BigDecimal amount = transaction.getAmount();
+        int bucket = bucket(transaction.getStatus());
+        long completedCount = bucket == COMPLETED ? 1 : 0;
+        long failedCount = bucket == FAILED ? 1 : 0;
+        BigDecimal completedAmount = bucket == COMPLETED ? amount : BigDecimal.ZERO;
+        BigDecimal failedAmount = bucket == FAILED ? amount : BigDecimal.ZERO;
+        Date rollupDate = Date.valueOf(transaction.getTransactionDate().toLocalDate());
+
+        int updated = jdbcTemplate.update(ADD_TRANSACTION_SQL, amount, amount, amount,
+                completedCount, completedAmount, failedCount, failedAmount,
+                accountNumber, rollupDate, transaction.getCurrency(), transaction.getTransactionType(), direction);
+        if (updated > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERT_ROLLUP_SQL, accountNumber, rollupDate, transaction.getCurrency(),
+                    transaction.getTransactionType(), direction, amount, amount, amount,
+                    completedCount, completedAmount, failedCount, failedAmount);
+        } catch (DuplicateKeyException e) {
+            // Another transaction created the row first
+            jdbcTemplate.update(ADD_TRANSACTION_SQL, amount, amount, amount,
+                    completedCount, completedAmount, failedCount, failedAmount,
+                    accountNumber, rollupDate, transaction.getCurrency(), transaction.getTransactionType(), direction);
+        }
+    }
+
+    private static int bucket(String status) {
+        if ("COMPLETED".equalsIgnoreCase(status)) {
+            return COMPLETED;
+        }
+        return "FAILED".equalsIgnoreCase(status) ? FAILED : PENDING;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date: " + value);
+        }
+    }
+}
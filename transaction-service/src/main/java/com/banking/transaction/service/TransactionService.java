@@ -1,31 +1,88 @@
 package com.banking.transaction.service;
 
+import com.banking.transaction.dto.AccountProjectionStatus;
+import com.banking.transaction.dto.Connection;
 import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.idempotency.IdempotencyKeyStore;
 import com.banking.transaction.kafka.TransactionEventProducer;
+import com.banking.transaction.kafka.event.TransactionCompletedEvent;
+import com.banking.transaction.kafka.event.TransactionCreatedEvent;
+import com.banking.transaction.kafka.event.TransactionFailedEvent;
 import com.banking.transaction.model.Transaction;
-import com.banking.transaction.repository.TransactionRepository;
+import com.banking.transaction.projection.AccountProjection;
+import com.banking.transaction.store.TransactionStore;
+import com.banking.transaction.velocity.VelocityLimiter;
+import com.banking.common.id.SnowflakeIdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
-    private final TransactionRepository transactionRepository;
+    static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    // Counterparty outside the bank; deposits from it are not debits of any account here
+    public static final String EXTERNAL_ACCOUNT = "EXTERNAL";
+
+    private final TransactionStore transactionStore;
     private final TransactionEventProducer eventProducer;
+    private final SnowflakeIdGenerator idGenerator;
+    private final AccountProjection accountProjection;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRollupService rollupService;
+    private final VelocityLimiter velocityLimiter;
 
-    @Transactional
     public Transaction createTransaction(TransactionInput input) {
         log.info("Creating transaction from {} to {}", input.getFromAccountNumber(), input.getToAccountNumber());
 
+        String idempotencyKey = input.getIdempotencyKey();
+        if (idempotencyKey != null) {
+            long id = idempotencyKeyStore.get(idempotencyKey);
+            if (id != IdempotencyKeyStore.ABSENT) {
+                log.info("Returning transaction {} for repeated idempotency key {}", id, idempotencyKey);
+                return getTransactionById(id);
+            }
+        }
+
+        long velocityAcquiredAt = VelocityLimiter.NOT_ACQUIRED;
+        try {
+            validateAgainstProjection(input);
+            if (!EXTERNAL_ACCOUNT.equals(input.getFromAccountNumber())) {
+                velocityAcquiredAt = velocityLimiter.acquire(input.getFromAccountNumber(), input.getAmount());
+            }
+            Transaction savedTransaction = transactionTemplate.execute(status -> insertTransaction(input));
+            if (idempotencyKey != null) {
+                idempotencyKeyStore.put(idempotencyKey, savedTransaction.getId());
+            }
+            return savedTransaction;
+        } catch (RuntimeException e) {
+            velocityLimiter.release(input.getFromAccountNumber(), input.getAmount(), velocityAcquiredAt);
+            // Retries older than the in-memory window are recognised by the unique key column,
+            // either as a duplicate insert or as a rejection caused by the original transfer
+            Transaction original = idempotencyKey == null
+                    ? null
+                    : transactionStore.findByIdempotencyKey(idempotencyKey).orElse(null);
+            if (original == null) {
+                throw e;
+            }
+            log.info("Returning transaction {} for repeated idempotency key {}", original.getId(), idempotencyKey);
+            idempotencyKeyStore.put(idempotencyKey, original.getId());
+            return original;
+        }
+    }
+
+    private Transaction insertTransaction(TransactionInput input) {
         Transaction transaction = Transaction.builder()
                 .transactionId(generateTransactionId())
                 .fromAccountNumber(input.getFromAccountNumber())
@@ -35,46 +92,110 @@ public class TransactionService {
                 .transactionType(input.getTransactionType())
                 .status("PENDING")
                 .description(input.getDescription())
+                .idempotencyKey(input.getIdempotencyKey())
                 .build();
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionStore.save(transaction);
+        rollupService.recordCreated(savedTransaction);
 
         // Send Kafka event with dynamic values
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("transactionId", savedTransaction.getTransactionId());
-        eventData.put("fromAccountNumber", savedTransaction.getFromAccountNumber());
-        eventData.put("toAccountNumber", savedTransaction.getToAccountNumber());
-        eventData.put("amount", savedTransaction.getAmount());
-        eventData.put("currency", savedTransaction.getCurrency());
-        eventData.put("transactionType", savedTransaction.getTransactionType());
-        eventData.put("status", savedTransaction.getStatus());
-        eventData.put("description", savedTransaction.getDescription());
-        eventData.put("transactionDate", savedTransaction.getTransactionDate().toString());
-        eventProducer.sendTransactionCreatedEvent(eventData);
+        eventProducer.sendTransactionCreatedEvent(new TransactionCreatedEvent(savedTransaction.getTransactionId(),
+                savedTransaction.getFromAccountNumber(), savedTransaction.getToAccountNumber(),
+                savedTransaction.getAmount(), savedTransaction.getCurrency(), savedTransaction.getTransactionType(),
+                savedTransaction.getStatus(), savedTransaction.getDescription(),
+                savedTransaction.getTransactionDate()));
 
         return savedTransaction;
     }
 
     public Transaction getTransactionById(Long id) {
-        return transactionRepository.findById(id)
+        return transactionStore.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
     }
 
     public Transaction getTransactionByTransactionId(String transactionId) {
-        return transactionRepository.findByTransactionId(transactionId)
+        return transactionStore.findByTransactionId(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with transactionId: " + transactionId));
     }
 
     public List<Transaction> getTransactionsByFromAccount(String fromAccountNumber) {
-        return transactionRepository.findByFromAccountNumber(fromAccountNumber);
+        return transactionStore.findByFromAccountNumber(fromAccountNumber);
     }
 
     public List<Transaction> getTransactionsByToAccount(String toAccountNumber) {
-        return transactionRepository.findByToAccountNumber(toAccountNumber);
+        return transactionStore.findByToAccountNumber(toAccountNumber);
+    }
+
+    public List<Transaction> getRecentTransactionsByFromAccounts(List<String> fromAccountNumbers, Integer limit) {
+        int perAccount = limit == null ? Connection.DEFAULT_PAGE_SIZE : Math.min(limit, Connection.MAX_PAGE_SIZE);
+        return transactionStore.findRecentByFromAccountNumberIn(fromAccountNumbers, perAccount);
     }
 
     public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+        return transactionStore.findAll();
+    }
+
+    public Connection<Transaction> getTransactionsPage(Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        List<Transaction> rows = transactionStore.findPageAfter(
+                Connection.afterId(after), pageSize + 1);
+        return toConnection(rows, pageSize, after);
+    }
+
+    public Connection<Transaction> getTransactionsPageByFromAccount(String fromAccountNumber, Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        List<Transaction> rows = transactionStore.findPageByFromAccountNumberAfter(
+                fromAccountNumber, Connection.afterId(after), pageSize + 1);
+        return toConnection(rows, pageSize, after);
+    }
+
+    public Connection<Transaction> getTransactionsPageByToAccount(String toAccountNumber, Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        List<Transaction> rows = transactionStore.findPageByToAccountNumberAfter(
+                toAccountNumber, Connection.afterId(after), pageSize + 1);
+        return toConnection(rows, pageSize, after);
+    }
+
+    /**
+     * Incoming and outgoing transactions of an account, newest first, with {@code from}
+     * inclusive and {@code to} exclusive. Pages are keyed on (transaction date, id), so a page
+     * costs the same regardless of how long the history is.
+     */
+    public Connection<Transaction> getTransactionsPageForAccount(String accountNumber, String from, String to,
+                                                                 Integer first, String after) {
+        int pageSize = Connection.pageSize(first);
+        LocalDateTime fromDate = from == null ? HISTORY_START : parseDateTime(from);
+        LocalDateTime beforeDate = to == null ? HISTORY_END : parseDateTime(to);
+        long beforeId = Long.MIN_VALUE;
+        if (after != null) {
+            String[] cursor = Connection.decodeCursor(after).split("\\|", 2);
+            try {
+                LocalDateTime cursorDate = LocalDateTime.parse(cursor[0]);
+                if (cursorDate.isBefore(beforeDate)) {
+                    beforeDate = cursorDate;
+                    beforeId = Long.parseLong(cursor[1]);
+                }
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor: " + after);
+            }
+        }
+
+        List<Transaction> rows = transactionStore.findPageByAccountNumberBefore(
+                accountNumber, fromDate, beforeDate, beforeId, pageSize + 1);
+        return Connection.of(rows, pageSize, after != null, transaction -> Connection.encodeCursor(
+                transaction.getTransactionDate() + "|" + transaction.getId()));
+    }
+
+    static LocalDateTime parseDateTime(String value) {
+        try {
+            return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date-time: " + value);
+        }
+    }
+
+    private Connection<Transaction> toConnection(List<Transaction> rows, int pageSize, String after) {
+        return Connection.of(rows, pageSize, after != null, transaction -> Connection.idCursor(transaction.getId()));
     }
 
     @Transactional
@@ -82,28 +203,70 @@ public class TransactionService {
         log.info("Updating transaction status: {} to {}", transactionId, status);
 
         Transaction transaction = getTransactionByTransactionId(transactionId);
+        String previousStatus = transaction.getStatus();
         transaction.setStatus(status);
-        Transaction updatedTransaction = transactionRepository.save(transaction);
+        Transaction updatedTransaction = transactionStore.save(transaction);
+        rollupService.recordStatusChange(updatedTransaction, previousStatus);
 
         // Send appropriate Kafka event based on status
-        Map<String, Object> eventData = new HashMap<>();
-        eventData.put("transactionId", updatedTransaction.getTransactionId());
-        eventData.put("fromAccountNumber", updatedTransaction.getFromAccountNumber());
-        eventData.put("toAccountNumber", updatedTransaction.getToAccountNumber());
-        eventData.put("amount", updatedTransaction.getAmount());
-        eventData.put("status", updatedTransaction.getStatus());
-        eventData.put("updatedAt", LocalDateTime.now().toString());
-
         if ("COMPLETED".equalsIgnoreCase(status)) {
-            eventProducer.sendTransactionCompletedEvent(eventData);
+            eventProducer.sendTransactionCompletedEvent(new TransactionCompletedEvent(
+                    updatedTransaction.getTransactionId(), updatedTransaction.getFromAccountNumber(),
+                    updatedTransaction.getToAccountNumber(), updatedTransaction.getAmount(),
+                    updatedTransaction.getStatus(), LocalDateTime.now()));
         } else if ("FAILED".equalsIgnoreCase(status)) {
-            eventProducer.sendTransactionFailedEvent(eventData);
+            eventProducer.sendTransactionFailedEvent(new TransactionFailedEvent(
+                    updatedTransaction.getTransactionId(), updatedTransaction.getFromAccountNumber(),
+                    updatedTransaction.getToAccountNumber(), updatedTransaction.getAmount(),
+                    updatedTransaction.getStatus(), LocalDateTime.now()));
         }
 
         return updatedTransaction;
     }
 
+    /**
+     * Records the outcome reported by account-service for a transfer. Outcomes for
+     * transactions that are no longer pending (e.g. redelivered events) are ignored.
+     */
+    @Transactional
+    public void completeTransfer(String transactionId, String status, String reason) {
+        Transaction transaction = getTransactionByTransactionId(transactionId);
+        if (!"PENDING".equals(transaction.getStatus())) {
+            log.debug("Ignoring {} outcome for transaction {} in status {}", status, transactionId, transaction.getStatus());
+            return;
+        }
+        updateTransactionStatus(transactionId, status);
+        log.info("Transfer {} {} after {} ms{}", transactionId, status,
+                Duration.between(transaction.getTransactionDate(), LocalDateTime.now()).toMillis(),
+                reason == null ? "" : ": " + reason);
+    }
+
+    public AccountProjectionStatus getAccountProjectionStatus() {
+        return AccountProjectionStatus.builder()
+                .enabled(accountProjection.isEnabled())
+                .accounts(accountProjection.getAccountCount())
+                .lag(accountProjection.getLag())
+                .snapshotAt(accountProjection.getSnapshotAt())
+                .build();
+    }
+
+    /**
+     * Rejects transfers the local account projection already knows will fail. Accounts the
+     * projection has not seen yet (or external counterparties) are left to account-service.
+     */
+    private void validateAgainstProjection(TransactionInput input) {
+        if (!accountProjection.isEnabled()) {
+            return;
+        }
+        if (accountProjection.check(input.getFromAccountNumber()) == AccountProjection.Check.INACTIVE) {
+            throw new RuntimeException("Account is not active: " + input.getFromAccountNumber());
+        }
+        if (accountProjection.check(input.getToAccountNumber()) == AccountProjection.Check.INACTIVE) {
+            throw new RuntimeException("Account is not active: " + input.getToAccountNumber());
+        }
+    }
+
     private String generateTransactionId() {
-        return "TXN" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        return idGenerator.nextId("TXN");
     }
 }
@@ -0,0 +1,58 @@
+package com.banking.transaction.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped journal file. The active segment is mapped read-write at its full,
+ * preallocated size; sealed segments only ever change by being replaced with a compacted copy.
+ */
+final class JournalSegment {
+    final Path path;
+    MappedByteBuffer buffer;
+    int writePosition;
+    // Bytes of status records that are superseded or can be folded into a created record
+    long reclaimableBytes;
+
+    private JournalSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(Path path, int capacity, boolean writable) throws IOException {
+        return new JournalSegment(path, map(path, capacity, writable));
+    }
+
+    void remap() throws IOException {
+        buffer = map(path, 0, false);
+        writePosition = buffer.capacity();
+    }
+
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    int append(ByteBuffer record, boolean force) {
+        int offset = writePosition;
+        int length = record.remaining();
+        buffer.put(offset, record, record.position(), length);
+        if (force) {
+            buffer.force(offset, length);
+        }
+        writePosition += length;
+        return offset;
+    }
+
+    private static MappedByteBuffer map(Path path, int capacity, boolean writable) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = writable ? Math.max(capacity, channel.size()) : channel.size();
+            return channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+}
@@ -0,0 +1,749 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.model.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only transaction store backed by memory-mapped segment files, enabled with the
+ * {@code journal} profile. Each transaction is one created record; status changes are appended
+ * as small status records instead of rewriting it. Records are framed as
+ * <pre>
+ *   int length | byte kind | long id | body | int crc32c(kind .. body)
+ * </pre>
+ * where the created body is a fixed-width block (transaction date and creation time in epoch
+ * microseconds, unscaled amount, scale) followed by the length-prefixed text fields, and the
+ * status body is the new status. A torn record at the end of the last segment is dropped on
+ * recovery.
+ * <p>
+ * All indexes (by ID, transaction ID, idempotency key and account number) are rebuilt in
+ * memory on startup; queries decode records straight from the mapped segments. Segments roll
+ * at {@code banking.journal.segment-size}; a sealed segment is rewritten once the share of
+ * superseded or foldable status records in it exceeds {@code banking.journal.compaction-ratio}.
+ * <p>
+ * The journal is not part of the database transaction: a transaction is durable once
+ * appended, even if the outbox write that follows it is rolled back.
+ */
+@Component
+@Profile("journal")
+@Slf4j
+public class JournalTransactionStore implements TransactionStore {
+    private static final byte CREATED = 1;
+    private static final byte STATUS = 2;
+    private static final int HEADER_SIZE = 4 + 1 + 8;
+    private static final int CRC_SIZE = 4;
+    private static final long NONE = -1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Value("${banking.journal.directory:data/journal}")
+    private Path directory;
+
+    @Value("${banking.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${banking.journal.force-on-append:true}")
+    private boolean forceOnAppend;
+
+    @Value("${banking.journal.compaction-ratio:0.25}")
+    private double compactionRatio;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final Map<String, Long> idsByTransactionId = new HashMap<>();
+    private final Map<String, Long> idsByIdempotencyKey = new HashMap<>();
+    private final Map<String, LongList> idsByFromAccount = new HashMap<>();
+    private final Map<String, LongList> idsByToAccount = new HashMap<>();
+    // Indexed by ID: segment ordinal << 32 | offset of the created record and of the latest status record
+    private long[] locations = new long[1024];
+    private long[] statusLocations = filled(1024);
+    // Indexed by ID: transaction date in epoch microseconds; never decreases with the ID
+    private long[] dates = new long[1024];
+    private long lastId;
+    private long lastDate;
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().matches(SEGMENT_PREFIX + "\\d{20}\\" + SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        for (int ordinal = 0; ordinal < paths.size(); ordinal++) {
+            boolean last = ordinal == paths.size() - 1;
+            JournalSegment segment = JournalSegment.open(paths.get(ordinal), segmentSize, last);
+            segments.add(segment);
+            replay(ordinal, segment, last);
+        }
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.open(segmentPath(0), segmentSize, true));
+        }
+        log.info("Recovered {} transactions from {} journal segments in {} ms", lastId, segments.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            active().buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        lock.writeLock().lock();
+        try {
+            return transaction.getId() == null ? insert(transaction) : updateStatus(transaction);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            return id == null || id < 1 || id > lastId ? Optional.empty() : Optional.of(read(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Transaction> findByTransactionId(String transactionId) {
+        return findByKey(idsByTransactionId, transactionId);
+    }
+
+    @Override
+    public Optional<Transaction> findByIdempotencyKey(String idempotencyKey) {
+        return findByKey(idsByIdempotencyKey, idempotencyKey);
+    }
+
+    @Override
+    public List<Transaction> findByFromAccountNumber(String fromAccountNumber) {
+        return findPageByFromAccountNumberAfter(fromAccountNumber, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> findByToAccountNumber(String toAccountNumber) {
+        return findPageByToAccountNumberAfter(toAccountNumber, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> findRecentByFromAccountNumberIn(Collection<String> fromAccountNumbers, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            for (String accountNumber : new LinkedHashSet<>(fromAccountNumbers)) {
+                LongList ids = idsByFromAccount.get(accountNumber);
+                if (ids == null) {
+                    continue;
+                }
+                for (int i = ids.size() - 1; i >= Math.max(0, ids.size() - limit); i--) {
+                    transactions.add(read(ids.get(i)));
+                }
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return findPageAfter(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Transaction> findPageAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Transaction> transactions = new ArrayList<>();
+            for (long id = Math.max(afterId, 0) + 1; id <= lastId && transactions.size() < limit; id++) {
+                transactions.add(read(id));
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> findPageByFromAccountNumberAfter(String fromAccountNumber, long afterId, int limit) {
+        return findPageAfter(idsByFromAccount, fromAccountNumber, afterId, limit);
+    }
+
+    @Override
+    public List<Transaction> findPageByToAccountNumberAfter(String toAccountNumber, long afterId, int limit) {
+        return findPageAfter(idsByToAccount, toAccountNumber, afterId, limit);
+    }
+
+    @Override
+    public List<Transaction> findPageByAccountNumberBefore(String accountNumber, LocalDateTime from,
+                                                           LocalDateTime beforeDate, long beforeId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongList outgoing = idsByFromAccount.getOrDefault(accountNumber, new LongList());
+            LongList incoming = idsByToAccount.getOrDefault(accountNumber, new LongList());
+            long fromMicros = toMicros(from);
+            long beforeMicros = toMicros(beforeDate);
+            int i = countBefore(outgoing, beforeMicros, beforeId) - 1;
+            int j = countBefore(incoming, beforeMicros, beforeId) - 1;
+
+            // Merge both directions newest first; a self-transfer is in both lists
+            List<Transaction> transactions = new ArrayList<>();
+            while (transactions.size() < limit && (i >= 0 || j >= 0)) {
+                long out = i >= 0 ? outgoing.get(i) : -1;
+                long in = j >= 0 ? incoming.get(j) : -1;
+                long id = Math.max(out, in);
+                if (id == out) {
+                    i--;
+                }
+                if (id == in) {
+                    j--;
+                }
+                if (dates[(int) id] < fromMicros) {
+                    break;
+                }
+                transactions.add(read(id));
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Transaction> streamByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new AccountHistoryIterator(accountNumber, toMicros(from), toMicros(to)), Spliterator.ORDERED), false);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.journal.flush-interval-ms:100}")
+    public void flush() {
+        if (forceOnAppend) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            active().buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.journal.compaction-interval-ms:60000}")
+    public void compact() {
+        for (int ordinal = 0; ; ordinal++) {
+            lock.writeLock().lock();
+            try {
+                if (ordinal >= segments.size() - 1) {
+                    return;
+                }
+                JournalSegment segment = segments.get(ordinal);
+                if (segment.reclaimableBytes > 0 && segment.reclaimableBytes >= segment.writePosition * compactionRatio) {
+                    compact(ordinal, segment);
+                }
+            } catch (IOException e) {
+                log.error("Failed to compact journal segment {}: {}", ordinal, e.getMessage());
+                return;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Transaction insert(Transaction transaction) throws IOException {
+        if (idsByTransactionId.containsKey(transaction.getTransactionId())) {
+            throw new DataIntegrityViolationException("Duplicate transaction id: " + transaction.getTransactionId());
+        }
+        if (transaction.getIdempotencyKey() != null && idsByIdempotencyKey.containsKey(transaction.getIdempotencyKey())) {
+            throw new DataIntegrityViolationException("Duplicate idempotency key: " + transaction.getIdempotencyKey());
+        }
+
+        // Dates never go backwards, so ID order is also date order
+        long date = Math.max(toMicros(LocalDateTime.now()), lastDate);
+        long id = lastId + 1;
+        transaction.setId(id);
+        transaction.setTransactionDate(fromMicros(date));
+        transaction.setCreatedAt(fromMicros(date));
+
+        long location = append(createdRecord(transaction));
+        index(id, location, date, transaction.getTransactionId(), transaction.getFromAccountNumber(),
+                transaction.getToAccountNumber(), transaction.getIdempotencyKey());
+        return transaction;
+    }
+
+    private Transaction updateStatus(Transaction transaction) throws IOException {
+        long id = transaction.getId();
+        if (id < 1 || id > lastId) {
+            throw new RuntimeException("Transaction not found with id: " + id);
+        }
+        ByteBuffer record = statusRecord(id, transaction.getStatus());
+        int length = record.remaining();
+        recordStatus(id, append(record), length);
+        return transaction;
+    }
+
+    private long append(ByteBuffer record) throws IOException {
+        if (record.remaining() > segmentSize) {
+            throw new RuntimeException("Transaction record of " + record.remaining() + " bytes exceeds the journal segment size");
+        }
+        JournalSegment segment = active();
+        if (record.remaining() > segment.remaining()) {
+            segment.buffer.force();
+            segment = JournalSegment.open(segmentPath(segments.size()), segmentSize, true);
+            segments.add(segment);
+        }
+        int offset = segment.append(record, forceOnAppend);
+        return location(segments.size() - 1, offset);
+    }
+
+    private void replay(int ordinal, JournalSegment segment, boolean last) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset < buffer.capacity()) {
+            int length = validLength(buffer, offset);
+            if (length < 0) {
+                // Segments are preallocated, so zeros mark the end of the data
+                boolean end = buffer.capacity() - offset < 4 || buffer.getInt(offset) == 0;
+                if (!end && !last) {
+                    throw new RuntimeException("Corrupt journal segment " + segment.path + " at offset " + offset);
+                }
+                if (!end) {
+                    // Clear the partial write so the segment reads cleanly once it is sealed
+                    log.warn("Dropping torn record at offset {} of journal segment {}", offset, segment.path);
+                    byte[] zeros = new byte[4096];
+                    for (int position = offset; position < buffer.capacity(); position += zeros.length) {
+                        buffer.put(position, zeros, 0, Math.min(zeros.length, buffer.capacity() - position));
+                    }
+                }
+                break;
+            }
+
+            ByteBuffer record = buffer.duplicate().position(offset + 4);
+            byte kind = record.get();
+            long id = record.getLong();
+            long location = location(ordinal, offset);
+            if (kind == CREATED) {
+                long date = record.getLong();
+                record.position(record.position() + 8 + 8 + 1);
+                String transactionId = getString(record);
+                String fromAccountNumber = getString(record);
+                String toAccountNumber = getString(record);
+                for (int skip = 0; skip < 4; skip++) {
+                    getString(record);
+                }
+                index(id, location, date, transactionId, fromAccountNumber, toAccountNumber, getString(record));
+            } else {
+                recordStatus(id, location, length);
+            }
+            offset += length;
+        }
+        segment.writePosition = offset;
+    }
+
+    private void index(long id, long location, long date, String transactionId, String fromAccountNumber,
+                       String toAccountNumber, String idempotencyKey) {
+        if (id >= locations.length) {
+            int capacity = (int) Math.max(id + 1, locations.length * 2L);
+            locations = Arrays.copyOf(locations, capacity);
+            dates = Arrays.copyOf(dates, capacity);
+            long[] grown = filled(capacity);
+            System.arraycopy(statusLocations, 0, grown, 0, statusLocations.length);
+            statusLocations = grown;
+        }
+        locations[(int) id] = location;
+        dates[(int) id] = date;
+        idsByTransactionId.put(transactionId, id);
+        if (idempotencyKey != null) {
+            idsByIdempotencyKey.put(idempotencyKey, id);
+        }
+        idsByFromAccount.computeIfAbsent(fromAccountNumber, key -> new LongList()).add(id);
+        idsByToAccount.computeIfAbsent(toAccountNumber, key -> new LongList()).add(id);
+        lastId = Math.max(lastId, id);
+        lastDate = Math.max(lastDate, date);
+    }
+
+    /**
+     * Makes the status record at the location the latest one of the transaction, and accounts
+     * for the bytes compaction can now reclaim: the record it supersedes, and the new record
+     * itself if it sits in the same segment as the created record it will be folded into.
+     */
+    private void recordStatus(long id, long location, int length) {
+        int createdSegment = segmentOf(locations[(int) id]);
+        long previous = statusLocations[(int) id];
+        if (previous != NONE && segmentOf(previous) != createdSegment) {
+            segments.get(segmentOf(previous)).reclaimableBytes += recordAt(previous, 0).getInt();
+        }
+        if (segmentOf(location) == createdSegment) {
+            segments.get(createdSegment).reclaimableBytes += length;
+        }
+        statusLocations[(int) id] = location;
+    }
+
+    /**
+     * Rewrites a sealed segment without the status records it no longer needs: records that
+     * were superseded, and the latest status of transactions created in the same segment,
+     * which is folded into their created record. The result is never larger than the input.
+     */
+    private void compact(int ordinal, JournalSegment segment) throws IOException {
+        ByteBuffer source = segment.buffer;
+        ByteBuffer target = ByteBuffer.allocate(segment.writePosition);
+        LongList createdMoves = new LongList();
+        LongList statusMoves = new LongList();
+        LongList folded = new LongList();
+
+        for (int offset = 0; offset < segment.writePosition; ) {
+            int length = source.getInt(offset);
+            byte kind = source.get(offset + 4);
+            long id = source.getLong(offset + 5);
+            long statusLocation = statusLocations[(int) id];
+            if (kind == CREATED) {
+                createdMoves.add(id);
+                createdMoves.add(target.position());
+                if (statusLocation != NONE && segmentOf(statusLocation) == ordinal) {
+                    folded.add(id);
+                    target.put(createdRecord(read(id)));
+                } else {
+                    target.put(source.slice(offset, length));
+                }
+            } else if (statusLocation == location(ordinal, offset) && segmentOf(locations[(int) id]) != ordinal) {
+                statusMoves.add(id);
+                statusMoves.add(target.position());
+                target.put(source.slice(offset, length));
+            }
+            offset += length;
+        }
+
+        Path compacted = segment.path.resolveSibling(segment.path.getFileName() + ".compact");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            target.flip();
+            while (target.hasRemaining()) {
+                channel.write(target);
+            }
+            channel.force(true);
+        }
+        Files.move(compacted, segment.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        int before = segment.writePosition;
+        segment.remap();
+        segment.reclaimableBytes = 0;
+
+        for (int i = 0; i < createdMoves.size(); i += 2) {
+            locations[(int) createdMoves.get(i)] = location(ordinal, (int) createdMoves.get(i + 1));
+        }
+        for (int i = 0; i < statusMoves.size(); i += 2) {
+            statusLocations[(int) statusMoves.get(i)] = location(ordinal, (int) statusMoves.get(i + 1));
+        }
+        for (int i = 0; i < folded.size(); i++) {
+            statusLocations[(int) folded.get(i)] = NONE;
+        }
+        log.info("Compacted journal segment {} from {} to {} bytes", segment.path.getFileName(), before,
+                segment.writePosition);
+    }
+
+    private Optional<Transaction> findByKey(Map<String, Long> index, String key) {
+        lock.readLock().lock();
+        try {
+            Long id = index.get(key);
+            return id == null ? Optional.empty() : Optional.of(read(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Transaction> findPageAfter(Map<String, LongList> index, String accountNumber, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongList ids = index.get(accountNumber);
+            List<Transaction> transactions = new ArrayList<>();
+            if (ids != null) {
+                for (int i = ids.upperBound(afterId); i < ids.size() && transactions.size() < limit; i++) {
+                    transactions.add(read(ids.get(i)));
+                }
+            }
+            return transactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of leading IDs that sort below (beforeDate, beforeId), relying on dates rising with IDs
+    private int countBefore(LongList ids, long beforeDate, long beforeId) {
+        int low = 0;
+        int high = ids.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long id = ids.get(mid);
+            long date = dates[(int) id];
+            if (date < beforeDate || (date == beforeDate && id < beforeId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Transaction read(long id) {
+        ByteBuffer record = recordAt(locations[(int) id], HEADER_SIZE);
+        LocalDateTime transactionDate = fromMicros(record.getLong());
+        LocalDateTime createdAt = fromMicros(record.getLong());
+        long unscaledAmount = record.getLong();
+        int scale = record.get();
+        Transaction transaction = Transaction.builder()
+                .id(id)
+                .transactionDate(transactionDate)
+                .createdAt(createdAt)
+                .amount(BigDecimal.valueOf(unscaledAmount, scale))
+                .transactionId(getString(record))
+                .fromAccountNumber(getString(record))
+                .toAccountNumber(getString(record))
+                .currency(getString(record))
+                .transactionType(getString(record))
+                .status(getString(record))
+                .description(getString(record))
+                .idempotencyKey(getString(record))
+                .build();
+
+        long statusLocation = statusLocations[(int) id];
+        if (statusLocation != NONE) {
+            transaction.setStatus(getString(recordAt(statusLocation, HEADER_SIZE)));
+        }
+        return transaction;
+    }
+
+    private ByteBuffer recordAt(long location, int skip) {
+        return segments.get(segmentOf(location)).buffer.duplicate().position((int) location + skip);
+    }
+
+    private static ByteBuffer createdRecord(Transaction transaction) {
+        BigDecimal amount = transaction.getAmount();
+        BigInteger unscaledAmount = amount.unscaledValue();
+        if (unscaledAmount.bitLength() > 63 || amount.scale() != (byte) amount.scale()) {
+            throw new RuntimeException("Amount cannot be stored in the journal: " + amount);
+        }
+        byte[][] fields = {
+                utf8(transaction.getTransactionId()), utf8(transaction.getFromAccountNumber()),
+                utf8(transaction.getToAccountNumber()), utf8(transaction.getCurrency()),
+                utf8(transaction.getTransactionType()), utf8(transaction.getStatus()),
+                utf8(transaction.getDescription()), utf8(transaction.getIdempotencyKey())
+        };
+        int length = HEADER_SIZE + 8 + 8 + 8 + 1 + CRC_SIZE;
+        for (byte[] field : fields) {
+            length += 2 + (field == null ? 0 : field.length);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length).put(CREATED).putLong(transaction.getId())
+                .putLong(toMicros(transaction.getTransactionDate()))
+                .putLong(toMicros(transaction.getCreatedAt()))
+                .putLong(unscaledAmount.longValue())
+                .put((byte) amount.scale());
+        for (byte[] field : fields) {
+            putString(record, field);
+        }
+        return seal(record);
+    }
+
+    private static ByteBuffer statusRecord(long id, String status) {
+        byte[] field = utf8(status);
+        int length = HEADER_SIZE + 2 + (field == null ? 0 : field.length) + CRC_SIZE;
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length).put(STATUS).putLong(id);
+        putString(record, field);
+        return seal(record);
+    }
+
+    private static ByteBuffer seal(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), 4, record.position() - 4);
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    // Length of the valid record at the offset, or -1 if there is none (end of data or a torn write)
+    private static int validLength(ByteBuffer buffer, int offset) {
+        if (buffer.capacity() - offset < HEADER_SIZE + CRC_SIZE) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        byte kind = buffer.get(offset + 4);
+        if (length < HEADER_SIZE + CRC_SIZE || length > buffer.capacity() - offset || (kind != CREATED && kind != STATUS)) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, length - 4 - CRC_SIZE));
+        return (int) crc.getValue() == buffer.getInt(offset + length - CRC_SIZE) ? length : -1;
+    }
+
+    private static void putString(ByteBuffer record, byte[] field) {
+        if (field == null) {
+            record.putShort((short) -1);
+            return;
+        }
+        record.putShort((short) field.length).put(field);
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new RuntimeException("Field of " + bytes.length + " bytes is too long for the journal");
+        }
+        return bytes;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static long location(int ordinal, int offset) {
+        return (long) ordinal << 32 | offset;
+    }
+
+    private static int segmentOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static long[] filled(int capacity) {
+        long[] values = new long[capacity];
+        Arrays.fill(values, NONE);
+        return values;
+    }
+
+    /**
+     * Walks both directions of an account in ID order, taking the read lock per step so a long
+     * export never blocks appends for more than one record.
+     */
+    private final class AccountHistoryIterator implements Iterator<Transaction> {
+        private final LongList outgoing;
+        private final LongList incoming;
+        private final long toMicros;
+        private int i;
+        private int j;
+        private Transaction next;
+
+        private AccountHistoryIterator(String accountNumber, long fromMicros, long toMicros) {
+            this.toMicros = toMicros;
+            lock.readLock().lock();
+            try {
+                outgoing = idsByFromAccount.getOrDefault(accountNumber, new LongList());
+                incoming = idsByToAccount.getOrDefault(accountNumber, new LongList());
+                i = countBefore(outgoing, fromMicros, Long.MIN_VALUE);
+                j = countBefore(incoming, fromMicros, Long.MIN_VALUE);
+            } finally {
+                lock.readLock().unlock();
+            }
+            next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Transaction next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Transaction current = next;
+            next = advance();
+            return current;
+        }
+
+        private Transaction advance() {
+            lock.readLock().lock();
+            try {
+                long out = i < outgoing.size() ? outgoing.get(i) : Long.MAX_VALUE;
+                long in = j < incoming.size() ? incoming.get(j) : Long.MAX_VALUE;
+                long id = Math.min(out, in);
+                if (id == Long.MAX_VALUE || dates[(int) id] >= toMicros) {
+                    return null;
+                }
+                // A self-transfer is in both lists
+                if (id == out) {
+                    i++;
+                }
+                if (id == in) {
+                    j++;
+                }
+                return read(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private JournalSegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private Path segmentPath(int ordinal) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, ordinal, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,137 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Component
+@Profile("!journal")
+@RequiredArgsConstructor
+public class JpaTransactionStore implements TransactionStore {
+    private static final Comparator<Transaction> HISTORY_ORDER =
+            Comparator.comparing(Transaction::getTransactionDate).thenComparing(Transaction::getId);
+
+    private final TransactionRepository transactionRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Transaction save(Transaction transaction) {
+        return transactionRepository.save(transaction);
+    }
+
+    @Override
+    public Optional<Transaction> findById(Long id) {
+        return transactionRepository.findById(id);
+    }
+
+    @Override
+    public Optional<Transaction> findByTransactionId(String transactionId) {
+        return transactionRepository.findByTransactionId(transactionId);
+    }
+
+    @Override
+    public Optional<Transaction> findByIdempotencyKey(String idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    @Override
+    public List<Transaction> findByFromAccountNumber(String fromAccountNumber) {
+        return transactionRepository.findByFromAccountNumber(fromAccountNumber);
+    }
+
+    @Override
+    public List<Transaction> findByToAccountNumber(String toAccountNumber) {
+        return transactionRepository.findByToAccountNumber(toAccountNumber);
+    }
+
+    @Override
+    public List<Transaction> findRecentByFromAccountNumberIn(Collection<String> fromAccountNumbers, int limit) {
+        return transactionRepository.findRecentByFromAccountNumberIn(fromAccountNumbers, limit);
+    }
+
+    @Override
+    public List<Transaction> findAll() {
+        return transactionRepository.findAll();
+    }
+
+    @Override
+    public List<Transaction> findPageAfter(long afterId, int limit) {
+        return transactionRepository.findPageAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Transaction> findPageByFromAccountNumberAfter(String fromAccountNumber, long afterId, int limit) {
+        return transactionRepository.findPageByFromAccountNumberAfter(fromAccountNumber, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Transaction> findPageByToAccountNumberAfter(String toAccountNumber, long afterId, int limit) {
+        return transactionRepository.findPageByToAccountNumberAfter(toAccountNumber, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Transaction> findPageByAccountNumberBefore(String accountNumber, LocalDateTime from,
+                                                           LocalDateTime beforeDate, long beforeId, int limit) {
+        return transactionRepository.findPageByAccountNumberBefore(accountNumber, from, beforeDate, beforeId, limit);
+    }
+
+    /**
+     * Merges the two index-ordered cursors of the account; rows are detached as they are read
+     * so the persistence context does not grow with the history.
+     */
+    @Override
+    public Stream<Transaction> streamByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        Stream<Transaction> outgoing = transactionRepository.streamByFromAccountNumber(accountNumber, from, to);
+        Stream<Transaction> incoming = transactionRepository.streamByToAccountNumber(accountNumber, from, to);
+        Iterator<Transaction> left = outgoing.peek(entityManager::detach).iterator();
+        Iterator<Transaction> right = incoming.peek(entityManager::detach).iterator();
+
+        Iterator<Transaction> merged = new Iterator<>() {
+            private Transaction nextLeft = left.hasNext() ? left.next() : null;
+            private Transaction nextRight = right.hasNext() ? right.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextLeft != null || nextRight != null;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Transaction next;
+                if (nextRight == null || (nextLeft != null && HISTORY_ORDER.compare(nextLeft, nextRight) <= 0)) {
+                    next = nextLeft;
+                    nextLeft = left.hasNext() ? left.next() : null;
+                } else {
+                    next = nextRight;
+                    nextRight = right.hasNext() ? right.next() : null;
+                }
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(outgoing::close)
+                .onClose(incoming::close);
+    }
+}
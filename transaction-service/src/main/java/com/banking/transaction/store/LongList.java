@@ -0,0 +1,43 @@
+package com.banking.transaction.store;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of ascending longs, used for the per-account ID indexes of the journal.
+ */
+final class LongList {
+    private long[] values = new long[4];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index of the first value greater than {@code value}, or {@link #size()} if there is none.
+     */
+    int upperBound(long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,52 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine for transactions. The JPA store is the default; the {@code journal} profile
+ * switches to {@link JournalTransactionStore}. Transactions are immutable apart from their
+ * status, so {@link #save} either inserts a new transaction or records a status change.
+ */
+public interface TransactionStore {
+    Transaction save(Transaction transaction);
+
+    Optional<Transaction> findById(Long id);
+
+    Optional<Transaction> findByTransactionId(String transactionId);
+
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+    List<Transaction> findByFromAccountNumber(String fromAccountNumber);
+
+    List<Transaction> findByToAccountNumber(String toAccountNumber);
+
+    List<Transaction> findRecentByFromAccountNumberIn(Collection<String> fromAccountNumbers, int limit);
+
+    List<Transaction> findAll();
+
+    List<Transaction> findPageAfter(long afterId, int limit);
+
+    List<Transaction> findPageByFromAccountNumberAfter(String fromAccountNumber, long afterId, int limit);
+
+    List<Transaction> findPageByToAccountNumberAfter(String toAccountNumber, long afterId, int limit);
+
+    /**
+     * Incoming and outgoing transactions of an account ordered by (transaction date, id)
+     * descending, starting below (beforeDate, beforeId) and not older than {@code from}.
+     */
+    List<Transaction> findPageByAccountNumberBefore(String accountNumber, LocalDateTime from,
+                                                    LocalDateTime beforeDate, long beforeId, int limit);
+
+    /**
+     * Streams incoming and outgoing transactions of an account in (transaction date, id) order
+     * within [from, to) without holding them in memory. The stream must be closed; for the JPA
+     * store it must also be consumed inside a transaction.
+     */
+    Stream<Transaction> streamByAccountNumber(String accountNumber, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,70 @@
+package com.banking.transaction.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits at most {@code maxInFlight} requests at a time; a request that cannot get in within
+ * the wait is answered with 503. The highest number of requests in flight is logged each time
+ * it doubles.
+ */
+@Slf4j
+public class InFlightRequestFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long waitMs;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    public InFlightRequestFilter(int maxInFlight, long waitMs) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.waitMs = waitMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many requests in flight");
+            return;
+        }
+        try {
+            recordPeak(inFlight.incrementAndGet());
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void recordPeak(int current) {
+        int previous = peak.get();
+        while (current > previous) {
+            if (peak.compareAndSet(previous, current)) {
+                if (Integer.highestOneBit(current) > Integer.highestOneBit(previous) || current == maxInFlight) {
+                    log.info("Peak in-flight requests: {} (limit {})", current, maxInFlight);
+                }
+                return;
+            }
+            previous = peak.get();
+        }
+    }
+}
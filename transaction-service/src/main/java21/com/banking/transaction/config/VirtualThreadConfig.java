@@ -0,0 +1,82 @@
+package com.banking.transaction.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs request handling and Kafka listeners on virtual threads when
+ * {@code banking.virtual-threads.enabled} is set. Only compiled by the {@code java21} Maven
+ * profile. GraphQL data fetchers of the controllers are synchronous, so they run on the
+ * virtual thread of the HTTP request.
+ * <p>
+ * With virtual threads the Tomcat thread limit no longer bounds the work in progress, so
+ * {@link InFlightRequestFilter} caps the requests being handled and {@link BoundedDataSource}
+ * caps concurrent JDBC work. JDBC drivers that block inside synchronized code pin their carrier
+ * thread, so by default JDBC concurrency is kept below the number of carriers.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Handling HTTP requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    @Bean
+    public FilterRegistrationBean<InFlightRequestFilter> inFlightRequestFilter(
+            @Value("${banking.virtual-threads.max-in-flight:1000}") int maxInFlight,
+            @Value("${banking.virtual-threads.in-flight-wait-ms:1000}") long waitMs) {
+        FilterRegistrationBean<InFlightRequestFilter> registration =
+                new FilterRegistrationBean<>(new InFlightRequestFilter(maxInFlight, waitMs));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor virtualThreadBeanPostProcessor(
+            @Value("${banking.virtual-threads.max-jdbc-concurrency:0}") int maxJdbcConcurrency,
+            @Value("${banking.virtual-threads.connection-wait-ms:30000}") long connectionWaitMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+                    executor.setThreadFactory(Thread.ofVirtual().name(beanName + "-vt-", 0).factory());
+                    factory.getContainerProperties().setListenerTaskExecutor(executor);
+                } else if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    int permits = maxJdbcConcurrency > 0 ? maxJdbcConcurrency : defaultJdbcConcurrency(dataSource);
+                    log.info("Limiting JDBC work of data source {} to {} concurrent connections", beanName, permits);
+                    return new BoundedDataSource(dataSource, permits, connectionWaitMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // The pool size, leaving at least one carrier thread free of pinned JDBC calls
+    private static int defaultJdbcConcurrency(DataSource dataSource) {
+        int carriers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        // Hikari only fills in its default pool size of 10 when the pool starts
+        if (dataSource instanceof HikariDataSource hikari) {
+            int poolSize = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : 10;
+            return Math.min(poolSize, carriers);
+        }
+        return carriers;
+    }
+}
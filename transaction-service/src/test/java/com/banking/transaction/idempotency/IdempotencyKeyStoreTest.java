@@ -0,0 +1,56 @@
+package com.banking.transaction.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyStoreTest {
+    @Test
+    void returnsTheValueRecordedForAKey() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(Duration.ofMinutes(10), 8, 16);
+
+        store.put("key-1", 42);
+        store.put("key-2", 0);
+
+        assertThat(store.get("key-1")).isEqualTo(42);
+        assertThat(store.get("key-2")).isZero();
+        assertThat(store.get("key-3")).isEqualTo(IdempotencyKeyStore.ABSENT);
+    }
+
+    @Test
+    void overwritesTheValueOfARepeatedKey() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(Duration.ofMinutes(10), 8, 16);
+
+        store.put("key-1", 1);
+        store.put("key-1", 2);
+
+        assertThat(store.get("key-1")).isEqualTo(2);
+    }
+
+    @Test
+    void keepsEveryKeyWhenASliceGrows() {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(Duration.ofMinutes(10), 8, 1);
+
+        for (int i = 0; i < 50_000; i++) {
+            store.put("key-" + i, i);
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(store.get("key-" + i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void forgetsKeysOnceTheyLeaveTheWindow() throws InterruptedException {
+        IdempotencyKeyStore store = new IdempotencyKeyStore(Duration.ofMillis(200), 2, 1);
+        store.put("key-1", 1);
+
+        Thread.sleep(450);
+        store.put("key-2", 2);
+
+        assertThat(store.get("key-1")).isEqualTo(IdempotencyKeyStore.ABSENT);
+        assertThat(store.get("key-2")).isEqualTo(2);
+    }
+}
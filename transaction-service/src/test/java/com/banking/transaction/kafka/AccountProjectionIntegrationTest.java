@@ -0,0 +1,84 @@
+package com.banking.transaction.kafka;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.kafka.event.AccountCreatedEvent;
+import com.banking.transaction.kafka.event.AccountUpdatedEvent;
+import com.banking.transaction.kafka.event.BalanceUpdatedEvent;
+import com.banking.transaction.kafka.event.DomainEvent;
+import com.banking.transaction.kafka.event.EventCodec;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.projection.AccountProjection;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "banking.projection.snapshot-path=target/test-account-projection.snap")
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class AccountProjectionIntegrationTest {
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private AccountProjection accountProjection;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Test
+    void rejectsTransfersFromAnAccountFrozenAfterItsLastBalanceUpdate() throws Exception {
+        String from = idGenerator.nextId("ACC");
+        String to = idGenerator.nextId("ACC");
+        send(new AccountCreatedEvent(1L, from, 1L, "SAVINGS", BigDecimal.ZERO, "EUR", "ACTIVE", LocalDateTime.now()));
+        send(new AccountCreatedEvent(2L, to, 1L, "SAVINGS", BigDecimal.ZERO, "EUR", "ACTIVE", LocalDateTime.now()));
+        waitUntil(() -> accountProjection.check(to) == AccountProjection.Check.OK);
+
+        // A zero balance in the projection no longer rejects the transfer; account-service decides
+        send(new BalanceUpdatedEvent(1L, from, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.TEN, "DEBIT",
+                LocalDateTime.now()));
+        Transaction transaction = transactionService.createTransaction(transfer(from, to));
+        assertThat(transaction.getStatus()).isEqualTo("PENDING");
+
+        send(new AccountUpdatedEvent(1L, from, "FROZEN", null, BigDecimal.ZERO, LocalDateTime.now()));
+        waitUntil(() -> accountProjection.check(from) == AccountProjection.Check.INACTIVE);
+        assertThatThrownBy(() -> transactionService.createTransaction(transfer(from, to)))
+                .hasMessage("Account is not active: " + from);
+    }
+
+    private void send(DomainEvent event) throws Exception {
+        kafkaTemplate.send(event.topic(), event.key(), EventCodec.encode(event)).get();
+    }
+
+    private static TransactionInput transfer(String from, String to) {
+        return TransactionInput.builder()
+                .fromAccountNumber(from)
+                .toAccountNumber(to)
+                .amount(new BigDecimal("5.00"))
+                .currency("EUR")
+                .transactionType("TRANSFER")
+                .build();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.transaction.kafka;
+
+import com.banking.transaction.kafka.event.BalanceUpdatedEvent;
+import com.banking.transaction.kafka.event.EventCodec;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes balance updates for 600 accounts to a 6-partition topic while the ledger consumer
+ * is stopped, then starts it with 1, 3 and 6 listener threads and reports events per second
+ * from the first to the last ledger row written.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:consumer-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///consumer-benchmark",
+        "logging.level.com.banking.transaction=WARN"
+})
+@EmbeddedKafka(partitions = 6, topics = BalanceUpdatedEvent.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class BalanceUpdateConsumerBenchmark {
+    private static final int[] CONCURRENCY = {1, 3, 6};
+    private static final int EVENTS = 30_000;
+    private static final int ACCOUNTS = 600;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void consumeBalanceUpdates() throws Exception {
+        ConcurrentMessageListenerContainer<?, ?> container = ledgerContainer();
+        run(container, 3, EVENTS / 4);
+
+        System.out.printf("%11s %10s%n", "concurrency", "events/s");
+        for (int concurrency : CONCURRENCY) {
+            System.out.printf("%11d %10.0f%n", concurrency, run(container, concurrency, EVENTS));
+        }
+    }
+
+    private double run(ConcurrentMessageListenerContainer<?, ?> container, int concurrency, int events)
+            throws InterruptedException {
+        container.stop();
+        container.setConcurrency(concurrency);
+        long before = ledgerSize();
+        for (int i = 0; i < events; i++) {
+            String accountNumber = "ACC-BENCH-" + (i % ACCOUNTS);
+            BalanceUpdatedEvent event = new BalanceUpdatedEvent(1L, accountNumber, BigDecimal.ZERO, BigDecimal.TEN,
+                    BigDecimal.TEN, "CREDIT", LocalDateTime.now());
+            kafkaTemplate.send(event.topic(), event.key(), EventCodec.encode(event));
+        }
+        kafkaTemplate.flush();
+        container.start();
+
+        long deadline = System.currentTimeMillis() + 300_000;
+        long first = 0;
+        long written;
+        do {
+            assertThat(System.currentTimeMillis()).as("events not consumed in time").isLessThan(deadline);
+            Thread.sleep(5);
+            written = ledgerSize() - before;
+            if (first == 0 && written > 0) {
+                first = System.nanoTime();
+            }
+        } while (written < events);
+        return events / ((System.nanoTime() - first) / 1e9);
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> ledgerContainer() {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+            if (topics != null && topics.length == 1 && BalanceUpdatedEvent.TOPIC.equals(topics[0])
+                    && "transaction-service-group".equals(container.getGroupId())) {
+                return (ConcurrentMessageListenerContainer<?, ?>) container;
+            }
+        }
+        throw new IllegalStateException("No balance update listener container");
+    }
+
+    private long ledgerSize() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_ledger", Long.class);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,142 @@
+package com.banking.transaction.kafka;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.kafka.event.BalanceUpdatedEvent;
+import com.banking.transaction.kafka.event.EventCodec;
+import com.banking.transaction.kafka.event.TransactionCreatedEvent;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partitioned-consumption;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///partitioned-consumption",
+        "banking.kafka.consumer.concurrency=3"
+})
+@EmbeddedKafka(partitions = 6, topics = BalanceUpdatedEvent.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class PartitionedConsumptionIntegrationTest {
+    private static final int ACCOUNTS = 12;
+    private static final int UPDATES_PER_ACCOUNT = 50;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void publishesTransactionEventsKeyedByTransactionId() throws Exception {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("partitioned-consumption-test", "false", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(TransactionCreatedEvent.TOPIC));
+
+            Transaction transaction = transactionService.createTransaction(TransactionInput.builder()
+                    .fromAccountNumber(idGenerator.nextId("ACC"))
+                    .toAccountNumber(idGenerator.nextId("ACC"))
+                    .amount(new BigDecimal("5.00"))
+                    .currency("EUR")
+                    .transactionType("TRANSFER")
+                    .build());
+
+            ConsumerRecord<String, byte[]> published = null;
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (published == null && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(500));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (transaction.getTransactionId().equals(record.key())) {
+                        published = record;
+                    }
+                }
+            }
+            assertThat(published).as("transaction-created record keyed by the transaction id").isNotNull();
+        }
+    }
+
+    @Test
+    void keepsTheOrderOfEachAccountWhilePartitionsAreConsumedInParallel() throws Exception {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(idGenerator.nextId("ACC"));
+        }
+        for (int update = 1; update <= UPDATES_PER_ACCOUNT; update++) {
+            for (String accountNumber : accounts) {
+                BalanceUpdatedEvent event = new BalanceUpdatedEvent(1L, accountNumber, BigDecimal.valueOf(update - 1),
+                        BigDecimal.valueOf(update), BigDecimal.ONE, "CREDIT", LocalDateTime.now());
+                kafkaTemplate.send(event.topic(), event.key(), EventCodec.encode(event));
+            }
+        }
+        kafkaTemplate.flush();
+
+        waitUntil(() -> ledgerSize(accounts) == ACCOUNTS * UPDATES_PER_ACCOUNT);
+
+        Set<Integer> partitions = new HashSet<>();
+        for (String accountNumber : accounts) {
+            List<Map<String, Object>> entries = jdbcTemplate.queryForList(
+                    "SELECT new_balance, kafka_partition FROM balance_ledger WHERE account_number = ? ORDER BY id",
+                    accountNumber);
+            assertThat(entries).extracting(entry -> entry.get("kafka_partition")).as(accountNumber).containsOnly(
+                    entries.get(0).get("kafka_partition"));
+            assertThat(entries).extracting(entry -> ((BigDecimal) entry.get("new_balance")).intValue())
+                    .as(accountNumber).isSorted().doesNotHaveDuplicates();
+            partitions.add((Integer) entries.get(0).get("kafka_partition"));
+        }
+        assertThat(partitions).as("partitions the accounts were spread over").hasSizeGreaterThan(1);
+    }
+
+    private int ledgerSize(List<String> accounts) {
+        String placeholders = String.join(",", accounts.stream().map(a -> "?").toList());
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM balance_ledger WHERE account_number IN (" + placeholders + ")",
+                Integer.class, accounts.toArray());
+        return count == null ? 0 : count;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
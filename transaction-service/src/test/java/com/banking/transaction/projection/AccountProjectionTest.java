@@ -0,0 +1,138 @@
+package com.banking.transaction.projection;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.transaction.kafka.event.AccountCreatedEvent;
+import com.banking.transaction.kafka.event.AccountUpdatedEvent;
+import com.banking.transaction.kafka.event.BalanceUpdatedEvent;
+import com.banking.transaction.kafka.event.DomainEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountProjectionTest {
+    private final SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1);
+
+    @TempDir
+    Path snapshotDir;
+
+    private AccountProjection projection;
+    private long offset;
+
+    @BeforeEach
+    void createProjection() {
+        projection = newProjection();
+    }
+
+    @Test
+    void tracksTheStatusOfCreatedAndUpdatedAccounts() {
+        String account = idGenerator.nextId("ACC");
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.UNKNOWN_ACCOUNT);
+
+        projection.apply(List.of(record(created(account, "ACTIVE"))));
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.OK);
+
+        projection.apply(List.of(record(updated(account, "FROZEN"))));
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.INACTIVE);
+
+        projection.apply(List.of(record(updated(account, "ACTIVE"))));
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.OK);
+    }
+
+    @Test
+    void keepsAnUpdateThatOvertookTheCreationEvent() {
+        String account = idGenerator.nextId("ACC");
+
+        projection.apply(List.of(record(updated(account, "FROZEN")), record(created(account, "ACTIVE"))));
+
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.INACTIVE);
+    }
+
+    @Test
+    void ignoresBalancesSoAStaleBalanceCannotRejectATransfer() {
+        String account = idGenerator.nextId("ACC");
+        projection.apply(List.of(record(created(account, "ACTIVE")),
+                record(new BalanceUpdatedEvent(1L, account, new BigDecimal("100"), BigDecimal.ZERO,
+                        new BigDecimal("100"), "DEBIT", LocalDateTime.now()))));
+
+        assertThat(projection.check(account)).isEqualTo(AccountProjection.Check.OK);
+    }
+
+    @Test
+    void tracksAccountNumbersThatAreNotSnowflakeIds() {
+        projection.apply(List.of(record(created("LEGACY-1", "ACTIVE")), record(updated("LEGACY-2", "CLOSED"))));
+
+        assertThat(projection.check("LEGACY-1")).isEqualTo(AccountProjection.Check.OK);
+        assertThat(projection.check("LEGACY-2")).isEqualTo(AccountProjection.Check.INACTIVE);
+        assertThat(projection.check("EXTERNAL")).isEqualTo(AccountProjection.Check.UNKNOWN_ACCOUNT);
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        List<String> accounts = new ArrayList<>();
+        List<ConsumerRecord<String, DomainEvent>> records = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            String account = idGenerator.nextId("ACC");
+            accounts.add(account);
+            records.add(record(created(account, i % 2 == 0 ? "ACTIVE" : "FROZEN")));
+        }
+
+        projection.apply(records);
+
+        assertThat(projection.getAccountCount()).isEqualTo(100_000);
+        for (int i = 0; i < accounts.size(); i++) {
+            assertThat(projection.check(accounts.get(i)))
+                    .isEqualTo(i % 2 == 0 ? AccountProjection.Check.OK : AccountProjection.Check.INACTIVE);
+        }
+    }
+
+    @Test
+    void restoresAccountsAndPositionsFromASnapshot() {
+        String active = idGenerator.nextId("ACC");
+        String frozen = idGenerator.nextId("ACC");
+        projection.apply(List.of(record(created(active, "ACTIVE")), record(created(frozen, "ACTIVE")),
+                record(updated(frozen, "FROZEN")), record(created("LEGACY-1", "ACTIVE"))));
+        projection.writeSnapshot();
+
+        AccountProjection restored = newProjection();
+
+        assertThat(restored.getAccountCount()).isEqualTo(3);
+        assertThat(restored.check(active)).isEqualTo(AccountProjection.Check.OK);
+        assertThat(restored.check(frozen)).isEqualTo(AccountProjection.Check.INACTIVE);
+        assertThat(restored.check("LEGACY-1")).isEqualTo(AccountProjection.Check.OK);
+        assertThat(restored.getPosition(new TopicPartition(AccountUpdatedEvent.TOPIC, 0))).isEqualTo(offset);
+        assertThat(restored.getSnapshotAt()).isNotNull();
+    }
+
+    private AccountProjection newProjection() {
+        AccountProjection created = new AccountProjection();
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "snapshotPath", snapshotDir.resolve("account-projection.snap"));
+        created.loadSnapshot();
+        return created;
+    }
+
+    private ConsumerRecord<String, DomainEvent> record(DomainEvent event) {
+        // One partition for all topics keeps the expected position simple
+        return new ConsumerRecord<>(AccountUpdatedEvent.TOPIC, 0, offset++, event.key(), event);
+    }
+
+    private static AccountCreatedEvent created(String accountNumber, String status) {
+        return new AccountCreatedEvent(1L, accountNumber, 1L, "SAVINGS", BigDecimal.TEN, "EUR", status,
+                LocalDateTime.now());
+    }
+
+    private static AccountUpdatedEvent updated(String accountNumber, String status) {
+        return new AccountUpdatedEvent(1L, accountNumber, status, null, BigDecimal.TEN, LocalDateTime.now());
+    }
+}
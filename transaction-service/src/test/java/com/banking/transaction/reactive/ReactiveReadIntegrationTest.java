@@ -0,0 +1,101 @@
+package com.banking.transaction.reactive;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "banking.reactive-reads.enabled=true",
+        "banking.reactive-reads.prefetch=4",
+        "spring.datasource.url=jdbc:h2:mem:reactivereads;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactivereads"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class ReactiveReadIntegrationTest {
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Test
+    void servesTransactionByTransactionIdFromR2dbcWithTheFieldsOfTheJpaEntity() {
+        Transaction saved = transactionRepository.save(transaction("ACC-" + UUID.randomUUID(), "ACC-TO"));
+        Transaction fromJpa = transactionRepository.findById(saved.getId()).orElseThrow();
+
+        GraphQlTester.Response response = tester().document("{ transactionByTransactionId(transactionId: \""
+                + saved.getTransactionId() + "\") { id fromAccountNumber amount status description "
+                + "transactionDate createdAt } }").execute();
+
+        response.path("transactionByTransactionId.id").entity(Long.class).isEqualTo(saved.getId());
+        response.path("transactionByTransactionId.fromAccountNumber").entity(String.class)
+                .isEqualTo(saved.getFromAccountNumber());
+        response.path("transactionByTransactionId.amount").entity(Double.class).isEqualTo(12.34);
+        response.path("transactionByTransactionId.description").entity(String.class).isEqualTo("Rent");
+        response.path("transactionByTransactionId.transactionDate").entity(String.class)
+                .isEqualTo(fromJpa.getTransactionDate().toString());
+        response.path("transactionByTransactionId.createdAt").entity(String.class)
+                .isEqualTo(fromJpa.getCreatedAt().toString());
+    }
+
+    @Test
+    void streamsFullAccountHistoriesBeyondThePrefetch() {
+        String account = "ACC-" + UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            transactionRepository.save(transaction(account, "ACC-TO-" + i));
+            transactionRepository.save(transaction("ACC-FROM-" + i, account));
+        }
+
+        List<String> sent = tester().document("{ transactionsByFromAccount(fromAccountNumber: \"" + account + "\") "
+                + "{ transactionId toAccountNumber } }")
+                .execute()
+                .path("transactionsByFromAccount[*].toAccountNumber").entityList(String.class).get();
+        List<String> received = tester().document("{ transactionsByToAccount(toAccountNumber: \"" + account + "\") "
+                + "{ transactionId fromAccountNumber } }")
+                .execute()
+                .path("transactionsByToAccount[*].fromAccountNumber").entityList(String.class).get();
+
+        assertThat(sent).hasSize(10).allMatch(number -> number.startsWith("ACC-TO-"));
+        assertThat(received).hasSize(10).allMatch(number -> number.startsWith("ACC-FROM-"));
+    }
+
+    @Test
+    void reportsAnUnknownTransactionAsAGraphQlError() {
+        tester().document("{ transactionByTransactionId(transactionId: \"TXN-UNKNOWN\") { id } }")
+                .execute()
+                .errors()
+                .satisfy(errors -> assertThat(errors).singleElement()
+                        .satisfies(error -> assertThat(error.getPath()).isEqualTo("transactionByTransactionId")));
+    }
+
+    private ExecutionGraphQlServiceTester tester() {
+        return ExecutionGraphQlServiceTester.create(graphQlService);
+    }
+
+    private static Transaction transaction(String from, String to) {
+        return Transaction.builder()
+                .transactionId("TXN-" + UUID.randomUUID())
+                .fromAccountNumber(from)
+                .toAccountNumber(to)
+                .amount(new BigDecimal("12.34"))
+                .currency("EUR")
+                .transactionType("TRANSFER")
+                .status("PENDING")
+                .description("Rent")
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.banking.transaction.reactive;
+
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.store.JpaTransactionStore;
+import com.banking.transaction.store.TransactionStore;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveTransactionQueryServiceTest {
+    private final ReactiveTransactionRepository repository = mock(ReactiveTransactionRepository.class);
+    private final ReactiveTransactionQueryService service =
+            new ReactiveTransactionQueryService(repository, mock(JpaTransactionStore.class), 4);
+
+    @Test
+    void refusesToStartOnTheJournalStore() {
+        assertThatThrownBy(() -> new ReactiveTransactionQueryService(repository, mock(TransactionStore.class), 4))
+                .hasMessageContaining("cannot be combined with the journal profile");
+    }
+
+    @Test
+    void convertsTheRowToTheTransactionEntity() {
+        when(repository.findByTransactionId("TXN-1")).thenReturn(Mono.just(row(1L)));
+
+        Transaction transaction = service.getTransactionByTransactionId("TXN-1").block();
+
+        assertThat(transaction.getId()).isEqualTo(1L);
+        assertThat(transaction.getAmount()).isEqualByComparingTo("12.34");
+        assertThat(transaction.getFromAccountNumber()).isEqualTo("ACC-FROM");
+        assertThat(transaction.getIdempotencyKey()).isEqualTo("key-1");
+    }
+
+    @Test
+    void failsForAnUnknownTransaction() {
+        when(repository.findByTransactionId("TXN-404")).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> service.getTransactionByTransactionId("TXN-404").block())
+                .hasMessage("Transaction not found with transactionId: TXN-404");
+    }
+
+    @Test
+    void requestsAccountHistoriesPrefetchAtATime() {
+        AtomicLong largestRequest = new AtomicLong();
+        when(repository.findByFromAccountNumber("ACC-FROM")).thenReturn(history(largestRequest));
+        when(repository.findByToAccountNumber("ACC-TO")).thenReturn(history(largestRequest));
+
+        List<Transaction> sent = service.getTransactionsByFromAccount("ACC-FROM").collectList().block();
+        List<Transaction> received = service.getTransactionsByToAccount("ACC-TO").collectList().block();
+
+        assertThat(sent).hasSize(10);
+        assertThat(received).hasSize(10);
+        assertThat(largestRequest.get()).isEqualTo(4);
+    }
+
+    private static Flux<TransactionRow> history(AtomicLong largestRequest) {
+        return Flux.fromStream(LongStream.rangeClosed(1, 10).mapToObj(ReactiveTransactionQueryServiceTest::row))
+                .doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max));
+    }
+
+    private static TransactionRow row(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TransactionRow(id, "TXN-" + id, "ACC-FROM", "ACC-TO", new BigDecimal("12.34"), "EUR",
+                "TRANSFER", "PENDING", "Rent", "key-" + id, now, now);
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.model.BalanceLedgerEntry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes balance ledger entries through {@link BalanceLedgerService} in batches of 1, 100 and
+ * 1000 entries, as a consumer poll of that size would, and reports entries per second.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.banking.transaction=WARN")
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class BalanceLedgerBenchmark {
+    private static final int[] BATCH_SIZES = {1, 100, 1000};
+    private static final int ENTRIES = 20_000;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    private long nextOffset;
+
+    @Test
+    void recordBalanceUpdates() {
+        for (int batchSize : BATCH_SIZES) {
+            run(batchSize, ENTRIES / 4);
+        }
+
+        System.out.printf("%10s %12s%n", "batch size", "entries/s");
+        for (int batchSize : BATCH_SIZES) {
+            System.out.printf("%10d %12.0f%n", batchSize, run(batchSize, ENTRIES));
+        }
+    }
+
+    private double run(int batchSize, int entries) {
+        long start = System.nanoTime();
+        for (int written = 0; written < entries; written += batchSize) {
+            List<BalanceLedgerEntry> batch = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                batch.add(BalanceLedgerServiceIntegrationTest.entry("ACC-BENCH-" + (nextOffset % 1000), "10.00",
+                        0, nextOffset++));
+            }
+            balanceLedgerService.recordBalanceUpdates(batch);
+        }
+        return entries / ((System.nanoTime() - start) / 1e9);
+    }
+}
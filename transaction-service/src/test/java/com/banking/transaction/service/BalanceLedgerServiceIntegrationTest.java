@@ -0,0 +1,56 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.model.BalanceLedgerEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class BalanceLedgerServiceIntegrationTest {
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void redeliveredEntriesOverwriteInsteadOfDuplicating() {
+        balanceLedgerService.recordBalanceUpdates(List.of(
+                entry("ACC-LEDGER-1", "10.00", 7, 100),
+                entry("ACC-LEDGER-1", "20.00", 7, 101)));
+
+        balanceLedgerService.recordBalanceUpdates(List.of(
+                entry("ACC-LEDGER-1", "25.00", 7, 101),
+                entry("ACC-LEDGER-1", "30.00", 7, 102)));
+
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT new_balance FROM balance_ledger WHERE account_number = ? ORDER BY kafka_offset",
+                BigDecimal.class, "ACC-LEDGER-1");
+        assertThat(balances).usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("10.00"), new BigDecimal("25.00"), new BigDecimal("30.00"));
+    }
+
+    static BalanceLedgerEntry entry(String accountNumber, String newBalance, int partition, long offset) {
+        return BalanceLedgerEntry.builder()
+                .accountNumber(accountNumber)
+                .previousBalance(BigDecimal.ZERO)
+                .newBalance(new BigDecimal(newBalance))
+                .amount(new BigDecimal(newBalance))
+                .operationType("CREDIT")
+                .updatedAt(LocalDateTime.now())
+                .kafkaPartition(partition)
+                .kafkaOffset(offset)
+                .build();
+    }
+}
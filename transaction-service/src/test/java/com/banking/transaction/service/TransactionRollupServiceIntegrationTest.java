@@ -0,0 +1,192 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.model.DailyTransactionRollup;
+import com.banking.transaction.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "banking.velocity.enabled=false",
+        "banking.rollup.rebuild-chunk-days=1",
+        "spring.datasource.url=jdbc:h2:mem:rollups;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///rollups"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class TransactionRollupServiceIntegrationTest {
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void incrementalRollupsMatchARebuild() {
+        String prefix = "ACC-" + UUID.randomUUID() + "-";
+        for (int i = 0; i < 6; i++) {
+            Transaction transaction = transactionService.createTransaction(transfer(prefix + "A", prefix + (i % 2), "10.00"));
+            if (i % 3 != 0) {
+                transactionService.updateTransactionStatus(transaction.getTransactionId(), i % 3 == 1 ? "COMPLETED" : "FAILED");
+            }
+        }
+        List<String> incremental = rollups(prefix);
+
+        rebuild();
+
+        assertThat(rollups(prefix)).isEqualTo(incremental).hasSize(3);
+        DailyTransactionRollup debits = summary(prefix + "A").get(0);
+        assertThat(debits.getTransactionCount()).isEqualTo(6);
+        assertThat(debits.getCompletedCount()).isEqualTo(2);
+        assertThat(debits.getFailedAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void rebuildWaitsForAnOpenWriteOfItsDaysAndCountsItOnce() throws Exception {
+        String from = "ACC-" + UUID.randomUUID();
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            transactionService.createTransaction(transfer(from, "ACC-TO", "7.00"));
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> rebuild = CompletableFuture.supplyAsync(this::rebuild);
+        Thread.sleep(500);
+        assertThat(rebuild).isNotDone();
+
+        commit.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+        assertThat(summary(from)).singleElement()
+                .satisfies(rollup -> assertThat(rollup.getTransactionCount()).isEqualTo(1));
+    }
+
+    @Test
+    void rebuildFailsWhenWritesOfItsDaysDoNotComplete() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            transactionService.createTransaction(transfer("ACC-" + UUID.randomUUID(), "ACC-TO", "1.00"));
+            written.countDown();
+            await(commit);
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        ReflectionTestUtils.setField(rollupService, "rebuildLockWaitMs", 200L);
+        try {
+            assertThatThrownBy(this::rebuild)
+                    .hasMessageContaining("Timed out waiting for writes to");
+        } finally {
+            ReflectionTestUtils.setField(rollupService, "rebuildLockWaitMs", 30_000L);
+            commit.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void writesRacingRepeatedRebuildsAreCountedExactlyOnce() throws Exception {
+        String prefix = "ACC-" + UUID.randomUUID() + "-";
+        int writers = 4;
+        int perWriter = 40;
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String from = prefix + w;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    Transaction transaction = transactionService.createTransaction(transfer(from, prefix + "TO", "1.00"));
+                    if (i % 2 == 0) {
+                        transactionService.updateTransactionStatus(transaction.getTransactionId(), "COMPLETED");
+                    }
+                }
+            }));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((result, error) -> writing.set(false));
+        int rebuilds = 0;
+        while (writing.get()) {
+            rebuild();
+            rebuilds++;
+        }
+        all.get(60, TimeUnit.SECONDS);
+
+        assertThat(rebuilds).isPositive();
+        for (int w = 0; w < writers; w++) {
+            DailyTransactionRollup debits = summary(prefix + w).get(0);
+            assertThat(debits.getTransactionCount()).isEqualTo(perWriter);
+            assertThat(debits.getCompletedCount()).isEqualTo(perWriter / 2);
+            assertThat(debits.getTotalAmount()).isEqualByComparingTo(BigDecimal.valueOf(perWriter));
+        }
+        assertThat(summary(prefix + "TO").get(0).getTransactionCount()).isEqualTo((long) writers * perWriter);
+        List<String> incremental = rollups(prefix);
+        rebuild();
+        assertThat(rollups(prefix)).isEqualTo(incremental);
+    }
+
+    private int rebuild() {
+        LocalDate today = LocalDate.now();
+        return rollupService.rebuild(today.minusDays(1).toString(), today.plusDays(2).toString());
+    }
+
+    private List<DailyTransactionRollup> summary(String accountNumber) {
+        LocalDate today = LocalDate.now();
+        return rollupService.getSummary(accountNumber, today.minusDays(1).toString(), today.plusDays(2).toString(),
+                null, null);
+    }
+
+    private List<String> rollups(String accountPrefix) {
+        return jdbcTemplate.query("SELECT account_number, rollup_date, direction, transaction_count, total_amount, "
+                        + "completed_count, completed_amount, failed_count, failed_amount FROM daily_transaction_rollups "
+                        + "WHERE account_number LIKE ? ORDER BY account_number, rollup_date, direction",
+                (rs, rowNum) -> rs.getString(1) + "|" + rs.getDate(2) + "|" + rs.getString(3) + "|" + rs.getLong(4)
+                        + "|" + rs.getBigDecimal(5).stripTrailingZeros().toPlainString() + "|" + rs.getLong(6)
+                        + "|" + rs.getBigDecimal(7).stripTrailingZeros().toPlainString() + "|" + rs.getLong(8)
+                        + "|" + rs.getBigDecimal(9).stripTrailingZeros().toPlainString(),
+                accountPrefix + "%");
+    }
+
+    private static TransactionInput transfer(String from, String to, String amount) {
+        return TransactionInput.builder()
+                .fromAccountNumber(from)
+                .toAccountNumber(to)
+                .amount(new BigDecimal(amount))
+                .currency("EUR")
+                .transactionType("TRANSFER")
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.banking.transaction.store;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.transaction.dto.TransactionInput;
+import com.banking.transaction.model.Transaction;
+import com.banking.transaction.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:journal-store;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///journal-store",
+        "banking.journal.directory=target/journal-store-integration-test",
+        "banking.velocity.enabled=false"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles({"test", "journal"})
+class JournalTransactionStoreIntegrationTest {
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionStore transactionStore;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Test
+    void createsSettlesAndListsTransactionsThroughTheJournal() {
+        assertThat(transactionStore).isInstanceOf(JournalTransactionStore.class);
+        String from = idGenerator.nextId("ACC");
+        String to = idGenerator.nextId("ACC");
+
+        Transaction created = transactionService.createTransaction(transfer(from, to, null));
+        transactionService.updateTransactionStatus(created.getTransactionId(), "COMPLETED");
+        Transaction second = transactionService.createTransaction(transfer(from, to, null));
+
+        assertThat(transactionService.getTransactionByTransactionId(created.getTransactionId()).getStatus())
+                .isEqualTo("COMPLETED");
+        assertThat(transactionService.getTransactionsByFromAccount(from))
+                .extracting(Transaction::getTransactionId)
+                .containsExactly(created.getTransactionId(), second.getTransactionId());
+        assertThat(transactionService.getTransactionsPageForAccount(to, null, null, 10, null).getEdges())
+                .extracting(edge -> edge.getNode().getTransactionId())
+                .containsExactly(second.getTransactionId(), created.getTransactionId());
+    }
+
+    @Test
+    void returnsTheOriginalTransactionForARepeatedIdempotencyKey() {
+        String key = UUID.randomUUID().toString();
+        TransactionInput input = transfer(idGenerator.nextId("ACC"), idGenerator.nextId("ACC"), key);
+
+        Transaction first = transactionService.createTransaction(input);
+        Transaction repeated = transactionService.createTransaction(input);
+
+        assertThat(repeated.getId()).isEqualTo(first.getId());
+        assertThat(transactionStore.findByIdempotencyKey(key)).get()
+                .extracting(Transaction::getTransactionId).isEqualTo(first.getTransactionId());
+    }
+
+    private static TransactionInput transfer(String from, String to, String idempotencyKey) {
+        return TransactionInput.builder()
+                .fromAccountNumber(from)
+                .toAccountNumber(to)
+                .amount(new BigDecimal("5.00"))
+                .currency("EUR")
+                .transactionType("TRANSFER")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
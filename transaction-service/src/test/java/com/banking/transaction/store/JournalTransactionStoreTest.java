@@ -0,0 +1,170 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JournalTransactionStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsTransactionsByEveryIndex() throws IOException {
+        JournalTransactionStore store = open(1 << 20);
+        Transaction first = store.save(transaction("TXN-1", "ACC-A", "ACC-B", "key-1"));
+        Transaction second = store.save(transaction("TXN-2", "ACC-B", "ACC-A", null));
+        store.save(transaction("TXN-3", "ACC-A", "ACC-C", null));
+
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(store.findById(2L)).get().usingRecursiveComparison().isEqualTo(second);
+        assertThat(store.findByTransactionId("TXN-1")).get().extracting(Transaction::getAmount).isEqualTo(new BigDecimal("12.34"));
+        assertThat(store.findByIdempotencyKey("key-1")).get().extracting(Transaction::getTransactionId).isEqualTo("TXN-1");
+        assertThat(store.findByFromAccountNumber("ACC-A")).extracting(Transaction::getTransactionId).containsExactly("TXN-1", "TXN-3");
+        assertThat(store.findByToAccountNumber("ACC-A")).extracting(Transaction::getTransactionId).containsExactly("TXN-2");
+        assertThat(store.findPageAfter(1, 1)).extracting(Transaction::getTransactionId).containsExactly("TXN-2");
+        assertThat(store.findRecentByFromAccountNumberIn(List.of("ACC-A", "ACC-B"), 1))
+                .extracting(Transaction::getTransactionId).containsExactly("TXN-3", "TXN-2");
+        assertThat(store.findById(4L)).isEmpty();
+    }
+
+    @Test
+    void walksTheHistoryOfAnAccountInBothDirections() throws IOException {
+        JournalTransactionStore store = open(1 << 20);
+        store.save(transaction("TXN-1", "ACC-A", "ACC-B", null));
+        store.save(transaction("TXN-2", "ACC-B", "ACC-A", null));
+        store.save(transaction("TXN-3", "ACC-C", "ACC-D", null));
+        store.save(transaction("TXN-4", "ACC-A", "ACC-A", null));
+
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        assertThat(store.findPageByAccountNumberBefore("ACC-A", from, to, Long.MAX_VALUE, 10))
+                .extracting(Transaction::getTransactionId).containsExactly("TXN-4", "TXN-2", "TXN-1");
+        try (Stream<Transaction> history = store.streamByAccountNumber("ACC-A", from, to)) {
+            assertThat(history).extracting(Transaction::getTransactionId).containsExactly("TXN-1", "TXN-2", "TXN-4");
+        }
+    }
+
+    @Test
+    void rejectsDuplicateTransactionIdsAndIdempotencyKeys() throws IOException {
+        JournalTransactionStore store = open(1 << 20);
+        store.save(transaction("TXN-1", "ACC-A", "ACC-B", "key-1"));
+
+        assertThatThrownBy(() -> store.save(transaction("TXN-1", "ACC-A", "ACC-B", null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> store.save(transaction("TXN-2", "ACC-A", "ACC-B", "key-1")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(store.findAll()).hasSize(1);
+    }
+
+    @Test
+    void recoversTransactionsAndTheirLatestStatusAfterARestart() throws IOException {
+        JournalTransactionStore store = open(1 << 20);
+        Transaction saved = store.save(transaction("TXN-1", "ACC-A", "ACC-B", "key-1"));
+        store.save(transaction("TXN-2", "ACC-A", "ACC-B", null));
+        saved.setStatus("COMPLETED");
+        store.save(saved);
+        store.close();
+
+        JournalTransactionStore reopened = open(1 << 20);
+        assertThat(reopened.findByTransactionId("TXN-1")).get().extracting(Transaction::getStatus).isEqualTo("COMPLETED");
+        assertThat(reopened.findByIdempotencyKey("key-1")).isPresent();
+        assertThat(reopened.save(transaction("TXN-3", "ACC-A", "ACC-B", null)).getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void dropsATornRecordAtTheEndOfTheJournal() throws IOException {
+        JournalTransactionStore store = open(1 << 20);
+        store.save(transaction("TXN-1", "ACC-A", "ACC-B", null));
+        store.close();
+        JournalSegment segment = segments(store).get(0);
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+            // A created record header whose body and checksum never made it to disk
+            channel.write(ByteBuffer.allocate(13).putInt(200).put((byte) 1).putLong(2).flip(), segment.writePosition);
+        }
+
+        JournalTransactionStore reopened = open(1 << 20);
+        assertThat(reopened.findAll()).extracting(Transaction::getTransactionId).containsExactly("TXN-1");
+        assertThat(reopened.save(transaction("TXN-2", "ACC-A", "ACC-B", null)).getId()).isEqualTo(2L);
+        reopened.close();
+        assertThat(open(1 << 20).findAll()).extracting(Transaction::getTransactionId).containsExactly("TXN-1", "TXN-2");
+    }
+
+    @Test
+    void rollsSegmentsAndCompactsSupersededStatusRecords() throws IOException {
+        JournalTransactionStore store = open(2048);
+        // Settle the first transactions twice while their segment is still active, so the first
+        // status record of each is superseded and the second can be folded into the created record
+        for (int i = 1; i <= 10; i++) {
+            store.save(transaction("TXN-" + i, "ACC-A", "ACC-B", null));
+        }
+        for (String status : List.of("PROCESSING", "COMPLETED")) {
+            for (Transaction transaction : store.findAll()) {
+                transaction.setStatus(status);
+                store.save(transaction);
+            }
+        }
+        for (int i = 11; i <= 40; i++) {
+            store.save(transaction("TXN-" + i, "ACC-A", "ACC-B", null));
+        }
+        List<JournalSegment> segments = segments(store);
+        assertThat(segments).hasSizeGreaterThan(1);
+
+        int sizeBefore = segments.get(0).writePosition;
+        store.compact();
+
+        assertThat(segments.get(0).writePosition).isLessThan(sizeBefore);
+        assertThat(Files.size(segments.get(0).path)).isEqualTo(segments.get(0).writePosition);
+        assertThat(store.findAll()).hasSize(40);
+        assertThat(store.findByTransactionId("TXN-1")).get().extracting(Transaction::getStatus).isEqualTo("COMPLETED");
+        store.close();
+        JournalTransactionStore reopened = open(2048);
+        assertThat(reopened.findByTransactionId("TXN-10")).get().extracting(Transaction::getStatus).isEqualTo("COMPLETED");
+        assertThat(reopened.findByTransactionId("TXN-11")).get().extracting(Transaction::getStatus).isEqualTo("PENDING");
+    }
+
+    private JournalTransactionStore open(int segmentSize) throws IOException {
+        JournalTransactionStore store = new JournalTransactionStore();
+        ReflectionTestUtils.setField(store, "directory", directory);
+        ReflectionTestUtils.setField(store, "segmentSize", segmentSize);
+        ReflectionTestUtils.setField(store, "forceOnAppend", false);
+        ReflectionTestUtils.setField(store, "compactionRatio", 0.15);
+        store.open();
+        return store;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<JournalSegment> segments(JournalTransactionStore store) {
+        return (List<JournalSegment>) ReflectionTestUtils.getField(store, "segments");
+    }
+
+    static Transaction transaction(String transactionId, String from, String to, String idempotencyKey) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .fromAccountNumber(from)
+                .toAccountNumber(to)
+                .amount(new BigDecimal("12.34"))
+                .currency("EUR")
+                .transactionType("TRANSFER")
+                .status("PENDING")
+                .description("Rent")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+}
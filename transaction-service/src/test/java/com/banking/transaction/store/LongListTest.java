@@ -0,0 +1,34 @@
+package com.banking.transaction.store;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongListTest {
+    @Test
+    void growsPastItsInitialCapacity() {
+        LongList list = new LongList();
+        for (long value = 1; value <= 100; value++) {
+            list.add(value * 10);
+        }
+
+        assertThat(list.size()).isEqualTo(100);
+        assertThat(list.get(0)).isEqualTo(10);
+        assertThat(list.get(99)).isEqualTo(1000);
+    }
+
+    @Test
+    void findsTheFirstValueAboveTheGivenOne() {
+        LongList list = new LongList();
+        for (long value : new long[]{2, 4, 4, 8}) {
+            list.add(value);
+        }
+
+        assertThat(list.upperBound(1)).isZero();
+        assertThat(list.upperBound(2)).isEqualTo(1);
+        assertThat(list.upperBound(4)).isEqualTo(3);
+        assertThat(list.upperBound(5)).isEqualTo(3);
+        assertThat(list.upperBound(8)).isEqualTo(4);
+        assertThat(new LongList().upperBound(8)).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package com.banking.transaction.store;
+
+import com.banking.transaction.model.Transaction;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Single-threaded ingest into the JPA store and the journal (with and without a flush per
+ * append), in transactions per second, followed by the time the journal takes to rebuild its
+ * indexes from 20000 and 200000 transactions on startup.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:store-benchmark;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.url=r2dbc:h2:mem:///store-benchmark",
+        "logging.level.com.banking.transaction=WARN"
+})
+@EmbeddedKafka(partitions = 1, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@ActiveProfiles("test")
+class TransactionStoreBenchmark {
+    private static final int TRANSACTIONS = 20_000;
+    private static final int ACCOUNTS = 1000;
+
+    @Autowired
+    private JpaTransactionStore jpaTransactionStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path directory;
+
+    private long nextTransaction;
+
+    @Test
+    void ingestAndRecovery() throws IOException {
+        JournalTransactionStore forced = journal(directory.resolve("forced"), true);
+        JournalTransactionStore unforced = journal(directory.resolve("unforced"), false);
+        Consumer<Transaction> jpa = transaction -> transactionTemplate.executeWithoutResult(
+                status -> jpaTransactionStore.save(transaction));
+        ingest(jpa, TRANSACTIONS / 4);
+        ingest(forced::save, TRANSACTIONS / 4);
+        ingest(unforced::save, TRANSACTIONS / 4);
+
+        System.out.printf("%-26s %14s%n", "store", "transactions/s");
+        System.out.printf("%-26s %14.0f%n", "jpa", ingest(jpa, TRANSACTIONS));
+        System.out.printf("%-26s %14.0f%n", "journal, force-on-append", ingest(forced::save, TRANSACTIONS));
+        System.out.printf("%-26s %14.0f%n", "journal, periodic flush", ingest(unforced::save, TRANSACTIONS));
+        unforced.close();
+
+        System.out.printf("%n%-26s %14s%n", "journal recovery", "ms");
+        Path recovery = directory.resolve("recovery");
+        int written = 0;
+        for (int size : new int[]{20_000, 200_000}) {
+            JournalTransactionStore store = journal(recovery, false);
+            ingest(store::save, size - written);
+            store.close();
+            written = size;
+
+            long start = System.nanoTime();
+            journal(recovery, false);
+            System.out.printf("%-26s %14d%n", size + " transactions", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private double ingest(Consumer<Transaction> store, int transactions) {
+        long start = System.nanoTime();
+        for (int i = 0; i < transactions; i++) {
+            long n = nextTransaction++;
+            store.accept(JournalTransactionStoreTest.transaction("TXN-BENCH-" + n, "ACC-" + (n % ACCOUNTS),
+                    "ACC-" + ((n + 1) % ACCOUNTS), null));
+        }
+        return transactions / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static JournalTransactionStore journal(Path directory, boolean forceOnAppend) throws IOException {
+        JournalTransactionStore store = new JournalTransactionStore();
+        ReflectionTestUtils.setField(store, "directory", directory);
+        ReflectionTestUtils.setField(store, "segmentSize", 64 << 20);
+        ReflectionTestUtils.setField(store, "forceOnAppend", forceOnAppend);
+        ReflectionTestUtils.setField(store, "compactionRatio", 0.15);
+        store.open();
+        return store;
+    }
+}